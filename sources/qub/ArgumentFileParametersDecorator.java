@@ -0,0 +1,202 @@
+package qub;
+
+/**
+ * A {@link ChildProcessParametersDecorator} for the JDK tools (java, javac, and jar) that can pass
+ * long groups of arguments (such as classpaths and source file lists) through an argument file
+ * ("@argfile") instead of through the process's command line. Argument files are only used when
+ * an argument file folder has been set and a group of arguments is longer than the argument file
+ * threshold.
+ * @param <T> The type of the parameters object.
+ */
+public abstract class ArgumentFileParametersDecorator<T extends ArgumentFileParametersDecorator<T>> extends ChildProcessParametersDecorator<T>
+{
+    /**
+     * The number of characters that a group of arguments can have before it is written to an
+     * argument file. This keeps each group well below the 8191 character limit of the Windows
+     * command prompt and the 32767 character limit of a Windows process's command line.
+     */
+    public static final int defaultArgumentFileThreshold = 8000;
+
+    private static final String argumentFileExtension = ".args";
+
+    private Folder argumentFileFolder;
+    private int argumentFileThreshold;
+
+    protected ArgumentFileParametersDecorator(Path executablePath)
+    {
+        super(executablePath);
+
+        this.argumentFileThreshold = ArgumentFileParametersDecorator.defaultArgumentFileThreshold;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getThis()
+    {
+        return (T)this;
+    }
+
+    /**
+     * Get the folder that argument files will be written to.
+     * @return The folder that argument files will be written to, or null if argument files will
+     * not be used.
+     */
+    public Folder getArgumentFileFolder()
+    {
+        return this.argumentFileFolder;
+    }
+
+    /**
+     * Set the folder that argument files will be written to. If this is null (the default), then
+     * all arguments will be passed on the command line.
+     * @param argumentFileFolder The folder that argument files will be written to.
+     * @return This object for method chaining.
+     */
+    public T setArgumentFileFolder(Folder argumentFileFolder)
+    {
+        this.argumentFileFolder = argumentFileFolder;
+
+        return this.getThis();
+    }
+
+    /**
+     * Get the number of characters that a group of arguments can have before it is written to an
+     * argument file.
+     * @return The number of characters that a group of arguments can have before it is written to
+     * an argument file.
+     */
+    public int getArgumentFileThreshold()
+    {
+        return this.argumentFileThreshold;
+    }
+
+    /**
+     * Set the number of characters that a group of arguments can have before it is written to an
+     * argument file.
+     * @param argumentFileThreshold The number of characters that a group of arguments can have
+     *                              before it is written to an argument file.
+     * @return This object for method chaining.
+     */
+    public T setArgumentFileThreshold(int argumentFileThreshold)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(argumentFileThreshold, 0, "argumentFileThreshold");
+
+        this.argumentFileThreshold = argumentFileThreshold;
+
+        return this.getThis();
+    }
+
+    /**
+     * Add the provided group of arguments. If an argument file folder has been set and the
+     * arguments are longer than the argument file threshold, then the arguments will be written to
+     * an argument file with the provided name in the argument file folder and a single
+     * "@&lt;argument-file-path&gt;" argument will be added instead. The argument file is only
+     * written if its contents have changed.
+     * @param argumentFileName The name (without an extension) of the argument file.
+     * @param arguments The group of arguments to add.
+     * @return This object for method chaining.
+     */
+    protected T addArgumentGroup(String argumentFileName, Iterable<String> arguments)
+    {
+        PreCondition.assertNotNullAndNotEmpty(argumentFileName, "argumentFileName");
+        PreCondition.assertNotNull(arguments, "arguments");
+
+        T result;
+        if (!arguments.any())
+        {
+            result = this.getThis();
+        }
+        else if (this.argumentFileFolder == null || ArgumentFileParametersDecorator.getArgumentsLength(arguments) <= this.argumentFileThreshold)
+        {
+            result = this.addArguments(arguments);
+        }
+        else
+        {
+            final File argumentFile = this.argumentFileFolder.getFile(argumentFileName + ArgumentFileParametersDecorator.argumentFileExtension).await();
+            ArgumentFileParametersDecorator.writeArgumentFile(argumentFile, arguments).await();
+            result = this.addArgument("@" + argumentFile);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the number of characters that the provided arguments take up on a command line.
+     * @param arguments The arguments.
+     * @return The number of characters that the provided arguments take up on a command line.
+     */
+    static int getArgumentsLength(Iterable<String> arguments)
+    {
+        PreCondition.assertNotNull(arguments, "arguments");
+
+        int result = 0;
+        for (final String argument : arguments)
+        {
+            // Each argument is separated from the previous argument by a space.
+            result += argument.length() + 1;
+        }
+
+        PostCondition.assertGreaterThanOrEqualTo(result, 0, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the contents of an argument file that contains the provided arguments. Each argument is
+     * quoted and written on its own line.
+     * @param arguments The arguments.
+     * @return The contents of an argument file that contains the provided arguments.
+     */
+    static String getArgumentFileContents(Iterable<String> arguments)
+    {
+        PreCondition.assertNotNull(arguments, "arguments");
+
+        final CharacterList result = CharacterList.create();
+        for (final String argument : arguments)
+        {
+            result.add('"');
+            for (final char character : argument.toCharArray())
+            {
+                if (character == '\\' || character == '"')
+                {
+                    result.add('\\');
+                }
+                result.add(character);
+            }
+            result.add('"');
+            result.add('\n');
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result.toString(true);
+    }
+
+    /**
+     * Write the provided arguments to the provided argument file. The file is not written if it
+     * already contains the provided arguments.
+     * @param argumentFile The argument file to write.
+     * @param arguments The arguments to write.
+     * @return Whether the argument file was written.
+     */
+    static Result<Boolean> writeArgumentFile(File argumentFile, Iterable<String> arguments)
+    {
+        PreCondition.assertNotNull(argumentFile, "argumentFile");
+        PreCondition.assertNotNull(arguments, "arguments");
+
+        return Result.create(() ->
+        {
+            final String argumentFileContents = ArgumentFileParametersDecorator.getArgumentFileContents(arguments);
+            final String existingArgumentFileContents = argumentFile.getContentsAsString()
+                .catchError()
+                .await();
+            final boolean result = !argumentFileContents.equals(existingArgumentFileContents);
+            if (result)
+            {
+                argumentFile.setContentsAsString(argumentFileContents).await();
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package qub;
+
+/**
+ * A {@link java.io.InputStream} that reads its bytes from a {@link ByteReadStream}. This allows
+ * JDK APIs that consume InputStreams (such as the StAX XML parser) to read from Qub files.
+ */
+public class ByteReadStreamInputStream extends java.io.InputStream
+{
+    private final ByteReadStream innerStream;
+
+    private ByteReadStreamInputStream(ByteReadStream innerStream)
+    {
+        PreCondition.assertNotNull(innerStream, "innerStream");
+
+        this.innerStream = innerStream;
+    }
+
+    public static ByteReadStreamInputStream create(ByteReadStream innerStream)
+    {
+        return new ByteReadStreamInputStream(innerStream);
+    }
+
+    @Override
+    public int read()
+    {
+        final byte[] buffer = new byte[1];
+        final int bytesRead = this.read(buffer, 0, 1);
+        return bytesRead == -1 ? -1 : (buffer[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertGreaterThanOrEqualTo(startIndex, 0, "startIndex");
+        PreCondition.assertGreaterThanOrEqualTo(length, 0, "length");
+
+        int result;
+        if (length == 0)
+        {
+            result = 0;
+        }
+        else
+        {
+            final Integer bytesRead = this.innerStream.readBytes(outputBytes, startIndex, length)
+                .catchError(EndOfStreamException.class)
+                .await();
+            result = (bytesRead == null || bytesRead <= 0) ? -1 : bytesRead;
+        }
+        return result;
+    }
+
+    @Override
+    public void close()
+    {
+        this.innerStream.dispose().await();
+    }
+}
@@ -0,0 +1,48 @@
+package qub;
+
+/**
+ * A {@link java.io.OutputStream} that writes its bytes to a {@link ByteWriteStream}. This allows
+ * JDK APIs that produce OutputStreams (such as {@link java.util.jar.JarOutputStream}) to write to
+ * Qub files.
+ */
+public class ByteWriteStreamOutputStream extends java.io.OutputStream
+{
+    private final ByteWriteStream innerStream;
+
+    private ByteWriteStreamOutputStream(ByteWriteStream innerStream)
+    {
+        PreCondition.assertNotNull(innerStream, "innerStream");
+
+        this.innerStream = innerStream;
+    }
+
+    public static ByteWriteStreamOutputStream create(ByteWriteStream innerStream)
+    {
+        return new ByteWriteStreamOutputStream(innerStream);
+    }
+
+    @Override
+    public void write(int value)
+    {
+        this.innerStream.writeByte((byte)value).await();
+    }
+
+    @Override
+    public void write(byte[] bytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertGreaterThanOrEqualTo(startIndex, 0, "startIndex");
+        PreCondition.assertGreaterThanOrEqualTo(length, 0, "length");
+
+        if (length > 0)
+        {
+            this.innerStream.writeAll(bytes, startIndex, length).await();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        this.innerStream.dispose().await();
+    }
+}
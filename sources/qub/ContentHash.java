@@ -0,0 +1,89 @@
+package qub;
+
+/**
+ * Functions for computing SHA-256 hashes of file contents. Hashes are returned as lowercase
+ * hexadecimal strings.
+ */
+public interface ContentHash
+{
+    /**
+     * The name of the hash algorithm that is used by this type.
+     */
+    String algorithm = "SHA-256";
+
+    /**
+     * Create a new {@link java.security.MessageDigest} that uses this type's hash algorithm.
+     * @return A new {@link java.security.MessageDigest}.
+     */
+    static java.security.MessageDigest createDigest()
+    {
+        try
+        {
+            return java.security.MessageDigest.getInstance(ContentHash.algorithm);
+        }
+        catch (java.security.NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256.
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the hash of the provided bytes.
+     * @param bytes The bytes to hash.
+     * @return The hash of the provided bytes.
+     */
+    static String get(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        final java.security.MessageDigest digest = ContentHash.createDigest();
+        digest.update(bytes);
+        return ContentHash.toHexString(digest.digest());
+    }
+
+    /**
+     * Get the hash of the contents of the provided file.
+     * @param file The file to hash.
+     * @return The hash of the contents of the provided file.
+     */
+    static Result<String> get(File file)
+    {
+        PreCondition.assertNotNull(file, "file");
+
+        return Result.create(() ->
+        {
+            final java.security.MessageDigest digest = ContentHash.createDigest();
+            final byte[] buffer = new byte[64 * 1024];
+            try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(file.getContentsReadStream().await()))
+            {
+                int bytesRead = inputStream.read(buffer, 0, buffer.length);
+                while (bytesRead != -1)
+                {
+                    digest.update(buffer, 0, bytesRead);
+                    bytesRead = inputStream.read(buffer, 0, buffer.length);
+                }
+            }
+            return ContentHash.toHexString(digest.digest());
+        });
+    }
+
+    /**
+     * Get the lowercase hexadecimal representation of the provided digest bytes.
+     * @param digestBytes The digest bytes.
+     * @return The lowercase hexadecimal representation of the provided digest bytes.
+     */
+    static String toHexString(byte[] digestBytes)
+    {
+        PreCondition.assertNotNull(digestBytes, "digestBytes");
+
+        final char[] hexCharacters = "0123456789abcdef".toCharArray();
+        final char[] result = new char[digestBytes.length * 2];
+        for (int i = 0; i < digestBytes.length; ++i)
+        {
+            result[i * 2] = hexCharacters[(digestBytes[i] >>> 4) & 0xF];
+            result[i * 2 + 1] = hexCharacters[digestBytes[i] & 0xF];
+        }
+        return new String(result);
+    }
+}
@@ -0,0 +1,123 @@
+package qub;
+
+/**
+ * The line and branch coverage counts for a single element (a class, a package, or a whole
+ * report) of a JaCoCo coverage report.
+ */
+public class CoverageCounts
+{
+    private final String name;
+    private int missedLines;
+    private int coveredLines;
+    private int missedBranches;
+    private int coveredBranches;
+
+    private CoverageCounts(String name)
+    {
+        PreCondition.assertNotNull(name, "name");
+
+        this.name = name;
+    }
+
+    public static CoverageCounts create(String name)
+    {
+        return new CoverageCounts(name);
+    }
+
+    /**
+     * Get the name of the element that these counts belong to.
+     * @return The name of the element that these counts belong to.
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public int getMissedLines()
+    {
+        return this.missedLines;
+    }
+
+    public int getCoveredLines()
+    {
+        return this.coveredLines;
+    }
+
+    public CoverageCounts setLines(int missedLines, int coveredLines)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(missedLines, 0, "missedLines");
+        PreCondition.assertGreaterThanOrEqualTo(coveredLines, 0, "coveredLines");
+
+        this.missedLines = missedLines;
+        this.coveredLines = coveredLines;
+
+        return this;
+    }
+
+    public int getMissedBranches()
+    {
+        return this.missedBranches;
+    }
+
+    public int getCoveredBranches()
+    {
+        return this.coveredBranches;
+    }
+
+    public CoverageCounts setBranches(int missedBranches, int coveredBranches)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(missedBranches, 0, "missedBranches");
+        PreCondition.assertGreaterThanOrEqualTo(coveredBranches, 0, "coveredBranches");
+
+        this.missedBranches = missedBranches;
+        this.coveredBranches = coveredBranches;
+
+        return this;
+    }
+
+    /**
+     * Get the percentage (between 0 and 100) of lines that were covered, or null if there were no
+     * lines to cover.
+     * @return The percentage of lines that were covered.
+     */
+    public Double getLineCoveragePercentage()
+    {
+        return CoverageCounts.getPercentage(this.coveredLines, this.missedLines);
+    }
+
+    /**
+     * Get the percentage (between 0 and 100) of branches that were covered, or null if there were
+     * no branches to cover.
+     * @return The percentage of branches that were covered.
+     */
+    public Double getBranchCoveragePercentage()
+    {
+        return CoverageCounts.getPercentage(this.coveredBranches, this.missedBranches);
+    }
+
+    private static Double getPercentage(int covered, int missed)
+    {
+        final int total = covered + missed;
+        return total == 0 ? null : (covered * 100.0) / total;
+    }
+
+    /**
+     * Format the provided percentage with a single decimal place.
+     * @param percentage The percentage to format.
+     * @return The formatted percentage.
+     */
+    public static String formatPercentage(Double percentage)
+    {
+        return percentage == null
+            ? "n/a"
+            : (Math.floor(percentage * 10) / 10) + "%";
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name + ": " +
+            CoverageCounts.formatPercentage(this.getLineCoveragePercentage()) + " lines (" + this.coveredLines + "/" + (this.coveredLines + this.missedLines) + "), " +
+            CoverageCounts.formatPercentage(this.getBranchCoveragePercentage()) + " branches (" + this.coveredBranches + "/" + (this.coveredBranches + this.missedBranches) + ")";
+    }
+}
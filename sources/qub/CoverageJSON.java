@@ -0,0 +1,125 @@
+package qub;
+
+/**
+ * The contents of an outputs/coverage.json file. This file records the inputs that were used to
+ * generate the most recent coverage report so that the report only needs to be regenerated when
+ * those inputs change.
+ */
+public class CoverageJSON extends JSONObjectWrapperBase
+{
+    private static final String coveragePropertyName = "coverage";
+    private static final String inputFilesPropertyName = "inputFiles";
+    private static final String reportGeneratorPropertyName = "reportGenerator";
+
+    protected CoverageJSON(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static CoverageJSON create()
+    {
+        return CoverageJSON.create(JSONObject.create());
+    }
+
+    public static CoverageJSON create(JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        return new CoverageJSON(json);
+    }
+
+    public static Result<CoverageJSON> parse(File coverageJsonFile)
+    {
+        PreCondition.assertNotNull(coverageJsonFile, "coverageJsonFile");
+
+        return Result.create(() ->
+        {
+            return CoverageJSON.create(JSON.parseObject(coverageJsonFile).await());
+        });
+    }
+
+    public CoverageJSON setCoverage(Coverage coverage)
+    {
+        PreCondition.assertNotNull(coverage, "coverage");
+
+        this.toJson().setString(CoverageJSON.coveragePropertyName, coverage.toString());
+
+        return this;
+    }
+
+    public Coverage getCoverage()
+    {
+        return this.toJson().getString(CoverageJSON.coveragePropertyName)
+            .then((String coverageString) -> Coverage.valueOf(coverageString))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the exec files and class files that were used to generate the coverage report.
+     * @param inputFiles The exec files and class files that were used to generate the coverage
+     *                   report.
+     * @return This object for method chaining.
+     */
+    public CoverageJSON setInputFiles(Iterable<PackJSONFile> inputFiles)
+    {
+        PreCondition.assertNotNull(inputFiles, "inputFiles");
+
+        this.toJson().setObject(CoverageJSON.inputFilesPropertyName, JSONObject.create(inputFiles.map(PackJSONFile::toJson)));
+
+        return this;
+    }
+
+    public Iterable<PackJSONFile> getInputFiles()
+    {
+        return this.toJson().getObject(CoverageJSON.inputFilesPropertyName)
+            .then((JSONObject inputFilesJson) -> inputFilesJson.getProperties().map(PackJSONFile::create))
+            .catchError(() -> Iterable.create())
+            .await();
+    }
+
+    /**
+     * Get whether this coverage.json file has the same coverage type and input files as the
+     * provided coverage.json file.
+     * @param other The coverage.json file to compare against.
+     * @return Whether this coverage.json file has the same coverage type and input files as the
+     * provided coverage.json file.
+     */
+    public boolean hasSameInputs(CoverageJSON other)
+    {
+        PreCondition.assertNotNull(other, "other");
+
+        return this.getCoverage() == other.getCoverage() &&
+            Comparer.equal(this.getInputFilesJsonString(), other.getInputFilesJsonString());
+    }
+
+    private String getInputFilesJsonString()
+    {
+        return this.toJson().getObject(CoverageJSON.inputFilesPropertyName)
+            .then((JSONObject inputFilesJson) -> inputFilesJson.toString())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the name of the tool that generated the coverage report. A report can only be reused if
+     * it was created by the same report generator.
+     * @param reportGenerator The name of the tool that generated the coverage report.
+     * @return This object for method chaining.
+     */
+    public CoverageJSON setReportGenerator(String reportGenerator)
+    {
+        PreCondition.assertNotNullAndNotEmpty(reportGenerator, "reportGenerator");
+
+        this.toJson().setString(CoverageJSON.reportGeneratorPropertyName, reportGenerator);
+
+        return this;
+    }
+
+    public String getReportGenerator()
+    {
+        return this.toJson().getString(CoverageJSON.reportGeneratorPropertyName)
+            .catchError()
+            .await();
+    }
+}
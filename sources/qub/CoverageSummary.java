@@ -0,0 +1,204 @@
+package qub;
+
+/**
+ * The per-package and per-class line and branch coverage from a JaCoCo XML coverage report.
+ */
+public class CoverageSummary
+{
+    private final CoverageCounts total;
+    private final List<CoverageCounts> packages;
+    private final List<CoverageCounts> classes;
+
+    private CoverageSummary()
+    {
+        this.total = CoverageCounts.create("Total");
+        this.packages = List.create();
+        this.classes = List.create();
+    }
+
+    public static CoverageSummary create()
+    {
+        return new CoverageSummary();
+    }
+
+    /**
+     * Get the coverage counts for the entire report.
+     * @return The coverage counts for the entire report.
+     */
+    public CoverageCounts getTotal()
+    {
+        return this.total;
+    }
+
+    /**
+     * Get the coverage counts for each of the packages in the report.
+     * @return The coverage counts for each of the packages in the report.
+     */
+    public Iterable<CoverageCounts> getPackages()
+    {
+        return this.packages;
+    }
+
+    /**
+     * Get the coverage counts for each of the classes in the report. Class names are
+     * fully-qualified and use '.' as the package separator.
+     * @return The coverage counts for each of the classes in the report.
+     */
+    public Iterable<CoverageCounts> getClasses()
+    {
+        return this.classes;
+    }
+
+    public static Result<CoverageSummary> parse(File coverageXmlFile)
+    {
+        PreCondition.assertNotNull(coverageXmlFile, "coverageXmlFile");
+
+        return Result.create(() ->
+        {
+            try (final ByteReadStream readStream = coverageXmlFile.getContentsReadStream().await())
+            {
+                return CoverageSummary.parse(readStream).await();
+            }
+        });
+    }
+
+    public static Result<CoverageSummary> parse(ByteReadStream readStream)
+    {
+        PreCondition.assertNotNull(readStream, "readStream");
+        PreCondition.assertNotDisposed(readStream, "readStream");
+
+        return CoverageSummary.parse(ByteReadStreamInputStream.create(readStream));
+    }
+
+    /**
+     * Parse a {@link CoverageSummary} from the provided JaCoCo XML report. The report is read with
+     * a streaming parser and only the counters of the report, its packages, and its classes are
+     * kept, so very large reports can be summarized without loading them into memory.
+     * @param inputStream The stream to read the JaCoCo XML report from.
+     * @return The parsed {@link CoverageSummary}.
+     */
+    public static Result<CoverageSummary> parse(java.io.InputStream inputStream)
+    {
+        PreCondition.assertNotNull(inputStream, "inputStream");
+
+        return Result.create(() ->
+        {
+            final CoverageSummary result = CoverageSummary.create();
+
+            final javax.xml.stream.XMLInputFactory factory = javax.xml.stream.XMLInputFactory.newFactory();
+            // JaCoCo reports reference an external report.dtd that isn't needed to read them.
+            factory.setProperty(javax.xml.stream.XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+            try
+            {
+                final javax.xml.stream.XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+                try
+                {
+                    final Stack<CoverageCounts> elementCounts = Stack.create();
+                    final Stack<Integer> elementDepths = Stack.create();
+                    int depth = 0;
+                    boolean foundReport = false;
+                    while (reader.hasNext())
+                    {
+                        final int event = reader.next();
+                        if (event == javax.xml.stream.XMLStreamConstants.START_ELEMENT)
+                        {
+                            ++depth;
+                            final String elementName = reader.getLocalName();
+                            switch (elementName)
+                            {
+                                case "report":
+                                    foundReport = true;
+                                    elementCounts.push(result.total);
+                                    elementDepths.push(depth);
+                                    break;
+
+                                case "package":
+                                    final CoverageCounts packageCounts = CoverageCounts.create(CoverageSummary.getName(reader));
+                                    result.packages.add(packageCounts);
+                                    elementCounts.push(packageCounts);
+                                    elementDepths.push(depth);
+                                    break;
+
+                                case "class":
+                                    final CoverageCounts classCounts = CoverageCounts.create(CoverageSummary.getName(reader));
+                                    result.classes.add(classCounts);
+                                    elementCounts.push(classCounts);
+                                    elementDepths.push(depth);
+                                    break;
+
+                                case "counter":
+                                    // Counters are also written for methods and source files, but
+                                    // those elements aren't pushed, so only the counters that are
+                                    // direct children of the report, a package, or a class are
+                                    // recorded.
+                                    if (elementDepths.any() && depth == elementDepths.peek().await() + 1)
+                                    {
+                                        CoverageSummary.readCounter(reader, elementCounts.peek().await());
+                                    }
+                                    break;
+                            }
+                        }
+                        else if (event == javax.xml.stream.XMLStreamConstants.END_ELEMENT)
+                        {
+                            if (elementDepths.any() && depth == elementDepths.peek().await())
+                            {
+                                elementCounts.pop().await();
+                                elementDepths.pop().await();
+                            }
+                            --depth;
+                        }
+                    }
+
+                    if (!foundReport)
+                    {
+                        throw new ParseException("Missing JaCoCo report element.");
+                    }
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            catch (javax.xml.stream.XMLStreamException e)
+            {
+                throw new ParseException(e.getMessage());
+            }
+
+            return result;
+        });
+    }
+
+    private static String getName(javax.xml.stream.XMLStreamReader reader)
+    {
+        final String name = reader.getAttributeValue(null, "name");
+        return Strings.isNullOrEmpty(name) ? "" : name.replace('/', '.');
+    }
+
+    private static void readCounter(javax.xml.stream.XMLStreamReader reader, CoverageCounts counts)
+    {
+        final String type = reader.getAttributeValue(null, "type");
+        final int missed = CoverageSummary.getIntegerAttribute(reader, "missed");
+        final int covered = CoverageSummary.getIntegerAttribute(reader, "covered");
+        if (Comparer.equal("LINE", type))
+        {
+            counts.setLines(missed, covered);
+        }
+        else if (Comparer.equal("BRANCH", type))
+        {
+            counts.setBranches(missed, covered);
+        }
+    }
+
+    private static int getIntegerAttribute(javax.xml.stream.XMLStreamReader reader, String attributeName)
+    {
+        final String attributeValue = reader.getAttributeValue(null, attributeName);
+        final Integer result = Strings.isNullOrEmpty(attributeValue)
+            ? null
+            : Integers.parse(attributeValue)
+                .catchError(NumberFormatException.class)
+                .await();
+        return result == null || result < 0 ? 0 : result;
+    }
+}
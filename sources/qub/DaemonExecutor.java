@@ -0,0 +1,233 @@
+package qub;
+
+/**
+ * A pool of daemon threads that runs tasks concurrently. Daemon threads are used so that a failed
+ * action can never keep the process alive. This is the only type that uses the JDK's
+ * java.util.concurrent executors directly.
+ */
+public class DaemonExecutor implements Disposable
+{
+    private final java.util.concurrent.ExecutorService executorService;
+    private final java.util.concurrent.BlockingQueue<Task<?>> completedTasks;
+    private final int threadCount;
+    private boolean disposed;
+
+    private DaemonExecutor(int threadCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(threadCount, 1, "threadCount");
+
+        this.threadCount = threadCount;
+        this.completedTasks = new java.util.concurrent.LinkedBlockingQueue<>();
+        this.executorService = java.util.concurrent.Executors.newFixedThreadPool(threadCount, (Runnable runnable) ->
+        {
+            final Thread result = new Thread(runnable);
+            result.setDaemon(true);
+            return result;
+        });
+    }
+
+    /**
+     * Create an executor that runs its tasks on the provided number of daemon threads.
+     * @param threadCount The number of threads that the executor will use.
+     * @return The new executor.
+     */
+    public static DaemonExecutor create(int threadCount)
+    {
+        return new DaemonExecutor(threadCount);
+    }
+
+    /**
+     * Get the number of threads that concurrent work uses when it isn't configured: one thread
+     * for each available processor.
+     * @return The number of threads that concurrent work uses when it isn't configured.
+     */
+    public static int getDefaultThreadCount()
+    {
+        final int result = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        PostCondition.assertGreaterThanOrEqualTo(result, 1, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the number of threads that this executor runs its tasks on.
+     * @return The number of threads that this executor runs its tasks on.
+     */
+    public int getThreadCount()
+    {
+        return this.threadCount;
+    }
+
+    /**
+     * Start running the provided function on one of this executor's threads.
+     * @param function The function to run.
+     * @param <T> The type of value that the function returns.
+     * @return The task that is running the provided function.
+     */
+    public <T> Task<T> submit(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        final Task<T> result = new Task<>(function, this.completedTasks);
+        this.executorService.execute(result.futureTask);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Start running the provided action on one of this executor's threads.
+     * @param action The action to run.
+     * @return The task that is running the provided action.
+     */
+    public Task<Void> submit(Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        return this.submit(() ->
+        {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wait for the next of this executor's tasks to complete and return it. Each task is only
+     * returned once, in the order that the tasks completed.
+     * @return The next task that completed.
+     */
+    public Task<?> takeCompletedTask()
+    {
+        try
+        {
+            return this.completedTasks.take();
+        }
+        catch (InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    /**
+     * Stop this executor. Tasks that haven't started yet will never run, and tasks that are
+     * running are interrupted.
+     * @return Whether this executor was disposed by this call.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                this.executorService.shutdownNow();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * A function that is running on a {@link DaemonExecutor}.
+     * @param <T> The type of value that the function returns.
+     */
+    public static class Task<T>
+    {
+        private final java.util.concurrent.FutureTask<T> futureTask;
+
+        private Task(Function0<T> function, java.util.concurrent.BlockingQueue<Task<?>> completedTasks)
+        {
+            this.futureTask = new java.util.concurrent.FutureTask<T>(function::run)
+            {
+                @Override
+                protected void done()
+                {
+                    completedTasks.add(Task.this);
+                }
+            };
+        }
+
+        /**
+         * Get whether this task has finished running, either because it completed, it failed, or
+         * it was cancelled.
+         * @return Whether this task has finished running.
+         */
+        public boolean isCompleted()
+        {
+            return this.futureTask.isDone();
+        }
+
+        /**
+         * Wait for this task to finish running for up to the provided number of seconds.
+         * @param timeoutSeconds The maximum number of seconds to wait.
+         * @return Whether this task finished running before the timeout.
+         */
+        public boolean waitForCompletion(long timeoutSeconds)
+        {
+            PreCondition.assertGreaterThanOrEqualTo(timeoutSeconds, 0, "timeoutSeconds");
+
+            boolean result;
+            try
+            {
+                this.futureTask.get(timeoutSeconds, java.util.concurrent.TimeUnit.SECONDS);
+                result = true;
+            }
+            catch (java.util.concurrent.TimeoutException e)
+            {
+                result = false;
+            }
+            catch (java.util.concurrent.ExecutionException | java.util.concurrent.CancellationException e)
+            {
+                result = true;
+            }
+            catch (InterruptedException e)
+            {
+                throw new RuntimeException(e);
+            }
+            return result;
+        }
+
+        /**
+         * Wait for this task to finish running and get its value. If the task's function failed,
+         * then the error that it failed with is rethrown.
+         * @return The value that this task's function returned.
+         */
+        public T await()
+        {
+            try
+            {
+                return this.futureTask.get();
+            }
+            catch (java.util.concurrent.ExecutionException e)
+            {
+                final Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException
+                    ? (RuntimeException)cause
+                    : new RuntimeException(cause);
+            }
+            catch (InterruptedException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Stop this task. A task that hasn't started yet will never run, and a task that is
+         * running is interrupted.
+         */
+        public void cancel()
+        {
+            this.futureTask.cancel(true);
+        }
+    }
+}
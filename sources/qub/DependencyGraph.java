@@ -0,0 +1,241 @@
+package qub;
+
+/**
+ * An interned, array-backed graph of project dependencies. Each distinct
+ * {@link ProjectSignature} is assigned an integer node id the first time that it is discovered,
+ * and each node's dependencies are stored as an array of node ids. Every node's dependencies are
+ * only read once, so graphs with many shared subgraphs (diamonds) can be resolved and traversed in
+ * time that is linear in the number of nodes and edges.
+ */
+public class DependencyGraph
+{
+    private static final int[] noDependencyIds = new int[0];
+
+    private final List<ProjectSignature> nodes;
+    private final MutableMap<String,Integer> nodeIds;
+    private final List<int[]> dependencyIds;
+    private final MutableMap<Integer,String> errorMessages;
+    private final int[] rootIds;
+
+    private DependencyGraph(int rootCount)
+    {
+        this.nodes = List.create();
+        this.nodeIds = MutableMap.create();
+        this.dependencyIds = List.create();
+        this.errorMessages = MutableMap.create();
+        this.rootIds = new int[rootCount];
+    }
+
+    /**
+     * Create a new dependency graph by reading the dependencies of the provided root projects and
+     * of every project that they transitively depend on.
+     * @param rootProjects The projects to start the graph from.
+     * @param getDependencies The function that reads the dependencies of a project. If it returns
+     *                        an error, then the error's message is recorded for the project and
+     *                        the project is treated as having no dependencies.
+     * @return The new dependency graph.
+     */
+    public static Result<DependencyGraph> create(Iterable<ProjectSignature> rootProjects, Function1<ProjectSignature,Result<Iterable<ProjectSignature>>> getDependencies)
+    {
+        PreCondition.assertNotNull(rootProjects, "rootProjects");
+        PreCondition.assertNotNull(getDependencies, "getDependencies");
+
+        return Result.create(() ->
+        {
+            final List<ProjectSignature> rootProjectsList = rootProjects.toList();
+            final DependencyGraph result = new DependencyGraph(rootProjectsList.getCount());
+            for (int i = 0; i < rootProjectsList.getCount(); ++i)
+            {
+                result.rootIds[i] = result.intern(rootProjectsList.get(i));
+            }
+
+            // Nodes are appended as they are discovered, so this loop visits every node exactly
+            // once in breadth-first order.
+            for (int nodeId = 0; nodeId < result.nodes.getCount(); ++nodeId)
+            {
+                final int currentNodeId = nodeId;
+                final ProjectSignature node = result.nodes.get(nodeId);
+                final Iterable<ProjectSignature> dependencies = getDependencies.run(node)
+                    .catchError((Throwable error) ->
+                    {
+                        result.errorMessages.set(currentNodeId, error.getMessage());
+                    })
+                    .await();
+                if (dependencies == null || !dependencies.any())
+                {
+                    result.dependencyIds.add(DependencyGraph.noDependencyIds);
+                }
+                else
+                {
+                    final List<ProjectSignature> dependenciesList = dependencies.toList();
+                    final int[] nodeDependencyIds = new int[dependenciesList.getCount()];
+                    for (int i = 0; i < nodeDependencyIds.length; ++i)
+                    {
+                        nodeDependencyIds[i] = result.intern(dependenciesList.get(i));
+                    }
+                    result.dependencyIds.add(nodeDependencyIds);
+                }
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Create a new dependency graph by reading the project.json files of the provided root
+     * projects and of every project that they transitively depend on from the provided
+     * {@link QubFolder}.
+     * @param qubFolder The {@link QubFolder} that the projects are published to.
+     * @param rootProjects The projects to start the graph from.
+     * @return The new dependency graph.
+     */
+    public static Result<DependencyGraph> create(QubFolder qubFolder, Iterable<ProjectSignature> rootProjects)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(rootProjects, "rootProjects");
+
+        return DependencyGraph.create(rootProjects, (ProjectSignature project) ->
+        {
+            return Result.create(() ->
+            {
+                final JavaProjectFolder publishedProjectFolder = JavaProjectFolder.get(qubFolder.getProjectVersionFolder(project).await());
+                return publishedProjectFolder.getDependencies().await();
+            });
+        });
+    }
+
+    private int intern(ProjectSignature project)
+    {
+        final String key = project.toString();
+        Integer result = this.nodeIds.get(key).catchError().await();
+        if (result == null)
+        {
+            result = this.nodes.getCount();
+            this.nodes.add(project);
+            this.nodeIds.set(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of distinct projects in this graph.
+     * @return The number of distinct projects in this graph.
+     */
+    public int getNodeCount()
+    {
+        return this.nodes.getCount();
+    }
+
+    /**
+     * Get the number of dependency edges in this graph.
+     * @return The number of dependency edges in this graph.
+     */
+    public int getEdgeCount()
+    {
+        int result = 0;
+        for (final int[] nodeDependencyIds : this.dependencyIds)
+        {
+            result += nodeDependencyIds.length;
+        }
+        return result;
+    }
+
+    /**
+     * Get the node ids of the root projects of this graph.
+     * @return The node ids of the root projects of this graph.
+     */
+    public int[] getRootIds()
+    {
+        return this.rootIds.clone();
+    }
+
+    /**
+     * Get the node id of the provided project.
+     * @param project The project to get the node id of.
+     * @return The node id of the provided project, or a {@link NotFoundException} if the provided
+     * project isn't in this graph.
+     */
+    public Result<Integer> getNodeId(ProjectSignature project)
+    {
+        PreCondition.assertNotNull(project, "project");
+
+        return this.nodeIds.get(project.toString())
+            .convertError(NotFoundException.class, (NotFoundException error) -> new NotFoundException("No node for " + project + " exists in the dependency graph."));
+    }
+
+    /**
+     * Get the project of the provided node.
+     * @param nodeId The id of the node.
+     * @return The project of the provided node.
+     */
+    public ProjectSignature getProject(int nodeId)
+    {
+        PreCondition.assertBetween(0, nodeId, this.getNodeCount() - 1, "nodeId");
+
+        return this.nodes.get(nodeId);
+    }
+
+    /**
+     * Get the node ids of the dependencies of the provided node.
+     * @param nodeId The id of the node.
+     * @return The node ids of the dependencies of the provided node.
+     */
+    public int[] getDependencyIds(int nodeId)
+    {
+        PreCondition.assertBetween(0, nodeId, this.getNodeCount() - 1, "nodeId");
+
+        return this.dependencyIds.get(nodeId).clone();
+    }
+
+    /**
+     * Get the message of the error that occurred while reading the dependencies of the provided
+     * node.
+     * @param nodeId The id of the node.
+     * @return The message of the error that occurred while reading the dependencies of the
+     * provided node, or null if the node's dependencies were read successfully.
+     */
+    public String getErrorMessage(int nodeId)
+    {
+        PreCondition.assertBetween(0, nodeId, this.getNodeCount() - 1, "nodeId");
+
+        return this.errorMessages.get(nodeId).catchError().await();
+    }
+
+    /**
+     * Get the groups of projects in this graph that have the same publisher and project name but
+     * different versions. The groups are returned in the order that their first version was
+     * discovered.
+     * @return The groups of conflicting project versions in this graph.
+     */
+    public Iterable<Iterable<ProjectSignature>> getVersionConflicts()
+    {
+        final List<String> projectKeys = List.create();
+        final MutableMap<String,List<ProjectSignature>> projectVersions = MutableMap.create();
+        for (final ProjectSignature node : this.nodes)
+        {
+            final String projectKey = node.getPublisher() + "/" + node.getProject();
+            List<ProjectSignature> versions = projectVersions.get(projectKey).catchError().await();
+            if (versions == null)
+            {
+                versions = List.create();
+                projectVersions.set(projectKey, versions);
+                projectKeys.add(projectKey);
+            }
+            versions.add(node);
+        }
+
+        final List<Iterable<ProjectSignature>> result = List.create();
+        for (final String projectKey : projectKeys)
+        {
+            final List<ProjectSignature> versions = projectVersions.get(projectKey).await();
+            if (versions.getCount() > 1)
+            {
+                result.add(versions);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
@@ -0,0 +1,359 @@
+package qub;
+
+/**
+ * A cache of the dependencies that are declared in the project.json files of published projects.
+ * Each published project's dependencies are stored along with the last modified time of its
+ * project.json file, so resolving a dependency graph only needs to parse the project.json files
+ * that have changed since the graph was last resolved. The resolved graph of each set of root
+ * projects is stored as well, so when none of the graph's project.json files have changed, the
+ * graph isn't walked again at all. The cache is shared by every command that resolves a
+ * project's dependencies (build, test, pack, publish, and dependencies update).
+ */
+public class DependencyGraphCache
+{
+    /**
+     * The name of the file that the cache is stored in.
+     */
+    public static final String fileName = "dependency-graph.json";
+
+    private static final String projectsPropertyName = "projects";
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String dependenciesPropertyName = "dependencies";
+    private static final String resolvedGraphsPropertyName = "resolvedGraphs";
+    private static final String dependencyPropertyName = "dependency";
+
+    private final File cacheFile;
+    private final JSONObject json;
+    private boolean modified;
+
+    private DependencyGraphCache(File cacheFile, JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        this.cacheFile = cacheFile;
+        this.json = json;
+    }
+
+    /**
+     * Create a new in-memory cache that isn't stored in a file.
+     * @return The new cache.
+     */
+    public static DependencyGraphCache create()
+    {
+        return new DependencyGraphCache(null, JSONObject.create());
+    }
+
+    /**
+     * Get the cache that is stored in the provided file. If the file doesn't exist or can't be
+     * parsed, then an empty cache will be returned that will be stored in the file when it is
+     * saved.
+     * @param cacheFile The file that the cache is stored in.
+     * @return The cache that is stored in the provided file.
+     */
+    public static Result<DependencyGraphCache> get(File cacheFile)
+    {
+        PreCondition.assertNotNull(cacheFile, "cacheFile");
+
+        return Result.create(() ->
+        {
+            final JSONObject json = JSON.parseObject(cacheFile)
+                .catchError(() -> JSONObject.create())
+                .await();
+            return new DependencyGraphCache(cacheFile, json);
+        });
+    }
+
+    /**
+     * Get the cache that the provided process should use when it resolves dependency graphs.
+     * @param process The process that is resolving dependency graphs.
+     * @return The cache that is stored in the project data folder of the provided process, or null
+     * if the dependency graph cache isn't enabled in the configuration.
+     */
+    public static Result<DependencyGraphCache> get(DesktopProcess process)
+    {
+        PreCondition.assertNotNull(process, "process");
+
+        return Result.create(() ->
+        {
+            DependencyGraphCache result = null;
+            final JavaProjectConfiguration configuration = JavaProjectConfiguration.parse(process)
+                .catchError(() -> JavaProjectConfiguration.create())
+                .await();
+            if (configuration.getDependencyGraphCacheEnabled())
+            {
+                final File cacheFile = process.getQubProjectDataFolder().await()
+                    .getFile(DependencyGraphCache.fileName).await();
+                result = DependencyGraphCache.get(cacheFile).await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the file that this cache is stored in.
+     * @return The file that this cache is stored in, or null if this cache is only stored in
+     * memory.
+     */
+    public File getCacheFile()
+    {
+        return this.cacheFile;
+    }
+
+    /**
+     * Get whether this cache has changed since it was last saved.
+     * @return Whether this cache has changed since it was last saved.
+     */
+    public synchronized boolean isModified()
+    {
+        return this.modified;
+    }
+
+    /**
+     * Get the dependencies that are declared in the provided published project's project.json
+     * file. The project.json file is only parsed if it has changed since its dependencies were
+     * stored in this cache.
+     * @param publishedProjectFolder The published project folder.
+     * @return The dependencies that are declared in the provided published project's project.json
+     * file.
+     */
+    public Result<Iterable<ProjectSignature>> getDependencies(JavaPublishedProjectFolder publishedProjectFolder)
+    {
+        PreCondition.assertNotNull(publishedProjectFolder, "publishedProjectFolder");
+
+        return Result.create(() ->
+        {
+            Iterable<ProjectSignature> result;
+
+            final File projectJsonFile = publishedProjectFolder.getProjectJsonFile().await();
+            final DateTime lastModified = projectJsonFile.getLastModified().catchError().await();
+            if (lastModified == null)
+            {
+                // Let the published project folder report why its project.json file can't be
+                // read.
+                result = publishedProjectFolder.getDependencies().await();
+            }
+            else
+            {
+                final String key = projectJsonFile.toString();
+                final String lastModifiedString = lastModified.toString();
+
+                result = this.getCachedDependencies(key, lastModifiedString);
+                if (result == null)
+                {
+                    result = publishedProjectFolder.getDependencies().await();
+                    this.setCachedDependencies(key, lastModifiedString, result);
+                }
+            }
+
+            return result;
+        });
+    }
+
+    private synchronized Iterable<ProjectSignature> getCachedDependencies(String key, String lastModified)
+    {
+        List<ProjectSignature> result = null;
+
+        final JSONObject projectJson = this.getProjectsJson().getObject(key).catchError().await();
+        if (projectJson != null &&
+            lastModified.equals(projectJson.getString(DependencyGraphCache.lastModifiedPropertyName).catchError().await()))
+        {
+            final JSONArray dependenciesJson = projectJson.getArray(DependencyGraphCache.dependenciesPropertyName).catchError().await();
+            if (dependenciesJson != null)
+            {
+                result = List.create();
+                for (final JSONObject dependencyJson : dependenciesJson.instanceOf(JSONObject.class))
+                {
+                    final ProjectSignature dependency = JavaProjectJSON.parseProjectSignature(dependencyJson).catchError().await();
+                    if (dependency == null)
+                    {
+                        result = null;
+                        break;
+                    }
+                    result.add(dependency);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private synchronized void setCachedDependencies(String key, String lastModified, Iterable<ProjectSignature> dependencies)
+    {
+        this.getProjectsJson().setObject(key, JSONObject.create()
+            .setString(DependencyGraphCache.lastModifiedPropertyName, lastModified)
+            .setArray(DependencyGraphCache.dependenciesPropertyName, JSONArray.create(dependencies.map(JavaProjectJSON::projectSignatureToJson))));
+        this.modified = true;
+    }
+
+    /**
+     * Get the published project folders of the dependency graph that was resolved for the
+     * provided root projects. The graph is only returned if none of the project.json files in it
+     * have changed since it was stored in this cache.
+     * @param qubFolder The {@link QubFolder} that the dependency graph was resolved in.
+     * @param projectSignatures The root projects of the dependency graph, in the order that they
+     *                          are declared.
+     * @param validateDependencies Whether the dependency graph was checked for conflicting
+     *                             dependency versions when it was resolved.
+     * @return The published project folders of the dependency graph, or a
+     * {@link NotFoundException} if the graph isn't in this cache or has changed.
+     */
+    public Result<Iterable<JavaPublishedProjectFolder>> getDependencyFolders(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, boolean validateDependencies)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(projectSignatures, "projectSignatures");
+
+        return Result.create(() ->
+        {
+            final String key = DependencyGraphCache.getResolvedGraphKey(projectSignatures, validateDependencies);
+            final JSONArray resolvedGraphJson = this.getResolvedGraph(key);
+            if (resolvedGraphJson == null)
+            {
+                throw new NotFoundException("No resolved dependency graph is cached for " + Strings.escapeAndQuote(key) + ".");
+            }
+
+            final List<JavaPublishedProjectFolder> result = List.create();
+            for (final JSONObject dependencyJson : resolvedGraphJson.instanceOf(JSONObject.class))
+            {
+                final ProjectSignature dependency = dependencyJson.getObject(DependencyGraphCache.dependencyPropertyName)
+                    .then((JSONObject signatureJson) -> JavaProjectJSON.parseProjectSignature(signatureJson).await())
+                    .catchError()
+                    .await();
+                final String lastModified = dependencyJson.getString(DependencyGraphCache.lastModifiedPropertyName).catchError().await();
+                final JavaPublishedProjectFolder dependencyFolder = dependency == null
+                    ? null
+                    : JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(dependency).await());
+                final DateTime currentLastModified = dependencyFolder == null
+                    ? null
+                    : dependencyFolder.getProjectJsonFile().await().getLastModified().catchError().await();
+                if (currentLastModified == null || !currentLastModified.toString().equals(lastModified))
+                {
+                    throw new NotFoundException("The cached dependency graph for " + Strings.escapeAndQuote(key) + " has changed.");
+                }
+                result.add(dependencyFolder);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Store the published project folders of the dependency graph that was resolved for the
+     * provided root projects.
+     * @param projectSignatures The root projects of the dependency graph, in the order that they
+     *                          are declared.
+     * @param validateDependencies Whether the dependency graph was checked for conflicting
+     *                             dependency versions when it was resolved.
+     * @param dependencyFolders The published project folders of the resolved dependency graph.
+     * @return The result of storing the dependency graph.
+     */
+    public Result<Void> setDependencyFolders(Iterable<ProjectSignature> projectSignatures, boolean validateDependencies, Iterable<JavaPublishedProjectFolder> dependencyFolders)
+    {
+        PreCondition.assertNotNull(projectSignatures, "projectSignatures");
+        PreCondition.assertNotNull(dependencyFolders, "dependencyFolders");
+
+        return Result.create(() ->
+        {
+            final List<JSONObject> resolvedGraphJson = List.create();
+            for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+            {
+                // The dependencies of every project in the graph were just read through this
+                // cache, so their project.json files' last modified times are usually already
+                // stored.
+                final File projectJsonFile = dependencyFolder.getProjectJsonFile().await();
+                String lastModified = this.getCachedLastModified(projectJsonFile.toString());
+                if (lastModified == null)
+                {
+                    lastModified = projectJsonFile.getLastModified().await().toString();
+                }
+                resolvedGraphJson.add(JSONObject.create()
+                    .setObject(DependencyGraphCache.dependencyPropertyName, JavaProjectJSON.projectSignatureToJson(dependencyFolder.getProjectSignature().await()))
+                    .setString(DependencyGraphCache.lastModifiedPropertyName, lastModified));
+            }
+            this.setResolvedGraph(DependencyGraphCache.getResolvedGraphKey(projectSignatures, validateDependencies), JSONArray.create(resolvedGraphJson));
+        });
+    }
+
+    private static String getResolvedGraphKey(Iterable<ProjectSignature> projectSignatures, boolean validateDependencies)
+    {
+        final CharacterList result = CharacterList.create();
+        result.addAll(validateDependencies ? "validated:" : "unvalidated:");
+        boolean first = true;
+        for (final ProjectSignature projectSignature : projectSignatures)
+        {
+            if (first)
+            {
+                first = false;
+            }
+            else
+            {
+                result.add(',');
+            }
+            result.addAll(projectSignature.toString());
+        }
+        return result.toString(true);
+    }
+
+    private synchronized String getCachedLastModified(String key)
+    {
+        return this.getProjectsJson().getObject(key)
+            .then((JSONObject projectJson) -> projectJson.getString(DependencyGraphCache.lastModifiedPropertyName).await())
+            .catchError()
+            .await();
+    }
+
+    private synchronized JSONArray getResolvedGraph(String key)
+    {
+        return this.getChildObject(DependencyGraphCache.resolvedGraphsPropertyName).getArray(key)
+            .catchError()
+            .await();
+    }
+
+    private synchronized void setResolvedGraph(String key, JSONArray resolvedGraphJson)
+    {
+        this.getChildObject(DependencyGraphCache.resolvedGraphsPropertyName).setArray(key, resolvedGraphJson);
+        this.modified = true;
+    }
+
+    private JSONObject getProjectsJson()
+    {
+        return this.getChildObject(DependencyGraphCache.projectsPropertyName);
+    }
+
+    private JSONObject getChildObject(String propertyName)
+    {
+        JSONObject result = this.json.getObject(propertyName).catchError().await();
+        if (result == null)
+        {
+            result = JSONObject.create();
+            this.json.setObject(propertyName, result);
+        }
+        return result;
+    }
+
+    /**
+     * Write this cache to its file if it has changed since it was last saved.
+     * @return The result of saving this cache.
+     */
+    public Result<Void> save()
+    {
+        return Result.create(() ->
+        {
+            synchronized (this)
+            {
+                if (this.modified && this.cacheFile != null)
+                {
+                    this.cacheFile.setContentsAsString(this.json.toString(JSONFormat.pretty)).await();
+                    this.modified = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the JSON representation of this cache.
+     * @return The JSON representation of this cache.
+     */
+    public JSONObject toJson()
+    {
+        return this.json;
+    }
+}
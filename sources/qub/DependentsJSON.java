@@ -0,0 +1,316 @@
+package qub;
+
+/**
+ * A reverse-dependency index of the projects that have been published to a qub folder. The index
+ * records the dependencies of the latest published version of each project, and the projects that
+ * depend on each project, so finding the projects that depend on a newly published project doesn't
+ * require parsing the project.json file of every project in the qub folder.
+ */
+public class DependentsJSON extends JSONObjectWrapperBase
+{
+    /**
+     * The name of the file that the index is stored in.
+     */
+    public static final String fileName = "dependents.json";
+
+    private static final String projectsPropertyName = "projects";
+    private static final String dependentsPropertyName = "dependents";
+    private static final String versionPropertyName = "version";
+    private static final String dependenciesPropertyName = "dependencies";
+
+    protected DependentsJSON(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static DependentsJSON create()
+    {
+        return DependentsJSON.create(JSONObject.create());
+    }
+
+    public static DependentsJSON create(JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        return new DependentsJSON(json);
+    }
+
+    /**
+     * Create a new index by parsing the project.json file of the latest version of each project
+     * in the provided qub folder. Projects that don't have a project.json file (such as projects
+     * that aren't Java projects) are indexed without any dependencies.
+     * @param qubFolder The qub folder to index.
+     * @return The new index.
+     */
+    public static Result<DependentsJSON> create(QubFolder qubFolder)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+
+        return Result.create(() ->
+        {
+            final DependentsJSON result = DependentsJSON.create();
+            for (final QubPublisherFolder publisherFolder : qubFolder.iteratePublisherFolders())
+            {
+                for (final QubProjectFolder projectFolder : publisherFolder.iterateProjectFolders())
+                {
+                    final QubProjectVersionFolder latestVersionFolder = projectFolder.getLatestProjectVersionFolder().catchError().await();
+                    final VersionNumber latestVersion = latestVersionFolder == null ? null : latestVersionFolder.getVersion().catchError().await();
+                    if (latestVersion != null)
+                    {
+                        final JavaPublishedProjectFolder javaPublishedProjectFolder = JavaPublishedProjectFolder.get(latestVersionFolder);
+                        final JavaProjectJSON publishedProjectJson = javaPublishedProjectFolder.getProjectJson().catchError().await();
+                        final ProjectSignature publishedProjectSignature = ProjectSignature.create(
+                            publisherFolder.getName(),
+                            projectFolder.getName(),
+                            latestVersion);
+                        result.setProject(publishedProjectSignature, publishedProjectJson == null
+                            ? Iterable.create()
+                            : publishedProjectJson.getDependencies());
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the latest published versions of the projects that depend on any version of the
+     * provided project. Only the index entries that are read are checked against the provided qub
+     * folder: each dependent whose latest version in the qub folder isn't the indexed version (or
+     * that has been removed from the qub folder) is indexed again from its project.json file
+     * before the dependents are returned. Projects that were added to the qub folder without
+     * being published from here and that aren't in this index aren't found until the index is
+     * created again.
+     * @param qubFolder The qub folder that the projects are published to.
+     * @param publisher The publisher of the project.
+     * @param project The name of the project.
+     * @return The latest published versions of the projects that depend on the provided project.
+     */
+    public Result<Iterable<ProjectSignature>> getDependents(QubFolder qubFolder, String publisher, String project)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNullAndNotEmpty(publisher, "publisher");
+        PreCondition.assertNotNullAndNotEmpty(project, "project");
+
+        return Result.create(() ->
+        {
+            boolean refreshed = false;
+            for (final ProjectSignature dependent : this.getDependents(publisher, project))
+            {
+                if (this.refreshProject(qubFolder, dependent))
+                {
+                    refreshed = true;
+                }
+            }
+            if (refreshed)
+            {
+                this.updateDependents();
+            }
+            return this.getDependents(publisher, project);
+        });
+    }
+
+    /**
+     * Index the provided project again if its latest version in the provided qub folder isn't the
+     * provided version. The dependents property isn't updated.
+     * @param qubFolder The qub folder that the project is published to.
+     * @param indexedProject The indexed latest version of the project.
+     * @return Whether the project's index entry changed.
+     */
+    private boolean refreshProject(QubFolder qubFolder, ProjectSignature indexedProject)
+    {
+        final String publisher = indexedProject.getPublisher();
+        final String project = indexedProject.getProject();
+        final QubProjectVersionFolder latestVersionFolder = qubFolder.getProjectFolder(publisher, project)
+            .then((QubProjectFolder projectFolder) -> projectFolder.getLatestProjectVersionFolder().await())
+            .catchError()
+            .await();
+        final VersionNumber latestVersion = latestVersionFolder == null ? null : latestVersionFolder.getVersion().catchError().await();
+
+        final boolean result = latestVersion == null || !latestVersion.equals(indexedProject.getVersion());
+        if (result)
+        {
+            if (latestVersion == null)
+            {
+                final String projectKey = DependentsJSON.getProjectKey(publisher, project);
+                final JSONObject projectsJson = JSONObject.create();
+                for (final JSONProperty projectProperty : this.getProjectsJson().getProperties())
+                {
+                    final JSONObject projectJson = projectProperty.getObjectValue().catchError().await();
+                    if (projectJson != null && !projectKey.equals(projectProperty.getName()))
+                    {
+                        projectsJson.setObject(projectProperty.getName(), projectJson);
+                    }
+                }
+                this.toJson().setObject(DependentsJSON.projectsPropertyName, projectsJson);
+            }
+            else
+            {
+                final JavaProjectJSON publishedProjectJson = JavaPublishedProjectFolder.get(latestVersionFolder).getProjectJson().catchError().await();
+                this.setProjectEntry(ProjectSignature.create(publisher, project, latestVersion), publishedProjectJson == null
+                    ? Iterable.create()
+                    : publishedProjectJson.getDependencies());
+            }
+        }
+        return result;
+    }
+
+    public static Result<DependentsJSON> parse(File dependentsJsonFile)
+    {
+        PreCondition.assertNotNull(dependentsJsonFile, "dependentsJsonFile");
+
+        return Result.create(() ->
+        {
+            return DependentsJSON.create(JSON.parseObject(dependentsJsonFile).await());
+        });
+    }
+
+    private static String getProjectKey(String publisher, String project)
+    {
+        return publisher + "/" + project;
+    }
+
+    private JSONObject getProjectsJson()
+    {
+        JSONObject result = this.toJson().getObject(DependentsJSON.projectsPropertyName).catchError().await();
+        if (result == null)
+        {
+            result = JSONObject.create();
+            this.toJson().setObject(DependentsJSON.projectsPropertyName, result);
+        }
+        return result;
+    }
+
+    /**
+     * Set the latest published version of a project and that version's dependencies.
+     * @param project The signature of the latest published version of the project.
+     * @param dependencies The dependencies of the latest published version of the project.
+     * @return This object for method chaining.
+     */
+    public DependentsJSON setProject(ProjectSignature project, Iterable<ProjectSignature> dependencies)
+    {
+        PreCondition.assertNotNull(project, "project");
+        PreCondition.assertNotNull(dependencies, "dependencies");
+
+        this.setProjectEntry(project, dependencies);
+        this.updateDependents();
+
+        return this;
+    }
+
+    private void setProjectEntry(ProjectSignature project, Iterable<ProjectSignature> dependencies)
+    {
+        this.getProjectsJson().setObject(DependentsJSON.getProjectKey(project.getPublisher(), project.getProject()), JSONObject.create()
+            .setString(DependentsJSON.versionPropertyName, project.getVersion().toString())
+            .setArray(DependentsJSON.dependenciesPropertyName, JSONArray.create(dependencies.map(JavaProjectJSON::projectSignatureToJson))));
+    }
+
+    /**
+     * Get the dependencies of the latest published version of the provided project.
+     * @param publisher The publisher of the project.
+     * @param project The name of the project.
+     * @return The dependencies of the latest published version of the provided project, or an
+     * empty Iterable if the project isn't in this index.
+     */
+    public Iterable<ProjectSignature> getDependencies(String publisher, String project)
+    {
+        PreCondition.assertNotNullAndNotEmpty(publisher, "publisher");
+        PreCondition.assertNotNullAndNotEmpty(project, "project");
+
+        final List<ProjectSignature> result = List.create();
+        final JSONArray dependenciesJson = this.getProjectsJson().getObject(DependentsJSON.getProjectKey(publisher, project))
+            .then((JSONObject projectJson) -> projectJson.getArray(DependentsJSON.dependenciesPropertyName).await())
+            .catchError()
+            .await();
+        if (dependenciesJson != null)
+        {
+            for (final JSONObject dependencyJson : dependenciesJson.instanceOf(JSONObject.class))
+            {
+                final ProjectSignature dependency = JavaProjectJSON.parseProjectSignature(dependencyJson).catchError().await();
+                if (dependency != null)
+                {
+                    result.add(dependency);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the latest published versions of the projects that depend on any version of the
+     * provided project.
+     * @param publisher The publisher of the project.
+     * @param project The name of the project.
+     * @return The latest published versions of the projects that depend on the provided project.
+     */
+    public Iterable<ProjectSignature> getDependents(String publisher, String project)
+    {
+        PreCondition.assertNotNullAndNotEmpty(publisher, "publisher");
+        PreCondition.assertNotNullAndNotEmpty(project, "project");
+
+        final List<ProjectSignature> result = List.create();
+        final JSONArray dependentsJson = this.toJson().getObject(DependentsJSON.dependentsPropertyName)
+            .then((JSONObject dependents) -> dependents.getArray(DependentsJSON.getProjectKey(publisher, project)).await())
+            .catchError()
+            .await();
+        if (dependentsJson != null)
+        {
+            for (final JSONObject dependentJson : dependentsJson.instanceOf(JSONObject.class))
+            {
+                final ProjectSignature dependent = JavaProjectJSON.parseProjectSignature(dependentJson).catchError().await();
+                if (dependent != null)
+                {
+                    result.add(dependent);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Rebuild the dependents property from the dependencies of each project in this index.
+     */
+    private void updateDependents()
+    {
+        final MutableMap<String,List<JSONObject>> dependentsMap = MutableMap.create();
+        final List<String> dependencyKeys = List.create();
+        for (final JSONProperty projectProperty : this.getProjectsJson().getProperties())
+        {
+            final String projectKey = projectProperty.getName();
+            final int slashIndex = projectKey.indexOf('/');
+            final JSONObject projectJson = projectProperty.getObjectValue().catchError().await();
+            final String version = projectJson == null ? null : projectJson.getString(DependentsJSON.versionPropertyName).catchError().await();
+            if (slashIndex > 0 && !Strings.isNullOrEmpty(version))
+            {
+                final String publisher = projectKey.substring(0, slashIndex);
+                final String project = projectKey.substring(slashIndex + 1);
+                final ProjectSignature dependent = ProjectSignature.create(publisher, project, version);
+                for (final ProjectSignature dependency : this.getDependencies(publisher, project))
+                {
+                    final String dependencyKey = DependentsJSON.getProjectKey(dependency.getPublisher(), dependency.getProject());
+                    List<JSONObject> dependents = dependentsMap.get(dependencyKey).catchError().await();
+                    if (dependents == null)
+                    {
+                        dependents = List.create();
+                        dependentsMap.set(dependencyKey, dependents);
+                        dependencyKeys.add(dependencyKey);
+                    }
+                    dependents.add(JavaProjectJSON.projectSignatureToJson(dependent));
+                }
+            }
+        }
+
+        final JSONObject dependentsJson = JSONObject.create();
+        for (final String dependencyKey : dependencyKeys)
+        {
+            dependentsJson.setArray(dependencyKey, JSONArray.create(dependentsMap.get(dependencyKey).await()));
+        }
+        this.toJson().setObject(DependentsJSON.dependentsPropertyName, dependentsJson);
+    }
+}
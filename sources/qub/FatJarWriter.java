@@ -0,0 +1,272 @@
+package qub;
+
+/**
+ * A type that merges a project's compiled sources jar file and the compiled sources jar files of
+ * its dependencies into a single runnable jar file. Entries are copied from their source jar files
+ * without being decompressed and recompressed.
+ */
+public class FatJarWriter
+{
+    private static final String servicesFolderName = "META-INF/services/";
+
+    private final List<File> jarFiles;
+    private String mainClassFullTypeName;
+    private String createdBy;
+
+    private FatJarWriter()
+    {
+        this.jarFiles = List.create();
+    }
+
+    public static FatJarWriter create()
+    {
+        return new FatJarWriter();
+    }
+
+    /**
+     * Get the main class/entry point type that will be written to the manifest of the fat jar
+     * file.
+     * @return The main class/entry point type, or null if no main class will be written.
+     */
+    public String getMainClass()
+    {
+        return this.mainClassFullTypeName;
+    }
+
+    /**
+     * Set the main class/entry point type that will be written to the manifest of the fat jar
+     * file.
+     * @param mainClassFullTypeName The main class/entry point type, or null if no main class should
+     *                              be written.
+     * @return This object for method chaining.
+     */
+    public FatJarWriter setMainClass(String mainClassFullTypeName)
+    {
+        this.mainClassFullTypeName = mainClassFullTypeName;
+
+        return this;
+    }
+
+    /**
+     * Set the value of the Created-By attribute that will be written to the manifest of the fat jar
+     * file.
+     * @param createdBy The value of the Created-By attribute, or null if no Created-By attribute
+     *                  should be written.
+     * @return This object for method chaining.
+     */
+    public FatJarWriter setCreatedBy(String createdBy)
+    {
+        this.createdBy = createdBy;
+
+        return this;
+    }
+
+    /**
+     * Get the jar files that will be merged into the fat jar file.
+     * @return The jar files that will be merged into the fat jar file.
+     */
+    public Iterable<File> getJarFiles()
+    {
+        return this.jarFiles;
+    }
+
+    /**
+     * Add a jar file that will be merged into the fat jar file. When more than one jar file
+     * contains an entry with the same name, the entry from the jar file that was added first is
+     * used.
+     * @param jarFile The jar file to merge into the fat jar file.
+     * @return This object for method chaining.
+     */
+    public FatJarWriter addJarFile(File jarFile)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+
+        this.jarFiles.add(jarFile);
+
+        return this;
+    }
+
+    /**
+     * Add jar files that will be merged into the fat jar file.
+     * @param jarFiles The jar files to merge into the fat jar file.
+     * @return This object for method chaining.
+     */
+    public FatJarWriter addJarFiles(Iterable<File> jarFiles)
+    {
+        PreCondition.assertNotNull(jarFiles, "jarFiles");
+
+        for (final File jarFile : jarFiles)
+        {
+            this.addJarFile(jarFile);
+        }
+
+        return this;
+    }
+
+    /**
+     * Get a digest of this writer's inputs: its manifest attributes and the path and last modified
+     * time of each of its jar files. If the digest hasn't changed since the fat jar file was last
+     * written, then writing it again would produce the same entries.
+     * @return The {@link ContentHash} of this writer's inputs.
+     */
+    public Result<String> getInputDigest()
+    {
+        return Result.create(() ->
+        {
+            final CharacterList text = CharacterList.create();
+            text.addAll("mainClass=" + (Strings.isNullOrEmpty(this.mainClassFullTypeName) ? "" : this.mainClassFullTypeName) + "\n");
+            text.addAll("createdBy=" + (Strings.isNullOrEmpty(this.createdBy) ? "" : this.createdBy) + "\n");
+            for (final File jarFile : this.jarFiles)
+            {
+                text.addAll(jarFile.toString() + "\0" + jarFile.getLastModified().await() + "\n");
+            }
+            return ContentHash.get(text.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        });
+    }
+
+    /**
+     * Get whether the entry with the provided name describes the jar file that contains it (such
+     * as its manifest or signature), and so shouldn't be copied into the fat jar file.
+     * @param entryName The name of the entry.
+     * @return Whether the entry with the provided name shouldn't be copied into the fat jar file.
+     */
+    static boolean isExcludedEntry(String entryName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(entryName, "entryName");
+
+        final String upperEntryName = entryName.toUpperCase();
+        boolean result = upperEntryName.equals("META-INF/") || upperEntryName.equals(java.util.jar.JarFile.MANIFEST_NAME) || upperEntryName.equals("META-INF/INDEX.LIST");
+        if (!result && upperEntryName.startsWith("META-INF/") && upperEntryName.indexOf('/', "META-INF/".length()) == -1)
+        {
+            result = upperEntryName.endsWith(".SF") ||
+                upperEntryName.endsWith(".RSA") ||
+                upperEntryName.endsWith(".DSA") ||
+                upperEntryName.endsWith(".EC");
+        }
+        return result;
+    }
+
+    /**
+     * Create the manifest that will be written to the fat jar file.
+     * @return The manifest that will be written to the fat jar file.
+     */
+    public java.util.jar.Manifest createManifest()
+    {
+        final java.util.jar.Manifest result = new java.util.jar.Manifest();
+        final java.util.jar.Attributes attributes = result.getMainAttributes();
+        attributes.put(java.util.jar.Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (!Strings.isNullOrEmpty(this.createdBy))
+        {
+            attributes.put(new java.util.jar.Attributes.Name("Created-By"), this.createdBy);
+        }
+        if (!Strings.isNullOrEmpty(this.mainClassFullTypeName))
+        {
+            attributes.put(java.util.jar.Attributes.Name.MAIN_CLASS, this.mainClassFullTypeName);
+        }
+        return result;
+    }
+
+    /**
+     * Write the fat jar file. Folder entries that exist in more than one jar file are written
+     * once, service provider files (in META-INF/services/) that exist in more than one jar file are
+     * concatenated, and any other entry that exists in more than one jar file is only copied from
+     * the first jar file that contains it.
+     * @param fatJarFile The fat jar file to write.
+     * @return Descriptions of the entries that existed in more than one jar file with different
+     * contents and that were only copied from the first jar file that contained them.
+     */
+    public Result<Iterable<String>> write(File fatJarFile)
+    {
+        PreCondition.assertNotNull(fatJarFile, "fatJarFile");
+
+        return Result.create(() ->
+        {
+            final List<String> result = List.create();
+
+            final List<String> entryNames = List.create();
+            final MutableMap<String,ZipArchive> entryArchives = MutableMap.create();
+            final MutableMap<String,ZipArchiveEntry> entries = MutableMap.create();
+            final MutableMap<String,File> entryJarFiles = MutableMap.create();
+            final MutableMap<String,java.io.ByteArrayOutputStream> serviceEntryContents = MutableMap.create();
+            for (final File jarFile : this.jarFiles)
+            {
+                final ZipArchive archive = ZipArchive.parse(FileOperations.readAllBytes(jarFile).await()).await();
+                for (final ZipArchiveEntry entry : archive.getEntries())
+                {
+                    final String entryName = entry.getName();
+                    if (!FatJarWriter.isExcludedEntry(entryName))
+                    {
+                        final ZipArchiveEntry existingEntry = entries.get(entryName).catchError().await();
+                        final boolean isServiceEntry = !entry.isFolder() && entryName.startsWith(FatJarWriter.servicesFolderName);
+                        if (existingEntry == null)
+                        {
+                            entryNames.add(entryName);
+                            entryArchives.set(entryName, archive);
+                            entries.set(entryName, entry);
+                            entryJarFiles.set(entryName, jarFile);
+                        }
+                        else if (isServiceEntry)
+                        {
+                            java.io.ByteArrayOutputStream contents = serviceEntryContents.get(entryName).catchError().await();
+                            if (contents == null)
+                            {
+                                contents = new java.io.ByteArrayOutputStream();
+                                FatJarWriter.appendServiceEntryContents(contents, entryArchives.get(entryName).await().getContents(existingEntry).await());
+                                serviceEntryContents.set(entryName, contents);
+                            }
+                            FatJarWriter.appendServiceEntryContents(contents, archive.getContents(entry).await());
+                        }
+                        else if (!entry.isFolder() &&
+                            (existingEntry.getCrc() != entry.getCrc() || existingEntry.getUncompressedSize() != entry.getUncompressedSize()))
+                        {
+                            result.add(entryName + " in " + jarFile + " (used the entry from " + entryJarFiles.get(entryName).await() + ")");
+                        }
+                    }
+                }
+            }
+
+            try (final ZipArchiveWriter zipWriter = ZipArchiveWriter.create(ByteWriteStreamOutputStream.create(ByteWriteStream.buffer(fatJarFile.getContentsByteWriteStream().await()))))
+            {
+                zipWriter.addFolder("META-INF/").await();
+
+                final java.io.ByteArrayOutputStream manifestBytes = new java.io.ByteArrayOutputStream();
+                this.createManifest().write(manifestBytes);
+                zipWriter.addFile(java.util.jar.JarFile.MANIFEST_NAME, manifestBytes.toByteArray()).await();
+
+                for (final String entryName : entryNames)
+                {
+                    final java.io.ByteArrayOutputStream serviceContents = serviceEntryContents.get(entryName).catchError().await();
+                    if (serviceContents != null)
+                    {
+                        zipWriter.addFile(entryName, serviceContents.toByteArray()).await();
+                    }
+                    else
+                    {
+                        zipWriter.copyEntry(entryArchives.get(entryName).await(), entries.get(entryName).await()).await();
+                    }
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Append the provided service provider file contents, making sure that the previous contents
+     * end with a newline so that the last provider of one file isn't joined to the first provider of
+     * the next.
+     */
+    private static void appendServiceEntryContents(java.io.ByteArrayOutputStream contents, byte[] entryContents)
+    {
+        final byte[] existingContents = contents.toByteArray();
+        if (existingContents.length > 0 && existingContents[existingContents.length - 1] != '\n')
+        {
+            contents.write('\n');
+        }
+        contents.write(entryContents, 0, entryContents.length);
+    }
+}
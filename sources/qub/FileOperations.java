@@ -0,0 +1,256 @@
+package qub;
+
+/**
+ * Functions for reading, copying, and moving files. Contents are streamed through a fixed size
+ * buffer wherever the caller doesn't need all of the bytes at once. The qub {@link FileSystem}
+ * doesn't have size, rename, or permission operations, so files on the local disk (a
+ * {@link JavaFileSystem}) use java.nio and java.io for them, and files in any other file system
+ * fall back to reading and copying their contents.
+ */
+public interface FileOperations
+{
+    /**
+     * The number of bytes that are read from a file at a time.
+     */
+    int bufferSize = 64 * 1024;
+
+    /**
+     * Read all of the bytes of the provided file. Only use this when all of the bytes are needed
+     * at the same time (such as when a zip archive's central directory is parsed). Prefer
+     * {@link #copy(File, File)} or the file's read stream otherwise.
+     * @param file The file to read.
+     * @return The bytes of the provided file.
+     */
+    static Result<byte[]> readAllBytes(File file)
+    {
+        PreCondition.assertNotNull(file, "file");
+
+        return Result.create(() ->
+        {
+            final java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+            final byte[] buffer = new byte[FileOperations.bufferSize];
+            try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(file.getContentsReadStream().await()))
+            {
+                int bytesRead = inputStream.read(buffer, 0, buffer.length);
+                while (bytesRead != -1)
+                {
+                    result.write(buffer, 0, bytesRead);
+                    bytesRead = inputStream.read(buffer, 0, buffer.length);
+                }
+            }
+            return result.toByteArray();
+        });
+    }
+
+    /**
+     * Copy the contents of the provided source file to the provided destination file without
+     * holding the whole file in memory.
+     * @param source The file to copy.
+     * @param destination The file to copy to.
+     * @return The number of bytes that were copied.
+     */
+    static Result<Long> copy(File source, File destination)
+    {
+        PreCondition.assertNotNull(source, "source");
+        PreCondition.assertNotNull(destination, "destination");
+
+        return Result.create(() ->
+        {
+            long result = 0;
+            final byte[] buffer = new byte[FileOperations.bufferSize];
+            try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(source.getContentsReadStream().await());
+                 final ByteWriteStreamOutputStream outputStream = ByteWriteStreamOutputStream.create(ByteWriteStream.buffer(destination.getContentsByteWriteStream().await())))
+            {
+                int bytesRead = inputStream.read(buffer, 0, buffer.length);
+                while (bytesRead != -1)
+                {
+                    outputStream.write(buffer, 0, bytesRead);
+                    result += bytesRead;
+                    bytesRead = inputStream.read(buffer, 0, buffer.length);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the number of bytes in the provided file.
+     * @param file The file to get the size of.
+     * @return The number of bytes in the provided file.
+     */
+    static Result<Long> getByteCount(File file)
+    {
+        PreCondition.assertNotNull(file, "file");
+
+        return Result.create(() ->
+        {
+            long result;
+            if (file.getFileSystem() instanceof JavaFileSystem)
+            {
+                if (!file.exists().await())
+                {
+                    throw new FileNotFoundException(file);
+                }
+
+                try
+                {
+                    result = java.nio.file.Files.size(java.nio.file.Paths.get(file.toString()));
+                }
+                catch (java.io.IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+            else
+            {
+                result = 0;
+                final byte[] buffer = new byte[FileOperations.bufferSize];
+                try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(file.getContentsReadStream().await()))
+                {
+                    int bytesRead = inputStream.read(buffer, 0, buffer.length);
+                    while (bytesRead != -1)
+                    {
+                        result += bytesRead;
+                        bytesRead = inputStream.read(buffer, 0, buffer.length);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Move the provided source file to the provided destination file, replacing the destination
+     * file if it already exists. On the local disk the source file is renamed, so other processes
+     * see either the previous destination file or the complete source file. In any other file
+     * system the source file is copied and then deleted.
+     * @param source The file to move.
+     * @param destination The file to move to.
+     * @return The result of moving the file.
+     */
+    static Result<Void> move(File source, File destination)
+    {
+        PreCondition.assertNotNull(source, "source");
+        PreCondition.assertNotNull(destination, "destination");
+
+        return Result.create(() ->
+        {
+            if (!source.exists().await())
+            {
+                throw new FileNotFoundException(source);
+            }
+
+            if (source.getFileSystem() instanceof JavaFileSystem)
+            {
+                try
+                {
+                    final java.nio.file.Path destinationPath = java.nio.file.Paths.get(destination.toString());
+                    java.nio.file.Files.createDirectories(destinationPath.getParent());
+                    java.nio.file.Files.move(
+                        java.nio.file.Paths.get(source.toString()),
+                        destinationPath,
+                        java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                        java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (java.io.IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+            else
+            {
+                FileOperations.copy(source, destination).await();
+                source.delete().await();
+            }
+        });
+    }
+
+    /**
+     * Move the provided source folder (and everything in it) to the provided destination folder,
+     * which must not already exist. On the local disk the source folder is renamed, so other
+     * processes never see a partially populated destination folder. In any other file system the
+     * source folder's files are copied and then the source folder is deleted. If a file can't be
+     * copied, then the destination folder is deleted again.
+     * @param source The folder to move.
+     * @param destination The folder to move to.
+     * @return The result of moving the folder.
+     */
+    static Result<Void> move(Folder source, Folder destination)
+    {
+        PreCondition.assertNotNull(source, "source");
+        PreCondition.assertNotNull(destination, "destination");
+
+        return Result.create(() ->
+        {
+            if (!source.exists().await())
+            {
+                throw new FolderNotFoundException(source);
+            }
+            if (destination.exists().await())
+            {
+                throw new RuntimeException("Can't move " + source + " to " + destination + " because " + destination + " already exists.");
+            }
+
+            if (source.getFileSystem() instanceof JavaFileSystem)
+            {
+                try
+                {
+                    final java.nio.file.Path destinationPath = java.nio.file.Paths.get(destination.toString());
+                    java.nio.file.Files.createDirectories(destinationPath.getParent());
+                    java.nio.file.Files.move(
+                        java.nio.file.Paths.get(source.toString()),
+                        destinationPath,
+                        java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (java.io.IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+            else
+            {
+                boolean copied = false;
+                try
+                {
+                    destination.create().await();
+                    for (final File sourceFile : source.iterateFilesRecursively().toList())
+                    {
+                        final File destinationFile = destination.getFile(sourceFile.relativeTo(source).toString()).await();
+                        FileOperations.copy(sourceFile, destinationFile).await();
+                    }
+                    copied = true;
+                }
+                finally
+                {
+                    if (!copied)
+                    {
+                        destination.delete().catchError().await();
+                    }
+                }
+                source.delete().await();
+            }
+        });
+    }
+
+    /**
+     * Mark the provided file as executable by all users. Only files on the local disk have
+     * permissions, so files in any other file system are only checked for existence.
+     * @param file The file to mark as executable.
+     * @return Whether the file was marked as executable.
+     */
+    static Result<Boolean> setExecutable(File file)
+    {
+        PreCondition.assertNotNull(file, "file");
+
+        return Result.create(() ->
+        {
+            if (!file.exists().await())
+            {
+                throw new FileNotFoundException(file);
+            }
+
+            return !(file.getFileSystem() instanceof JavaFileSystem) ||
+                new java.io.File(file.toString()).setExecutable(true, false);
+        });
+    }
+}
@@ -0,0 +1,375 @@
+package qub;
+
+/**
+ * A type that writes JUnit-style XML test result files (one file per test class) as tests finish.
+ * Only the results for the test class that is currently running are held in memory, so the memory
+ * used by this writer doesn't grow with the number of tests in the test run.
+ */
+public class JUnitXmlReportWriter
+{
+    private final Folder testResultsFolder;
+    private final StackTraceFormat format;
+    private final Function0<Long> nanoTimeFunction;
+
+    private final CharacterList testCases;
+    private int testCount;
+    private int failureCount;
+    private int errorCount;
+    private int skippedCount;
+    private long testClassStartNanoTime;
+    private long testStartNanoTime;
+    private boolean testClassStarted;
+
+    private JUnitXmlReportWriter(Folder testResultsFolder, StackTraceFormat format, Function0<Long> nanoTimeFunction)
+    {
+        PreCondition.assertNotNull(testResultsFolder, "testResultsFolder");
+        PreCondition.assertNotNull(format, "format");
+        PreCondition.assertNotNull(nanoTimeFunction, "nanoTimeFunction");
+
+        this.testResultsFolder = testResultsFolder;
+        this.format = format;
+        this.nanoTimeFunction = nanoTimeFunction;
+        this.testCases = CharacterList.create();
+    }
+
+    /**
+     * Create a new {@link JUnitXmlReportWriter} that will write its test result files to the
+     * provided folder.
+     * @param testResultsFolder The folder that the test result files will be written to.
+     * @param format The {@link StackTraceFormat} that will be used to filter the stack traces of
+     *               test failures.
+     * @return The new {@link JUnitXmlReportWriter}.
+     */
+    public static JUnitXmlReportWriter create(Folder testResultsFolder, StackTraceFormat format)
+    {
+        return JUnitXmlReportWriter.create(testResultsFolder, format, System::nanoTime);
+    }
+
+    /**
+     * Create a new {@link JUnitXmlReportWriter} that will write its test result files to the
+     * provided folder.
+     * @param testResultsFolder The folder that the test result files will be written to.
+     * @param format The {@link StackTraceFormat} that will be used to filter the stack traces of
+     *               test failures.
+     * @param nanoTimeFunction The function that will be used to get the current time in
+     *                         nanoseconds.
+     * @return The new {@link JUnitXmlReportWriter}.
+     */
+    public static JUnitXmlReportWriter create(Folder testResultsFolder, StackTraceFormat format, Function0<Long> nanoTimeFunction)
+    {
+        return new JUnitXmlReportWriter(testResultsFolder, format, nanoTimeFunction);
+    }
+
+    /**
+     * Get the test result file that will be written for the test class with the provided name.
+     * @param testClassFullName The full name of the test class.
+     * @return The test result file for the test class.
+     */
+    public Result<File> getTestResultFile(String testClassFullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testClassFullName, "testClassFullName");
+
+        return this.testResultsFolder.getFile("TEST-" + testClassFullName + ".xml");
+    }
+
+    private void ensureTestClassStarted()
+    {
+        if (!this.testClassStarted)
+        {
+            this.testClassStarted = true;
+            this.testClassStartNanoTime = this.nanoTimeFunction.run();
+        }
+    }
+
+    /**
+     * Notify this writer that the provided {@link Test} is about to run.
+     * @param test The {@link Test} that is about to run.
+     */
+    public void beforeTest(Test test)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        this.ensureTestClassStarted();
+        this.testStartNanoTime = this.nanoTimeFunction.run();
+    }
+
+    /**
+     * Record that the provided {@link Test} passed.
+     * @param test The {@link Test} that passed.
+     */
+    public void afterTestSuccess(Test test)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        this.writeTestCaseStart(test, this.getTestDurationNanoseconds());
+        this.testCases.addAll("/>\n");
+    }
+
+    /**
+     * Record that the provided {@link Test} failed.
+     * @param test The {@link Test} that failed.
+     * @param failure The failure that caused the {@link Test} to fail.
+     */
+    public void afterTestFailure(Test test, TestError failure)
+    {
+        PreCondition.assertNotNull(test, "test");
+        PreCondition.assertNotNull(failure, "failure");
+
+        ++this.failureCount;
+        this.writeTestCaseStart(test, this.getTestDurationNanoseconds());
+        this.testCases.addAll(">\n");
+        this.writeFailure("failure", failure);
+        this.testCases.addAll("  </testcase>\n");
+    }
+
+    /**
+     * Record that the provided {@link Test} was skipped. Skipped tests don't run, so they are
+     * always reported with a time of 0.
+     * @param test The {@link Test} that was skipped.
+     */
+    public void afterTestSkipped(Test test)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        this.ensureTestClassStarted();
+
+        ++this.skippedCount;
+        this.writeTestCaseStart(test, 0);
+        this.testCases.addAll(">\n");
+        this.testCases.addAll("    <skipped");
+        final String skipMessage = test.getSkipMessage();
+        if (!Strings.isNullOrEmpty(skipMessage))
+        {
+            this.testCases.addAll(" message=\"" + JUnitXmlReportWriter.escape(skipMessage) + "\"");
+        }
+        this.testCases.addAll("/>\n");
+        this.testCases.addAll("  </testcase>\n");
+    }
+
+    /**
+     * Record that the provided {@link TestGroup} failed outside of any of its tests.
+     * @param testGroup The {@link TestGroup} that failed.
+     * @param failure The failure that caused the {@link TestGroup} to fail.
+     */
+    public void afterTestGroupFailure(TestGroup testGroup, TestError failure)
+    {
+        PreCondition.assertNotNull(testGroup, "testGroup");
+        PreCondition.assertNotNull(failure, "failure");
+
+        this.ensureTestClassStarted();
+
+        ++this.testCount;
+        ++this.errorCount;
+        this.testCases.addAll("  <testcase classname=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestClassName(testGroup)) + "\"");
+        this.testCases.addAll(" name=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestCaseName(testGroup)) + "\"");
+        this.testCases.addAll(" time=\"0\">\n");
+        this.writeFailure("error", failure);
+        this.testCases.addAll("  </testcase>\n");
+    }
+
+    /**
+     * Write the test result file for the provided {@link TestClass} and reset this writer so that
+     * it can record the results of the next test class.
+     * @param testClass The {@link TestClass} that finished running.
+     * @return The result of writing the test result file.
+     */
+    public Result<File> afterTestClass(TestClass testClass)
+    {
+        PreCondition.assertNotNull(testClass, "testClass");
+
+        return Result.create(() ->
+        {
+            this.ensureTestClassStarted();
+
+            final String testClassFullName = testClass.getFullName();
+            final File testResultFile = this.getTestResultFile(testClassFullName).await();
+            try (final CharacterWriteStream writeStream = CharacterWriteStream.create(ByteWriteStream.buffer(testResultFile.getContentsByteWriteStream().await())))
+            {
+                writeStream.writeLine("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").await();
+                writeStream.writeLine("<testsuite" +
+                    " name=\"" + JUnitXmlReportWriter.escape(testClassFullName) + "\"" +
+                    " tests=\"" + this.testCount + "\"" +
+                    " failures=\"" + this.failureCount + "\"" +
+                    " errors=\"" + this.errorCount + "\"" +
+                    " skipped=\"" + this.skippedCount + "\"" +
+                    " time=\"" + JUnitXmlReportWriter.getSeconds(this.nanoTimeFunction.run() - this.testClassStartNanoTime) + "\">").await();
+                writeStream.write(this.testCases.toString(true)).await();
+                writeStream.writeLine("</testsuite>").await();
+            }
+
+            this.testCases.clear();
+            this.testCount = 0;
+            this.failureCount = 0;
+            this.errorCount = 0;
+            this.skippedCount = 0;
+            this.testClassStarted = false;
+
+            return testResultFile;
+        });
+    }
+
+    private long getTestDurationNanoseconds()
+    {
+        return this.nanoTimeFunction.run() - this.testStartNanoTime;
+    }
+
+    private void writeTestCaseStart(Test test, long durationNanoseconds)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        ++this.testCount;
+        this.testCases.addAll("  <testcase classname=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestClassName(test.getParent())) + "\"");
+        this.testCases.addAll(" name=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestCaseName(test)) + "\"");
+        this.testCases.addAll(" time=\"" + JUnitXmlReportWriter.getSeconds(durationNanoseconds) + "\"");
+    }
+
+    private void writeFailure(String elementName, TestError failure)
+    {
+        PreCondition.assertNotNullAndNotEmpty(elementName, "elementName");
+        PreCondition.assertNotNull(failure, "failure");
+
+        final String message = failure.getErrorMessage();
+        this.testCases.addAll("    <" + elementName);
+        if (!Strings.isNullOrEmpty(message))
+        {
+            this.testCases.addAll(" message=\"" + JUnitXmlReportWriter.escape(message) + "\"");
+        }
+        this.testCases.addAll(" type=\"" + JUnitXmlReportWriter.escape(failure.getClass().getName()) + "\">");
+        if (!Strings.isNullOrEmpty(message))
+        {
+            this.testCases.addAll(JUnitXmlReportWriter.escape(message));
+            this.testCases.add('\n');
+        }
+        Throwable current = failure;
+        while (current != null)
+        {
+            if (current != failure)
+            {
+                this.testCases.addAll(JUnitXmlReportWriter.escape("Caused by: " + current.getClass().getName() + (Strings.isNullOrEmpty(current.getMessage()) ? "" : ": " + current.getMessage())));
+                this.testCases.add('\n');
+            }
+            for (final String stackTraceLine : this.format.getLines(current.getStackTrace()))
+            {
+                this.testCases.addAll(JUnitXmlReportWriter.escape("    " + stackTraceLine));
+                this.testCases.add('\n');
+            }
+
+            final Throwable cause = current.getCause();
+            current = (cause == current ? null : cause);
+        }
+        this.testCases.addAll("</" + elementName + ">\n");
+    }
+
+    /**
+     * Get the full name of the test class that contains the provided {@link TestParent}.
+     * @param testParent The {@link TestParent} to get the test class name of.
+     * @return The full name of the test class that contains the provided {@link TestParent}.
+     */
+    static String getTestClassName(TestParent testParent)
+    {
+        String result = "";
+
+        TestParent current = testParent;
+        while (current != null)
+        {
+            if (current instanceof TestClass)
+            {
+                result = ((TestClass)current).getFullName();
+                break;
+            }
+            result = current.getName();
+            current = current.getParent();
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the name of the provided {@link Test} relative to its test class.
+     * @param test The {@link Test} to get the name of.
+     * @return The name of the provided {@link Test} relative to its test class.
+     */
+    static String getTestCaseName(Test test)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        final String parentName = JUnitXmlReportWriter.getTestCaseName(test.getParent());
+        return Strings.isNullOrEmpty(parentName)
+            ? test.getName()
+            : parentName + " " + test.getName();
+    }
+
+    private static String getTestCaseName(TestParent testParent)
+    {
+        final List<String> names = List.create();
+        TestParent current = testParent;
+        while (current != null && !(current instanceof TestClass))
+        {
+            names.insert(0, current.getName());
+            current = current.getParent();
+        }
+        return Strings.join(' ', names);
+    }
+
+    /**
+     * Get the provided nanosecond duration as a JUnit XML seconds string.
+     * @param nanoseconds The duration in nanoseconds.
+     * @return The duration in seconds with millisecond precision.
+     */
+    static String getSeconds(long nanoseconds)
+    {
+        final long milliseconds = Math.max(0, nanoseconds) / 1000000;
+        final long seconds = milliseconds / 1000;
+        final long remainingMilliseconds = milliseconds % 1000;
+        return seconds + "." + (remainingMilliseconds < 100 ? (remainingMilliseconds < 10 ? "00" : "0") : "") + remainingMilliseconds;
+    }
+
+    /**
+     * Escape the provided text so that it can be written as XML attribute or element text.
+     * Characters that aren't allowed in XML 1.0 documents are removed.
+     * @param text The text to escape.
+     * @return The escaped text.
+     */
+    static String escape(String text)
+    {
+        PreCondition.assertNotNull(text, "text");
+
+        final CharacterList result = CharacterList.create();
+        for (int i = 0; i < text.length(); ++i)
+        {
+            final char character = text.charAt(i);
+            switch (character)
+            {
+                case '&':
+                    result.addAll("&amp;");
+                    break;
+
+                case '<':
+                    result.addAll("&lt;");
+                    break;
+
+                case '>':
+                    result.addAll("&gt;");
+                    break;
+
+                case '"':
+                    result.addAll("&quot;");
+                    break;
+
+                case '\'':
+                    result.addAll("&apos;");
+                    break;
+
+                default:
+                    if (character >= 0x20 || character == '\t' || character == '\n' || character == '\r')
+                    {
+                        result.add(character);
+                    }
+                    break;
+            }
+        }
+        return result.toString(true);
+    }
+}
@@ -0,0 +1,90 @@
+package qub;
+
+/**
+ * A wrapper around the JaCoCo agent that is attached to the current JVM. The agent's runtime API
+ * is accessed through reflection so that this project doesn't need a compile-time dependency on
+ * JaCoCo.
+ */
+public class JacocoAgent
+{
+    private static final String runtimeClassName = "org.jacoco.agent.rt.RT";
+    private static final String agentInterfaceName = "org.jacoco.agent.rt.IAgent";
+
+    private final Function1<Boolean,byte[]> getExecutionDataFunction;
+
+    private JacocoAgent(Function1<Boolean,byte[]> getExecutionDataFunction)
+    {
+        PreCondition.assertNotNull(getExecutionDataFunction, "getExecutionDataFunction");
+
+        this.getExecutionDataFunction = getExecutionDataFunction;
+    }
+
+    /**
+     * Create a new JacocoAgent that gets its execution data from the provided function.
+     * @param getExecutionDataFunction The function that returns the execution data in the JaCoCo
+     *                                 exec file format and optionally resets it.
+     * @return The new JacocoAgent.
+     */
+    static JacocoAgent create(Function1<Boolean,byte[]> getExecutionDataFunction)
+    {
+        return new JacocoAgent(getExecutionDataFunction);
+    }
+
+    /**
+     * Get the JaCoCo agent that is attached to the current JVM.
+     * @return The JaCoCo agent that is attached to the current JVM, or a {@link NotFoundException}
+     * if no JaCoCo agent is attached.
+     */
+    public static Result<JacocoAgent> get()
+    {
+        return Result.create(() ->
+        {
+            try
+            {
+                final Class<?> runtimeClass = Class.forName(JacocoAgent.runtimeClassName);
+                final Class<?> agentInterface = Class.forName(JacocoAgent.agentInterfaceName);
+                final Object agent = runtimeClass.getMethod("getAgent").invoke(null);
+                final java.lang.reflect.Method getExecutionDataMethod = agentInterface.getMethod("getExecutionData", boolean.class);
+                return JacocoAgent.create((Boolean reset) ->
+                {
+                    try
+                    {
+                        return (byte[])getExecutionDataMethod.invoke(agent, reset);
+                    }
+                    catch (IllegalAccessException | java.lang.reflect.InvocationTargetException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+            catch (ClassNotFoundException | NoSuchMethodException e)
+            {
+                throw new NotFoundException("No JaCoCo agent is attached to the current JVM.");
+            }
+            catch (java.lang.reflect.InvocationTargetException e)
+            {
+                // RT.getAgent() throws an IllegalStateException if the agent's runtime classes are
+                // on the classpath but the agent hasn't been started.
+                throw new NotFoundException("No JaCoCo agent is attached to the current JVM.");
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Get the execution data that has been collected by this agent since the last time the
+     * execution data was reset.
+     * @param reset Whether the agent's execution data will be reset after it is returned.
+     * @return The execution data in the JaCoCo exec file format.
+     */
+    public Result<byte[]> getExecutionData(boolean reset)
+    {
+        return Result.create(() ->
+        {
+            return this.getExecutionDataFunction.run(reset);
+        });
+    }
+}
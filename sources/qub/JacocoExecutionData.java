@@ -0,0 +1,190 @@
+package qub;
+
+/**
+ * The classes that are recorded in JaCoCo execution data (the contents of an exec file). JaCoCo
+ * identifies each recorded class by its name and by a CRC64 checksum of its class file bytes (its
+ * class id), so execution data only matches class files that have the same class id. The exec file
+ * format is read directly so that this project doesn't need a compile-time dependency on JaCoCo.
+ */
+public class JacocoExecutionData
+{
+    private static final byte headerBlockType = 0x01;
+    private static final byte sessionInfoBlockType = 0x10;
+    private static final byte executionDataBlockType = 0x11;
+    private static final char magicNumber = 0xC0C0;
+
+    private static final long polynomial = 0xD800000000000000L;
+    private static final long[] lookupTable = JacocoExecutionData.createLookupTable();
+
+    private final MutableMap<String,Long> classIds;
+
+    private JacocoExecutionData(MutableMap<String,Long> classIds)
+    {
+        PreCondition.assertNotNull(classIds, "classIds");
+
+        this.classIds = classIds;
+    }
+
+    /**
+     * Parse the execution data in the provided exec file.
+     * @param execFile The exec file to parse.
+     * @return The parsed execution data.
+     */
+    public static Result<JacocoExecutionData> parse(File execFile)
+    {
+        PreCondition.assertNotNull(execFile, "execFile");
+
+        return Result.create(() ->
+        {
+            try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(execFile.getContentsReadStream().await()))
+            {
+                return JacocoExecutionData.parse(new java.io.DataInputStream(new java.io.BufferedInputStream(inputStream, FileOperations.bufferSize))).await();
+            }
+        });
+    }
+
+    /**
+     * Parse the provided execution data bytes.
+     * @param bytes The execution data bytes in the JaCoCo exec file format.
+     * @return The parsed execution data.
+     */
+    public static Result<JacocoExecutionData> parse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return JacocoExecutionData.parse(new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes)));
+    }
+
+    private static Result<JacocoExecutionData> parse(java.io.DataInputStream input)
+    {
+        return Result.create(() ->
+        {
+            final MutableMap<String,Long> classIds = MutableMap.create();
+            try
+            {
+                // A file that execution data was appended to contains a header block for each
+                // append, so header blocks can appear anywhere in the file.
+                int blockType = input.read();
+                while (blockType != -1)
+                {
+                    switch ((byte)blockType)
+                    {
+                        case JacocoExecutionData.headerBlockType:
+                            if (input.readChar() != JacocoExecutionData.magicNumber)
+                            {
+                                throw new ParseException("Invalid JaCoCo execution data header.");
+                            }
+                            input.readChar(); // Format version
+                            break;
+
+                        case JacocoExecutionData.sessionInfoBlockType:
+                            input.readUTF(); // Session id
+                            input.readLong(); // Session start time
+                            input.readLong(); // Session dump time
+                            break;
+
+                        case JacocoExecutionData.executionDataBlockType:
+                            final long classId = input.readLong();
+                            final String className = input.readUTF();
+                            final int probeCount = JacocoExecutionData.readVarInt(input);
+                            input.readFully(new byte[(probeCount + 7) / 8]);
+                            classIds.set(className, classId);
+                            break;
+
+                        default:
+                            throw new ParseException("Unknown JaCoCo execution data block type: " + blockType);
+                    }
+                    blockType = input.read();
+                }
+            }
+            catch (java.io.EOFException e)
+            {
+                throw new ParseException("Unexpected end of JaCoCo execution data.");
+            }
+            return new JacocoExecutionData(classIds);
+        });
+    }
+
+    /**
+     * Get the names of the classes that are recorded in this execution data. The names use '/'
+     * to separate packages (for example "qub/JavaProject").
+     * @return The names of the classes that are recorded in this execution data.
+     */
+    public Iterable<String> getClassNames()
+    {
+        return this.classIds.getKeys();
+    }
+
+    /**
+     * Get the class id that is recorded for the provided class.
+     * @param className The name of the class.
+     * @return The class id that is recorded for the provided class, or a
+     * {@link NotFoundException} if the class isn't recorded in this execution data.
+     */
+    public Result<Long> getClassId(String className)
+    {
+        PreCondition.assertNotNullAndNotEmpty(className, "className");
+
+        return this.classIds.get(className);
+    }
+
+    /**
+     * Get the class id that JaCoCo uses to identify the provided class file bytes.
+     * @param classFileBytes The bytes of a class file.
+     * @return The class id of the provided class file bytes.
+     */
+    public static long getClassId(byte[] classFileBytes)
+    {
+        PreCondition.assertNotNull(classFileBytes, "classFileBytes");
+
+        long result = 0;
+        for (int i = 0; i < classFileBytes.length; ++i)
+        {
+            // JaCoCo replaces the Java 9 class file major version (53) with the Java 8 version (52)
+            // so that early versions of Java 9 don't change the class ids of Java 8 classes.
+            final byte b = (i == 7 && classFileBytes[6] == 0x00 && classFileBytes[7] == 53) ? (byte)52 : classFileBytes[i];
+            result = (result >>> 8) ^ JacocoExecutionData.lookupTable[((int)result ^ b) & 0xFF];
+        }
+        return result;
+    }
+
+    /**
+     * Get the class id of the provided class file.
+     * @param classFile The class file.
+     * @return The class id of the provided class file.
+     */
+    public static Result<Long> getClassId(File classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        return Result.create(() ->
+        {
+            return JacocoExecutionData.getClassId(FileOperations.readAllBytes(classFile).await());
+        });
+    }
+
+    private static int readVarInt(java.io.DataInputStream input) throws java.io.IOException
+    {
+        final int value = 0xFF & input.readByte();
+        return (value & 0x80) == 0
+            ? value
+            : (value & 0x7F) | (JacocoExecutionData.readVarInt(input) << 7);
+    }
+
+    private static long[] createLookupTable()
+    {
+        final long[] result = new long[256];
+        for (int i = 0; i < result.length; ++i)
+        {
+            long value = i;
+            for (int bit = 0; bit < 8; ++bit)
+            {
+                value = (value & 1) == 1
+                    ? (value >>> 1) ^ JacocoExecutionData.polynomial
+                    : (value >>> 1);
+            }
+            result[i] = value;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,258 @@
+package qub;
+
+/**
+ * Creates JaCoCo HTML and XML coverage reports in the current process. JaCoCo's core and report
+ * libraries are loaded from a jacococli.jar file with a {@link java.net.URLClassLoader} and are
+ * driven through their public API (the same API that jacococli's report command uses) with
+ * reflection, so that this project doesn't need a compile-time dependency on JaCoCo and so that a
+ * report doesn't need its own JVM.
+ */
+public class JacocoReport implements Disposable
+{
+    /**
+     * The title of a report's bundle. This is the same title that jacococli's report command uses.
+     */
+    public static final String bundleTitle = "JaCoCo Coverage Report";
+
+    private static final int tabWidth = 4;
+
+    private static final String execFileLoaderTypeName = "org.jacoco.core.tools.ExecFileLoader";
+    private static final String executionDataStoreTypeName = "org.jacoco.core.data.ExecutionDataStore";
+    private static final String sessionInfoStoreTypeName = "org.jacoco.core.data.SessionInfoStore";
+    private static final String analyzerTypeName = "org.jacoco.core.analysis.Analyzer";
+    private static final String coverageBuilderTypeName = "org.jacoco.core.analysis.CoverageBuilder";
+    private static final String coverageVisitorTypeName = "org.jacoco.core.analysis.ICoverageVisitor";
+    private static final String bundleCoverageTypeName = "org.jacoco.core.analysis.IBundleCoverage";
+    private static final String htmlFormatterTypeName = "org.jacoco.report.html.HTMLFormatter";
+    private static final String xmlFormatterTypeName = "org.jacoco.report.xml.XMLFormatter";
+    private static final String reportVisitorTypeName = "org.jacoco.report.IReportVisitor";
+    private static final String multiReportVisitorTypeName = "org.jacoco.report.MultiReportVisitor";
+    private static final String multiReportOutputTypeName = "org.jacoco.report.IMultiReportOutput";
+    private static final String fileMultiReportOutputTypeName = "org.jacoco.report.FileMultiReportOutput";
+    private static final String sourceFileLocatorTypeName = "org.jacoco.report.ISourceFileLocator";
+    private static final String multiSourceFileLocatorTypeName = "org.jacoco.report.MultiSourceFileLocator";
+    private static final String directorySourceFileLocatorTypeName = "org.jacoco.report.DirectorySourceFileLocator";
+
+    private final java.net.URLClassLoader classLoader;
+    private boolean disposed;
+
+    private JacocoReport(java.net.URLClassLoader classLoader)
+    {
+        PreCondition.assertNotNull(classLoader, "classLoader");
+
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Load JaCoCo's core and report libraries from the provided jacococli.jar file. The jar file
+     * must exist on the local disk, since it is loaded by a {@link java.net.URLClassLoader}.
+     * @param jacococliJarFile The jacococli.jar file to load JaCoCo from.
+     * @return The loaded {@link JacocoReport}, or a {@link NotFoundException} if the provided file
+     * doesn't contain JaCoCo's core and report libraries.
+     */
+    public static Result<JacocoReport> load(File jacococliJarFile)
+    {
+        PreCondition.assertNotNull(jacococliJarFile, "jacococliJarFile");
+
+        return Result.create(() ->
+        {
+            final java.net.URL jacococliJarUrl;
+            try
+            {
+                jacococliJarUrl = JacocoReport.toJavaFile(jacococliJarFile).toURI().toURL();
+            }
+            catch (java.net.MalformedURLException e)
+            {
+                throw new RuntimeException(e);
+            }
+
+            // The platform class loader is the parent so that the JaCoCo classes are always the
+            // ones in the jar file.
+            final JacocoReport result = new JacocoReport(new java.net.URLClassLoader(new java.net.URL[] { jacococliJarUrl }, ClassLoader.getPlatformClassLoader()));
+            try
+            {
+                // Load the entry points now so that a jar file that doesn't contain JaCoCo's
+                // libraries is reported here instead of partway through a report.
+                result.getType(JacocoReport.analyzerTypeName);
+                result.getType(JacocoReport.htmlFormatterTypeName);
+                result.getType(JacocoReport.xmlFormatterTypeName);
+            }
+            catch (RuntimeException error)
+            {
+                result.dispose().await();
+                throw error;
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Create an HTML and an XML coverage report. This is the same report that "jacococli report
+     * [execFiles] --classfiles [classFolder] --sourcefiles [sourceFolder] --html [htmlFolder]
+     * --xml [xmlFile]" creates.
+     * @param execFiles The JaCoCo exec files that contain the execution data to report.
+     * @param classFolders The folders that contain the class files to analyze.
+     * @param sourceFolders The folders that contain the source files of the analyzed classes.
+     * @param htmlFolder The folder to write the HTML report to.
+     * @param xmlFile The file to write the XML report to.
+     * @return The result of creating the report.
+     */
+    public Result<Void> createReport(Iterable<File> execFiles, Iterable<Folder> classFolders, Iterable<Folder> sourceFolders, Folder htmlFolder, File xmlFile)
+    {
+        PreCondition.assertNotNull(execFiles, "execFiles");
+        PreCondition.assertNotNull(classFolders, "classFolders");
+        PreCondition.assertNotNull(sourceFolders, "sourceFolders");
+        PreCondition.assertNotNull(htmlFolder, "htmlFolder");
+        PreCondition.assertNotNull(xmlFile, "xmlFile");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return Result.create(() ->
+        {
+            final Class<?> execFileLoaderType = this.getType(JacocoReport.execFileLoaderTypeName);
+            final Class<?> executionDataStoreType = this.getType(JacocoReport.executionDataStoreTypeName);
+            final Class<?> sessionInfoStoreType = this.getType(JacocoReport.sessionInfoStoreTypeName);
+            final Class<?> analyzerType = this.getType(JacocoReport.analyzerTypeName);
+            final Class<?> coverageBuilderType = this.getType(JacocoReport.coverageBuilderTypeName);
+            final Class<?> coverageVisitorType = this.getType(JacocoReport.coverageVisitorTypeName);
+            final Class<?> bundleCoverageType = this.getType(JacocoReport.bundleCoverageTypeName);
+            final Class<?> htmlFormatterType = this.getType(JacocoReport.htmlFormatterTypeName);
+            final Class<?> xmlFormatterType = this.getType(JacocoReport.xmlFormatterTypeName);
+            final Class<?> reportVisitorType = this.getType(JacocoReport.reportVisitorTypeName);
+            final Class<?> multiReportVisitorType = this.getType(JacocoReport.multiReportVisitorTypeName);
+            final Class<?> multiReportOutputType = this.getType(JacocoReport.multiReportOutputTypeName);
+            final Class<?> fileMultiReportOutputType = this.getType(JacocoReport.fileMultiReportOutputTypeName);
+            final Class<?> sourceFileLocatorType = this.getType(JacocoReport.sourceFileLocatorTypeName);
+            final Class<?> multiSourceFileLocatorType = this.getType(JacocoReport.multiSourceFileLocatorTypeName);
+            final Class<?> directorySourceFileLocatorType = this.getType(JacocoReport.directorySourceFileLocatorTypeName);
+
+            final Object execFileLoader = JacocoReport.construct(execFileLoaderType, new Class<?>[0]);
+            for (final File execFile : execFiles)
+            {
+                JacocoReport.invoke(execFileLoaderType, "load", new Class<?>[] { java.io.File.class }, execFileLoader, JacocoReport.toJavaFile(execFile));
+            }
+            final Object executionDataStore = JacocoReport.invoke(execFileLoaderType, "getExecutionDataStore", new Class<?>[0], execFileLoader);
+            final Object sessionInfoStore = JacocoReport.invoke(execFileLoaderType, "getSessionInfoStore", new Class<?>[0], execFileLoader);
+
+            final Object coverageBuilder = JacocoReport.construct(coverageBuilderType, new Class<?>[0]);
+            final Object analyzer = JacocoReport.construct(analyzerType, new Class<?>[] { executionDataStoreType, coverageVisitorType }, executionDataStore, coverageBuilder);
+            for (final Folder classFolder : classFolders.where((Folder classFolder) -> classFolder.exists().await()))
+            {
+                JacocoReport.invoke(analyzerType, "analyzeAll", new Class<?>[] { java.io.File.class }, analyzer, JacocoReport.toJavaFile(classFolder));
+            }
+            final Object bundleCoverage = JacocoReport.invoke(coverageBuilderType, "getBundle", new Class<?>[] { String.class }, coverageBuilder, JacocoReport.bundleTitle);
+
+            final Object sourceFileLocator = JacocoReport.construct(multiSourceFileLocatorType, new Class<?>[] { int.class }, JacocoReport.tabWidth);
+            for (final Folder sourceFolder : sourceFolders)
+            {
+                final Object directorySourceFileLocator = JacocoReport.construct(directorySourceFileLocatorType, new Class<?>[] { java.io.File.class, String.class, int.class }, JacocoReport.toJavaFile(sourceFolder), null, JacocoReport.tabWidth);
+                JacocoReport.invoke(multiSourceFileLocatorType, "add", new Class<?>[] { sourceFileLocatorType }, sourceFileLocator, directorySourceFileLocator);
+            }
+
+            final Object htmlOutput = JacocoReport.construct(fileMultiReportOutputType, new Class<?>[] { java.io.File.class }, JacocoReport.toJavaFile(htmlFolder));
+            final Object htmlFormatter = JacocoReport.construct(htmlFormatterType, new Class<?>[0]);
+            final Object htmlVisitor = JacocoReport.invoke(htmlFormatterType, "createVisitor", new Class<?>[] { multiReportOutputType }, htmlFormatter, htmlOutput);
+
+            try (final ByteWriteStreamOutputStream xmlOutput = ByteWriteStreamOutputStream.create(ByteWriteStream.buffer(xmlFile.getContentsByteWriteStream().await())))
+            {
+                final Object xmlFormatter = JacocoReport.construct(xmlFormatterType, new Class<?>[0]);
+                final Object xmlVisitor = JacocoReport.invoke(xmlFormatterType, "createVisitor", new Class<?>[] { java.io.OutputStream.class }, xmlFormatter, xmlOutput);
+
+                final Object reportVisitor = JacocoReport.construct(multiReportVisitorType, new Class<?>[] { java.util.List.class }, java.util.List.of(htmlVisitor, xmlVisitor));
+                JacocoReport.invoke(reportVisitorType, "visitInfo", new Class<?>[] { java.util.List.class, java.util.Collection.class }, reportVisitor,
+                    JacocoReport.invoke(sessionInfoStoreType, "getInfos", new Class<?>[0], sessionInfoStore),
+                    JacocoReport.invoke(executionDataStoreType, "getContents", new Class<?>[0], executionDataStore));
+                JacocoReport.invoke(reportVisitorType, "visitBundle", new Class<?>[] { bundleCoverageType, sourceFileLocatorType }, reportVisitor, bundleCoverage, sourceFileLocator);
+                JacocoReport.invoke(reportVisitorType, "visitEnd", new Class<?>[0], reportVisitor);
+            }
+        });
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    /**
+     * Close the class loader that JaCoCo was loaded with.
+     * @return Whether this report was disposed by this call.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                try
+                {
+                    this.classLoader.close();
+                }
+                catch (java.io.IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static java.io.File toJavaFile(FileSystemEntry entry)
+    {
+        return new java.io.File(entry.toString());
+    }
+
+    private Class<?> getType(String fullTypeName)
+    {
+        try
+        {
+            return Class.forName(fullTypeName, true, this.classLoader);
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new NotFoundException("The JaCoCo type " + Strings.escapeAndQuote(fullTypeName) + " could not be found.");
+        }
+    }
+
+    private static Object construct(Class<?> type, Class<?>[] parameterTypes, Object... arguments)
+    {
+        try
+        {
+            return type.getConstructor(parameterTypes).newInstance(arguments);
+        }
+        catch (java.lang.reflect.InvocationTargetException e)
+        {
+            throw JacocoReport.toRuntimeException(e.getCause());
+        }
+        catch (NoSuchMethodException | InstantiationException | IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object invoke(Class<?> type, String methodName, Class<?>[] parameterTypes, Object target, Object... arguments)
+    {
+        try
+        {
+            return type.getMethod(methodName, parameterTypes).invoke(target, arguments);
+        }
+        catch (java.lang.reflect.InvocationTargetException e)
+        {
+            throw JacocoReport.toRuntimeException(e.getCause());
+        }
+        catch (NoSuchMethodException | IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static RuntimeException toRuntimeException(Throwable error)
+    {
+        return error instanceof RuntimeException
+            ? (RuntimeException)error
+            : new RuntimeException(error);
+    }
+}
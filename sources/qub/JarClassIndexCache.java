@@ -0,0 +1,229 @@
+package qub;
+
+/**
+ * A cache of the classes that are contained in (and referenced by) the jar files that are put on
+ * a project's test classpath. Each jar file's class index is stored along with the jar file's last
+ * modified time, so optimizing the test classpath only needs to read the jar files that have
+ * changed since the classpath was last optimized.
+ */
+public class JarClassIndexCache
+{
+    /**
+     * The name of the file that the cache is stored in.
+     */
+    public static final String fileName = "jar-class-index.json";
+
+    private static final String jarsPropertyName = "jars";
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String classNamesPropertyName = "classNames";
+    private static final String referencedClassNamesPropertyName = "referencedClassNames";
+
+    private final File cacheFile;
+    private final JSONObject json;
+    private boolean modified;
+
+    private JarClassIndexCache(File cacheFile, JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        this.cacheFile = cacheFile;
+        this.json = json;
+    }
+
+    /**
+     * Create a new in-memory cache that isn't stored in a file.
+     * @return The new cache.
+     */
+    public static JarClassIndexCache create()
+    {
+        return new JarClassIndexCache(null, JSONObject.create());
+    }
+
+    /**
+     * Get the cache that is stored in the provided file. If the file doesn't exist or can't be
+     * parsed, then an empty cache will be returned that will be stored in the file when it is
+     * saved.
+     * @param cacheFile The file that the cache is stored in.
+     * @return The cache that is stored in the provided file.
+     */
+    public static Result<JarClassIndexCache> get(File cacheFile)
+    {
+        PreCondition.assertNotNull(cacheFile, "cacheFile");
+
+        return Result.create(() ->
+        {
+            final JSONObject json = JSON.parseObject(cacheFile)
+                .catchError(() -> JSONObject.create())
+                .await();
+            return new JarClassIndexCache(cacheFile, json);
+        });
+    }
+
+    /**
+     * Get the cache that is stored in the project data folder of the provided process.
+     * @param process The process that is optimizing a test classpath.
+     * @return The cache that is stored in the project data folder of the provided process.
+     */
+    public static Result<JarClassIndexCache> get(DesktopProcess process)
+    {
+        PreCondition.assertNotNull(process, "process");
+
+        return Result.create(() ->
+        {
+            final File cacheFile = process.getQubProjectDataFolder().await()
+                .getFile(JarClassIndexCache.fileName).await();
+            return JarClassIndexCache.get(cacheFile).await();
+        });
+    }
+
+    /**
+     * Get the file that this cache is stored in.
+     * @return The file that this cache is stored in, or null if this cache is only stored in
+     * memory.
+     */
+    public File getCacheFile()
+    {
+        return this.cacheFile;
+    }
+
+    /**
+     * Get whether this cache has changed since it was last saved.
+     * @return Whether this cache has changed since it was last saved.
+     */
+    public boolean isModified()
+    {
+        return this.modified;
+    }
+
+    /**
+     * Get the names of the classes that are contained in the provided jar file.
+     * @param jarFile The jar file.
+     * @param lastModified The current last modified time of the jar file.
+     * @return The names of the classes that are contained in the provided jar file, or null if
+     * they aren't stored in this cache or the jar file has changed since they were stored.
+     */
+    public Iterable<String> getClassNames(File jarFile, DateTime lastModified)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        return this.getStrings(jarFile, lastModified, JarClassIndexCache.classNamesPropertyName);
+    }
+
+    /**
+     * Store the names of the classes that are contained in the provided jar file. Any referenced
+     * class names that were stored for an older version of the jar file are removed.
+     * @param jarFile The jar file.
+     * @param lastModified The last modified time of the jar file that the class names were read
+     *                     from.
+     * @param classNames The names of the classes that are contained in the jar file.
+     * @return This object for method chaining.
+     */
+    public JarClassIndexCache setClassNames(File jarFile, DateTime lastModified, Iterable<String> classNames)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(lastModified, "lastModified");
+        PreCondition.assertNotNull(classNames, "classNames");
+
+        this.getJarsJson().setObject(jarFile.toString(), JSONObject.create()
+            .setString(JarClassIndexCache.lastModifiedPropertyName, lastModified.toString())
+            .setArray(JarClassIndexCache.classNamesPropertyName, JSONArray.create(classNames.map(JSONString::get))));
+        this.modified = true;
+
+        return this;
+    }
+
+    /**
+     * Get the names of the classes that are referenced by the classes in the provided jar file.
+     * @param jarFile The jar file.
+     * @param lastModified The current last modified time of the jar file.
+     * @return The names of the classes that are referenced by the classes in the provided jar
+     * file, or null if they aren't stored in this cache or the jar file has changed since they
+     * were stored.
+     */
+    public Iterable<String> getReferencedClassNames(File jarFile, DateTime lastModified)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        return this.getStrings(jarFile, lastModified, JarClassIndexCache.referencedClassNamesPropertyName);
+    }
+
+    /**
+     * Store the names of the classes that are referenced by the classes in the provided jar file.
+     * The jar file's class names must already be stored for the same last modified time.
+     * @param jarFile The jar file.
+     * @param lastModified The last modified time of the jar file that the referenced class names
+     *                     were read from.
+     * @param referencedClassNames The names of the classes that are referenced by the classes in
+     *                             the jar file.
+     * @return This object for method chaining.
+     */
+    public JarClassIndexCache setReferencedClassNames(File jarFile, DateTime lastModified, Iterable<String> referencedClassNames)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(lastModified, "lastModified");
+        PreCondition.assertNotNull(referencedClassNames, "referencedClassNames");
+        PreCondition.assertNotNull(this.getClassNames(jarFile, lastModified), "this.getClassNames(jarFile, lastModified)");
+
+        this.getJarsJson().getObject(jarFile.toString()).await()
+            .setArray(JarClassIndexCache.referencedClassNamesPropertyName, JSONArray.create(referencedClassNames.map(JSONString::get)));
+        this.modified = true;
+
+        return this;
+    }
+
+    /**
+     * Write this cache to its file if it has changed since it was last saved.
+     * @return The result of saving this cache.
+     */
+    public Result<Void> save()
+    {
+        return Result.create(() ->
+        {
+            if (this.cacheFile != null && this.modified)
+            {
+                this.cacheFile.setContentsAsString(this.json.toString()).await();
+                this.modified = false;
+            }
+        });
+    }
+
+    /**
+     * Get the JSON representation of this cache.
+     * @return The JSON representation of this cache.
+     */
+    public JSONObject toJson()
+    {
+        return this.json;
+    }
+
+    private Iterable<String> getStrings(File jarFile, DateTime lastModified, String propertyName)
+    {
+        Iterable<String> result = null;
+
+        final JSONObject jarJson = this.getJarsJson().getObject(jarFile.toString()).catchError().await();
+        if (jarJson != null &&
+            lastModified.toString().equals(jarJson.getString(JarClassIndexCache.lastModifiedPropertyName).catchError().await()))
+        {
+            final JSONArray stringsJson = jarJson.getArray(propertyName).catchError().await();
+            if (stringsJson != null)
+            {
+                result = stringsJson.instanceOf(JSONString.class).map(JSONString::getValue).toList();
+            }
+        }
+
+        return result;
+    }
+
+    private JSONObject getJarsJson()
+    {
+        JSONObject result = this.json.getObject(JarClassIndexCache.jarsPropertyName).catchError().await();
+        if (result == null)
+        {
+            result = JSONObject.create();
+            this.json.setObject(JarClassIndexCache.jarsPropertyName, result);
+        }
+        return result;
+    }
+}
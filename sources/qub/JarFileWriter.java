@@ -0,0 +1,337 @@
+package qub;
+
+/**
+ * A type that writes jar files from within the current process, rather than by launching the
+ * JDK's jar tool.
+ */
+public class JarFileWriter
+{
+    /**
+     * The last modified time that is written for every entry of a deterministic jar file. This is
+     * the earliest time that the zip format can represent.
+     */
+    static final java.time.LocalDateTime deterministicLastModified = java.time.LocalDateTime.of(1980, 1, 1, 0, 0);
+
+    /**
+     * The number of compressed entries for each of the compression executor's threads that can
+     * be waiting to be written at the same time.
+     */
+    static final int pendingCompressionsPerThread = 2;
+
+    private String mainClassFullTypeName;
+    private String createdBy;
+    private int compressionLevel;
+    private DaemonExecutor compressionExecutor;
+    private boolean deterministic;
+
+    private JarFileWriter()
+    {
+        this.compressionLevel = java.util.zip.Deflater.DEFAULT_COMPRESSION;
+    }
+
+    public static JarFileWriter create()
+    {
+        return new JarFileWriter();
+    }
+
+    /**
+     * Get the main class/entry point type that will be written to the manifest of the jar files
+     * that this writer creates.
+     * @return The main class/entry point type, or null if no main class will be written.
+     */
+    public String getMainClass()
+    {
+        return this.mainClassFullTypeName;
+    }
+
+    /**
+     * Set the main class/entry point type that will be written to the manifest of the jar files
+     * that this writer creates. This is equivalent to {@link JarParameters#addMainClass(String)}.
+     * @param mainClassFullTypeName The main class/entry point type, or null if no main class should
+     *                              be written.
+     * @return This object for method chaining.
+     */
+    public JarFileWriter setMainClass(String mainClassFullTypeName)
+    {
+        this.mainClassFullTypeName = mainClassFullTypeName;
+
+        return this;
+    }
+
+    /**
+     * Set the value of the Created-By attribute that will be written to the manifest of the jar
+     * files that this writer creates.
+     * @param createdBy The value of the Created-By attribute, or null if no Created-By attribute
+     *                  should be written.
+     * @return This object for method chaining.
+     */
+    public JarFileWriter setCreatedBy(String createdBy)
+    {
+        this.createdBy = createdBy;
+
+        return this;
+    }
+
+    /**
+     * Get the deflate compression level that this writer uses for the entries that it
+     * compresses.
+     * @return The deflate compression level (0-9), or -1 if the default compression level is used.
+     */
+    public int getCompressionLevel()
+    {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Set the deflate compression level that this writer uses for the entries that it
+     * compresses.
+     * @param compressionLevel The deflate compression level (0-9), or -1 to use the default
+     *                         compression level.
+     * @return This object for method chaining.
+     */
+    public JarFileWriter setCompressionLevel(int compressionLevel)
+    {
+        PreCondition.assertBetween(-1, compressionLevel, 9, "compressionLevel");
+
+        this.compressionLevel = compressionLevel;
+
+        return this;
+    }
+
+    /**
+     * Set the executor that this writer will use to read and compress entries in parallel. The
+     * compressed entries are still written to the jar file in order on the calling thread, and
+     * no more than {@link #pendingCompressionsPerThread} entries per executor thread are
+     * compressed ahead of the entry that is being written. If
+     * the executor is null, then entries will be compressed on the calling thread as they are
+     * written.
+     * @param compressionExecutor The executor that will be used to compress entries, or null to
+     *                            compress entries on the calling thread.
+     * @return This object for method chaining.
+     */
+    public JarFileWriter setCompressionExecutor(DaemonExecutor compressionExecutor)
+    {
+        this.compressionExecutor = compressionExecutor;
+
+        return this;
+    }
+
+    /**
+     * Get whether this writer creates deterministic jar files.
+     * @return Whether this writer creates deterministic jar files.
+     */
+    public boolean getDeterministic()
+    {
+        return this.deterministic;
+    }
+
+    /**
+     * Set whether this writer creates deterministic jar files. The entries of a deterministic jar
+     * file are sorted by name, every entry has the same last modified time, and the manifest
+     * doesn't contain a Created-By attribute, so writing the same files always produces the same
+     * bytes.
+     * @param deterministic Whether this writer creates deterministic jar files.
+     * @return This object for method chaining.
+     */
+    public JarFileWriter setDeterministic(boolean deterministic)
+    {
+        this.deterministic = deterministic;
+
+        return this;
+    }
+
+    /**
+     * Create the manifest that will be written to the jar files that this writer creates.
+     * @return The manifest that will be written to the jar files that this writer creates.
+     */
+    public java.util.jar.Manifest createManifest()
+    {
+        final java.util.jar.Manifest result = new java.util.jar.Manifest();
+        final java.util.jar.Attributes attributes = result.getMainAttributes();
+        attributes.put(java.util.jar.Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (!this.deterministic && !Strings.isNullOrEmpty(this.createdBy))
+        {
+            attributes.put(new java.util.jar.Attributes.Name("Created-By"), this.createdBy);
+        }
+        if (!Strings.isNullOrEmpty(this.mainClassFullTypeName))
+        {
+            attributes.put(java.util.jar.Attributes.Name.MAIN_CLASS, this.mainClassFullTypeName);
+        }
+        return result;
+    }
+
+    /**
+     * Write a jar file that contains all of the files in the provided base folder. This is
+     * equivalent to running "jar --create --file=[jarFile] -C [baseFolder] .".
+     * @param jarFile The jar file to write.
+     * @param baseFolder The folder whose contents will be written to the jar file.
+     * @return The result of writing the jar file.
+     */
+    public Result<Void> write(File jarFile, Folder baseFolder)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(baseFolder, "baseFolder");
+
+        return this.update(jarFile, baseFolder, Iterable.create())
+            .then((Integer copiedEntryCount) -> {});
+    }
+
+    /**
+     * Update an existing jar file so that it contains all of the files in the provided base
+     * folder. The entries for the provided unchanged files are copied from the existing jar file
+     * without being recompressed, and every other file is read from the base folder and
+     * compressed. If the existing jar file doesn't exist or can't be read, then the jar file will
+     * be written from scratch.
+     * @param jarFile The jar file to update.
+     * @param baseFolder The folder whose contents will be written to the jar file.
+     * @param unchangedFileRelativePaths The paths (relative to the base folder) of the files that
+     *                                   haven't changed since the existing jar file was written.
+     * @return The number of entries that were copied from the existing jar file.
+     */
+    public Result<Integer> update(File jarFile, Folder baseFolder, Iterable<Path> unchangedFileRelativePaths)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(baseFolder, "baseFolder");
+        PreCondition.assertNotNull(unchangedFileRelativePaths, "unchangedFileRelativePaths");
+
+        return Result.create(() ->
+        {
+            final java.util.Set<String> unchangedEntryNames = new java.util.HashSet<>();
+            for (final Path unchangedFileRelativePath : unchangedFileRelativePaths)
+            {
+                unchangedEntryNames.add(JarFileWriter.getEntryName(unchangedFileRelativePath));
+            }
+
+            ZipArchive previousArchive = null;
+            if (!unchangedEntryNames.isEmpty() && jarFile.exists().await())
+            {
+                previousArchive = ZipArchive.parse(FileOperations.readAllBytes(jarFile).await())
+                    .catchError()
+                    .await();
+            }
+
+            Iterable<FileSystemEntry> entries = baseFolder.iterateEntriesRecursively()
+                .where((FileSystemEntry entry) -> !entry.getPath().equals(jarFile.getPath()))
+                .toList();
+            if (this.deterministic)
+            {
+                entries = entries.order((FileSystemEntry lhs, FileSystemEntry rhs) ->
+                    JarFileWriter.getEntryName(lhs.relativeTo(baseFolder)).compareTo(JarFileWriter.getEntryName(rhs.relativeTo(baseFolder))) < 0);
+            }
+
+            // Decide up front how each entry will be written so that the files that need to be
+            // compressed can be read and compressed on the compression executor while the jar
+            // file is being written.
+            final List<String> entryNames = List.create();
+            final List<ZipArchiveEntry> copiedEntries = List.create();
+            final List<File> filesToCompress = List.create();
+            for (final FileSystemEntry entry : entries)
+            {
+                final String entryName = JarFileWriter.getEntryName(entry.relativeTo(baseFolder));
+                entryNames.add(entryName);
+
+                ZipArchiveEntry previousEntry = entry instanceof Folder || previousArchive == null || !unchangedEntryNames.contains(entryName)
+                    ? null
+                    : previousArchive.getEntry(entryName).catchError().await();
+                if (previousEntry != null && this.deterministic && !JarFileWriter.hasDeterministicLastModified(previousEntry))
+                {
+                    // An entry that was written by a non-deterministic writer would carry its
+                    // original timestamp into this jar file.
+                    previousEntry = null;
+                }
+                copiedEntries.add(previousEntry);
+
+                filesToCompress.add(entry instanceof Folder || previousEntry != null ? null : (File)entry);
+            }
+
+            // Only a few compressed files per compression thread are held at a time, so a jar
+            // file with many large entries isn't compressed into memory all at once. The tasks
+            // are started in entry order and taken in entry order.
+            final int maximumPendingCompressionCount = this.compressionExecutor == null
+                ? 0
+                : this.compressionExecutor.getThreadCount() * JarFileWriter.pendingCompressionsPerThread;
+            final java.util.ArrayDeque<DaemonExecutor.Task<ZipCompressedFile>> pendingCompressions = new java.util.ArrayDeque<>();
+            int nextCompressionIndex = 0;
+
+            int result = 0;
+            try (final ZipArchiveWriter zipWriter = ZipArchiveWriter.create(ByteWriteStreamOutputStream.create(ByteWriteStream.buffer(jarFile.getContentsByteWriteStream().await()))))
+            {
+                zipWriter.setCompressionLevel(this.compressionLevel);
+                if (this.deterministic)
+                {
+                    zipWriter.setLastModified(JarFileWriter.deterministicLastModified);
+                }
+
+                // The jar tool always writes a META-INF/ folder entry before the manifest.
+                zipWriter.addFolder("META-INF/").await();
+
+                final java.io.ByteArrayOutputStream manifestBytes = new java.io.ByteArrayOutputStream();
+                this.createManifest().write(manifestBytes);
+                zipWriter.addFile(java.util.jar.JarFile.MANIFEST_NAME, manifestBytes.toByteArray()).await();
+
+                final int entryCount = entryNames.getCount();
+                for (int i = 0; i < entryCount; ++i)
+                {
+                    while (nextCompressionIndex < entryCount && pendingCompressions.size() < maximumPendingCompressionCount)
+                    {
+                        final File fileToCompress = filesToCompress.get(nextCompressionIndex);
+                        if (fileToCompress != null)
+                        {
+                            final String entryName = entryNames.get(nextCompressionIndex);
+                            pendingCompressions.add(this.compressionExecutor.submit(() -> this.compressFile(entryName, fileToCompress)));
+                        }
+                        ++nextCompressionIndex;
+                    }
+
+                    final ZipArchiveEntry copiedEntry = copiedEntries.get(i);
+                    final File fileToCompress = filesToCompress.get(i);
+                    if (copiedEntry != null)
+                    {
+                        zipWriter.copyEntry(previousArchive, copiedEntry).await();
+                        ++result;
+                    }
+                    else if (fileToCompress != null)
+                    {
+                        final ZipCompressedFile compressedFile = this.compressionExecutor == null
+                            ? this.compressFile(entryNames.get(i), fileToCompress)
+                            : pendingCompressions.remove().await();
+                        zipWriter.addFile(compressedFile).await();
+                    }
+                    else
+                    {
+                        zipWriter.addFolder(entryNames.get(i) + "/").await();
+                    }
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+            finally
+            {
+                for (final DaemonExecutor.Task<ZipCompressedFile> pendingCompression : pendingCompressions)
+                {
+                    pendingCompression.cancel();
+                }
+            }
+
+            return result;
+        });
+    }
+
+    private ZipCompressedFile compressFile(String entryName, File file)
+    {
+        return ZipCompressedFile.compress(entryName, FileOperations.readAllBytes(file).await(), this.compressionLevel);
+    }
+
+    private static boolean hasDeterministicLastModified(ZipArchiveEntry entry)
+    {
+        return entry.getLastModifiedDosTime() == ZipArchiveWriter.getDosTime(JarFileWriter.deterministicLastModified) &&
+            entry.getLastModifiedDosDate() == ZipArchiveWriter.getDosDate(JarFileWriter.deterministicLastModified);
+    }
+
+    private static String getEntryName(Path relativePath)
+    {
+        return relativePath.toString().replace('\\', '/');
+    }
+}
@@ -1,6 +1,6 @@
 package qub;
 
-public class JarParameters extends ChildProcessParametersDecorator<JarParameters>
+public class JarParameters extends ArgumentFileParametersDecorator<JarParameters>
 {
     protected JarParameters(Path executablePath)
     {
@@ -166,15 +166,25 @@ public class JarParameters extends ChildProcessParametersDecorator<JarParameters
         return this.addContentPaths(contentPathStrings.map(Path::parse));
     }
 
+    /**
+     * Add the paths to the files and folders that will be added to the jar file. If the content
+     * paths are longer than the argument file threshold, then they will be passed through an
+     * argument file.
+     * @param contentPaths The paths to the files and folders that will be added to the jar file.
+     * @return This object for method chaining.
+     */
     public JarParameters addContentPaths(Iterable<Path> contentPaths)
     {
         PreCondition.assertNotNull(contentPaths, "contentPaths");
 
+        final List<String> contentPathStrings = List.create();
         for (final Path contentPath : contentPaths)
         {
-            this.addContentPath(contentPath);
+            PreCondition.assertNotNull(contentPath, "contentPath");
+
+            contentPathStrings.add(this.relativeToWorkingFolderPath(contentPath).toString());
         }
-        final JarParameters result = this;
+        final JarParameters result = this.addArgumentGroup("jar-contents", contentPathStrings);
 
         PostCondition.assertNotNull(result, "result");
 
@@ -1,6 +1,6 @@
 package qub;
 
-public class JavaParameters extends ChildProcessParametersDecorator<JavaParameters>
+public class JavaParameters extends ArgumentFileParametersDecorator<JavaParameters>
 {
     protected JavaParameters(Path executablePath)
     {
@@ -34,7 +34,8 @@ public class JavaParameters extends ChildProcessParametersDecorator<JavaParamete
     }
 
     /**
-     * Add a classpath argument to the java process.
+     * Add a classpath argument to the java process. If the classpath is longer than the argument
+     * file threshold, then it will be passed through an argument file.
      * @param classpath The classpath argument to add to the java process.
      * @return This object for method chaining.
      */
@@ -42,7 +43,7 @@ public class JavaParameters extends ChildProcessParametersDecorator<JavaParamete
     {
         PreCondition.assertNotNullAndNotEmpty(classpath, "classpath");
 
-        return this.addArguments("-classpath", classpath);
+        return this.addArgumentGroup("java-classpath", Iterable.create("-classpath", classpath));
     }
 
     /**
@@ -128,4 +129,42 @@ public class JavaParameters extends ChildProcessParametersDecorator<JavaParamete
             ? "--show-version"
             : "-showversion");
     }
+
+    /**
+     * Add an argument that runs the main class of the provided jar file.
+     * @param jarFilePath The path to the jar file to run.
+     * @return This object for method chaining.
+     */
+    public JavaParameters addJarFile(String jarFilePath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(jarFilePath, "jarFilePath");
+
+        return this.addArguments("-jar", jarFilePath);
+    }
+
+    /**
+     * Add an argument that makes the java process write a dynamic AppCDS (application class data
+     * sharing) archive of the classes that it loaded to the provided file when it exits.
+     * @param archiveFilePath The path to the archive file that will be written.
+     * @return This object for method chaining.
+     */
+    public JavaParameters addArchiveClassesAtExit(String archiveFilePath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(archiveFilePath, "archiveFilePath");
+
+        return this.addArguments("-XX:ArchiveClassesAtExit=" + archiveFilePath);
+    }
+
+    /**
+     * Add an argument that makes the java process map the classes in the provided AppCDS archive
+     * file instead of loading and verifying them from their jar files.
+     * @param archiveFilePath The path to the archive file.
+     * @return This object for method chaining.
+     */
+    public JavaParameters addSharedArchiveFile(String archiveFilePath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(archiveFilePath, "archiveFilePath");
+
+        return this.addArguments("-XX:SharedArchiveFile=" + archiveFilePath);
+    }
 }
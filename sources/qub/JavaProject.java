@@ -80,4 +80,18 @@ public interface JavaProject
 
         return projectName + ".tests.jar";
     }
+
+    static String getFatJarFileName(String projectName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(projectName, "projectName");
+
+        return projectName + ".fat.jar";
+    }
+
+    static String getAppCdsArchiveFileName(String projectName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(projectName, "projectName");
+
+        return projectName + ".jsa";
+    }
 }
\ No newline at end of file
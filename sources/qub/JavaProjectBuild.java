@@ -78,36 +78,43 @@ public interface JavaProjectBuild
 
                         verboseStream.writeLine("Discovering dependencies...").await();
                         final Iterable<ProjectSignature> declaredDependencies = projectFolder.getDependencies().await();
-                        final Iterable<JavaPublishedProjectFolder> dependencyFolders = projectFolder.getAllDependencyFolders(qubFolder, true)
-                            .catchError((Throwable error) ->
-                            {
-                                final Iterable<Throwable> errors;
-                                final String errorString;
-                                if (error instanceof ErrorIterable)
-                                {
-                                    errors = (ErrorIterable)error;
-                                    errorString = "Errors";
-                                }
-                                else
+                        final JavaProjectLockJSON projectLockJson = projectFolder.getFreshProjectLockJson(qubFolder).catchError().await();
+                        if (projectLockJson != null)
+                        {
+                            verboseStream.writeLine("Using the dependency graph from " + JavaProjectLockJSON.fileName + ".").await();
+                        }
+                        final Iterable<JavaPublishedProjectFolder> dependencyFolders = projectLockJson != null
+                            ? projectLockJson.getResolvedDependencyFolders(qubFolder)
+                            : projectFolder.getAllDependencyFolders(qubFolder, true, DependencyGraphCache.get(process).catchError().await())
+                                .catchError((Throwable error) ->
                                 {
-                                    errors = Iterable.create(error);
-                                    errorString = "An error";
-                                }
+                                    final Iterable<Throwable> errors;
+                                    final String errorString;
+                                    if (error instanceof ErrorIterable)
+                                    {
+                                        errors = (ErrorIterable)error;
+                                        errorString = "Errors";
+                                    }
+                                    else
+                                    {
+                                        errors = Iterable.create(error);
+                                        errorString = "An error";
+                                    }
 
-                                outputStream.writeLine(errorString + " occurred while discovering dependencies:").await();
-                                int errorNumber = 0;
-                                for (final Throwable dependencyError : errors)
-                                {
-                                    errorNumber++;
-                                    final IndentedCharacterWriteStream indentedOutputStream = IndentedCharacterWriteStream.create(outputStream);
-                                    final String errorNumberString = errorNumber + ". ";
-                                    indentedOutputStream.write(errorNumberString).await();
-                                    indentedOutputStream.setCurrentIndent(Strings.repeat(' ', errorNumberString.length()));
-                                    indentedOutputStream.writeLine(dependencyError.getMessage()).await();
-                                }
-                                process.setExitCode(-1);
-                            })
-                            .await();
+                                    outputStream.writeLine(errorString + " occurred while discovering dependencies:").await();
+                                    int errorNumber = 0;
+                                    for (final Throwable dependencyError : errors)
+                                    {
+                                        errorNumber++;
+                                        final IndentedCharacterWriteStream indentedOutputStream = IndentedCharacterWriteStream.create(outputStream);
+                                        final String errorNumberString = errorNumber + ". ";
+                                        indentedOutputStream.write(errorNumberString).await();
+                                        indentedOutputStream.setCurrentIndent(Strings.repeat(' ', errorNumberString.length()));
+                                        indentedOutputStream.writeLine(dependencyError.getMessage()).await();
+                                    }
+                                    process.setExitCode(-1);
+                                })
+                                .await();
                         if (dependencyFolders != null)
                         {
                             final Folder outputsFolder = projectFolder.getOutputsFolder().await();
@@ -378,11 +385,20 @@ public interface JavaProjectBuild
                                         .map(BuildJSONJavaFile::getRelativePath)
                                         .toList();
 
+                                    // A fresh lockfile already records the classpaths of the locked
+                                    // dependency graph.
                                     final List<String> dependencyCompiledSourcesJarFilePaths = List.create();
-                                    for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                                    if (projectLockJson != null)
+                                    {
+                                        dependencyCompiledSourcesJarFilePaths.addAll(projectLockJson.getCompileClasspath());
+                                    }
+                                    else
                                     {
-                                        final File dependencySourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
-                                        dependencyCompiledSourcesJarFilePaths.add(dependencySourcesJarFile.toString());
+                                        for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                                        {
+                                            final File dependencySourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
+                                            dependencyCompiledSourcesJarFilePaths.add(dependencySourcesJarFile.toString());
+                                        }
                                     }
 
                                     final Folder outputsSourcesFolder = projectFolder.getOutputsSourcesFolder().await();
@@ -399,6 +415,7 @@ public interface JavaProjectBuild
                                         outputStream.writeLine("Compiling " + javaSourceFilesToCompileCount + " source file" + (javaSourceFilesToCompileCount == 1 ? "" : "s") + "...").await();
                                         javacResult = javac.compile((JavacParameters javacParameters) ->
                                         {
+                                            javacParameters.setArgumentFileFolder(outputsFolder.getFolder("argfiles/sources").await());
                                             javacParameters.addDirectory(outputsSourcesFolder);
 
                                             final List<String> classpath = List.create(outputsSourcesFolder.toString());
@@ -406,7 +423,7 @@ public interface JavaProjectBuild
                                             javacParameters.addClasspath(classpath);
 
                                             javacParameters.addXLint("all", "-try", "-overrides", "-varargs", "-serial", "-overloads");
-                                            javacParameters.addArguments(javaSourceFileRelativePathsToCompile);
+                                            javacParameters.addSourceFiles(javaSourceFileRelativePathsToCompile);
                                         }).await();
 
                                         process.setExitCode(javacResult.getExitCode());
@@ -453,18 +470,33 @@ public interface JavaProjectBuild
                                         if (javaTestSourceFilesToCompileCount > 0)
                                         {
                                             final List<String> dependencyCompiledTestSourcesJarFilePaths = List.create();
-                                            for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                                            if (projectLockJson != null)
+                                            {
+                                                for (final String testClasspathEntry : projectLockJson.getTestClasspath())
+                                                {
+                                                    if (!dependencyCompiledSourcesJarFilePaths.contains(testClasspathEntry) &&
+                                                        qubFolder.getFileSystem().fileExists(Path.parse(testClasspathEntry)).await())
+                                                    {
+                                                        dependencyCompiledTestSourcesJarFilePaths.add(testClasspathEntry);
+                                                    }
+                                                }
+                                            }
+                                            else
                                             {
-                                                final File dependencyTestSourcesJarFile = dependencyFolder.getCompiledTestsJarFile().await();
-                                                if (dependencyTestSourcesJarFile.exists().await())
+                                                for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
                                                 {
-                                                    dependencyCompiledTestSourcesJarFilePaths.add(dependencyTestSourcesJarFile.toString());
+                                                    final File dependencyTestSourcesJarFile = dependencyFolder.getCompiledTestsJarFile().await();
+                                                    if (dependencyTestSourcesJarFile.exists().await())
+                                                    {
+                                                        dependencyCompiledTestSourcesJarFilePaths.add(dependencyTestSourcesJarFile.toString());
+                                                    }
                                                 }
                                             }
 
                                             outputStream.writeLine("Compiling " + javaTestSourceFilesToCompileCount + " test source file" + (javaTestSourceFilesToCompileCount == 1 ? "" : "s") + "...").await();
                                             javacResult = javac.compile((JavacParameters javacParameters) ->
                                             {
+                                                javacParameters.setArgumentFileFolder(outputsFolder.getFolder("argfiles/tests").await());
                                                 javacParameters.addDirectory(testSourcesOutputFolder);
 
                                                 final List<String> classpath = List.create(testSourcesOutputFolder.toString());
@@ -477,7 +509,7 @@ public interface JavaProjectBuild
                                                 javacParameters.addClasspath(classpath);
 
                                                 javacParameters.addXLint("all", "-try", "-overrides", "-varargs", "-serial", "-overloads");
-                                                javacParameters.addArguments(javaTestSourceFileRelativePathsToCompile);
+                                                javacParameters.addSourceFiles(javaTestSourceFileRelativePathsToCompile);
                                             }).await();
 
                                             process.setExitCode(javacResult.getExitCode());
@@ -5,6 +5,19 @@ public class JavaProjectConfiguration extends JSONObjectWrapperBase
     private static final String configurationFileName = "configuration.json";
 
     private static final String ignoredStackTraceTypesPropertyName = "ignoredStackTraceTypes";
+    private static final String collapseRepeatedStackFramesPropertyName = "collapseRepeatedStackFrames";
+    private static final String minimumLineCoveragePropertyName = "minimumLineCoverage";
+    private static final String minimumBranchCoveragePropertyName = "minimumBranchCoverage";
+    private static final String packCacheEnabledPropertyName = "packCacheEnabled";
+    private static final String packCacheMaximumSizeInMegabytesPropertyName = "packCacheMaximumSizeInMegabytes";
+    private static final String dependencyGraphCacheEnabledPropertyName = "dependencyGraphCacheEnabled";
+    private static final String testClasspathOptimizationEnabledPropertyName = "testClasspathOptimizationEnabled";
+    private static final String maximumThreadCountPropertyName = "maximumThreadCount";
+
+    /**
+     * The maximum size of the pack cache when the configuration doesn't specify one.
+     */
+    public static final int defaultPackCacheMaximumSizeInMegabytes = 1024;
 
     private JavaProjectConfiguration(JSONObject json)
     {
@@ -66,6 +79,12 @@ public class JavaProjectConfiguration extends JSONObjectWrapperBase
         });
     }
 
+    /**
+     * Get the fully qualified names of the types whose stack trace elements will be omitted when
+     * displaying stack traces. A name that ends with a '*' (such as "java.lang.reflect.*") matches
+     * every type whose name starts with the characters before the '*'.
+     * @return The names of the types whose stack trace elements will be omitted.
+     */
     public Iterable<String> getIgnoredStackTraceTypes()
     {
         return this.toJson().getArray(JavaProjectConfiguration.ignoredStackTraceTypesPropertyName)
@@ -85,6 +104,192 @@ public class JavaProjectConfiguration extends JSONObjectWrapperBase
         return this;
     }
 
+    /**
+     * Get whether runs of repeated stack frames will be collapsed when displaying stack traces.
+     * @return Whether runs of repeated stack frames will be collapsed.
+     */
+    public boolean getCollapseRepeatedStackFrames()
+    {
+        final Boolean result = this.toJson().getBoolean(JavaProjectConfiguration.collapseRepeatedStackFramesPropertyName)
+            .catchError()
+            .await();
+        return result != null && result;
+    }
+
+    public JavaProjectConfiguration setCollapseRepeatedStackFrames(boolean collapseRepeatedStackFrames)
+    {
+        this.toJson().setBoolean(JavaProjectConfiguration.collapseRepeatedStackFramesPropertyName, collapseRepeatedStackFrames);
+
+        return this;
+    }
+
+    /**
+     * Get the minimum percentage (between 0 and 100) of lines that must be covered when code
+     * coverage is collected for a project that doesn't specify its own minimum.
+     * @return The minimum line coverage percentage, or null if no minimum has been set.
+     */
+    public Integer getMinimumLineCoverage()
+    {
+        return this.toJson().getInteger(JavaProjectConfiguration.minimumLineCoveragePropertyName)
+            .catchError()
+            .await();
+    }
+
+    public JavaProjectConfiguration setMinimumLineCoverage(int minimumLineCoverage)
+    {
+        PreCondition.assertBetween(0, minimumLineCoverage, 100, "minimumLineCoverage");
+
+        this.toJson().setNumber(JavaProjectConfiguration.minimumLineCoveragePropertyName, minimumLineCoverage);
+
+        return this;
+    }
+
+    /**
+     * Get the minimum percentage (between 0 and 100) of branches that must be covered when code
+     * coverage is collected for a project that doesn't specify its own minimum.
+     * @return The minimum branch coverage percentage, or null if no minimum has been set.
+     */
+    public Integer getMinimumBranchCoverage()
+    {
+        return this.toJson().getInteger(JavaProjectConfiguration.minimumBranchCoveragePropertyName)
+            .catchError()
+            .await();
+    }
+
+    public JavaProjectConfiguration setMinimumBranchCoverage(int minimumBranchCoverage)
+    {
+        PreCondition.assertBetween(0, minimumBranchCoverage, 100, "minimumBranchCoverage");
+
+        this.toJson().setNumber(JavaProjectConfiguration.minimumBranchCoveragePropertyName, minimumBranchCoverage);
+
+        return this;
+    }
+
+    /**
+     * Get whether the pack action will reuse jar files from (and store jar files in) the shared
+     * pack cache.
+     * @return Whether the pack cache is enabled.
+     */
+    public boolean getPackCacheEnabled()
+    {
+        final Boolean result = this.toJson().getBoolean(JavaProjectConfiguration.packCacheEnabledPropertyName)
+            .catchError()
+            .await();
+        return result != null && result;
+    }
+
+    public JavaProjectConfiguration setPackCacheEnabled(boolean packCacheEnabled)
+    {
+        this.toJson().setBoolean(JavaProjectConfiguration.packCacheEnabledPropertyName, packCacheEnabled);
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of megabytes that the jar files in the pack cache can use before the
+     * least recently used jar files are evicted.
+     * @return The maximum size of the pack cache in megabytes.
+     */
+    public int getPackCacheMaximumSizeInMegabytes()
+    {
+        final Integer result = this.toJson().getInteger(JavaProjectConfiguration.packCacheMaximumSizeInMegabytesPropertyName)
+            .catchError()
+            .await();
+        return result == null || result < 0 ? JavaProjectConfiguration.defaultPackCacheMaximumSizeInMegabytes : result;
+    }
+
+    public JavaProjectConfiguration setPackCacheMaximumSizeInMegabytes(int packCacheMaximumSizeInMegabytes)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(packCacheMaximumSizeInMegabytes, 0, "packCacheMaximumSizeInMegabytes");
+
+        this.toJson().setNumber(JavaProjectConfiguration.packCacheMaximumSizeInMegabytesPropertyName, packCacheMaximumSizeInMegabytes);
+
+        return this;
+    }
+
+    /**
+     * Get whether the dependencies that are declared by published projects, and the dependency
+     * graphs that are resolved from them, will be stored in (and reused from) the dependency graph
+     * cache. The cache is off unless it is enabled, because it decides whether a published
+     * project.json file has changed only by its last modified time. A project.json file that is
+     * rewritten within the file system's timestamp resolution (such as when a version is
+     * published again right after it was first published) would be missed.
+     * @return Whether the dependency graph cache is enabled.
+     */
+    public boolean getDependencyGraphCacheEnabled()
+    {
+        final Boolean result = this.toJson().getBoolean(JavaProjectConfiguration.dependencyGraphCacheEnabledPropertyName)
+            .catchError()
+            .await();
+        return result != null && result;
+    }
+
+    public JavaProjectConfiguration setDependencyGraphCacheEnabled(boolean dependencyGraphCacheEnabled)
+    {
+        this.toJson().setBoolean(JavaProjectConfiguration.dependencyGraphCacheEnabledPropertyName, dependencyGraphCacheEnabled);
+
+        return this;
+    }
+
+    /**
+     * Get whether the classpath that tests are run with will be optimized. An optimized test
+     * classpath doesn't contain dependency test jars that the project's classes don't reference,
+     * doesn't contain duplicate entries, and searches the jars that contain the most referenced
+     * classes first.
+     * @return Whether the test classpath optimization is enabled.
+     */
+    public boolean getTestClasspathOptimizationEnabled()
+    {
+        final Boolean result = this.toJson().getBoolean(JavaProjectConfiguration.testClasspathOptimizationEnabledPropertyName)
+            .catchError()
+            .await();
+        return result != null && result;
+    }
+
+    public JavaProjectConfiguration setTestClasspathOptimizationEnabled(boolean testClasspathOptimizationEnabled)
+    {
+        this.toJson().setBoolean(JavaProjectConfiguration.testClasspathOptimizationEnabledPropertyName, testClasspathOptimizationEnabled);
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of threads that actions will use for work that can run concurrently
+     * (such as creating jar files, staging published files, and reading dependencies).
+     * @return The maximum number of threads that actions will use.
+     */
+    public int getMaximumThreadCount()
+    {
+        final Integer result = this.toJson().getInteger(JavaProjectConfiguration.maximumThreadCountPropertyName)
+            .catchError()
+            .await();
+        return result == null || result < 1 ? DaemonExecutor.getDefaultThreadCount() : result;
+    }
+
+    public JavaProjectConfiguration setMaximumThreadCount(int maximumThreadCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+
+        this.toJson().setNumber(JavaProjectConfiguration.maximumThreadCountPropertyName, maximumThreadCount);
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of threads that actions run by the provided process will use.
+     * @param process The process to get the configuration of.
+     * @return The maximum number of threads that actions run by the provided process will use.
+     */
+    public static int getMaximumThreadCount(DesktopProcess process)
+    {
+        PreCondition.assertNotNull(process, "process");
+
+        return JavaProjectConfiguration.parse(process)
+            .catchError(() -> JavaProjectConfiguration.create())
+            .await()
+            .getMaximumThreadCount();
+    }
+
     public static CommandLineAction addAction(CommandLineActions actions)
     {
         PreCondition.assertNotNull(actions, "actions");
@@ -108,11 +313,43 @@ public class JavaProjectConfiguration extends JSONObjectWrapperBase
                     .setDescription("The types whose stack trace elements will be omitted when displaying stack traces.")
                     .setType(JSONSchemaType.Array)
                     .setItems(JSONSchema.create()
-                        .setDescription("A type whose stack trace elements will be omitted when displaying stack traces.")
+                        .setDescription("The fully qualified name of a type whose stack trace elements will be omitted when displaying stack traces. A name that ends with '*' (such as \"java.lang.reflect.*\") matches every type whose name starts with the characters before the '*'.")
                         .setType(JSONSchemaType.String)
                         .setMinLength(1)
                     )
                 )
+                .addProperty(JavaProjectConfiguration.collapseRepeatedStackFramesPropertyName, JSONSchema.create()
+                    .setDescription("Whether runs of repeated stack frames (such as those from deep recursion) will be collapsed when displaying stack traces.")
+                    .setType(JSONSchemaType.Boolean)
+                )
+                .addProperty(JavaProjectConfiguration.minimumLineCoveragePropertyName, JSONSchema.create()
+                    .setDescription("The minimum percentage of lines that must be covered when code coverage is collected. A project's own minimum in its project.json file takes precedence.")
+                    .setType(JSONSchemaType.Integer)
+                )
+                .addProperty(JavaProjectConfiguration.minimumBranchCoveragePropertyName, JSONSchema.create()
+                    .setDescription("The minimum percentage of branches that must be covered when code coverage is collected. A project's own minimum in its project.json file takes precedence.")
+                    .setType(JSONSchemaType.Integer)
+                )
+                .addProperty(JavaProjectConfiguration.packCacheEnabledPropertyName, JSONSchema.create()
+                    .setDescription("Whether the pack action will reuse jar files that were created from the same inputs by any project or checkout on this machine.")
+                    .setType(JSONSchemaType.Boolean)
+                )
+                .addProperty(JavaProjectConfiguration.packCacheMaximumSizeInMegabytesPropertyName, JSONSchema.create()
+                    .setDescription("The maximum number of megabytes that the pack cache can use before the least recently used jar files are removed.")
+                    .setType(JSONSchemaType.Integer)
+                )
+                .addProperty(JavaProjectConfiguration.dependencyGraphCacheEnabledPropertyName, JSONSchema.create()
+                    .setDescription("Whether the dependencies of published projects and the dependency graphs resolved from them will be remembered between commands, so only the project.json files that have changed are parsed when dependencies are discovered. Changes are detected by last modified time, so this is off by default.")
+                    .setType(JSONSchemaType.Boolean)
+                )
+                .addProperty(JavaProjectConfiguration.testClasspathOptimizationEnabledPropertyName, JSONSchema.create()
+                    .setDescription("Whether the classpath that tests are run with will leave out dependency test jars that the project's classes don't reference, and will search the most referenced dependency jars first.")
+                    .setType(JSONSchemaType.Boolean)
+                )
+                .addProperty(JavaProjectConfiguration.maximumThreadCountPropertyName, JSONSchema.create()
+                    .setDescription("The maximum number of threads that actions will use for work that can run concurrently. Defaults to the number of available processors.")
+                    .setType(JSONSchemaType.Integer)
+                )
             ));
     }
 }
\ No newline at end of file
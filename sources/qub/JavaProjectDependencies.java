@@ -17,6 +17,7 @@ public interface JavaProjectDependencies
 
         action.createCommandLineActions()
             .addAction(JavaProjectDependenciesList::addAction)
+            .addAction(JavaProjectDependenciesLock::addAction)
             .addAction(JavaProjectDependenciesUpdate::addAction)
             .run();
     }
@@ -49,10 +49,25 @@ public interface JavaProjectDependenciesList
                 {
                     final int dependencyCount = dependencies.getCount();
                     output.writeLine("Found " + dependencyCount + " dependenc" + (dependencyCount == 1 ? "y" : "ies") + ":").await();
-                    output.indent(() ->
+                    if (!recurse)
                     {
-                        JavaProjectDependenciesList.writeDependencyTree(qubFolder, dependencies, output, recurse);
-                    });
+                        output.indent(() ->
+                        {
+                            for (final ProjectSignature dependency : dependencies)
+                            {
+                                output.writeLine(dependency.toString()).await();
+                            }
+                        });
+                    }
+                    else
+                    {
+                        final DependencyGraph dependencyGraph = DependencyGraph.create(qubFolder, dependencies).await();
+                        output.indent(() ->
+                        {
+                            JavaProjectDependenciesList.writeDependencyTree(dependencyGraph, output);
+                        });
+                        JavaProjectDependenciesList.writeVersionConflicts(dependencyGraph, output);
+                    }
                 }
             }
         }
@@ -72,24 +87,82 @@ public interface JavaProjectDependenciesList
             .await();
     }
 
-    static void writeDependencyTree(QubFolder qubFolder, Iterable<ProjectSignature> dependencies, IndentedCharacterWriteStream output, boolean recurse)
+    /**
+     * Write the provided dependency graph as a tree. The dependencies of a project that appears
+     * more than once in the graph are only written the first time that the project is written,
+     * and later appearances refer back to it.
+     * @param dependencyGraph The dependency graph to write.
+     * @param output The stream to write the tree to.
+     */
+    static void writeDependencyTree(DependencyGraph dependencyGraph, IndentedCharacterWriteStream output)
     {
-        PreCondition.assertNotNull(qubFolder, "qubFolder");
-        PreCondition.assertNotNull(dependencies, "dependencies");
+        PreCondition.assertNotNull(dependencyGraph, "dependencyGraph");
         PreCondition.assertNotNull(output, "output");
 
-        for (final ProjectSignature dependency : dependencies)
+        final boolean[] writtenNodes = new boolean[dependencyGraph.getNodeCount()];
+        for (final int rootId : dependencyGraph.getRootIds())
+        {
+            JavaProjectDependenciesList.writeDependencyTree(dependencyGraph, rootId, writtenNodes, output);
+        }
+    }
+
+    private static void writeDependencyTree(DependencyGraph dependencyGraph, int nodeId, boolean[] writtenNodes, IndentedCharacterWriteStream output)
+    {
+        final String project = dependencyGraph.getProject(nodeId).toString();
+        final int[] dependencyIds = dependencyGraph.getDependencyIds(nodeId);
+        final String errorMessage = dependencyGraph.getErrorMessage(nodeId);
+        if (writtenNodes[nodeId] && (dependencyIds.length > 0 || errorMessage != null))
+        {
+            output.writeLine(project + " (dependencies listed above)").await();
+        }
+        else
         {
-            output.writeLine(dependency.toString()).await();
-            if (recurse)
+            writtenNodes[nodeId] = true;
+            output.writeLine(project).await();
+            if (errorMessage != null)
             {
-                final JavaProjectFolder publishedDependencyFolder = JavaProjectFolder.get(qubFolder.getProjectVersionFolder(dependency).await());
-                final Iterable<ProjectSignature> dependencyDependencies = JavaProjectDependenciesList.getDependencies(publishedDependencyFolder, output);
-                output.indent(() ->
-                {
-                    JavaProjectDependenciesList.writeDependencyTree(qubFolder, dependencyDependencies, output, recurse);
-                });
+                output.writeLine(errorMessage).await();
             }
+            output.indent(() ->
+            {
+                for (final int dependencyId : dependencyIds)
+                {
+                    JavaProjectDependenciesList.writeDependencyTree(dependencyGraph, dependencyId, writtenNodes, output);
+                }
+            });
+        }
+    }
+
+    /**
+     * Write the projects in the provided dependency graph that have more than one version.
+     * @param dependencyGraph The dependency graph to check for version conflicts.
+     * @param output The stream to write the version conflicts to.
+     */
+    static void writeVersionConflicts(DependencyGraph dependencyGraph, IndentedCharacterWriteStream output)
+    {
+        PreCondition.assertNotNull(dependencyGraph, "dependencyGraph");
+        PreCondition.assertNotNull(output, "output");
+
+        final Iterable<Iterable<ProjectSignature>> versionConflicts = dependencyGraph.getVersionConflicts();
+        if (versionConflicts.any())
+        {
+            final int versionConflictCount = versionConflicts.getCount();
+            output.writeLine("Found " + versionConflictCount + " version conflict" + (versionConflictCount == 1 ? "" : "s") + ":").await();
+            output.indent(() ->
+            {
+                for (final Iterable<ProjectSignature> versionConflict : versionConflicts)
+                {
+                    final ProjectSignature firstVersion = versionConflict.first().await();
+                    output.writeLine(firstVersion.getPublisher() + "/" + firstVersion.getProject()).await();
+                    output.indent(() ->
+                    {
+                        for (final ProjectSignature version : versionConflict)
+                        {
+                            output.writeLine(version.toString()).await();
+                        }
+                    });
+                }
+            });
         }
     }
 }
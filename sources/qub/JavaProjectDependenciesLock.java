@@ -0,0 +1,78 @@
+package qub;
+
+public interface JavaProjectDependenciesLock
+{
+    static CommandLineAction addAction(CommandLineActions actions)
+    {
+        PreCondition.assertNotNull(actions, "actions");
+
+        return actions.addAction("lock", JavaProjectDependenciesLock::run)
+            .setDescription("Write the Java project's resolved dependency graph to a lockfile.");
+    }
+
+    static void run(DesktopProcess process, CommandLineAction action)
+    {
+        PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(action, "action");
+
+        final CommandLineParameters parameters = action.createCommandLineParameters();
+        final CommandLineParameter<Folder> projectFolderParameter = JavaProject.addProjectFolderParameter(parameters, process,
+            "The folder that contains the Java project to lock the dependencies of. Defaults to the current folder.");
+        final CommandLineParameterHelp helpParameter = parameters.addHelp();
+        final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
+        final CommandLineParameterProfiler profilerParameter = JavaProject.addProfilerParameter(parameters, process);
+
+        if (!helpParameter.showApplicationHelpLines(process).await())
+        {
+            profilerParameter.await();
+
+            final Folder dataFolder = process.getQubProjectDataFolder().await();
+
+            final LogStreams logStreams = CommandLineLogsAction.getLogStreamsFromDataFolder(dataFolder, process.getOutputWriteStream(), verboseParameter.getVerboseCharacterToByteWriteStream().await());
+            try (final Disposable logStream = logStreams.getLogStream())
+            {
+                final CharacterToByteWriteStream output = logStreams.getOutput();
+                final VerboseCharacterToByteWriteStream verbose = logStreams.getVerbose();
+                final QubFolder qubFolder = process.getQubFolder().await();
+                final JavaProjectFolder projectFolder = JavaProjectFolder.get(projectFolderParameter.getValue().await());
+
+                output.writeLine("Locking dependencies for " + projectFolder.toString() + "...").await();
+                final Iterable<ProjectSignature> dependencies = projectFolder.getDependencies()
+                    .catchError((Throwable error) ->
+                    {
+                        output.writeLine(error.getMessage()).await();
+                        process.setExitCode(-1);
+                    })
+                    .await();
+                if (dependencies != null)
+                {
+                    verbose.writeLine("Resolving dependency graph...").await();
+                    final DependencyGraphCache dependencyGraphCache = DependencyGraphCache.get(process).catchError().await();
+                    final Iterable<ProjectSignature> resolvedDependencies = JavaProjectFolder.getAllDependencies(qubFolder, dependencies, true, dependencyGraphCache)
+                        .catchError((Throwable error) ->
+                        {
+                            final Iterable<Throwable> errors = error instanceof ErrorIterable
+                                ? (ErrorIterable)error
+                                : Iterable.create(error);
+                            output.writeLine("Failed to resolve the dependency graph:").await();
+                            for (final Throwable dependencyError : errors)
+                            {
+                                output.writeLine("  " + dependencyError.getMessage()).await();
+                            }
+                            process.setExitCode(-1);
+                        })
+                        .await();
+                    if (resolvedDependencies != null)
+                    {
+                        final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create(qubFolder, dependencies, resolvedDependencies).await();
+                        verbose.writeLine("Writing " + projectFolder.getProjectLockJsonFile().await() + "...").await();
+                        projectFolder.writeProjectLockJson(projectLockJson).await();
+
+                        final int resolvedDependencyCount = resolvedDependencies.getCount();
+                        output.writeLine("Locked " + resolvedDependencyCount + " dependenc" + (resolvedDependencyCount == 1 ? "y" : "ies") + ".").await();
+                    }
+                }
+            }
+        }
+    }
+}
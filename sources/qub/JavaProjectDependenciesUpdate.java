@@ -18,6 +18,8 @@ public interface JavaProjectDependenciesUpdate
         final CommandLineParameters parameters = action.createCommandLineParameters();
         final CommandLineParameter<Folder> projectFolderParameter = JavaProject.addProjectFolderParameter(parameters, process,
             "The folder that contains the Java source code project to update.");
+        final CommandLineParameterBoolean dryRunParameter = parameters.addBoolean("dry-run")
+            .setDescription("Whether to only report the available updates for the project's entire dependency graph without changing any files. Defaults to false.");
         final CommandLineParameterHelp helpParameter = parameters.addHelp();
         final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
         final CommandLineParameterProfiler profilerParameter = JavaProject.addProfilerParameter(parameters, process);
@@ -35,6 +37,7 @@ public interface JavaProjectDependenciesUpdate
                 final VerboseCharacterToByteWriteStream verbose = logStreams.getVerbose();
                 final QubFolder qubFolder = process.getQubFolder().await();
                 final JavaProjectFolder projectFolder = JavaProjectFolder.get(projectFolderParameter.getValue().await());
+                final boolean dryRun = dryRunParameter.getValue().await();
                 if (!projectFolder.exists().await())
                 {
                     output.writeLine("The project folder at " + Strings.escapeAndQuote(projectFolder.toString()) + " doesn't exist.").await();
@@ -66,6 +69,7 @@ public interface JavaProjectDependenciesUpdate
                     if (projectJson != null)
                     {
                         output.writeLine("Getting dependencies for " + projectFolder.toString() + "...").await();
+                        final DependencyGraphCache dependencyGraphCache = DependencyGraphCache.get(process).catchError().await();
                         final Iterable<ProjectSignature> currentDependencies = projectJson.getDependencies();
                         final List<ProjectSignature> newDependencies = List.create();
                         if (Iterable.isNullOrEmpty(currentDependencies))
@@ -74,388 +78,588 @@ public interface JavaProjectDependenciesUpdate
                         }
                         else
                         {
-                            output.writeLine("Found " + currentDependencies.getCount() + " dependencies:").await();
-                            output.indent(() ->
-                            {
-                                boolean dependenciesChanged = false;
-                                for (final ProjectSignature currentDependency : currentDependencies)
-                                {
-                                    output.write(currentDependency.toString()).await();
-
-                                    final QubProjectVersionFolder latestDependencyFolder = qubFolder.getLatestProjectVersionFolder(currentDependency.getPublisher(), currentDependency.getProject())
-                                        .catchError()
-                                        .await();
-                                    if (latestDependencyFolder == null)
+                            // A dry run reports the updates that are available for the project's
+                            // entire dependency graph, but only the declared dependencies are updated.
+                            final Iterable<ProjectSignature> dependenciesToReport = !dryRun
+                                ? currentDependencies
+                                : JavaProjectFolder.getAllDependencies(qubFolder, currentDependencies, false, dependencyGraphCache)
+                                    .catchError((Throwable error) ->
                                     {
-                                        newDependencies.add(currentDependency);
-                                        output.writeLine(" - Not Found").await();
-                                    }
-                                    else
-                                    {
-                                        final VersionNumber latestVersion = latestDependencyFolder.getVersion().await();
-                                        if (Comparer.equal(currentDependency.getVersion(), latestVersion))
-                                        {
-                                            newDependencies.add(currentDependency);
-                                            output.writeLine(" - No updates").await();
-                                        }
-                                        else
-                                        {
-                                            final ProjectSignature newDependency = latestDependencyFolder.getProjectSignature().await();
-                                            newDependencies.add(newDependency);
-                                            dependenciesChanged = true;
-                                            output.writeLine(" - Updated to " + newDependency).await();
-                                        }
-                                    }
-                                }
+                                        verbose.writeLine("Failed to resolve the dependency graph: " + error.getMessage()).await();
+                                        return currentDependencies;
+                                    })
+                                    .await();
 
-                                if (dependenciesChanged)
-                                {
-                                    final JavaProjectJSON javaProjectJSON = projectFolder.getProjectJson().await();
-                                    javaProjectJSON.setDependencies(newDependencies);
-                                    projectFolder.writeProjectJson(javaProjectJSON).await();
-                                }
-                            });
+                            output.writeLine("Found " + dependenciesToReport.getCount() + " dependencies" + (dryRun ? " in the dependency graph" : "") + ":").await();
+                            final boolean dependenciesChanged = JavaProjectDependenciesUpdate.reportDependencyUpdates(
+                                output,
+                                qubFolder,
+                                dependenciesToReport,
+                                dryRun,
+                                JavaProjectConfiguration.getMaximumThreadCount(process),
+                                newDependencies);
+                            if (!dryRun && dependenciesChanged)
+                            {
+                                final JavaProjectJSON javaProjectJSON = projectFolder.getProjectJson().await();
+                                javaProjectJSON.setDependencies(newDependencies);
+                                projectFolder.writeProjectJson(javaProjectJSON).await();
+                            }
                         }
 
-                        final Iterable<ProjectSignature> projectJsonTransitiveDependencies = newDependencies.any()
-                            ? projectFolder.getAllDependencies(qubFolder, false).await()
-                            : Iterable.create();
-
-                        final Iterator<File> intellijProjectFiles = projectFolder.iterateFilesRecursively()
-                            .where((File file) -> Comparer.equal(file.getFileExtension(), ".iml"));
-                        if (intellijProjectFiles.any())
+                        if (!dryRun)
                         {
-                            output.writeLine("Updating IntelliJ module files...").await();
-                            output.indent(() ->
+                            final Iterable<ProjectSignature> projectJsonTransitiveDependencies = newDependencies.any()
+                                ? projectFolder.getAllDependencies(qubFolder, false, dependencyGraphCache).await()
+                                : Iterable.create();
+
+                            final Iterable<File> intellijProjectFiles = JavaProjectDependenciesUpdate.getIntellijModuleFiles(projectFolder);
+                            if (intellijProjectFiles.any())
                             {
-                                for (final File intellijProjectFile : intellijProjectFiles)
+                                output.writeLine("Updating IntelliJ module files...").await();
+                                output.indent(() ->
                                 {
-                                    final IntellijModule intellijModule = IntellijModule.parse(intellijProjectFile)
-                                        .catchError(() -> output.writeLine("Invalid Intellij Module file: " + intellijProjectFile.toString()).await())
-                                        .await();
-                                    if (intellijModule != null)
+                                    for (final File intellijProjectFile : intellijProjectFiles)
                                     {
-                                        final List<ProjectSignature> dependenciesToAddToModule = List.create(projectJsonTransitiveDependencies);
-                                        final Iterable<IntellijModuleLibrary> currentModuleLibraries = intellijModule.getModuleLibraries().toList();
+                                        final IntellijModule intellijModule = IntellijModule.parse(intellijProjectFile)
+                                            .catchError(() -> output.writeLine("Invalid Intellij Module file: " + intellijProjectFile.toString()).await())
+                                            .await();
+                                        if (intellijModule != null)
+                                        {
+                                            final List<ProjectSignature> dependenciesToAddToModule = List.create(projectJsonTransitiveDependencies);
+                                            final Iterable<IntellijModuleLibrary> currentModuleLibraries = intellijModule.getModuleLibraries().toList();
 
-                                        intellijModule.clearModuleLibraries();
+                                            intellijModule.clearModuleLibraries();
 
-                                        for (final IntellijModuleLibrary moduleLibrary : currentModuleLibraries)
-                                        {
-                                            final String classesUrl = moduleLibrary.getClassesUrls().first().catchError().await();
-                                            verbose.writeLine("Found module with classesUrl: " + Strings.escapeAndQuote(classesUrl)).await();
-                                            if (Strings.isNullOrEmpty(classesUrl) || !classesUrl.startsWith("jar://"))
-                                            {
-                                                intellijModule.addModuleLibrary(moduleLibrary);
-                                            }
-                                            else
+                                            for (final IntellijModuleLibrary moduleLibrary : currentModuleLibraries)
                                             {
-                                                final int startIndex = "jar://".length();
-                                                int endIndex = classesUrl.length();
-                                                if (classesUrl.endsWith("!/"))
-                                                {
-                                                    endIndex -= "!/".length();
-                                                }
-                                                final Path compiledSourcesFilePath = Path.parse(classesUrl.substring(startIndex, endIndex));
-                                                if (!qubFolder.isAncestorOf(compiledSourcesFilePath).await())
+                                                final String classesUrl = moduleLibrary.getClassesUrls().first().catchError().await();
+                                                verbose.writeLine("Found module with classesUrl: " + Strings.escapeAndQuote(classesUrl)).await();
+                                                if (Strings.isNullOrEmpty(classesUrl) || !classesUrl.startsWith("jar://"))
                                                 {
-                                                    output.writeLine(compiledSourcesFilePath + " - No updates").await();
                                                     intellijModule.addModuleLibrary(moduleLibrary);
                                                 }
                                                 else
                                                 {
-                                                    final Path compiledSourcesRelativeFilePath = compiledSourcesFilePath.relativeTo(qubFolder);
-                                                    final Indexable<String> segments = compiledSourcesRelativeFilePath.getSegments();
-                                                    final String publisher = segments.get(0);
-                                                    final String project = segments.get(1);
-                                                    String version = segments.get(2);
-                                                    if (version.equals("versions"))
+                                                    final int startIndex = "jar://".length();
+                                                    int endIndex = classesUrl.length();
+                                                    if (classesUrl.endsWith("!/"))
                                                     {
-                                                        version = segments.get(3);
+                                                        endIndex -= "!/".length();
                                                     }
-                                                    final ProjectSignature currentQubDependency = ProjectSignature.create(publisher, project, version);
-
-                                                    final ProjectSignature newQubDependency = dependenciesToAddToModule.removeFirst(currentQubDependency::equalsIgnoreVersion);
-                                                    if (newQubDependency == null)
+                                                    final Path compiledSourcesFilePath = Path.parse(classesUrl.substring(startIndex, endIndex));
+                                                    if (!qubFolder.isAncestorOf(compiledSourcesFilePath).await())
                                                     {
-                                                        output.writeLine(currentQubDependency + " - Removed").await();
+                                                        output.writeLine(compiledSourcesFilePath + " - No updates").await();
+                                                        intellijModule.addModuleLibrary(moduleLibrary);
                                                     }
                                                     else
                                                     {
-                                                        if (newQubDependency.equals(currentQubDependency))
+                                                        final Path compiledSourcesRelativeFilePath = compiledSourcesFilePath.relativeTo(qubFolder);
+                                                        final Indexable<String> segments = compiledSourcesRelativeFilePath.getSegments();
+                                                        final String publisher = segments.get(0);
+                                                        final String project = segments.get(1);
+                                                        String version = segments.get(2);
+                                                        if (version.equals("versions"))
                                                         {
-                                                            output.writeLine(currentQubDependency + " - No updates").await();
+                                                            version = segments.get(3);
+                                                        }
+                                                        final ProjectSignature currentQubDependency = ProjectSignature.create(publisher, project, version);
+
+                                                        final ProjectSignature newQubDependency = dependenciesToAddToModule.removeFirst(currentQubDependency::equalsIgnoreVersion);
+                                                        if (newQubDependency == null)
+                                                        {
+                                                            output.writeLine(currentQubDependency + " - Removed").await();
                                                         }
                                                         else
                                                         {
-                                                            output.writeLine(currentQubDependency + " - Updated to " + newQubDependency).await();
+                                                            if (newQubDependency.equals(currentQubDependency))
+                                                            {
+                                                                output.writeLine(currentQubDependency + " - No updates").await();
+                                                            }
+                                                            else
+                                                            {
+                                                                output.writeLine(currentQubDependency + " - Updated to " + newQubDependency).await();
+                                                            }
+
+                                                            final JavaPublishedProjectFolder projectVersionFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(
+                                                                newQubDependency.getPublisher(),
+                                                                newQubDependency.getProject(),
+                                                                newQubDependency.getVersion()).await());
+                                                            intellijModule.addModuleLibrary(IntellijModuleLibrary.create()
+                                                                .addClassesUrl("jar://" + projectVersionFolder.getCompiledSourcesJarFile().await().toString() + "!/")
+                                                                .addSourcesUrl("jar://" + projectVersionFolder.getSourcesJarFile().await().toString() + "!/")
+                                                                .addClassesUrl("jar://" + projectVersionFolder.getCompiledTestsJarFile().await().toString() + "!/")
+                                                                .addSourcesUrl("jar://" + projectVersionFolder.getTestSourcesJarFile().await().toString() + "!/"));
                                                         }
-
-                                                        final JavaPublishedProjectFolder projectVersionFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(
-                                                            newQubDependency.getPublisher(),
-                                                            newQubDependency.getProject(),
-                                                            newQubDependency.getVersion()).await());
-                                                        intellijModule.addModuleLibrary(IntellijModuleLibrary.create()
-                                                            .addClassesUrl("jar://" + projectVersionFolder.getCompiledSourcesJarFile().await().toString() + "!/")
-                                                            .addSourcesUrl("jar://" + projectVersionFolder.getSourcesJarFile().await().toString() + "!/")
-                                                            .addClassesUrl("jar://" + projectVersionFolder.getCompiledTestsJarFile().await().toString() + "!/")
-                                                            .addSourcesUrl("jar://" + projectVersionFolder.getTestSourcesJarFile().await().toString() + "!/"));
                                                     }
                                                 }
                                             }
-                                        }
 
-                                        for (final ProjectSignature dependencyToAddToModule : dependenciesToAddToModule)
-                                        {
-                                            output.writeLine(dependencyToAddToModule + " - Added").await();
-
-                                            final JavaPublishedProjectFolder projectVersionFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(
-                                                dependencyToAddToModule.getPublisher(),
-                                                dependencyToAddToModule.getProject(),
-                                                dependencyToAddToModule.getVersion()).await());
-                                            intellijModule.addModuleLibrary(IntellijModuleLibrary.create()
-                                                .addClassesUrl("jar://" + projectVersionFolder.getCompiledSourcesJarFile().await().toString() + "!/")
-                                                .addSourcesUrl("jar://" + projectVersionFolder.getSourcesJarFile().await().toString() + "!/")
-                                                .addClassesUrl("jar://" + projectVersionFolder.getCompiledTestsJarFile().await().toString() + "!/")
-                                                .addSourcesUrl("jar://" + projectVersionFolder.getTestSourcesJarFile().await().toString() + "!/"));
-                                        }
+                                            for (final ProjectSignature dependencyToAddToModule : dependenciesToAddToModule)
+                                            {
+                                                output.writeLine(dependencyToAddToModule + " - Added").await();
+
+                                                final JavaPublishedProjectFolder projectVersionFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(
+                                                    dependencyToAddToModule.getPublisher(),
+                                                    dependencyToAddToModule.getProject(),
+                                                    dependencyToAddToModule.getVersion()).await());
+                                                intellijModule.addModuleLibrary(IntellijModuleLibrary.create()
+                                                    .addClassesUrl("jar://" + projectVersionFolder.getCompiledSourcesJarFile().await().toString() + "!/")
+                                                    .addSourcesUrl("jar://" + projectVersionFolder.getSourcesJarFile().await().toString() + "!/")
+                                                    .addClassesUrl("jar://" + projectVersionFolder.getCompiledTestsJarFile().await().toString() + "!/")
+                                                    .addSourcesUrl("jar://" + projectVersionFolder.getTestSourcesJarFile().await().toString() + "!/"));
+                                            }
 
-                                        intellijProjectFile.setContentsAsString(intellijModule.toString(XMLFormat.pretty)).await();
+                                            // Only rewrite the module file if its libraries changed so that IntelliJ
+                                            // doesn't reindex modules that are already up to date.
+                                            final String newIntellijModuleContents = intellijModule.toString(XMLFormat.pretty);
+                                            final String currentIntellijModuleContents = intellijProjectFile.getContentsAsString().catchError().await();
+                                            if (!newIntellijModuleContents.equals(currentIntellijModuleContents))
+                                            {
+                                                intellijProjectFile.setContentsAsString(newIntellijModuleContents).await();
+                                            }
+                                            else
+                                            {
+                                                verbose.writeLine(intellijProjectFile + " is already up to date.").await();
+                                            }
+                                        }
                                     }
-                                }
-                            });
-                        }
+                                });
+                            }
 
-                        final Path outputsSourcesRelativePath = projectFolder.getOutputsSourcesFolder().await()
-                            .relativeTo(projectFolder);
-                        final Path outputsTestsRelativePath = projectFolder.getOutputsTestsFolder().await()
-                            .relativeTo(projectFolder);
+                            final Path outputsSourcesRelativePath = projectFolder.getOutputsSourcesFolder().await()
+                                .relativeTo(projectFolder);
+                            final Path outputsTestsRelativePath = projectFolder.getOutputsTestsFolder().await()
+                                .relativeTo(projectFolder);
 
-                        final List<ProjectSignature> runConfigurationDependencies = List.create();
-                        final QubProjectVersionFolder qubJavaProjectLatestVersionFolder = qubFolder.getLatestProjectVersionFolder("qub", "javaproject-java")
-                            .catchError()
-                            .await();
-                        if (qubJavaProjectLatestVersionFolder != null)
-                        {
-                            final JavaPublishedProjectFolder qubJavaProjectPublishedFolder = JavaPublishedProjectFolder.get(qubJavaProjectLatestVersionFolder);
-                            runConfigurationDependencies.add(qubJavaProjectPublishedFolder.getProjectSignature().await());
-                            runConfigurationDependencies.addAll(
-                                JavaProjectFolder.getAllDependencies(qubFolder, qubJavaProjectPublishedFolder.getDependencies().await(), false).await());
-                        }
-                        for (final ProjectSignature projectJsonTransitiveDependency : projectJsonTransitiveDependencies)
-                        {
-                            runConfigurationDependencies.removeFirst(projectJsonTransitiveDependency::equalsIgnoreVersion);
-                            runConfigurationDependencies.add(projectJsonTransitiveDependency);
-                        }
+                            final List<ProjectSignature> runConfigurationDependencies = List.create();
+                            final QubProjectVersionFolder qubJavaProjectLatestVersionFolder = qubFolder.getLatestProjectVersionFolder("qub", "javaproject-java")
+                                .catchError()
+                                .await();
+                            if (qubJavaProjectLatestVersionFolder != null)
+                            {
+                                final JavaPublishedProjectFolder qubJavaProjectPublishedFolder = JavaPublishedProjectFolder.get(qubJavaProjectLatestVersionFolder);
+                                runConfigurationDependencies.add(qubJavaProjectPublishedFolder.getProjectSignature().await());
+                                runConfigurationDependencies.addAll(
+                                    JavaProjectFolder.getAllDependencies(qubFolder, qubJavaProjectPublishedFolder.getDependencies().await(), false, dependencyGraphCache).await());
+                            }
+                            for (final ProjectSignature projectJsonTransitiveDependency : projectJsonTransitiveDependencies)
+                            {
+                                runConfigurationDependencies.removeFirst(projectJsonTransitiveDependency::equalsIgnoreVersion);
+                                runConfigurationDependencies.add(projectJsonTransitiveDependency);
+                            }
 
-                        final Folder testsFolder = projectFolder.getTestSourcesFolder().await();
-                        final Iterable<String> fullTestClassNames = testsFolder.iterateFilesRecursively()
-                            .where((File file) -> Comparer.equal(".java", file.getFileExtension()))
-                            .map((File testJavaFile) -> JavaFile.getFullTypeName(testsFolder, testJavaFile))
-                            .catchError(() -> Iterable.create())
-                            .toList();
+                            final Folder testsFolder = projectFolder.getTestSourcesFolder().await();
+                            final Iterable<String> fullTestClassNames = testsFolder.iterateFilesRecursively()
+                                .where((File file) -> Comparer.equal(".java", file.getFileExtension()))
+                                .map((File testJavaFile) -> JavaFile.getFullTypeName(testsFolder, testJavaFile))
+                                .catchError(() -> Iterable.create())
+                                .toList();
 
-                        final String testJsonProgramParameter = "--testjson=false";
-                        final String projectName = projectFolder.getProject().await();
+                            final String testJsonProgramParameter = "--testjson=false";
+                            final String projectName = projectFolder.getProject().await();
 
-                        final File intellijWorkspaceFile = projectFolder.getFile(".idea/workspace.xml").await();
-                        if (intellijWorkspaceFile.exists().await())
-                        {
-                            output.writeLine("Updating IntelliJ workspace file...").await();
-                            output.indent(() ->
+                            final File intellijWorkspaceFile = projectFolder.getFile(".idea/workspace.xml").await();
+                            if (intellijWorkspaceFile.exists().await())
                             {
-                                final IntellijWorkspace intellijWorkspace = Result.create(() -> IntellijWorkspace.create(XML.parse(intellijWorkspaceFile).await()))
-                                    .catchError(() -> output.writeLine("Invalid Intellij Workspace file: " + intellijWorkspaceFile).await())
-                                    .await();
-
-                                final List<String> fullTestClassNamesToAdd = List.create(fullTestClassNames);
-
-                                final CharacterList vmParameters = CharacterList.create();
-                                vmParameters.addAll("-classpath ");
-                                vmParameters.addAll("$PROJECT_DIR$/" + outputsSourcesRelativePath.toString());
-                                vmParameters.addAll(";");
-                                vmParameters.addAll("$PROJECT_DIR$/" + outputsTestsRelativePath.toString());
-                                for (final ProjectSignature runConfigurationDependency : runConfigurationDependencies)
+                                output.writeLine("Updating IntelliJ workspace file...").await();
+                                output.indent(() ->
                                 {
-                                    final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(runConfigurationDependency).await());
+                                    final IntellijWorkspace intellijWorkspace = Result.create(() -> IntellijWorkspace.create(XML.parse(intellijWorkspaceFile).await()))
+                                        .catchError(() -> output.writeLine("Invalid Intellij Workspace file: " + intellijWorkspaceFile).await())
+                                        .await();
+
+                                    final List<String> fullTestClassNamesToAdd = List.create(fullTestClassNames);
 
-                                    final File compiledSourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
-                                    if (compiledSourcesJarFile.exists().await())
+                                    final CharacterList vmParameters = CharacterList.create();
+                                    vmParameters.addAll("-classpath ");
+                                    vmParameters.addAll("$PROJECT_DIR$/" + outputsSourcesRelativePath.toString());
+                                    vmParameters.addAll(";");
+                                    vmParameters.addAll("$PROJECT_DIR$/" + outputsTestsRelativePath.toString());
+                                    for (final ProjectSignature runConfigurationDependency : runConfigurationDependencies)
                                     {
-                                        vmParameters.add(';');
-                                        vmParameters.addAll(compiledSourcesJarFile.toString());
+                                        final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(runConfigurationDependency).await());
+
+                                        final File compiledSourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
+                                        if (compiledSourcesJarFile.exists().await())
+                                        {
+                                            vmParameters.add(';');
+                                            vmParameters.addAll(compiledSourcesJarFile.toString());
+                                        }
+
+                                        final File compiledTestsJarFile = dependencyFolder.getCompiledTestsJarFile().await();
+                                        if (compiledTestsJarFile.exists().await())
+                                        {
+                                            vmParameters.add(';');
+                                            vmParameters.addAll(compiledTestsJarFile.toString());
+                                        }
                                     }
+                                    final String vmParametersString = vmParameters.toString(true);
 
-                                    final File compiledTestsJarFile = dependencyFolder.getCompiledTestsJarFile().await();
-                                    if (compiledTestsJarFile.exists().await())
+                                    final List<IntellijWorkspaceRunConfiguration> runConfigurationsToRemove = List.create();
+                                    for (final IntellijWorkspaceRunConfiguration runConfiguration : intellijWorkspace.getRunConfigurations())
                                     {
-                                        vmParameters.add(';');
-                                        vmParameters.addAll(compiledTestsJarFile.toString());
+                                        final String runConfigurationName = runConfiguration.getName();
+                                        if (!fullTestClassNames.contains(runConfigurationName))
+                                        {
+                                            runConfigurationsToRemove.add(runConfiguration);
+                                        }
+                                        else
+                                        {
+                                            fullTestClassNamesToAdd.remove(runConfigurationName);
+
+                                            runConfiguration.setType("Application");
+                                            runConfiguration.setFactoryName("Application");
+                                            runConfiguration.setMainClassFullName(Types.getFullTypeName(JavaProjectTest.class));
+                                            runConfiguration.setModuleName(projectName);
+                                            runConfiguration.setProgramParameters(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + runConfigurationName)));
+                                            runConfiguration.setVmParameters(vmParametersString);
+                                        }
                                     }
-                                }
-                                final String vmParametersString = vmParameters.toString(true);
 
-                                final List<IntellijWorkspaceRunConfiguration> runConfigurationsToRemove = List.create();
-                                for (final IntellijWorkspaceRunConfiguration runConfiguration : intellijWorkspace.getRunConfigurations())
-                                {
-                                    final String runConfigurationName = runConfiguration.getName();
-                                    if (!fullTestClassNames.contains(runConfigurationName))
+                                    for (final IntellijWorkspaceRunConfiguration runConfigurationToRemove : runConfigurationsToRemove)
                                     {
-                                        runConfigurationsToRemove.add(runConfiguration);
+                                        intellijWorkspace.removeRunConfiguration(runConfigurationToRemove);
                                     }
-                                    else
+
+                                    for (final String fullTestClassNameToAdd : fullTestClassNamesToAdd)
                                     {
-                                        fullTestClassNamesToAdd.remove(runConfigurationName);
-
-                                        runConfiguration.setType("Application");
-                                        runConfiguration.setFactoryName("Application");
-                                        runConfiguration.setMainClassFullName(Types.getFullTypeName(JavaProjectTest.class));
-                                        runConfiguration.setModuleName(projectName);
-                                        runConfiguration.setProgramParameters(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + runConfigurationName)));
-                                        runConfiguration.setVmParameters(vmParametersString);
+                                        intellijWorkspace.addRunConfiguration(IntellijWorkspaceRunConfiguration.create()
+                                            .setName(fullTestClassNameToAdd)
+                                            .setType("Application")
+                                            .setFactoryName("Application")
+                                            .setMainClassFullName(Types.getFullTypeName(JavaProjectTest.class))
+                                            .setModuleName(projectName)
+                                            .setProgramParameters(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + fullTestClassNameToAdd)))
+                                            .setVmParameters(vmParametersString));
                                     }
-                                }
-
-                                for (final IntellijWorkspaceRunConfiguration runConfigurationToRemove : runConfigurationsToRemove)
-                                {
-                                    intellijWorkspace.removeRunConfiguration(runConfigurationToRemove);
-                                }
-
-                                for (final String fullTestClassNameToAdd : fullTestClassNamesToAdd)
-                                {
-                                    intellijWorkspace.addRunConfiguration(IntellijWorkspaceRunConfiguration.create()
-                                        .setName(fullTestClassNameToAdd)
-                                        .setType("Application")
-                                        .setFactoryName("Application")
-                                        .setMainClassFullName(Types.getFullTypeName(JavaProjectTest.class))
-                                        .setModuleName(projectName)
-                                        .setProgramParameters(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + fullTestClassNameToAdd)))
-                                        .setVmParameters(vmParametersString));
-                                }
-
-                                intellijWorkspaceFile.setContentsAsString(intellijWorkspace.toString(XMLFormat.pretty)).await();
-                            });
-                        }
 
-                        final VSCodeWorkspaceFolder vscodeWorkspaceFolder = VSCodeWorkspaceFolder.get(projectFolder);
-                        final File vscodeSettingsJsonFile = vscodeWorkspaceFolder.getSettingsJsonFile();
-                        if (vscodeSettingsJsonFile.exists().await())
-                        {
-                            output.writeLine("Updating " + vscodeSettingsJsonFile.relativeTo(vscodeWorkspaceFolder) + "...").await();
+                                    intellijWorkspaceFile.setContentsAsString(intellijWorkspace.toString(XMLFormat.pretty)).await();
+                                });
+                            }
 
-                            final VSCodeJavaSettingsJson vscodeSettingsJson = VSCodeJavaSettingsJson.parse(vscodeSettingsJsonFile).catchError().await();
-                            if (vscodeSettingsJson != null)
+                            final VSCodeWorkspaceFolder vscodeWorkspaceFolder = VSCodeWorkspaceFolder.get(projectFolder);
+                            final File vscodeSettingsJsonFile = vscodeWorkspaceFolder.getSettingsJsonFile();
+                            if (vscodeSettingsJsonFile.exists().await())
                             {
-                                boolean vscodeSettingsJsonChanged = false;
+                                output.writeLine("Updating " + vscodeSettingsJsonFile.relativeTo(vscodeWorkspaceFolder) + "...").await();
 
-                                final List<String> sourcePaths = vscodeSettingsJson.getJavaProjectSourcePaths().toList();
-                                boolean sourcePathsChanged = false;
-                                for (final String sourcePath : Iterable.create("sources", "tests"))
+                                final VSCodeJavaSettingsJson vscodeSettingsJson = VSCodeJavaSettingsJson.parse(vscodeSettingsJsonFile).catchError().await();
+                                if (vscodeSettingsJson != null)
                                 {
-                                    if (!sourcePaths.contains(sourcePath))
+                                    boolean vscodeSettingsJsonChanged = false;
+
+                                    final List<String> sourcePaths = vscodeSettingsJson.getJavaProjectSourcePaths().toList();
+                                    boolean sourcePathsChanged = false;
+                                    for (final String sourcePath : Iterable.create("sources", "tests"))
                                     {
-                                        sourcePathsChanged = true;
-                                        sourcePaths.add(sourcePath);
+                                        if (!sourcePaths.contains(sourcePath))
+                                        {
+                                            sourcePathsChanged = true;
+                                            sourcePaths.add(sourcePath);
+                                        }
                                     }
-                                }
-                                if (sourcePathsChanged)
-                                {
-                                    vscodeSettingsJsonChanged = true;
-
-                                    vscodeSettingsJson.setJavaProjectSourcePaths(sourcePaths);
-                                }
+                                    if (sourcePathsChanged)
+                                    {
+                                        vscodeSettingsJsonChanged = true;
 
-                                final Iterable<String> javaProjectReferencedLibraries = vscodeSettingsJson.getJavaProjectReferencedLibraries();
-                                final List<String> newJavaProjectReferencedLibraries = List.create();
-                                for (final ProjectSignature projectDependency : projectJsonTransitiveDependencies)
-                                {
-                                    final JavaPublishedProjectFolder projectDependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(projectDependency).await());
+                                        vscodeSettingsJson.setJavaProjectSourcePaths(sourcePaths);
+                                    }
 
-                                    final List<File> projectDependencyFiles = List.create(
-                                        projectDependencyFolder.getCompiledSourcesJarFile().await(),
-                                        projectDependencyFolder.getCompiledTestsJarFile().await());
-                                    for (final File projectDependencyFile : projectDependencyFiles)
+                                    final Iterable<String> javaProjectReferencedLibraries = vscodeSettingsJson.getJavaProjectReferencedLibraries();
+                                    final List<String> newJavaProjectReferencedLibraries = List.create();
+                                    for (final ProjectSignature projectDependency : projectJsonTransitiveDependencies)
                                     {
-                                        if (projectDependencyFile.exists().await())
+                                        final JavaPublishedProjectFolder projectDependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(projectDependency).await());
+
+                                        final List<File> projectDependencyFiles = List.create(
+                                            projectDependencyFolder.getCompiledSourcesJarFile().await(),
+                                            projectDependencyFolder.getCompiledTestsJarFile().await());
+                                        for (final File projectDependencyFile : projectDependencyFiles)
                                         {
-                                            newJavaProjectReferencedLibraries.add(projectDependencyFile.toString());
+                                            if (projectDependencyFile.exists().await())
+                                            {
+                                                newJavaProjectReferencedLibraries.add(projectDependencyFile.toString());
+                                            }
                                         }
                                     }
-                                }
-                                if (!javaProjectReferencedLibraries.equals(newJavaProjectReferencedLibraries))
-                                {
-                                    vscodeSettingsJsonChanged = true;
+                                    if (!javaProjectReferencedLibraries.equals(newJavaProjectReferencedLibraries))
+                                    {
+                                        vscodeSettingsJsonChanged = true;
 
-                                    vscodeSettingsJson.setJavaProjectReferencedLibraries(newJavaProjectReferencedLibraries);
-                                }
+                                        vscodeSettingsJson.setJavaProjectReferencedLibraries(newJavaProjectReferencedLibraries);
+                                    }
 
-                                if (vscodeSettingsJsonChanged)
-                                {
-                                    vscodeSettingsJsonFile.setContentsAsString(vscodeSettingsJson.toString(JSONFormat.pretty)).await();
+                                    if (vscodeSettingsJsonChanged)
+                                    {
+                                        vscodeSettingsJsonFile.setContentsAsString(vscodeSettingsJson.toString(JSONFormat.pretty)).await();
+                                    }
                                 }
                             }
-                        }
-
-                        final File vscodeLaunchJsonFile = vscodeWorkspaceFolder.getLaunchJsonFile();
-                        if (vscodeLaunchJsonFile.exists().await())
-                        {
-                            output.writeLine("Updating " + vscodeLaunchJsonFile.relativeTo(vscodeWorkspaceFolder) + "...").await();
 
-                            final VSCodeLaunchJson launchJson = VSCodeLaunchJson.parse(vscodeLaunchJsonFile).catchError().await();
-                            if (launchJson != null)
+                            final File vscodeLaunchJsonFile = vscodeWorkspaceFolder.getLaunchJsonFile();
+                            if (vscodeLaunchJsonFile.exists().await())
                             {
-                                if (launchJson.getVersion() == null)
-                                {
-                                    launchJson.setVersion("0.2.0");
-                                }
+                                output.writeLine("Updating " + vscodeLaunchJsonFile.relativeTo(vscodeWorkspaceFolder) + "...").await();
 
-                                final List<VSCodeJavaLaunchConfigurationJson> configurations = List.create();
-                                for (final JavaFile testJavaFile : projectFolder.iterateTestJavaFiles())
+                                final VSCodeLaunchJson launchJson = VSCodeLaunchJson.parse(vscodeLaunchJsonFile).catchError().await();
+                                if (launchJson != null)
                                 {
-                                    final VSCodeJavaLaunchConfigurationJson configuration = VSCodeJavaLaunchConfigurationJson.create();
+                                    if (launchJson.getVersion() == null)
+                                    {
+                                        launchJson.setVersion("0.2.0");
+                                    }
 
-                                    configuration.setType("java");
+                                    final List<VSCodeJavaLaunchConfigurationJson> configurations = List.create();
+                                    for (final JavaFile testJavaFile : projectFolder.iterateTestJavaFiles())
+                                    {
+                                        final VSCodeJavaLaunchConfigurationJson configuration = VSCodeJavaLaunchConfigurationJson.create();
 
-                                    configuration.setRequest("launch");
+                                        configuration.setType("java");
 
-                                    final Path testFileRelativePath = testJavaFile.relativeTo(testsFolder);
-                                    configuration.setName(testFileRelativePath.toString());
+                                        configuration.setRequest("launch");
 
-                                    final List<String> classPaths = List.create(
-                                        outputsSourcesRelativePath.toString(),
-                                        outputsTestsRelativePath.toString());
-                                    for (final ProjectSignature runConfigurationDependency : runConfigurationDependencies)
-                                    {
-                                        final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(runConfigurationDependency).await());
+                                        final Path testFileRelativePath = testJavaFile.relativeTo(testsFolder);
+                                        configuration.setName(testFileRelativePath.toString());
 
-                                        final File compiledSourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
-                                        if (compiledSourcesJarFile.exists().await())
+                                        final List<String> classPaths = List.create(
+                                            outputsSourcesRelativePath.toString(),
+                                            outputsTestsRelativePath.toString());
+                                        for (final ProjectSignature runConfigurationDependency : runConfigurationDependencies)
                                         {
-                                            classPaths.add(compiledSourcesJarFile.toString());
-                                        }
+                                            final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(runConfigurationDependency).await());
 
-                                        final File compiledTestsJarFile = dependencyFolder.getCompiledTestsJarFile().await();
-                                        if (compiledTestsJarFile.exists().await())
-                                        {
-                                            classPaths.add(compiledTestsJarFile.toString());
+                                            final File compiledSourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
+                                            if (compiledSourcesJarFile.exists().await())
+                                            {
+                                                classPaths.add(compiledSourcesJarFile.toString());
+                                            }
+
+                                            final File compiledTestsJarFile = dependencyFolder.getCompiledTestsJarFile().await();
+                                            if (compiledTestsJarFile.exists().await())
+                                            {
+                                                classPaths.add(compiledTestsJarFile.toString());
+                                            }
                                         }
-                                    }
-                                    configuration.setClassPaths(classPaths);
+                                        configuration.setClassPaths(classPaths);
 
-                                    configuration.setMainClass(Types.getFullTypeName(JavaProjectTest.class));
+                                        configuration.setMainClass(Types.getFullTypeName(JavaProjectTest.class));
 
-                                    configuration.setArgs(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + JavaClassFile.getFullTypeName(testFileRelativePath))));
+                                        configuration.setArgs(Strings.join(' ', Iterable.create(testJsonProgramParameter, "--pattern=" + JavaClassFile.getFullTypeName(testFileRelativePath))));
 
-                                    configurations.add(configuration);
+                                        configurations.add(configuration);
+                                    }
+                                    launchJson.setConfigurations(configurations);
+
+                                    vscodeWorkspaceFolder.setLaunchJson(launchJson).await();
                                 }
-                                launchJson.setConfigurations(configurations);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write whether each of the provided dependencies has a newer version in the provided qub
+     * folder, and add the version of each dependency that the project should use to the provided
+     * list. The latest versions are probed concurrently, but the results are still written in the
+     * order that the dependencies are provided.
+     * @param output The stream to write the report to.
+     * @param qubFolder The qub folder to look for newer versions in.
+     * @param dependencies The dependencies to report on.
+     * @param dryRun Whether the newer versions are only available instead of being updated to.
+     * @param maximumThreadCount The maximum number of threads that probe for the latest versions.
+     * @param newDependencies The list to add the version of each dependency to.
+     * @return Whether any of the dependencies has a newer version.
+     */
+    static boolean reportDependencyUpdates(IndentedCharacterWriteStream output, QubFolder qubFolder, Iterable<ProjectSignature> dependencies, boolean dryRun, int maximumThreadCount, List<ProjectSignature> newDependencies)
+    {
+        PreCondition.assertNotNull(output, "output");
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(dependencies, "dependencies");
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+        PreCondition.assertNotNull(newDependencies, "newDependencies");
+
+        final MutableMap<String,QubProjectVersionFolder> latestDependencyFolders = JavaProjectDependenciesUpdate.getLatestProjectVersionFolders(qubFolder, dependencies, maximumThreadCount);
+        output.indent(() ->
+        {
+            for (final ProjectSignature dependency : dependencies)
+            {
+                output.write(dependency.toString()).await();
+
+                final QubProjectVersionFolder latestDependencyFolder = latestDependencyFolders.get(JavaProjectDependenciesUpdate.getProjectKey(dependency)).catchError().await();
+                if (latestDependencyFolder == null)
+                {
+                    newDependencies.add(dependency);
+                    output.writeLine(" - Not Found").await();
+                }
+                else
+                {
+                    final VersionNumber latestVersion = latestDependencyFolder.getVersion().await();
+                    if (Comparer.equal(dependency.getVersion(), latestVersion))
+                    {
+                        newDependencies.add(dependency);
+                        output.writeLine(" - No updates").await();
+                    }
+                    else
+                    {
+                        final ProjectSignature newDependency = latestDependencyFolder.getProjectSignature().await();
+                        newDependencies.add(newDependency);
+                        output.writeLine((dryRun ? " - Update available: " : " - Updated to ") + newDependency).await();
+                    }
+                }
+            }
+        });
 
-                                vscodeWorkspaceFolder.setLaunchJson(launchJson).await();
+        boolean result = false;
+        for (final ProjectSignature newDependency : newDependencies)
+        {
+            if (!dependencies.contains(newDependency))
+            {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the IntelliJ module files of the provided project. If the project has an
+     * .idea/modules.xml file, then the module files that it lists are returned. Otherwise the
+     * project folder is searched recursively for .iml files.
+     * @param projectFolder The folder of the project to get the IntelliJ module files of.
+     * @return The IntelliJ module files of the provided project.
+     */
+    static Iterable<File> getIntellijModuleFiles(Folder projectFolder)
+    {
+        PreCondition.assertNotNull(projectFolder, "projectFolder");
+
+        final File modulesXmlFile = projectFolder.getFile(".idea/modules.xml").await();
+        Iterable<File> result = !modulesXmlFile.exists().await()
+            ? null
+            : JavaProjectDependenciesUpdate.parseIntellijModulesXml(projectFolder, modulesXmlFile).catchError().await();
+        if (result == null)
+        {
+            result = projectFolder.iterateFilesRecursively()
+                .where((File file) -> Comparer.equal(file.getFileExtension(), ".iml"))
+                .toList();
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the existing module files that are listed in the provided .idea/modules.xml file.
+     * @param projectFolder The folder that the $PROJECT_DIR$ macro refers to.
+     * @param modulesXmlFile The .idea/modules.xml file to parse.
+     * @return The existing module files that are listed in the provided .idea/modules.xml file.
+     */
+    static Result<Iterable<File>> parseIntellijModulesXml(Folder projectFolder, File modulesXmlFile)
+    {
+        PreCondition.assertNotNull(projectFolder, "projectFolder");
+        PreCondition.assertNotNull(modulesXmlFile, "modulesXmlFile");
+
+        return Result.create(() ->
+        {
+            final List<File> result = List.create();
+
+            final String projectDirMacro = "$PROJECT_DIR$/";
+            final XMLDocument modulesXml = XML.parse(modulesXmlFile).await();
+            for (final XMLElement componentElement : modulesXml.getRoot().getElementChildren("component"))
+            {
+                for (final XMLElement modulesElement : componentElement.getElementChildren("modules"))
+                {
+                    for (final XMLElement moduleElement : modulesElement.getElementChildren("module"))
+                    {
+                        final String filePath = moduleElement.getAttributeValue("filepath").catchError().await();
+                        if (!Strings.isNullOrEmpty(filePath))
+                        {
+                            final File moduleFile = filePath.startsWith(projectDirMacro)
+                                ? projectFolder.getFile(filePath.substring(projectDirMacro.length())).await()
+                                : projectFolder.getFileSystem().getFile(Path.parse(filePath)).await();
+                            if (!result.contains(moduleFile) && moduleFile.exists().await())
+                            {
+                                result.add(moduleFile);
                             }
                         }
                     }
                 }
             }
+
+            return result;
+        });
+    }
+
+    static String getProjectKey(ProjectSignature projectSignature)
+    {
+        PreCondition.assertNotNull(projectSignature, "projectSignature");
+
+        return projectSignature.getPublisher() + "/" + projectSignature.getProject();
+    }
+
+    /**
+     * Get the latest published version folder of each of the provided projects. The version
+     * folders are looked up concurrently because each lookup lists a project's versions folder,
+     * which can be slow when the qub folder is on a network drive.
+     * @param qubFolder The {@link QubFolder} to look for the projects in.
+     * @param projectSignatures The projects to get the latest version folders of.
+     * @param maximumThreadCount The maximum number of projects to look up at the same time.
+     * @return The latest version folders keyed by "publisher/project". Projects that don't have
+     * any published versions aren't in the returned map.
+     */
+    static MutableMap<String,QubProjectVersionFolder> getLatestProjectVersionFolders(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, int maximumThreadCount)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(projectSignatures, "projectSignatures");
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+
+        final MutableMap<String,QubProjectVersionFolder> result = MutableMap.create();
+
+        final List<String> projectKeys = List.create();
+        final List<ProjectSignature> projectsToProbe = List.create();
+        for (final ProjectSignature projectSignature : projectSignatures)
+        {
+            final String projectKey = JavaProjectDependenciesUpdate.getProjectKey(projectSignature);
+            if (!projectKeys.contains(projectKey))
+            {
+                projectKeys.add(projectKey);
+                projectsToProbe.add(projectSignature);
+            }
+        }
+
+        if (projectsToProbe.any())
+        {
+            try (final DaemonExecutor executor = DaemonExecutor.create(Math.min(projectsToProbe.getCount(), maximumThreadCount)))
+            {
+                final List<DaemonExecutor.Task<QubProjectVersionFolder>> probeTasks = List.create();
+                for (final ProjectSignature projectToProbe : projectsToProbe)
+                {
+                    probeTasks.add(executor.submit(() ->
+                    {
+                        return qubFolder.getLatestProjectVersionFolder(projectToProbe.getPublisher(), projectToProbe.getProject())
+                            .catchError()
+                            .await();
+                    }));
+                }
+
+                for (int i = 0; i < projectsToProbe.getCount(); ++i)
+                {
+                    final QubProjectVersionFolder latestVersionFolder = probeTasks.get(i).await();
+
+                    if (latestVersionFolder != null)
+                    {
+                        result.set(projectKeys.get(i), latestVersionFolder);
+                    }
+                }
+            }
         }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
     }
 }
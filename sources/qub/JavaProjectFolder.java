@@ -43,6 +43,35 @@ public class JavaProjectFolder extends Folder
         });
     }
 
+    public Result<Folder> getTestResultsFolder()
+    {
+        return Result.create(() ->
+        {
+            final Folder outputsFolder = this.getOutputsFolder().await();
+            return outputsFolder.getFolder("test-results").await();
+        });
+    }
+
+    public Result<Folder> getCoverageDataFolder()
+    {
+        return Result.create(() ->
+        {
+            final Folder outputsFolder = this.getOutputsFolder().await();
+            return outputsFolder.getFolder("coverage-data").await();
+        });
+    }
+
+    public Result<File> getCoverageDataFile(String testClassFullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testClassFullName, "testClassFullName");
+
+        return Result.create(() ->
+        {
+            final Folder coverageDataFolder = this.getCoverageDataFolder().await();
+            return coverageDataFolder.getFile(testClassFullName + ".exec").await();
+        });
+    }
+
     public Result<File> getBuildJsonFile()
     {
         return Result.create(() ->
@@ -166,6 +195,38 @@ public class JavaProjectFolder extends Folder
         });
     }
 
+    public Result<File> getCoverageJsonFile()
+    {
+        return Result.create(() ->
+        {
+            final Folder outputsFolder = this.getOutputsFolder().await();
+            return outputsFolder.getFile("coverage.json").await();
+        });
+    }
+
+    public Result<CoverageJSON> getCoverageJson()
+    {
+        return Result.create(() ->
+        {
+            final File coverageJsonFile = this.getCoverageJsonFile().await();
+            return CoverageJSON.parse(coverageJsonFile).await();
+        });
+    }
+
+    public Result<Void> writeCoverageJson(CoverageJSON coverageJson)
+    {
+        PreCondition.assertNotNull(coverageJson, "coverageJson");
+
+        return Result.create(() ->
+        {
+            final File coverageJsonFile = this.getCoverageJsonFile().await();
+            try (final CharacterWriteStream writeStream = CharacterWriteStream.create(ByteWriteStream.buffer(coverageJsonFile.getContentsByteWriteStream().await())))
+            {
+                coverageJson.toString(writeStream, JSONFormat.pretty).await();
+            }
+        });
+    }
+
     public Iterator<JavaClassFile> iterateClassFiles()
     {
         final Folder outputsFolder = this.getOutputsFolder().await();
@@ -294,6 +355,89 @@ public class JavaProjectFolder extends Folder
         });
     }
 
+    public Result<File> getProjectLockJsonFile()
+    {
+        return this.getFile(JavaProjectLockJSON.fileName);
+    }
+
+    public Result<JavaProjectLockJSON> getProjectLockJson()
+    {
+        return Result.create(() ->
+        {
+            final File projectLockJsonFile = this.getProjectLockJsonFile().await();
+            return JavaProjectLockJSON.parse(projectLockJsonFile).await();
+        });
+    }
+
+    public Result<Void> writeProjectLockJson(JavaProjectLockJSON projectLockJson)
+    {
+        PreCondition.assertNotNull(projectLockJson, "projectLockJson");
+
+        return Result.create(() ->
+        {
+            final File projectLockJsonFile = this.getProjectLockJsonFile().await();
+            try (final CharacterWriteStream writeStream = CharacterWriteStream.create(ByteWriteStream.buffer(projectLockJsonFile.getContentsByteWriteStream().await())))
+            {
+                projectLockJson.toString(writeStream, JSONFormat.pretty).await();
+            }
+        });
+    }
+
+    /**
+     * Get this folder's project.lock.json file if it is fresh: the dependencies that it was
+     * written for must match the dependencies in this folder's project.json file, every resolved
+     * dependency's compiled sources jar file must still exist, and every resolved dependency's
+     * project.json file must have the last modified time that was recorded in the lockfile.
+     * @param qubFolder The {@link QubFolder} that the resolved dependencies are published to.
+     * @return This folder's fresh lockfile, or a {@link NotFoundException} if this folder doesn't
+     * have a fresh lockfile.
+     */
+    public Result<JavaProjectLockJSON> getFreshProjectLockJson(QubFolder qubFolder)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+
+        return Result.create(() ->
+        {
+            final JavaProjectLockJSON result = this.getProjectLockJson()
+                .convertError(FileNotFoundException.class, (FileNotFoundException error) -> new NotFoundException("No " + JavaProjectLockJSON.fileName + " file found in " + this + "."))
+                .await();
+            if (!result.getDependencies().equals(this.getDependencies().await()))
+            {
+                throw new NotFoundException("The " + JavaProjectLockJSON.fileName + " file in " + this + " is out of date.");
+            }
+
+            for (final ProjectSignature resolvedDependency : result.getResolvedDependencies())
+            {
+                // A published project.json file that was rewritten may declare different
+                // dependencies than the ones that the lockfile's dependency graph was resolved
+                // from.
+                final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(resolvedDependency).await());
+                if (!dependencyFolder.getCompiledSourcesJarFile().await().exists().await() ||
+                    !Comparer.equal(result.getProjectJsonLastModified(resolvedDependency), JavaProjectLockJSON.getProjectJsonLastModified(dependencyFolder)))
+                {
+                    throw new NotFoundException("The " + JavaProjectLockJSON.fileName + " file in " + this + " is out of date.");
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the published project folders of the dependency graph that is recorded in this
+     * folder's project.lock.json file. The lockfile is only used if it is fresh (see
+     * {@link #getFreshProjectLockJson(QubFolder)}).
+     * @param qubFolder The {@link QubFolder} that the resolved dependencies are published to.
+     * @return The published project folders of the locked dependency graph, or a
+     * {@link NotFoundException} if this folder doesn't have a fresh lockfile.
+     */
+    public Result<Iterable<JavaPublishedProjectFolder>> getLockedDependencyFolders(QubFolder qubFolder)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+
+        return this.getFreshProjectLockJson(qubFolder)
+            .then((JavaProjectLockJSON projectLockJson) -> projectLockJson.getResolvedDependencyFolders(qubFolder));
+    }
+
     public Result<String> getPublisher()
     {
         return Result.create(() ->
@@ -348,15 +492,28 @@ public class JavaProjectFolder extends Folder
     }
 
     public Result<Iterable<ProjectSignature>> getAllDependencies(QubFolder qubFolder, boolean validateDependencies)
+    {
+        return this.getAllDependencies(qubFolder, validateDependencies, null);
+    }
+
+    public Result<Iterable<ProjectSignature>> getAllDependencies(QubFolder qubFolder, boolean validateDependencies, DependencyGraphCache dependencyGraphCache)
     {
         PreCondition.assertNotNull(qubFolder, "qubFolder");
 
-        return JavaProjectFolder.getAllDependencies(qubFolder, this.getDependencies().await(), validateDependencies);
+        return Result.create(() ->
+        {
+            return JavaProjectFolder.getAllDependencies(qubFolder, this.getDependencies().await(), validateDependencies, dependencyGraphCache).await();
+        });
     }
 
     public static Result<Iterable<ProjectSignature>> getAllDependencies(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, boolean validateDependencies)
     {
-        return JavaProjectFolder.getAllDependencyFolders(qubFolder, projectSignatures, validateDependencies)
+        return JavaProjectFolder.getAllDependencies(qubFolder, projectSignatures, validateDependencies, null);
+    }
+
+    public static Result<Iterable<ProjectSignature>> getAllDependencies(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, boolean validateDependencies, DependencyGraphCache dependencyGraphCache)
+    {
+        return JavaProjectFolder.getAllDependencyFolders(qubFolder, projectSignatures, validateDependencies, dependencyGraphCache)
             .then((Iterable<JavaPublishedProjectFolder> allDependencies) ->
             {
                 return allDependencies.map((JavaPublishedProjectFolder dependency) -> dependency.getProjectSignature().await());
@@ -364,26 +521,70 @@ public class JavaProjectFolder extends Folder
     }
 
     public Result<Iterable<JavaPublishedProjectFolder>> getAllDependencyFolders(QubFolder qubFolder, boolean validateDependencies)
+    {
+        return this.getAllDependencyFolders(qubFolder, validateDependencies, null);
+    }
+
+    public Result<Iterable<JavaPublishedProjectFolder>> getAllDependencyFolders(QubFolder qubFolder, boolean validateDependencies, DependencyGraphCache dependencyGraphCache)
     {
         PreCondition.assertNotNull(qubFolder, "qubFolder");
 
-        return JavaProjectFolder.getAllDependencyFolders(qubFolder, this.getDependencies().await(), validateDependencies);
+        return Result.create(() ->
+        {
+            return JavaProjectFolder.getAllDependencyFolders(qubFolder, this.getDependencies().await(), validateDependencies, dependencyGraphCache).await();
+        });
     }
 
     public static Result<Iterable<JavaPublishedProjectFolder>> getAllDependencyFolders(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, boolean validateDependencies)
+    {
+        return JavaProjectFolder.getAllDependencyFolders(qubFolder, projectSignatures, validateDependencies, null);
+    }
+
+    /**
+     * Get the published project folders of the dependencies found in the dependency graph of the
+     * provided projects.
+     * @param qubFolder The {@link QubFolder} to look for dependencies in.
+     * @param projectSignatures The projects whose dependency graph will be resolved.
+     * @param validateDependencies Whether to report errors for conflicting dependency versions.
+     * @param dependencyGraphCache The cache of published projects' dependencies to use, or null
+     *                             to parse every published project's project.json file.
+     * @return The published project folders of the dependencies found in the dependency graph.
+     */
+    public static Result<Iterable<JavaPublishedProjectFolder>> getAllDependencyFolders(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, boolean validateDependencies, DependencyGraphCache dependencyGraphCache)
     {
         PreCondition.assertNotNull(qubFolder, "qubFolder");
         PreCondition.assertNotNull(projectSignatures, "projectSignatures");
 
         return Result.create(() ->
         {
+            // A dependency graph whose project.json files haven't changed since it was last
+            // resolved is taken from the cache without being walked again.
+            final Iterable<JavaPublishedProjectFolder> cachedDependencyFolders = dependencyGraphCache == null
+                ? null
+                : dependencyGraphCache.getDependencyFolders(qubFolder, projectSignatures, validateDependencies)
+                    .catchError(NotFoundException.class)
+                    .await();
+            if (cachedDependencyFolders != null)
+            {
+                return cachedDependencyFolders;
+            }
+
+            // The project.json files of the dependency graph are read concurrently up front. The
+            // graph is then walked by the QubFolder with the results of those reads, so the order
+            // of the dependency folders and the errors that are reported are the same as if each
+            // project.json file had been read when the walk reached it.
+            final MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> prefetchedDependencies = JavaProjectFolder.prefetchDependencies(qubFolder, projectSignatures, dependencyGraphCache, DaemonExecutor.getDefaultThreadCount());
+
             final Iterable<QubProjectVersionFolder> dependencyFolders = qubFolder.getAllDependencyFolders(projectSignatures,
                 (QubProjectVersionFolder projectVersionFolder) ->
                 {
                     return Result.create(() ->
                     {
-                        final JavaPublishedProjectFolder javaPublishedProjectFolder = JavaPublishedProjectFolder.get(projectVersionFolder);
-                        return javaPublishedProjectFolder.getDependencies()
+                        final DaemonExecutor.Task<Iterable<ProjectSignature>> prefetchedRead = prefetchedDependencies.get(projectVersionFolder.toString()).catchError().await();
+                        final Result<Iterable<ProjectSignature>> dependencies = prefetchedRead != null
+                            ? Result.create(prefetchedRead::await)
+                            : JavaProjectFolder.readDependencies(JavaPublishedProjectFolder.get(projectVersionFolder), dependencyGraphCache);
+                        return dependencies
                             .convertError(NotFoundException.class, (NotFoundException error) ->
                             {
                                 Throwable result;
@@ -415,10 +616,88 @@ public class JavaProjectFolder extends Folder
                     });
                 },
                 validateDependencies).await();
-            return dependencyFolders.map(JavaPublishedProjectFolder::get);
+            final Iterable<JavaPublishedProjectFolder> result = dependencyFolders.map(JavaPublishedProjectFolder::get).toList();
+            if (dependencyGraphCache != null)
+            {
+                dependencyGraphCache.setDependencyFolders(projectSignatures, validateDependencies, result).catchError().await();
+                dependencyGraphCache.save().catchError().await();
+            }
+            return result;
         });
     }
 
+    private static Result<Iterable<ProjectSignature>> readDependencies(JavaPublishedProjectFolder publishedProjectFolder, DependencyGraphCache dependencyGraphCache)
+    {
+        return dependencyGraphCache == null
+            ? publishedProjectFolder.getDependencies()
+            : dependencyGraphCache.getDependencies(publishedProjectFolder);
+    }
+
+    /**
+     * Start reading the dependencies of every published project that is reachable from the
+     * provided projects. Reads run concurrently on a bounded pool, and each published project is
+     * only read once, even when it is reached through more than one path in the dependency graph.
+     * A project whose dependencies can't be read is still in the returned map, and its task
+     * will throw the error that the read failed with.
+     * @param qubFolder The {@link QubFolder} to look for dependencies in.
+     * @param projectSignatures The projects whose dependency graph will be read.
+     * @param dependencyGraphCache The cache of published projects' dependencies to use, or null
+     *                             to parse every published project's project.json file.
+     * @param maximumThreadCount The maximum number of project.json files to read at the same time.
+     * @return A map from each reachable published project version folder's path to the completed
+     * read of its dependencies.
+     */
+    static MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> prefetchDependencies(QubFolder qubFolder, Iterable<ProjectSignature> projectSignatures, DependencyGraphCache dependencyGraphCache, int maximumThreadCount)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(projectSignatures, "projectSignatures");
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+
+        final MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> result = MutableMap.create();
+        if (projectSignatures.any())
+        {
+            try (final DaemonExecutor executor = DaemonExecutor.create(maximumThreadCount))
+            {
+                int pendingReadCount = 0;
+                Iterable<ProjectSignature> projectSignaturesToRead = projectSignatures;
+                while (true)
+                {
+                    for (final ProjectSignature projectSignature : projectSignaturesToRead)
+                    {
+                        final QubProjectVersionFolder projectVersionFolder = qubFolder.getProjectVersionFolder(projectSignature).await();
+                        final String key = projectVersionFolder.toString();
+                        if (result.get(key).catchError().await() == null)
+                        {
+                            final JavaPublishedProjectFolder publishedProjectFolder = JavaPublishedProjectFolder.get(projectVersionFolder);
+                            result.set(key, executor.submit(() ->
+                                JavaProjectFolder.readDependencies(publishedProjectFolder, dependencyGraphCache).await()));
+                            ++pendingReadCount;
+                        }
+                    }
+
+                    if (pendingReadCount == 0)
+                    {
+                        break;
+                    }
+
+                    final DaemonExecutor.Task<?> completedRead = executor.takeCompletedTask();
+                    --pendingReadCount;
+
+                    final Iterable<?> dependencies = (Iterable<?>)Result.create(completedRead::await)
+                        .catchError()
+                        .await();
+                    projectSignaturesToRead = dependencies == null
+                        ? Iterable.create()
+                        : dependencies.map((Object dependency) -> (ProjectSignature)dependency);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
     public Result<Folder> getSourcesFolder()
     {
         return this.getFolder(JavaProjectFolder.sourcesFolderName);
@@ -503,4 +782,36 @@ public class JavaProjectFolder extends Folder
             return outputsFolder.getFile(sourcesJarFileName).await();
         });
     }
+
+    /**
+     * Get the runnable jar file that contains the project's compiled sources and the compiled
+     * sources of all of its dependencies.
+     * @return The fat jar file.
+     */
+    public Result<File> getFatJarFile()
+    {
+        return Result.create(() ->
+        {
+            final String project = this.getProject().await();
+            final String fatJarFileName = JavaProject.getFatJarFileName(project);
+            final Folder outputsFolder = this.getOutputsFolder().await();
+            return outputsFolder.getFile(fatJarFileName).await();
+        });
+    }
+
+    /**
+     * Get the AppCDS (application class data sharing) archive file for the project's fat jar
+     * file.
+     * @return The AppCDS archive file.
+     */
+    public Result<File> getAppCdsArchiveFile()
+    {
+        return Result.create(() ->
+        {
+            final String project = this.getProject().await();
+            final String appCdsArchiveFileName = JavaProject.getAppCdsArchiveFileName(project);
+            final Folder outputsFolder = this.getOutputsFolder().await();
+            return outputsFolder.getFile(appCdsArchiveFileName).await();
+        });
+    }
 }
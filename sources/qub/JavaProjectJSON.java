@@ -6,6 +6,10 @@ public class JavaProjectJSON extends ProjectJSONWrapperBase<JavaProjectJSON>
     private static final String mainClassPropertyName = "mainClass";
     private static final String shortcutNamePropertyName = "shortcutName";
     private static final String dependenciesPropertyName = "dependencies";
+    private static final String packPropertyName = "pack";
+    private static final String jvmArgumentsPropertyName = "jvmArguments";
+    private static final String minimumLineCoveragePropertyName = "minimumLineCoverage";
+    private static final String minimumBranchCoveragePropertyName = "minimumBranchCoverage";
 
     public final static String projectSignaturePublisherPropertyName = "publisher";
     public final static String projectSignatureProjectPropertyName = "project";
@@ -165,6 +169,26 @@ public class JavaProjectJSON extends ProjectJSONWrapperBase<JavaProjectJSON>
             .await();
     }
 
+    private Integer getJavaInteger(String javaPropertyName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
+
+        return this.getJava()
+            .then((JSONObject java) -> java.getInteger(javaPropertyName).await())
+            .catchError()
+            .await();
+    }
+
+    private JSONObject getJavaObject(String javaPropertyName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
+
+        return this.getJava()
+            .then((JSONObject java) -> java.getObject(javaPropertyName).await())
+            .catchError()
+            .await();
+    }
+
     private JavaProjectJSON setJavaString(String javaPropertyName, String javaPropertyValue)
     {
         PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
@@ -176,6 +200,27 @@ public class JavaProjectJSON extends ProjectJSONWrapperBase<JavaProjectJSON>
         return this;
     }
 
+    private JavaProjectJSON setJavaInteger(String javaPropertyName, int javaPropertyValue)
+    {
+        PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
+
+        this.getOrCreateJava()
+            .then((JSONObject java) -> java.setNumber(javaPropertyName, javaPropertyValue))
+            .await();
+        return this;
+    }
+
+    private JavaProjectJSON setJavaObject(String javaPropertyName, JSONObject javaPropertyValue)
+    {
+        PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
+        PreCondition.assertNotNull(javaPropertyValue, "javaPropertyValue");
+
+        this.getOrCreateJava()
+            .then((JSONObject java) -> java.setObject(javaPropertyName, javaPropertyValue))
+            .await();
+        return this;
+    }
+
     private JavaProjectJSON setJavaArray(String javaPropertyName, JSONArray javaPropertyValue)
     {
         PreCondition.assertNotNullAndNotEmpty(javaPropertyName, "javaPropertyName");
@@ -231,6 +276,111 @@ public class JavaProjectJSON extends ProjectJSONWrapperBase<JavaProjectJSON>
         return this.setJavaString(JavaProjectJSON.shortcutNamePropertyName, shortcutName);
     }
 
+    /**
+     * Get the settings that control how this project's jar files are created. If this project
+     * doesn't have any pack settings, then an empty (default) set of settings will be returned.
+     * @return The settings that control how this project's jar files are created.
+     */
+    public JavaProjectJSONPack getPack()
+    {
+        final JSONObject packJson = this.getJavaObject(JavaProjectJSON.packPropertyName);
+        final JavaProjectJSONPack result = packJson == null
+            ? JavaProjectJSONPack.create()
+            : JavaProjectJSONPack.create(packJson);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Set the settings that control how this project's jar files are created.
+     * @param pack The settings that control how this project's jar files are created.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSON setPack(JavaProjectJSONPack pack)
+    {
+        PreCondition.assertNotNull(pack, "pack");
+
+        return this.setJavaObject(JavaProjectJSON.packPropertyName, pack.toJson());
+    }
+
+    /**
+     * Get the JVM arguments (such as heap size or garbage collector flags) that the launchers of
+     * this project's published main class will pass to java.
+     * @return The JVM arguments that the launchers of this project will pass to java.
+     */
+    public Iterable<String> getJvmArguments()
+    {
+        final JSONArray jvmArguments = this.getJavaArray(JavaProjectJSON.jvmArgumentsPropertyName);
+        final Iterable<String> result = jvmArguments == null
+            ? Iterable.create()
+            : jvmArguments.instanceOf(JSONString.class).map(JSONString::getValue).toList();
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Set the JVM arguments that the launchers of this project's published main class will pass
+     * to java.
+     * @param jvmArguments The JVM arguments that the launchers of this project will pass to java.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSON setJvmArguments(Iterable<String> jvmArguments)
+    {
+        PreCondition.assertNotNull(jvmArguments, "jvmArguments");
+
+        return this.setJavaArray(JavaProjectJSON.jvmArgumentsPropertyName, JSONArray.create(jvmArguments.map(JSONString::get)));
+    }
+
+    /**
+     * Get the minimum percentage (between 0 and 100) of lines that must be covered by this
+     * project's tests when code coverage is collected.
+     * @return The minimum line coverage percentage, or null if no minimum has been set.
+     */
+    public Integer getMinimumLineCoverage()
+    {
+        return this.getJavaInteger(JavaProjectJSON.minimumLineCoveragePropertyName);
+    }
+
+    /**
+     * Set the minimum percentage (between 0 and 100) of lines that must be covered by this
+     * project's tests when code coverage is collected.
+     * @param minimumLineCoverage The minimum line coverage percentage.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSON setMinimumLineCoverage(int minimumLineCoverage)
+    {
+        PreCondition.assertBetween(0, minimumLineCoverage, 100, "minimumLineCoverage");
+
+        return this.setJavaInteger(JavaProjectJSON.minimumLineCoveragePropertyName, minimumLineCoverage);
+    }
+
+    /**
+     * Get the minimum percentage (between 0 and 100) of branches that must be covered by this
+     * project's tests when code coverage is collected.
+     * @return The minimum branch coverage percentage, or null if no minimum has been set.
+     */
+    public Integer getMinimumBranchCoverage()
+    {
+        return this.getJavaInteger(JavaProjectJSON.minimumBranchCoveragePropertyName);
+    }
+
+    /**
+     * Set the minimum percentage (between 0 and 100) of branches that must be covered by this
+     * project's tests when code coverage is collected.
+     * @param minimumBranchCoverage The minimum branch coverage percentage.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSON setMinimumBranchCoverage(int minimumBranchCoverage)
+    {
+        PreCondition.assertBetween(0, minimumBranchCoverage, 100, "minimumBranchCoverage");
+
+        return this.setJavaInteger(JavaProjectJSON.minimumBranchCoveragePropertyName, minimumBranchCoverage);
+    }
+
     /**
      * Set the dependencies that this project depends on. This project will implicitly also depend
      * on all the projects that these dependencies depend on.
@@ -295,6 +445,24 @@ public class JavaProjectJSON extends ProjectJSONWrapperBase<JavaProjectJSON>
             });
     }
 
+    /**
+     * Get the published project folders of the dependencies found in this project's dependency
+     * graph.
+     * @param qubFolder The {@link QubFolder} to look for dependencies in.
+     * @param dependencyGraphCache The cache of published projects' dependencies to use, or null
+     *                             to parse every published project's project.json file.
+     * @return The published project folders of the dependencies found in this project's dependency
+     * graph.
+     */
+    public Result<Iterable<JavaPublishedProjectFolder>> getAllDependencyFolders(QubFolder qubFolder, DependencyGraphCache dependencyGraphCache)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+
+        return dependencyGraphCache == null
+            ? this.getAllDependencyFolders(qubFolder)
+            : JavaProjectFolder.getAllDependencyFolders(qubFolder, this.getDependencies(), true, dependencyGraphCache);
+    }
+
     public static JSONObject projectSignatureToJson(ProjectSignature projectSignature)
     {
         PreCondition.assertNotNull(projectSignature, "projectSignature");
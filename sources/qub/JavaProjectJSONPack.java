@@ -0,0 +1,246 @@
+package qub;
+
+/**
+ * The "pack" settings in the "java" section of a project.json file. These settings control how
+ * the pack action creates a project's jar files.
+ */
+public class JavaProjectJSONPack extends JSONObjectWrapperBase
+{
+    private static final String inProcessPropertyName = "inProcess";
+    private static final String compressionLevelPropertyName = "compressionLevel";
+    private static final String deterministicPropertyName = "deterministic";
+    private static final String fatJarPropertyName = "fatJar";
+    private static final String appCdsPropertyName = "appCds";
+    private static final String appCdsTrainingArgumentsPropertyName = "appCdsTrainingArguments";
+    private static final String appCdsTrainingTimeoutSecondsPropertyName = "appCdsTrainingTimeoutSeconds";
+
+    /**
+     * The number of seconds that the AppCDS training run can take when no timeout is set.
+     */
+    public static final int defaultAppCdsTrainingTimeoutSeconds = 300;
+
+    private JavaProjectJSONPack(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static JavaProjectJSONPack create()
+    {
+        return JavaProjectJSONPack.create(JSONObject.create());
+    }
+
+    public static JavaProjectJSONPack create(JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        return new JavaProjectJSONPack(json);
+    }
+
+    private Boolean getBoolean(String propertyName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(propertyName, "propertyName");
+
+        return this.toJson().getBoolean(propertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get whether jar files will be written from within the qub-javaproject process instead of by
+     * launching the JDK's jar tool. Defaults to false, unless deterministic jar files have been
+     * requested, since only the in-process jar writer can create deterministic jar files.
+     * @return Whether jar files will be written from within the qub-javaproject process.
+     */
+    public boolean getInProcess()
+    {
+        final Boolean result = this.getBoolean(JavaProjectJSONPack.inProcessPropertyName);
+        return (result != null && result) || this.getDeterministic();
+    }
+
+    /**
+     * Set whether jar files will be written from within the qub-javaproject process instead of by
+     * launching the JDK's jar tool.
+     * @param inProcess Whether jar files will be written from within the qub-javaproject process.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setInProcess(boolean inProcess)
+    {
+        this.toJson().setBoolean(JavaProjectJSONPack.inProcessPropertyName, inProcess);
+
+        return this;
+    }
+
+    /**
+     * Get the deflate compression level (between 0 and 9) that the in-process jar writer will use.
+     * @return The deflate compression level, or null if the default compression level will be
+     * used.
+     */
+    public Integer getCompressionLevel()
+    {
+        return this.toJson().getInteger(JavaProjectJSONPack.compressionLevelPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the deflate compression level (between 0 and 9) that the in-process jar writer will use.
+     * @param compressionLevel The deflate compression level.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setCompressionLevel(int compressionLevel)
+    {
+        PreCondition.assertBetween(0, compressionLevel, 9, "compressionLevel");
+
+        this.toJson().setNumber(JavaProjectJSONPack.compressionLevelPropertyName, compressionLevel);
+
+        return this;
+    }
+
+    /**
+     * Get whether the jar files will be created deterministically. Deterministic jar files have
+     * sorted entries, normalized timestamps and attributes, and no JDK-specific manifest
+     * attributes, so the same inputs always produce byte-identical jar files. Defaults to false.
+     * @return Whether the jar files will be created deterministically.
+     */
+    public boolean getDeterministic()
+    {
+        final Boolean result = this.getBoolean(JavaProjectJSONPack.deterministicPropertyName);
+        return result != null && result;
+    }
+
+    /**
+     * Set whether the jar files will be created deterministically.
+     * @param deterministic Whether the jar files will be created deterministically.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setDeterministic(boolean deterministic)
+    {
+        this.toJson().setBoolean(JavaProjectJSONPack.deterministicPropertyName, deterministic);
+
+        return this;
+    }
+
+    /**
+     * Get whether a single runnable jar file that contains the project's compiled sources and the
+     * compiled sources of all of its dependencies will be created. Defaults to false, unless an
+     * AppCDS archive has been requested, since the AppCDS archive is created for the fat jar file.
+     * @return Whether a fat jar file will be created.
+     */
+    public boolean getFatJar()
+    {
+        final Boolean result = this.getBoolean(JavaProjectJSONPack.fatJarPropertyName);
+        return (result != null && result) || this.getAppCds();
+    }
+
+    /**
+     * Set whether a single runnable jar file that contains the project's compiled sources and the
+     * compiled sources of all of its dependencies will be created.
+     * @param fatJar Whether a fat jar file will be created.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setFatJar(boolean fatJar)
+    {
+        this.toJson().setBoolean(JavaProjectJSONPack.fatJarPropertyName, fatJar);
+
+        return this;
+    }
+
+    /**
+     * Get whether an AppCDS (application class data sharing) archive will be created for the fat
+     * jar file. The archive is created by running the fat jar file once with the AppCDS training
+     * arguments. Defaults to false.
+     * @return Whether an AppCDS archive will be created.
+     */
+    public boolean getAppCds()
+    {
+        final Boolean result = this.getBoolean(JavaProjectJSONPack.appCdsPropertyName);
+        return result != null && result;
+    }
+
+    /**
+     * Set whether an AppCDS (application class data sharing) archive will be created for the fat
+     * jar file.
+     * @param appCds Whether an AppCDS archive will be created.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setAppCds(boolean appCds)
+    {
+        this.toJson().setBoolean(JavaProjectJSONPack.appCdsPropertyName, appCds);
+
+        return this;
+    }
+
+    /**
+     * Get the arguments that the fat jar file will be run with to record the classes that go into
+     * the AppCDS archive.
+     * @return The AppCDS training arguments.
+     */
+    public Iterable<String> getAppCdsTrainingArguments()
+    {
+        return this.toJson().getArray(JavaProjectJSONPack.appCdsTrainingArgumentsPropertyName)
+            .catchError(() -> JSONArray.create())
+            .await()
+            .instanceOf(JSONString.class)
+            .map(JSONString::getValue)
+            .toList();
+    }
+
+    /**
+     * Set the arguments that the fat jar file will be run with to record the classes that go into
+     * the AppCDS archive.
+     * @param appCdsTrainingArguments The AppCDS training arguments.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setAppCdsTrainingArguments(Iterable<String> appCdsTrainingArguments)
+    {
+        PreCondition.assertNotNull(appCdsTrainingArguments, "appCdsTrainingArguments");
+
+        this.toJson().setArray(JavaProjectJSONPack.appCdsTrainingArgumentsPropertyName, JSONArray.create(appCdsTrainingArguments.map(JSONString::get)));
+
+        return this;
+    }
+
+    /**
+     * Get the number of seconds that the AppCDS training run can take before it is stopped and
+     * considered to have failed. Defaults to {@link #defaultAppCdsTrainingTimeoutSeconds}.
+     * @return The number of seconds that the AppCDS training run can take.
+     */
+    public int getAppCdsTrainingTimeoutSeconds()
+    {
+        final Integer result = this.toJson().getInteger(JavaProjectJSONPack.appCdsTrainingTimeoutSecondsPropertyName)
+            .catchError()
+            .await();
+        return result == null || result < 1
+            ? JavaProjectJSONPack.defaultAppCdsTrainingTimeoutSeconds
+            : result;
+    }
+
+    /**
+     * Set the number of seconds that the AppCDS training run can take before it is stopped and
+     * considered to have failed.
+     * @param appCdsTrainingTimeoutSeconds The number of seconds that the AppCDS training run can
+     *                                     take.
+     * @return This object for method chaining.
+     */
+    public JavaProjectJSONPack setAppCdsTrainingTimeoutSeconds(int appCdsTrainingTimeoutSeconds)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(appCdsTrainingTimeoutSeconds, 1, "appCdsTrainingTimeoutSeconds");
+
+        this.toJson().setNumber(JavaProjectJSONPack.appCdsTrainingTimeoutSecondsPropertyName, appCdsTrainingTimeoutSeconds);
+
+        return this;
+    }
+
+    /**
+     * Get a description of the settings that change the bytes of the project's jar files. The fat
+     * jar file and AppCDS settings aren't included, since they don't change how the project's
+     * own jar files are written.
+     * @return A description of the settings that change the bytes of the project's jar files.
+     */
+    public String getJarSettings()
+    {
+        return "inProcess=" + this.getInProcess() +
+            "\ncompressionLevel=" + this.getCompressionLevel() +
+            "\ndeterministic=" + this.getDeterministic();
+    }
+}
@@ -0,0 +1,285 @@
+package qub;
+
+/**
+ * A lockfile that is written next to a project's project.json file. The lockfile records the
+ * dependencies that were declared when it was written, the full dependency graph that those
+ * dependencies resolved to, the last modified time of each resolved dependency's project.json
+ * file, and the compile and test classpaths of that graph, so commands that need the project's
+ * dependencies can skip resolving the dependency graph while the lockfile is fresh.
+ */
+public class JavaProjectLockJSON extends JSONObjectWrapperBase
+{
+    /**
+     * The name of the file that the lockfile is stored in.
+     */
+    public static final String fileName = "project.lock.json";
+
+    private static final String dependenciesPropertyName = "dependencies";
+    private static final String resolvedDependenciesPropertyName = "resolvedDependencies";
+    private static final String compileClasspathPropertyName = "compileClasspath";
+    private static final String testClasspathPropertyName = "testClasspath";
+    private static final String projectJsonLastModifiedPropertyName = "projectJsonLastModified";
+
+    protected JavaProjectLockJSON(JSONObject json)
+    {
+        super(json);
+    }
+
+    public static JavaProjectLockJSON create()
+    {
+        return JavaProjectLockJSON.create(JSONObject.create());
+    }
+
+    public static JavaProjectLockJSON create(JSONObject json)
+    {
+        PreCondition.assertNotNull(json, "json");
+
+        return new JavaProjectLockJSON(json);
+    }
+
+    public static Result<JavaProjectLockJSON> parse(File lockJsonFile)
+    {
+        PreCondition.assertNotNull(lockJsonFile, "lockJsonFile");
+
+        return Result.create(() ->
+        {
+            return JavaProjectLockJSON.create(JSON.parseObject(lockJsonFile).await());
+        });
+    }
+
+    private Iterable<ProjectSignature> getProjectSignatures(String propertyName)
+    {
+        final List<ProjectSignature> result = List.create();
+        final JSONArray projectSignaturesJson = this.toJson().getArray(propertyName).catchError().await();
+        if (projectSignaturesJson != null)
+        {
+            for (final JSONObject projectSignatureJson : projectSignaturesJson.instanceOf(JSONObject.class))
+            {
+                final ProjectSignature projectSignature = JavaProjectJSON.parseProjectSignature(projectSignatureJson).catchError().await();
+                if (projectSignature != null)
+                {
+                    result.add(projectSignature);
+                }
+            }
+        }
+        return result;
+    }
+
+    private JavaProjectLockJSON setProjectSignatures(String propertyName, Iterable<ProjectSignature> projectSignatures)
+    {
+        this.toJson().setArray(propertyName, JSONArray.create(projectSignatures.map(JavaProjectJSON::projectSignatureToJson)));
+        return this;
+    }
+
+    private Iterable<String> getStrings(String propertyName)
+    {
+        final JSONArray stringsJson = this.toJson().getArray(propertyName).catchError().await();
+        return stringsJson == null
+            ? Iterable.create()
+            : stringsJson.instanceOf(JSONString.class).map(JSONString::getValue).toList();
+    }
+
+    private JavaProjectLockJSON setStrings(String propertyName, Iterable<String> strings)
+    {
+        this.toJson().setArray(propertyName, JSONArray.create(strings.map(JSONString::get)));
+        return this;
+    }
+
+    /**
+     * Get the dependencies that were declared in the project's project.json file when this
+     * lockfile was written.
+     * @return The dependencies that were declared when this lockfile was written.
+     */
+    public Iterable<ProjectSignature> getDependencies()
+    {
+        final Iterable<ProjectSignature> result = this.getProjectSignatures(JavaProjectLockJSON.dependenciesPropertyName);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    public JavaProjectLockJSON setDependencies(Iterable<ProjectSignature> dependencies)
+    {
+        PreCondition.assertNotNull(dependencies, "dependencies");
+
+        return this.setProjectSignatures(JavaProjectLockJSON.dependenciesPropertyName, dependencies);
+    }
+
+    /**
+     * Get the full dependency graph that the declared dependencies resolved to, in the order that
+     * the dependencies were discovered.
+     * @return The full dependency graph that the declared dependencies resolved to.
+     */
+    public Iterable<ProjectSignature> getResolvedDependencies()
+    {
+        final Iterable<ProjectSignature> result = this.getProjectSignatures(JavaProjectLockJSON.resolvedDependenciesPropertyName);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    public JavaProjectLockJSON setResolvedDependencies(Iterable<ProjectSignature> resolvedDependencies)
+    {
+        PreCondition.assertNotNull(resolvedDependencies, "resolvedDependencies");
+
+        return this.setProjectSignatures(JavaProjectLockJSON.resolvedDependenciesPropertyName, resolvedDependencies);
+    }
+
+    /**
+     * Get the published project folders of the resolved dependencies.
+     * @param qubFolder The {@link QubFolder} that the resolved dependencies are published to.
+     * @return The published project folders of the resolved dependencies.
+     */
+    public Iterable<JavaPublishedProjectFolder> getResolvedDependencyFolders(QubFolder qubFolder)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+
+        final List<JavaPublishedProjectFolder> result = List.create();
+        for (final ProjectSignature resolvedDependency : this.getResolvedDependencies())
+        {
+            result.add(JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(resolvedDependency).await()));
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the last modified time that the provided resolved dependency's project.json file had
+     * when this lockfile was written.
+     * @param resolvedDependency The resolved dependency.
+     * @return The last modified time of the resolved dependency's project.json file, or null if
+     * the dependency didn't have a project.json file.
+     */
+    public String getProjectJsonLastModified(ProjectSignature resolvedDependency)
+    {
+        PreCondition.assertNotNull(resolvedDependency, "resolvedDependency");
+
+        return this.toJson().getObject(JavaProjectLockJSON.projectJsonLastModifiedPropertyName)
+            .then((JSONObject projectJsonLastModifiedJson) -> projectJsonLastModifiedJson.getString(resolvedDependency.toString()).await())
+            .catchError()
+            .await();
+    }
+
+    public JavaProjectLockJSON setProjectJsonLastModified(ProjectSignature resolvedDependency, String lastModified)
+    {
+        PreCondition.assertNotNull(resolvedDependency, "resolvedDependency");
+        PreCondition.assertNotNullAndNotEmpty(lastModified, "lastModified");
+
+        JSONObject projectJsonLastModifiedJson = this.toJson().getObject(JavaProjectLockJSON.projectJsonLastModifiedPropertyName).catchError().await();
+        if (projectJsonLastModifiedJson == null)
+        {
+            projectJsonLastModifiedJson = JSONObject.create();
+            this.toJson().setObject(JavaProjectLockJSON.projectJsonLastModifiedPropertyName, projectJsonLastModifiedJson);
+        }
+        projectJsonLastModifiedJson.setString(resolvedDependency.toString(), lastModified);
+
+        return this;
+    }
+
+    /**
+     * Get the paths of the compiled sources jar files of the resolved dependencies.
+     * @return The paths of the compiled sources jar files of the resolved dependencies.
+     */
+    public Iterable<String> getCompileClasspath()
+    {
+        final Iterable<String> result = this.getStrings(JavaProjectLockJSON.compileClasspathPropertyName);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    public JavaProjectLockJSON setCompileClasspath(Iterable<String> compileClasspath)
+    {
+        PreCondition.assertNotNull(compileClasspath, "compileClasspath");
+
+        return this.setStrings(JavaProjectLockJSON.compileClasspathPropertyName, compileClasspath);
+    }
+
+    /**
+     * Get the paths of the compiled sources and compiled tests jar files of the resolved
+     * dependencies.
+     * @return The paths of the compiled sources and compiled tests jar files of the resolved
+     * dependencies.
+     */
+    public Iterable<String> getTestClasspath()
+    {
+        final Iterable<String> result = this.getStrings(JavaProjectLockJSON.testClasspathPropertyName);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    public JavaProjectLockJSON setTestClasspath(Iterable<String> testClasspath)
+    {
+        PreCondition.assertNotNull(testClasspath, "testClasspath");
+
+        return this.setStrings(JavaProjectLockJSON.testClasspathPropertyName, testClasspath);
+    }
+
+    /**
+     * Create a lockfile for the provided declared dependencies and the full dependency graph that
+     * they resolved to.
+     * @param qubFolder The {@link QubFolder} that the resolved dependencies are published to.
+     * @param dependencies The dependencies that are declared in the project's project.json file.
+     * @param resolvedDependencies The full dependency graph that the declared dependencies resolved
+     * to.
+     * @return The new lockfile.
+     */
+    public static Result<JavaProjectLockJSON> create(QubFolder qubFolder, Iterable<ProjectSignature> dependencies, Iterable<ProjectSignature> resolvedDependencies)
+    {
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(dependencies, "dependencies");
+        PreCondition.assertNotNull(resolvedDependencies, "resolvedDependencies");
+
+        return Result.create(() ->
+        {
+            final JavaProjectLockJSON result = JavaProjectLockJSON.create()
+                .setDependencies(dependencies)
+                .setResolvedDependencies(resolvedDependencies);
+
+            final List<String> compileClasspath = List.create();
+            final List<String> testClasspath = List.create();
+            for (final ProjectSignature resolvedDependency : resolvedDependencies)
+            {
+                final JavaPublishedProjectFolder dependencyFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(resolvedDependency).await());
+                final String compiledSourcesJarFilePath = dependencyFolder.getCompiledSourcesJarFile().await().toString();
+                compileClasspath.add(compiledSourcesJarFilePath);
+                testClasspath.addAll(
+                    compiledSourcesJarFilePath,
+                    dependencyFolder.getCompiledTestsJarFile().await().toString());
+
+                final String projectJsonLastModified = JavaProjectLockJSON.getProjectJsonLastModified(dependencyFolder);
+                if (projectJsonLastModified != null)
+                {
+                    result.setProjectJsonLastModified(resolvedDependency, projectJsonLastModified);
+                }
+            }
+
+            return result
+                .setCompileClasspath(compileClasspath)
+                .setTestClasspath(testClasspath);
+        });
+    }
+
+    /**
+     * Get the current last modified time of the provided published project's project.json file.
+     * @param publishedProjectFolder The published project folder.
+     * @return The current last modified time of the published project's project.json file, or
+     * null if it doesn't have a project.json file.
+     */
+    static String getProjectJsonLastModified(JavaPublishedProjectFolder publishedProjectFolder)
+    {
+        PreCondition.assertNotNull(publishedProjectFolder, "publishedProjectFolder");
+
+        return publishedProjectFolder.getProjectJsonFile().await().getLastModified()
+            .then((DateTime lastModified) -> lastModified.toString())
+            .catchError()
+            .await();
+    }
+}
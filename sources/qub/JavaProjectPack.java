@@ -16,6 +16,152 @@ public interface JavaProjectPack
             "The folder that contains a Java project to package. Defaults to the current folder.");
     }
 
+    /**
+     * A task that creates one of a project's jar files if it isn't up to date.
+     */
+    interface JarFileTask
+    {
+        /**
+         * Create the jar file if it isn't up to date.
+         * @param writeOutputLine The action that writes a line to the output stream.
+         * @param writeVerboseLine The action that writes a line to the verbose stream.
+         * @return The pack.json records of the files that are in the jar file.
+         */
+        Iterable<PackJSONFile> run(Action1<String> writeOutputLine, Action1<String> writeVerboseLine);
+    }
+
+    /**
+     * Create an AppCDS archive by running the provided fat jar file once. The archive is recorded
+     * to a temporary file and only replaces the provided archive file if the training run exits
+     * successfully within the provided timeout. Otherwise the provided archive file is deleted.
+     * @param java The java tool that will run the fat jar file.
+     * @param fatJarFile The fat jar file to run.
+     * @param trainingArguments The arguments to run the fat jar file with.
+     * @param appCdsArchiveFile The AppCDS archive file to create.
+     * @param timeoutSeconds The number of seconds that the training run can take.
+     * @return The result of creating the AppCDS archive.
+     */
+    static Result<Void> createAppCdsArchive(Java java, File fatJarFile, Iterable<String> trainingArguments, File appCdsArchiveFile, long timeoutSeconds)
+    {
+        PreCondition.assertNotNull(java, "java");
+        PreCondition.assertNotNull(fatJarFile, "fatJarFile");
+        PreCondition.assertNotNull(trainingArguments, "trainingArguments");
+        PreCondition.assertNotNull(appCdsArchiveFile, "appCdsArchiveFile");
+        PreCondition.assertGreaterThanOrEqualTo(timeoutSeconds, 1, "timeoutSeconds");
+
+        return JavaProjectPack.createAppCdsArchive(java, (JavaParameters javaParameters) ->
+        {
+            javaParameters.addJarFile(fatJarFile.toString());
+            javaParameters.addArguments(trainingArguments);
+        }, appCdsArchiveFile, timeoutSeconds);
+    }
+
+    /**
+     * Create an AppCDS archive by running the provided main class once with the provided
+     * classpath. The JVM only uses an archive when it is run with the same classpath that the
+     * archive was created with.
+     * @param java The java tool that will run the main class.
+     * @param classpathFiles The classpath to run the main class with.
+     * @param mainClass The main class to run.
+     * @param trainingArguments The arguments to run the main class with.
+     * @param appCdsArchiveFile The AppCDS archive file to create.
+     * @param timeoutSeconds The number of seconds that the training run can take.
+     * @return The result of creating the AppCDS archive.
+     */
+    static Result<Void> createAppCdsArchive(Java java, Iterable<File> classpathFiles, String mainClass, Iterable<String> trainingArguments, File appCdsArchiveFile, long timeoutSeconds)
+    {
+        PreCondition.assertNotNull(java, "java");
+        PreCondition.assertNotNull(classpathFiles, "classpathFiles");
+        PreCondition.assertNotNullAndNotEmpty(mainClass, "mainClass");
+        PreCondition.assertNotNull(trainingArguments, "trainingArguments");
+        PreCondition.assertNotNull(appCdsArchiveFile, "appCdsArchiveFile");
+        PreCondition.assertGreaterThanOrEqualTo(timeoutSeconds, 1, "timeoutSeconds");
+
+        return JavaProjectPack.createAppCdsArchive(java, (JavaParameters javaParameters) ->
+        {
+            javaParameters.addClasspath(classpathFiles.map((File classpathFile) -> classpathFile.toString()));
+            javaParameters.addArguments(mainClass);
+            javaParameters.addArguments(trainingArguments);
+        }, appCdsArchiveFile, timeoutSeconds);
+    }
+
+    /**
+     * Create an AppCDS archive by running java once with the provided launch arguments. If the
+     * training run doesn't finish within the provided timeout, then the training run's process is
+     * killed.
+     */
+    static Result<Void> createAppCdsArchive(Java java, Action1<JavaParameters> addLaunchArguments, File appCdsArchiveFile, long timeoutSeconds)
+    {
+        PreCondition.assertNotNull(java, "java");
+        PreCondition.assertNotNull(addLaunchArguments, "addLaunchArguments");
+        PreCondition.assertNotNull(appCdsArchiveFile, "appCdsArchiveFile");
+        PreCondition.assertGreaterThanOrEqualTo(timeoutSeconds, 1, "timeoutSeconds");
+
+        return Result.create(() ->
+        {
+            final File temporaryArchiveFile = appCdsArchiveFile.getFileSystem().getFile(appCdsArchiveFile.toString() + ".tmp").await();
+            appCdsArchiveFile.delete().catchError().await();
+            temporaryArchiveFile.delete().catchError().await();
+            try
+            {
+                // The training run is waited on from a daemon thread so that a training run that
+                // never exits can't keep the pack from finishing.
+                final Integer exitCode;
+                try (final DaemonExecutor executor = DaemonExecutor.create(1))
+                {
+                    final DaemonExecutor.Task<Integer> trainingRun = executor.submit(() -> java.run((JavaParameters javaParameters) ->
+                    {
+                        javaParameters.addArchiveClassesAtExit(temporaryArchiveFile.toString());
+                        addLaunchArguments.run(javaParameters);
+                    }).await());
+                    if (!trainingRun.waitForCompletion(timeoutSeconds))
+                    {
+                        JavaProjectPack.killTrainingRun(temporaryArchiveFile);
+                        trainingRun.cancel();
+                        throw new RuntimeException("The AppCDS training run didn't finish within " + timeoutSeconds + " seconds.");
+                    }
+                    exitCode = trainingRun.await();
+                }
+
+                if (exitCode == null || exitCode != 0)
+                {
+                    throw new RuntimeException("The AppCDS training run failed with exit code " + exitCode + ".");
+                }
+                if (!temporaryArchiveFile.exists().await())
+                {
+                    throw new RuntimeException("The AppCDS training run didn't create an archive.");
+                }
+                FileOperations.move(temporaryArchiveFile, appCdsArchiveFile).await();
+            }
+            finally
+            {
+                temporaryArchiveFile.delete().catchError().await();
+            }
+        });
+    }
+
+    /**
+     * Kill the AppCDS training run that is recording the provided temporary archive file. The
+     * qub child process runner doesn't expose the processes that it starts, so the training run
+     * is found among this process's descendants by its -XX:ArchiveClassesAtExit argument, which
+     * is unique to each archive.
+     * @param temporaryArchiveFile The temporary archive file that the training run is recording.
+     */
+    static void killTrainingRun(File temporaryArchiveFile)
+    {
+        PreCondition.assertNotNull(temporaryArchiveFile, "temporaryArchiveFile");
+
+        final String archiveArgument = "-XX:ArchiveClassesAtExit=" + temporaryArchiveFile;
+        ProcessHandle.current().descendants()
+            .filter((ProcessHandle descendant) ->
+            {
+                final ProcessHandle.Info info = descendant.info();
+                return info.arguments().map((String[] arguments) -> java.util.Arrays.asList(arguments).contains(archiveArgument)).orElse(false) ||
+                    info.commandLine().map((String commandLine) -> commandLine.contains(archiveArgument)).orElse(false);
+            })
+            .forEach(ProcessHandle::destroyForcibly);
+    }
+
     static void run(DesktopProcess process, CommandLineAction action)
     {
         JavaProjectPack.run(process, action, null, null);
@@ -58,6 +204,12 @@ public interface JavaProjectPack
                     final VerboseChildProcessRunner childProcessRunner = VerboseChildProcessRunner.create(process, verbose);
                     final Jar jar = jdkFolder.getJar(childProcessRunner).await();
 
+                    final JavaProjectJSONPack packSettings = projectFolder.getProjectJson()
+                        .then((JavaProjectJSON projectJson) -> projectJson.getPack())
+                        .catchError(() -> JavaProjectJSONPack.create())
+                        .await();
+                    final boolean inProcess = packSettings.getInProcess();
+
                     verbose.writeLine("Parsing pack.json file...").await();
                     final PackJSON packJson = projectFolder.getPackJson()
                         .catchError(() -> PackJSON.create())
@@ -65,109 +217,423 @@ public interface JavaProjectPack
                     final PackJSON newPackJson = PackJSON.create();
 
                     verbose.writeLine("Getting jar version...").await();
-                    final VersionNumber jarVersion = jar.version().await();
+                    // When jar files are written in-process, the JVM that is running this process
+                    // is the jar tool, so its version determines whether the jar files need to be
+                    // recreated.
+                    final VersionNumber jarVersion = inProcess
+                        ? process.getJavaVersion()
+                        : jar.version().await();
                     verbose.writeLine("Previous jar version number: " + packJson.getJarVersion()).await();
                     verbose.writeLine("Current jar version number:  " + jarVersion).await();
                     newPackJson.setJarVersion(jarVersion);
 
                     final boolean jarVersionChanged = !Comparer.equal(packJson.getJarVersion(), jarVersion);
 
-                    final Function4<File,Folder,String,Iterable<PackJSONFile>,Iterable<PackJSONFile>> createJarFileIfNeeded = (File jarFile, Folder baseFolder, String mainClassFullTypeName, Iterable<PackJSONFile> packJsonFiles) ->
+                    // Changing the pack settings that affect the jar files (such as the compression
+                    // level or whether the jar files are deterministic) changes the bytes of every
+                    // entry, so entries from jar files that were created with different settings
+                    // can't be reused. The fat jar file and AppCDS settings only affect the fat jar
+                    // file and the AppCDS archive.
+                    final JavaProjectJSONPack previousPackSettings = packJson.getPackSettings();
+                    final boolean packSettingsChanged = !previousPackSettings.getJarSettings().equals(packSettings.getJarSettings());
+                    if (packSettings.toJson().getProperties().any())
+                    {
+                        newPackJson.setPackSettings(packSettings);
+                    }
+                    final boolean deterministic = packSettings.getDeterministic();
+
+                    // The in-process jar writer reads and compresses entries on a pool that is
+                    // shared by all of the jar files so that the total number of compression
+                    // threads stays bounded by the number of processors.
+                    final Integer compressionLevel = packSettings.getCompressionLevel();
+                    final int maximumThreadCount = JavaProjectConfiguration.getMaximumThreadCount(process);
+                    final DaemonExecutor compressionExecutor = inProcess && maximumThreadCount > 1
+                        ? DaemonExecutor.create(maximumThreadCount)
+                        : null;
+
+                    // The pack cache is shared by every project (and every checkout of a project) on
+                    // this machine, so a jar file that was already created from the same inputs can
+                    // be copied instead of created again.
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.parse(process)
+                        .catchError(() -> JavaProjectConfiguration.create())
+                        .await();
+                    final PackCache packCache = !configuration.getPackCacheEnabled()
+                        ? null
+                        : process.getQubProjectDataFolder()
+                            .then((Folder projectDataFolder) -> PackCache.create(
+                                projectDataFolder.getFolder("pack-cache").await(),
+                                configuration.getPackCacheMaximumSizeInMegabytes() * 1024L * 1024L))
+                            .catchError()
+                            .await();
+
+                    // The jar files that were already up to date. Their hashes are carried forward
+                    // from the previous pack.json instead of being computed again.
+                    final java.util.Set<Path> upToDateJarFileRelativePaths = java.util.concurrent.ConcurrentHashMap.newKeySet();
+
+                    final Function4<File,Folder,String,Iterable<PackJSONFile>,JarFileTask> createJarFileIfNeeded = (File jarFile, Folder baseFolder, String mainClassFullTypeName, Iterable<PackJSONFile> packJsonFiles) -> (Action1<String> writeOutputLine, Action1<String> writeVerboseLine) ->
                     {
                         Iterable<PackJSONFile> newPackJsonFiles;
                         final Path jarFileRelativePath = jarFile.relativeTo(projectFolder);
 
-                        verbose.writeLine("Checking if the " + jarFileRelativePath.toString() + " needs to be created...").await();
-                        final Iterable<File> baseFolderFiles = baseFolder.iterateFilesRecursively().catchError().toList();
+                        writeVerboseLine.run("Checking if the " + jarFileRelativePath.toString() + " needs to be created...");
+                        final List<File> baseFolderFiles = baseFolder.iterateFilesRecursively().catchError().toList();
                         if (!baseFolderFiles.any())
                         {
-                            verbose.writeLine("No files exist that would go into " + jarFileRelativePath.toString() + ".").await();
+                            writeVerboseLine.run("No files exist that would go into " + jarFileRelativePath.toString() + ".");
                             jarFile.delete().catchError().await();
                             newPackJsonFiles = Iterable.create();
                         }
                         else
                         {
+                            // A single snapshot of the base folder's files is used both to check
+                            // whether the jar file is up to date and as the new pack.json records.
+                            final List<PackJSONFile> baseFolderSnapshot = List.create();
+                            for (final File baseFolderFile : baseFolderFiles)
+                            {
+                                baseFolderSnapshot.add(PackJSONFile.create(baseFolderFile.relativeTo(projectFolder), baseFolderFile.getLastModified().await()));
+                            }
+
                             boolean createSourcesJarFile = true;
+                            // The base folder files (relative to the base folder) that haven't
+                            // changed since the existing jar file was created. The in-process jar
+                            // writer copies these entries from the existing jar file instead of
+                            // compressing them again.
+                            final List<Path> unchangedFileRelativePaths = List.create();
                             if (jarVersionChanged)
                             {
-                                verbose.writeLine("Jar version changed.").await();
+                                writeVerboseLine.run("Jar version changed.");
+                            }
+                            else if (packSettingsChanged)
+                            {
+                                writeVerboseLine.run("Pack settings changed.");
                             }
                             else if (!jarFile.exists().await())
                             {
-                                verbose.writeLine(jarFileRelativePath.toString() + " doesn't exist.").await();
+                                writeVerboseLine.run(jarFileRelativePath.toString() + " doesn't exist.");
                             }
                             else
                             {
-                                createSourcesJarFile = false;
-
-                                final Map<Path, DateTime> previousBaseFolderFiles = packJsonFiles
-                                    .toMap(PackJSONFile::getRelativePath, PackJSONFile::getLastModified);
-                                for (final File baseFolderFile : baseFolderFiles)
+                                final String previousFolderDigest = packJson.getFolderDigest(baseFolder.relativeTo(projectFolder));
+                                if (PackJSON.getFolderDigest(baseFolderSnapshot).equals(previousFolderDigest))
+                                {
+                                    createSourcesJarFile = false;
+                                }
+                                else
                                 {
-                                    final Path relativePath = baseFolderFile.relativeTo(projectFolder);
-                                    final DateTime previousLastModified = previousBaseFolderFiles.get(relativePath).catchError().await();
-                                    if (previousLastModified == null || !previousLastModified.equals(baseFolderFile.getLastModified().await()))
+                                    boolean foundChangedFile = false;
+                                    final Map<Path, DateTime> previousBaseFolderFiles = packJsonFiles
+                                        .toMap(PackJSONFile::getRelativePath, PackJSONFile::getLastModified);
+                                    for (int i = 0; i < baseFolderFiles.getCount(); ++i)
                                     {
-                                        verbose.writeLine("Found file(s) that have changed since the last pack occurred.").await();
-                                        createSourcesJarFile = true;
-                                        break;
+                                        final PackJSONFile baseFolderSnapshotFile = baseFolderSnapshot.get(i);
+                                        final DateTime previousLastModified = previousBaseFolderFiles.get(baseFolderSnapshotFile.getRelativePath()).catchError().await();
+                                        if (previousLastModified == null || !previousLastModified.equals(baseFolderSnapshotFile.getLastModified()))
+                                        {
+                                            foundChangedFile = true;
+                                            if (!inProcess)
+                                            {
+                                                break;
+                                            }
+                                        }
+                                        else
+                                        {
+                                            unchangedFileRelativePaths.add(baseFolderFiles.get(i).relativeTo(baseFolder));
+                                        }
+                                    }
+
+                                    // A recorded digest that doesn't match means that files were
+                                    // added, removed, or modified, even if every file that still
+                                    // exists matches its previous record.
+                                    createSourcesJarFile = foundChangedFile || previousFolderDigest != null;
+                                    if (createSourcesJarFile)
+                                    {
+                                        writeVerboseLine.run("Found file(s) that have changed since the last pack occurred.");
                                     }
                                 }
                             }
 
                             if (!createSourcesJarFile)
                             {
-                                verbose.writeLine(jarFileRelativePath.toString() + " is up to date.").await();
+                                writeVerboseLine.run(jarFileRelativePath.toString() + " is up to date.");
+                                upToDateJarFileRelativePaths.add(jarFileRelativePath);
                                 newPackJsonFiles = packJsonFiles;
                             }
                             else
                             {
-                                output.writeLine("Creating " + jarFileRelativePath.toString() + "...").await();
-                                jar.run((JarParameters jarParameters) ->
+                                writeOutputLine.run("Creating " + jarFileRelativePath.toString() + "...");
+
+                                String packCacheKey = null;
+                                boolean restoredFromPackCache = false;
+                                if (packCache != null)
                                 {
-                                    jarParameters.addCreate();
-                                    jarParameters.addJarFile(jarFile);
-                                    if (!Strings.isNullOrEmpty(mainClassFullTypeName))
+                                    final String jarSettings = "jarVersion=" + jarVersion +
+                                        "\nmainClass=" + Strings.escapeAndQuote(mainClassFullTypeName) +
+                                        "\n" + packSettings.getJarSettings();
+                                    packCacheKey = PackCache.getKey(baseFolder, baseFolderFiles, jarSettings).catchError().await();
+                                    if (packCacheKey != null)
                                     {
-                                        jarParameters.addMainClass(mainClassFullTypeName);
+                                        final Boolean restored = packCache.restore(packCacheKey, jarFile).catchError().await();
+                                        if (restored == null)
+                                        {
+                                            writeVerboseLine.run("Failed to restore " + jarFileRelativePath.toString() + " from the pack cache.");
+                                        }
+                                        restoredFromPackCache = restored != null && restored;
                                     }
-                                    jarParameters.addBaseFolderPath(baseFolder);
-                                    jarParameters.addContentPath(".");
-                                }).await();
-                                newPackJsonFiles = baseFolder.iterateFilesRecursively()
-                                    .map((File baseFolderFile) -> PackJSONFile.create(baseFolderFile.relativeTo(projectFolder), baseFolderFile.getLastModified().await()))
-                                    .toList();
+                                }
+
+                                if (restoredFromPackCache)
+                                {
+                                    writeVerboseLine.run("Restored " + jarFileRelativePath.toString() + " from the pack cache.");
+                                }
+                                else if (inProcess)
+                                {
+                                    writeVerboseLine.run("Writing " + jarFileRelativePath.toString() + " in-process...");
+                                    final int copiedEntryCount = JarFileWriter.create()
+                                        .setCreatedBy(jarVersion + " (qub-javaproject)")
+                                        .setMainClass(mainClassFullTypeName)
+                                        .setCompressionLevel(compressionLevel == null ? java.util.zip.Deflater.DEFAULT_COMPRESSION : compressionLevel)
+                                        .setCompressionExecutor(compressionExecutor)
+                                        .setDeterministic(deterministic)
+                                        .update(jarFile, baseFolder, unchangedFileRelativePaths)
+                                        .await();
+                                    if (copiedEntryCount > 0)
+                                    {
+                                        writeVerboseLine.run("Copied " + copiedEntryCount + " unchanged " + (copiedEntryCount == 1 ? "entry" : "entries") + " from the previous " + jarFileRelativePath.toString() + ".");
+                                    }
+                                }
+                                else
+                                {
+                                    jar.run((JarParameters jarParameters) ->
+                                    {
+                                        jarParameters.addCreate();
+                                        jarParameters.addJarFile(jarFile);
+                                        if (!Strings.isNullOrEmpty(mainClassFullTypeName))
+                                        {
+                                            jarParameters.addMainClass(mainClassFullTypeName);
+                                        }
+                                        jarParameters.addBaseFolderPath(baseFolder);
+                                        jarParameters.addContentPath(".");
+                                    }).await();
+                                }
+
+                                if (packCacheKey != null && !restoredFromPackCache)
+                                {
+                                    if (packCache.store(packCacheKey, jarFile).catchError().await() == null)
+                                    {
+                                        writeVerboseLine.run("Failed to store " + jarFileRelativePath.toString() + " in the pack cache.");
+                                    }
+                                }
+                                newPackJsonFiles = baseFolderSnapshot;
                             }
                         }
 
                         return newPackJsonFiles;
                     };
 
-
-                    newPackJson.setSourceFiles(createJarFileIfNeeded.run(
-                        projectFolder.getSourcesJarFile().await(),
+                    final String mainClassFullTypeName = projectFolder.getMainClass().catchError().await();
+                    final List<Folder> baseFolders = List.create(
                         projectFolder.getSourcesFolder().await(),
-                        null,
-                        packJson.getSourceFiles()));
-
-                    newPackJson.setTestSourceFiles(createJarFileIfNeeded.run(
-                        projectFolder.getTestSourcesJarFile().await(),
                         projectFolder.getTestSourcesFolder().await(),
-                        null,
-                        packJson.getTestSourceFiles()));
-
-                    final String mainClassFullTypeName = projectFolder.getMainClass().catchError().await();
-                    newPackJson.setSourceOutputFiles(createJarFileIfNeeded.run(
-                        projectFolder.getCompiledSourcesJarFile().await(),
                         projectFolder.getOutputsSourcesFolder().await(),
-                        mainClassFullTypeName,
-                        packJson.getSourceOutputFiles()));
-
-                    newPackJson.setTestOutputFiles(createJarFileIfNeeded.run(
-                        projectFolder.getCompiledTestSourcesJarFile().await(),
-                        projectFolder.getOutputsTestsFolder().await(),
-                        null,
-                        packJson.getTestOutputFiles()));
+                        projectFolder.getOutputsTestsFolder().await());
+                    final List<JarFileTask> jarFileTasks = List.create(
+                        createJarFileIfNeeded.run(
+                            projectFolder.getSourcesJarFile().await(),
+                            baseFolders.get(0),
+                            null,
+                            packJson.getSourceFiles()),
+                        createJarFileIfNeeded.run(
+                            projectFolder.getTestSourcesJarFile().await(),
+                            baseFolders.get(1),
+                            null,
+                            packJson.getTestSourceFiles()),
+                        createJarFileIfNeeded.run(
+                            projectFolder.getCompiledSourcesJarFile().await(),
+                            baseFolders.get(2),
+                            mainClassFullTypeName,
+                            packJson.getSourceOutputFiles()),
+                        createJarFileIfNeeded.run(
+                            projectFolder.getCompiledTestSourcesJarFile().await(),
+                            baseFolders.get(3),
+                            null,
+                            packJson.getTestOutputFiles()));
+
+                    final List<Iterable<PackJSONFile>> jarFileResults = List.create();
+                    if (!inProcess || maximumThreadCount == 1)
+                    {
+                        // The jar tool's child processes write their command lines directly to the
+                        // verbose stream, so the jar files are created one at a time to keep the logs
+                        // in order. They are also created one at a time when only one thread is
+                        // configured.
+                        for (final JarFileTask jarFileTask : jarFileTasks)
+                        {
+                            jarFileResults.add(jarFileTask.run(
+                                (String line) -> output.writeLine(line).await(),
+                                (String line) -> verbose.writeLine(line).await()));
+                        }
+                    }
+                    else
+                    {
+                        // The jar files are independent of each other, so they are created
+                        // concurrently. Each jar file's log lines are buffered and then written in
+                        // the same order that they would have been written if the jar files had been
+                        // created one at a time.
+                        final DaemonExecutor executor = DaemonExecutor.create(Math.min(jarFileTasks.getCount(), maximumThreadCount));
+                        try
+                        {
+                            final List<List<Action0>> jarFileLogs = List.create();
+                            final List<DaemonExecutor.Task<Iterable<PackJSONFile>>> jarFileTaskResults = List.create();
+                            for (final JarFileTask jarFileTask : jarFileTasks)
+                            {
+                                final List<Action0> jarFileLog = List.create();
+                                jarFileLogs.add(jarFileLog);
+                                jarFileTaskResults.add(executor.submit(() -> jarFileTask.run(
+                                    (String line) -> jarFileLog.add(() -> output.writeLine(line).await()),
+                                    (String line) -> jarFileLog.add(() -> verbose.writeLine(line).await()))));
+                            }
+
+                            for (int i = 0; i < jarFileTasks.getCount(); ++i)
+                            {
+                                final Iterable<PackJSONFile> jarFileResult;
+                                try
+                                {
+                                    jarFileResult = jarFileTaskResults.get(i).await();
+                                }
+                                finally
+                                {
+                                    for (final Action0 logAction : jarFileLogs.get(i))
+                                    {
+                                        logAction.run();
+                                    }
+                                }
+                                jarFileResults.add(jarFileResult);
+                            }
+                        }
+                        finally
+                        {
+                            executor.dispose().await();
+                            if (compressionExecutor != null)
+                            {
+                                compressionExecutor.dispose().await();
+                            }
+                        }
+                    }
+
+                    newPackJson.setSourceFiles(jarFileResults.get(0));
+                    newPackJson.setTestSourceFiles(jarFileResults.get(1));
+                    newPackJson.setSourceOutputFiles(jarFileResults.get(2));
+                    newPackJson.setTestOutputFiles(jarFileResults.get(3));
+                    for (int i = 0; i < baseFolders.getCount(); ++i)
+                    {
+                        final Iterable<PackJSONFile> baseFolderFiles = jarFileResults.get(i);
+                        if (baseFolderFiles.any())
+                        {
+                            newPackJson.setFolderDigest(baseFolders.get(i).relativeTo(projectFolder), PackJSON.getFolderDigest(baseFolderFiles));
+                        }
+                    }
+
+                    if (deterministic)
+                    {
+                        // Deterministic jar files are byte-identical whenever their inputs are the
+                        // same, so their hashes can be used to skip or deduplicate unchanged
+                        // artifacts. A jar file that wasn't written keeps its previous hash.
+                        final Iterable<File> jarFiles = Iterable.create(
+                            projectFolder.getSourcesJarFile().await(),
+                            projectFolder.getTestSourcesJarFile().await(),
+                            projectFolder.getCompiledSourcesJarFile().await(),
+                            projectFolder.getCompiledTestSourcesJarFile().await());
+                        for (final File jarFile : jarFiles)
+                        {
+                            if (jarFile.exists().await())
+                            {
+                                final Path jarFileRelativePath = jarFile.relativeTo(projectFolder);
+                                String jarHash = upToDateJarFileRelativePaths.contains(jarFileRelativePath)
+                                    ? packJson.getJarHash(jarFileRelativePath)
+                                    : null;
+                                if (jarHash == null)
+                                {
+                                    jarHash = ContentHash.get(jarFile).await();
+                                }
+                                verbose.writeLine(jarFileRelativePath + " " + ContentHash.algorithm + ": " + jarHash).await();
+                                newPackJson.setJarHash(jarFileRelativePath, jarHash);
+                            }
+                        }
+                    }
+
+                    if (packSettings.getFatJar())
+                    {
+                        // A single runnable jar file lets a tool be launched without a long
+                        // classpath of dependency jar files to open and scan on startup.
+                        final File compiledSourcesJarFile = projectFolder.getCompiledSourcesJarFile().await();
+                        final File fatJarFile = projectFolder.getFatJarFile().await();
+                        final Path fatJarFileRelativePath = fatJarFile.relativeTo(projectFolder);
+                        final File appCdsArchiveFile = projectFolder.getAppCdsArchiveFile().await();
+                        final Path appCdsArchiveFileRelativePath = appCdsArchiveFile.relativeTo(projectFolder);
+                        if (!compiledSourcesJarFile.exists().await())
+                        {
+                            verbose.writeLine("No compiled sources exist that would go into " + fatJarFileRelativePath + ".").await();
+                            fatJarFile.delete().catchError().await();
+                            appCdsArchiveFile.delete().catchError().await();
+                        }
+                        else
+                        {
+                            verbose.writeLine("Discovering dependencies for " + fatJarFileRelativePath + "...").await();
+                            final DependencyGraphCache dependencyGraphCache = DependencyGraphCache.get(process).catchError().await();
+                            final Iterable<File> dependencyJarFiles = projectFolder.getAllDependencyFolders(qubFolder, false, dependencyGraphCache).await()
+                                .map((JavaPublishedProjectFolder dependencyFolder) -> dependencyFolder.getCompiledSourcesJarFile().await())
+                                .toList();
+                            final FatJarWriter fatJarWriter = FatJarWriter.create()
+                                .setMainClass(mainClassFullTypeName)
+                                .setCreatedBy(jarVersion + " (qub-javaproject)")
+                                .addJarFile(compiledSourcesJarFile)
+                                .addJarFiles(dependencyJarFiles);
+                            final String fatJarDigest = fatJarWriter.getInputDigest().await();
+                            newPackJson.setFatJarDigest(fatJarDigest);
+
+                            final boolean fatJarUpToDate = fatJarDigest.equals(packJson.getFatJarDigest()) && fatJarFile.exists().await();
+                            if (fatJarUpToDate)
+                            {
+                                verbose.writeLine(fatJarFileRelativePath + " is up to date.").await();
+                            }
+                            else
+                            {
+                                output.writeLine("Creating " + fatJarFileRelativePath + "...").await();
+                                final Iterable<String> duplicateEntries = fatJarWriter.write(fatJarFile).await();
+                                for (final String duplicateEntry : duplicateEntries)
+                                {
+                                    verbose.writeLine("Ignored duplicate entry " + duplicateEntry + ".").await();
+                                }
+                            }
+
+                            if (!packSettings.getAppCds())
+                            {
+                                appCdsArchiveFile.delete().catchError().await();
+                            }
+                            else if (fatJarUpToDate &&
+                                previousPackSettings.getAppCds() &&
+                                Comparer.equal(previousPackSettings.getAppCdsTrainingArguments(), packSettings.getAppCdsTrainingArguments()) &&
+                                appCdsArchiveFile.exists().await())
+                            {
+                                verbose.writeLine(appCdsArchiveFileRelativePath + " is up to date.").await();
+                            }
+                            else
+                            {
+                                // The archive is recorded by running the fat jar file once, so the
+                                // classes that the training run loads are the classes that later
+                                // launches can map from the archive instead of loading and
+                                // verifying them again.
+                                output.writeLine("Creating " + appCdsArchiveFileRelativePath + "...").await();
+                                final Java java = jdkFolder.getJava(childProcessRunner).await();
+                                JavaProjectPack.createAppCdsArchive(java, fatJarFile, packSettings.getAppCdsTrainingArguments(), appCdsArchiveFile, packSettings.getAppCdsTrainingTimeoutSeconds())
+                                    .catchError((Throwable error) ->
+                                    {
+                                        output.writeLine("Failed to create " + appCdsArchiveFileRelativePath + ".").await();
+                                        verbose.writeLine(error.getMessage()).await();
+                                    })
+                                    .await();
+                            }
+                        }
+                    }
 
                     verbose.writeLine("Updating " + projectFolder.getPackJsonRelativePath().await() + "...").await();
                     projectFolder.writePackJson(newPackJson).await();
@@ -91,11 +91,19 @@ public interface JavaProjectPublish
                         final File compiledTestsJarFile = projectFolder.getCompiledTestSourcesJarFile().await();
 
                         output.writeLine("Publishing " + publisher + "/" + project + "@" + version + "...").await();
-                        JavaProjectPublish.publishFile(projectJsonFile, versionFolder, verbose);
-                        JavaProjectPublish.publishFile(sourcesJarFile, versionFolder, verbose);
-                        JavaProjectPublish.publishFile(testSourcesJarFile, versionFolder, verbose);
-                        JavaProjectPublish.publishFile(compiledSourcesJarFile, versionFolder, verbose);
-                        JavaProjectPublish.publishFile(compiledTestsJarFile, versionFolder, verbose);
+                        final List<File> filesToPublish = List.create(projectJsonFile, sourcesJarFile, testSourcesJarFile, compiledSourcesJarFile, compiledTestsJarFile);
+
+                        final JavaProjectJSONPack packSettings = projectJSON.getPack();
+                        final File fatJarFile = projectFolder.getFatJarFile().await();
+                        final boolean publishFatJar = packSettings.getFatJar() && fatJarFile.exists().await();
+                        if (publishFatJar)
+                        {
+                            filesToPublish.add(fatJarFile);
+                        }
+
+                        final Folder stagingFolder = publishedProjectFolder.getProjectDataFolder().await()
+                            .getFolder("publish-staging/" + version).await();
+                        JavaProjectPublish.publishFiles(filesToPublish, stagingFolder, versionFolder, JavaProjectConfiguration.getMaximumThreadCount(process), verbose);
 
                         final String mainClass = projectJSON.getMainClass();
                         if (!Strings.isNullOrEmpty(mainClass))
@@ -106,58 +114,84 @@ public interface JavaProjectPublish
                                 shortcutName = projectJSON.getProject();
                             }
 
-                            final CharacterList classpath = CharacterList.create()
-                                .addAll("%~dp0").addAll(versionFolder.getFile(compiledSourcesJarFile.getName()).await().relativeTo(qubFolder).toString());
-                            Iterable<JavaPublishedProjectFolder> dependencyFolders = projectJSON.getAllDependencyFolders(qubFolder).await();
-                            if (!Iterable.isNullOrEmpty(dependencyFolders))
+                            final List<File> classpathFiles = List.create();
+                            if (publishFatJar)
+                            {
+                                classpathFiles.add(versionFolder.getFile(fatJarFile.getName()).await());
+                            }
+                            else
                             {
-                                for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                                classpathFiles.add(versionFolder.getFile(compiledSourcesJarFile.getName()).await());
+                                final DependencyGraphCache dependencyGraphCache = DependencyGraphCache.get(process).catchError().await();
+                                Iterable<JavaPublishedProjectFolder> dependencyFolders = projectJSON.getAllDependencyFolders(qubFolder, dependencyGraphCache).await();
+                                if (!Iterable.isNullOrEmpty(dependencyFolders))
                                 {
-                                    final File dependencyCompiledSourcesJarFile = dependencyFolder.getCompiledSourcesJarFile().await();
-                                    final Path dependencyCompiledSourcesJarFileRelativePath = dependencyCompiledSourcesJarFile.relativeTo(qubFolder);
-                                    classpath.addAll(";%~dp0").addAll(dependencyCompiledSourcesJarFileRelativePath.toString());
+                                    for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                                    {
+                                        classpathFiles.add(dependencyFolder.getCompiledSourcesJarFile().await());
+                                    }
                                 }
                             }
 
+                            String sharedArchiveFileRelativePath = null;
+                            if (packSettings.getAppCds())
+                            {
+                                final File appCdsArchiveFile = versionFolder.getFile(JavaProject.getAppCdsArchiveFileName(project)).await();
+                                JavaProjectPublish.createAppCdsArchive(process, qubFolder, appCdsArchiveFile, classpathFiles, mainClass, packSettings, verbose);
+                                if (appCdsArchiveFile.exists().await())
+                                {
+                                    sharedArchiveFileRelativePath = appCdsArchiveFile.relativeTo(qubFolder).toString();
+                                }
+                                else
+                                {
+                                    verbose.writeLine("Failed to create " + appCdsArchiveFile + ". " + shortcutName + " will run without it.").await();
+                                }
+                            }
+
+                            final Iterable<String> jvmArguments = projectJSON.getJvmArguments();
+                            final Iterable<String> classpathRelativePaths = classpathFiles.map((File classpathFile) -> classpathFile.relativeTo(qubFolder).toString()).toList();
+
                             final File shortcutFile = qubFolder.getFile(shortcutName + ".cmd").await();
                             try (final CharacterWriteStream shortcutFileStream = shortcutFile.getContentsCharacterWriteStream().await())
                             {
                                 shortcutFileStream.writeLine("@echo OFF").await();
-                                shortcutFileStream.writeLine("java -classpath " + classpath + " " + mainClass + " %*").await();
+                                shortcutFileStream.writeLine(JavaProjectPublish.getShortcutJavaCommand(
+                                    jvmArguments,
+                                    Strings.isNullOrEmpty(sharedArchiveFileRelativePath) ? null : "%~dp0" + sharedArchiveFileRelativePath,
+                                    classpathRelativePaths.map((String classpathRelativePath) -> "%~dp0" + classpathRelativePath),
+                                    mainClass)).await();
                             }
-                        }
 
-                        final List<String> projectsToUpdate = List.create();
-                        for (final QubPublisherFolder publisherFolder : qubFolder.iteratePublisherFolders())
-                        {
-                            for (final QubProjectFolder projectFolder2 : publisherFolder.iterateProjectFolders())
+                            final File launcherFile = qubFolder.getFile(shortcutName).await();
+                            verbose.writeLine("Writing " + launcherFile + "...").await();
+                            launcherFile.setContentsAsString(JavaProjectPublish.getPosixLauncherContents(
+                                jvmArguments,
+                                sharedArchiveFileRelativePath,
+                                classpathRelativePaths,
+                                mainClass)).await();
+                            if (!FileOperations.setExecutable(launcherFile).catchError(() -> false).await())
                             {
-                                final QubProjectVersionFolder latestVersionFolder = projectFolder2.getLatestProjectVersionFolder().catchError().await();
-                                if (latestVersionFolder != null)
-                                {
-                                    final JavaPublishedProjectFolder javaPublishedProjectFolder = JavaPublishedProjectFolder.get(latestVersionFolder);
-                                    final JavaProjectJSON publishedProjectJson = javaPublishedProjectFolder.getProjectJson().catchError().await();
-                                    if (publishedProjectJson != null)
-                                    {
-                                        final Iterable<ProjectSignature> dependencies = publishedProjectJson.getDependencies();
-                                        if (!Iterable.isNullOrEmpty(dependencies))
-                                        {
-                                            final ProjectSignature dependency = dependencies.first((ProjectSignature d) -> d.equalsIgnoreVersion(publisher, project))
-                                                .catchError()
-                                                .await();
-                                            if (dependency != null)
-                                            {
-                                                final ProjectSignature publishedProjectSignature = ProjectSignature.create(
-                                                    publishedProjectJson.getPublisher(),
-                                                    publishedProjectJson.getProject(),
-                                                    publishedProjectJson.getVersion());
-                                                projectsToUpdate.add(publishedProjectSignature.toString());
-                                            }
-                                        }
-                                    }
-                                }
+                                verbose.writeLine("Failed to mark " + launcherFile + " as executable.").await();
                             }
                         }
+
+                        final File dependentsJsonFile = process.getQubProjectDataFolder().await().getFile(DependentsJSON.fileName).await();
+                        DependentsJSON dependentsJson = DependentsJSON.parse(dependentsJsonFile).catchError().await();
+                        if (dependentsJson == null)
+                        {
+                            verbose.writeLine("Creating " + dependentsJsonFile + " from the projects in " + qubFolder + "...").await();
+                            dependentsJson = DependentsJSON.create(qubFolder).await();
+                        }
+                        dependentsJson.setProject(ProjectSignature.create(publisher, project, version), projectJSON.getDependencies());
+
+                        // Projects can be installed into or removed from the qub folder without
+                        // being published from here, so the dependents that are read from the
+                        // index are checked against the qub folder.
+                        final Iterable<String> projectsToUpdate = dependentsJson.getDependents(qubFolder, publisher, project).await()
+                            .map((ProjectSignature dependent) -> dependent.toString())
+                            .toList();
+                        verbose.writeLine("Updating " + dependentsJsonFile + "...").await();
+                        dependentsJsonFile.setContentsAsString(dependentsJson.toString(JSONFormat.pretty)).await();
                         if (!Iterable.isNullOrEmpty(projectsToUpdate))
                         {
                             output.writeLine("The following projects should be updated to use " + publisher + "/" + project + "@" + version + ":").await();
@@ -172,16 +206,220 @@ public interface JavaProjectPublish
         }
     }
 
-    static void publishFile(File file, QubProjectVersionFolder publishedFolder, VerboseCharacterToByteWriteStream verbose)
+    /**
+     * Get the java command that a published tool's shortcut file runs.
+     * @param jvmArguments The JVM arguments from the tool's project.json file.
+     * @param sharedArchiveFilePath The path to the tool's AppCDS archive, or null if the tool
+     *                              doesn't have an AppCDS archive.
+     * @param classpath The tool's classpath entries.
+     * @param mainClass The tool's main class.
+     * @return The java command that the tool's shortcut file runs.
+     */
+    static String getShortcutJavaCommand(Iterable<String> jvmArguments, String sharedArchiveFilePath, Iterable<String> classpath, String mainClass)
+    {
+        PreCondition.assertNotNull(jvmArguments, "jvmArguments");
+        PreCondition.assertNotNull(classpath, "classpath");
+        PreCondition.assertTrue(classpath.any(), "classpath.any()");
+        PreCondition.assertNotNullAndNotEmpty(mainClass, "mainClass");
+
+        final CharacterList result = CharacterList.create().addAll("java ");
+        for (final String jvmArgument : jvmArguments)
+        {
+            result.addAll(jvmArgument + " ");
+        }
+        if (!Strings.isNullOrEmpty(sharedArchiveFilePath))
+        {
+            result.addAll("-XX:SharedArchiveFile=" + sharedArchiveFilePath + " ");
+        }
+        result.addAll("-classpath " + Strings.join(';', classpath) + " " + mainClass + " %*");
+        return result.toString();
+    }
+
+    /**
+     * Get the contents of the POSIX shell script that launches a published tool on Linux and
+     * macOS. The script resolves the folder that it is in when it runs, so the provided paths must
+     * be relative to the qub folder that the script is written to.
+     * @param jvmArguments The JVM arguments from the tool's project.json file.
+     * @param sharedArchiveFileRelativePath The relative path to the tool's AppCDS archive, or null
+     *                                      if the tool doesn't have an AppCDS archive.
+     * @param classpathRelativePaths The relative paths of the tool's classpath entries.
+     * @param mainClass The tool's main class.
+     * @return The contents of the POSIX shell script that launches the tool.
+     */
+    static String getPosixLauncherContents(Iterable<String> jvmArguments, String sharedArchiveFileRelativePath, Iterable<String> classpathRelativePaths, String mainClass)
+    {
+        PreCondition.assertNotNull(jvmArguments, "jvmArguments");
+        PreCondition.assertNotNull(classpathRelativePaths, "classpathRelativePaths");
+        PreCondition.assertTrue(classpathRelativePaths.any(), "classpathRelativePaths.any()");
+        PreCondition.assertNotNullAndNotEmpty(mainClass, "mainClass");
+
+        final CharacterList result = CharacterList.create()
+            .addAll("#!/bin/sh\n")
+            .addAll("DIR=\"$(cd \"$(dirname \"$0\")\" && pwd)\"\n")
+            .addAll("exec java ");
+        for (final String jvmArgument : jvmArguments)
+        {
+            result.addAll(JavaProjectPublish.quotePosixArgument(jvmArgument) + " ");
+        }
+        if (!Strings.isNullOrEmpty(sharedArchiveFileRelativePath))
+        {
+            result.addAll("-XX:SharedArchiveFile=\"$DIR/" + JavaProjectPublish.toPosixPath(sharedArchiveFileRelativePath) + "\" ");
+        }
+        result.addAll("-classpath \"" + Strings.join(':', classpathRelativePaths.map((String classpathRelativePath) -> "$DIR/" + JavaProjectPublish.toPosixPath(classpathRelativePath))) + "\" ");
+        result.addAll(mainClass + " \"$@\"\n");
+        return result.toString();
+    }
+
+    private static String toPosixPath(String path)
+    {
+        return path.replace('\\', '/');
+    }
+
+    /**
+     * Quote the provided argument so that a POSIX shell passes it to java unchanged.
+     */
+    private static String quotePosixArgument(String argument)
+    {
+        return "'" + argument.replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * Create an AppCDS (application class data sharing) archive for a published tool by running
+     * the tool's main class once with the provided training arguments. The classpath of the
+     * training run must match the classpath that the tool's shortcut file uses, since the JVM only
+     * uses an archive when the classpath that it was created with is unchanged.
+     * @param process The process that is publishing the tool.
+     * @param qubFolder The qub folder that the tool is published to.
+     * @param appCdsArchiveFile The archive file to create.
+     * @param classpathFiles The tool's classpath.
+     * @param mainClass The tool's main class.
+     * @param packSettings The pack settings that contain the training arguments and timeout.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    static void createAppCdsArchive(DesktopProcess process, QubFolder qubFolder, File appCdsArchiveFile, Iterable<File> classpathFiles, String mainClass, JavaProjectJSONPack packSettings, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(qubFolder, "qubFolder");
+        PreCondition.assertNotNull(appCdsArchiveFile, "appCdsArchiveFile");
+        PreCondition.assertNotNull(classpathFiles, "classpathFiles");
+        PreCondition.assertNotNullAndNotEmpty(mainClass, "mainClass");
+        PreCondition.assertNotNull(packSettings, "packSettings");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        verbose.writeLine("Creating " + appCdsArchiveFile + "...").await();
+        final JDKFolder jdkFolder = JDKFolder.getLatestVersion(qubFolder).catchError().await();
+        if (jdkFolder == null)
+        {
+            verbose.writeLine("No openjdk/jdk project is installed in the qub folder at " + Strings.escapeAndQuote(qubFolder) + ".").await();
+        }
+        else
+        {
+            final VerboseChildProcessRunner childProcessRunner = VerboseChildProcessRunner.create(process, verbose);
+            final Java java = jdkFolder.getJava(childProcessRunner).await();
+            JavaProjectPack.createAppCdsArchive(java, classpathFiles, mainClass, packSettings.getAppCdsTrainingArguments(), appCdsArchiveFile, packSettings.getAppCdsTrainingTimeoutSeconds())
+                .catchError((Throwable e) -> verbose.writeLine(e.getMessage()).await())
+                .await();
+        }
+    }
+
+    /**
+     * Publish the provided files to the provided version folder. The files are copied
+     * concurrently into a staging folder and verified there, and then the staging folder is moved
+     * into place, so a publish that fails part of the way through never leaves a partially
+     * populated version folder behind.
+     * @param files The files to publish.
+     * @param stagingFolder The folder to stage the files in before they are moved into the version
+     *                      folder.
+     * @param publishedFolder The version folder to publish the files to.
+     * @param maximumThreadCount The maximum number of files to stage at the same time.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    static void publishFiles(Iterable<File> files, Folder stagingFolder, QubProjectVersionFolder publishedFolder, int maximumThreadCount, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(files, "files");
+        PreCondition.assertNotNull(stagingFolder, "stagingFolder");
+        PreCondition.assertNotNull(publishedFolder, "publishedFolder");
+        PreCondition.assertGreaterThanOrEqualTo(maximumThreadCount, 1, "maximumThreadCount");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        // A staging folder that is left over from a failed publish may contain files that are no
+        // longer being published.
+        stagingFolder.delete().catchError().await();
+        stagingFolder.create().await();
+
+        final List<File> filesList = files.toList();
+        try (final DaemonExecutor executor = DaemonExecutor.create(Math.max(1, Math.min(filesList.getCount(), maximumThreadCount))))
+        {
+            // Each file's log lines are buffered and then written in the same order that they
+            // would have been written if the files had been copied one at a time.
+            final List<List<String>> fileLogs = List.create();
+            final List<DaemonExecutor.Task<Void>> fileTasks = List.create();
+            for (final File file : filesList)
+            {
+                final List<String> fileLog = List.create();
+                fileLogs.add(fileLog);
+                fileTasks.add(executor.submit(() -> JavaProjectPublish.stageFile(file, stagingFolder, publishedFolder, fileLog::add)));
+            }
+
+            for (int i = 0; i < filesList.getCount(); ++i)
+            {
+                try
+                {
+                    fileTasks.get(i).await();
+                }
+                finally
+                {
+                    for (final String line : fileLogs.get(i))
+                    {
+                        verbose.writeLine(line).await();
+                    }
+                }
+            }
+        }
+
+        verbose.writeLine("Moving " + stagingFolder + " to " + publishedFolder + "...").await();
+        JavaProjectPublish.commitStagingFolder(stagingFolder, publishedFolder);
+    }
+
+    /**
+     * Copy the provided file into the provided staging folder and verify that the copy has the
+     * same size as the original file.
+     */
+    static void stageFile(File file, Folder stagingFolder, QubProjectVersionFolder publishedFolder, Action1<String> verbose)
     {
         PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(stagingFolder, "stagingFolder");
         PreCondition.assertNotNull(publishedFolder, "publishedFolder");
         PreCondition.assertNotNull(verbose, "verbose");
 
-        verbose.writeLine("Publishing " + file.toString() + " to " + publishedFolder.toString() + "...").await();
-        file.copyToFolder(publishedFolder)
-            .catchError(FileNotFoundException.class, () -> verbose.writeLine(file.toString() + " can't be published because it doesn't exist.").await())
-            .catchError((Throwable e) -> verbose.writeLine(e.toString()))
-            .await();
+        verbose.run("Publishing " + file.toString() + " to " + publishedFolder.toString() + "...");
+        if (!file.exists().await())
+        {
+            verbose.run(file.toString() + " can't be published because it doesn't exist.");
+        }
+        else
+        {
+            final File stagedFile = stagingFolder.getFile(file.getName()).await();
+            final long bytesCopied = FileOperations.copy(file, stagedFile).await();
+            final long stagedByteCount = FileOperations.getByteCount(stagedFile).await();
+            if (bytesCopied != stagedByteCount)
+            {
+                throw new RuntimeException("The size of " + stagedFile + " (" + stagedByteCount + " bytes) doesn't match the size of " + file + " (" + bytesCopied + " bytes).");
+            }
+        }
+    }
+
+    /**
+     * Move the provided staging folder into place as the provided version folder. The version
+     * folder must not already exist, so a failed publish never deletes a version that was already
+     * published, and a publish that fails while the files are being moved never leaves a partially
+     * published version behind.
+     */
+    static void commitStagingFolder(Folder stagingFolder, QubProjectVersionFolder publishedFolder)
+    {
+        PreCondition.assertNotNull(stagingFolder, "stagingFolder");
+        PreCondition.assertNotNull(publishedFolder, "publishedFolder");
+
+        FileOperations.move(stagingFolder, publishedFolder).await();
     }
 }
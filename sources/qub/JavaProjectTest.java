@@ -8,6 +8,7 @@ public interface JavaProjectTest
     public static final String logFileParameterName = "logfile";
     public static final String profilerParameterName = "profiler";
     public static final String openCoverageReportParameterName = "openCoverageReport";
+    public static final String testResultsParameterName = "testResults";
 
     static CommandLineAction addAction(CommandLineActions actions)
     {
@@ -69,6 +70,14 @@ public interface JavaProjectTest
             .setDescription("Whether to automatically open the HTML coverage report after the tests complete.");
     }
 
+    static CommandLineParameterBoolean addTestResults(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.addBoolean(JavaProjectTest.testResultsParameterName, false)
+            .setDescription("Whether to write JUnit XML test result files to the outputs/test-results folder.");
+    }
+
     static void run(DesktopProcess process, CommandLineAction action)
     {
         JavaProjectTest.run(process, action, null, null);
@@ -85,6 +94,7 @@ public interface JavaProjectTest
         final CommandLineParameter<Coverage> coverageParameter = JavaProjectTest.addCoverage(parameters);
         final CommandLineParameterBoolean testJsonParameter = JavaProjectTest.addTestJson(parameters);
         final CommandLineParameterBoolean openCoverageReportParameter = JavaProjectTest.addOpenCoverageReport(parameters);
+        final CommandLineParameterBoolean testResultsParameter = JavaProjectTest.addTestResults(parameters);
         final CommandLineParameterHelp helpParameter = parameters.addHelp();
         final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
         final CommandLineParameterProfiler profilerParameter = JavaProject.addProfilerParameter(parameters, process);
@@ -129,6 +139,10 @@ public interface JavaProjectTest
                     final VerboseChildProcessRunner childProcessRunnerForTests = VerboseChildProcessRunner.create(customChildProcessRunner, logStreamsBeforeTests.getVerbose());
                     final JDKFolder jdkFolder = JDKFolder.getLatestVersion(qubFolder).await();
                     final Java javaForTests = jdkFolder.getJava(childProcessRunnerForTests).await();
+                    final boolean testClasspathOptimizationEnabled = JavaProjectConfiguration.parse(process)
+                        .catchError(() -> JavaProjectConfiguration.create())
+                        .await()
+                        .getTestClasspathOptimizationEnabled();
 
                     process.setExitCode(javaForTests.run((JavaParameters javaParameters) ->
                     {
@@ -143,13 +157,29 @@ public interface JavaProjectTest
                         classpathEntries.addAll(
                             outputsSourcesFolder,
                             outputsTestsFolder);
-                        final Iterable<JavaPublishedProjectFolder> dependencyFolders = projectFolder.getAllDependencyFolders(qubFolder, false).await();
-                        for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                        final Iterable<JavaPublishedProjectFolder> dependencyFolders;
+                        final JavaProjectLockJSON projectLockJson = projectFolder.getFreshProjectLockJson(qubFolder).catchError().await();
+                        if (projectLockJson != null)
                         {
-                            classpathEntries.addAll(
-                                dependencyFolder.getCompiledSourcesJarFile().await(),
-                                dependencyFolder.getCompiledTestsJarFile().await());
+                            dependencyFolders = projectLockJson.getResolvedDependencyFolders(qubFolder);
+                            final FileSystem qubFileSystem = qubFolder.getFileSystem();
+                            for (final String testClasspathEntry : projectLockJson.getTestClasspath())
+                            {
+                                classpathEntries.add(qubFileSystem.getFile(Path.parse(testClasspathEntry)).await());
+                            }
                         }
+                        else
+                        {
+                            final DependencyGraphCache dependencyGraphCache = DependencyGraphCache.get(process).catchError().await();
+                            dependencyFolders = projectFolder.getAllDependencyFolders(qubFolder, false, dependencyGraphCache).await();
+                            for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                            {
+                                classpathEntries.addAll(
+                                    dependencyFolder.getCompiledSourcesJarFile().await(),
+                                    dependencyFolder.getCompiledTestsJarFile().await());
+                            }
+                        }
+                        final List<FileSystemEntry> jvmClasspathEntries = List.create();
                         final String jvmClassPath = process.getJVMClasspath().await();
                         if (!Strings.isNullOrEmpty(jvmClassPath))
                         {
@@ -170,11 +200,11 @@ public interface JavaProjectTest
                                 {
                                     if (fileSystem.fileExists(jvmClassPathPath).await())
                                     {
-                                        classpathEntries.add(fileSystem.getFile(jvmClassPathPath).await());
+                                        jvmClasspathEntries.add(fileSystem.getFile(jvmClassPathPath).await());
                                     }
                                     else if (fileSystem.folderExists(jvmClassPathPath).await())
                                     {
-                                        classpathEntries.add(fileSystem.getFolder(jvmClassPathPath).await());
+                                        jvmClasspathEntries.add(fileSystem.getFolder(jvmClassPathPath).await());
                                     }
                                 }
                                 else
@@ -192,21 +222,45 @@ public interface JavaProjectTest
                                         {
                                             if (fileSystem.fileExists(jvmClassPathPath).await())
                                             {
-                                                classpathEntries.add(fileSystem.getFile(jvmClassPathPath).await());
+                                                jvmClasspathEntries.add(fileSystem.getFile(jvmClassPathPath).await());
                                             }
                                             else if (fileSystem.folderExists(jvmClassPathPath).await())
                                             {
-                                                classpathEntries.add(fileSystem.getFolder(jvmClassPathPath).await());
+                                                jvmClasspathEntries.add(fileSystem.getFolder(jvmClassPathPath).await());
                                             }
                                         }
                                     }
                                 }
                             }
                         }
-                        final Iterable<String> classpaths = classpathEntries
+                        classpathEntries.addAll(jvmClasspathEntries);
+
+                        Iterable<FileSystemEntry> testClasspathEntries = classpathEntries;
+                        if (testClasspathOptimizationEnabled)
+                        {
+                            final JarClassIndexCache jarClassIndexCache = JarClassIndexCache.get(process).await();
+                            final TestClasspathOptimizer classpathOptimizer = TestClasspathOptimizer.create()
+                                .setJarClassIndexCache(jarClassIndexCache)
+                                .addProjectEntry(outputsSourcesFolder)
+                                .addProjectEntry(outputsTestsFolder);
+                            for (final JavaPublishedProjectFolder dependencyFolder : dependencyFolders)
+                            {
+                                classpathOptimizer.addDependencyJarFile(dependencyFolder.getCompiledSourcesJarFile().await());
+                                classpathOptimizer.addDependencyTestJarFile(dependencyFolder.getCompiledTestsJarFile().await());
+                            }
+                            for (final FileSystemEntry jvmClasspathEntry : jvmClasspathEntries)
+                            {
+                                classpathOptimizer.addAdditionalEntry(jvmClasspathEntry);
+                            }
+                            testClasspathEntries = classpathOptimizer.optimize().await();
+                            jarClassIndexCache.save().catchError().await();
+                            logStreamsBeforeTests.getVerbose().writeLine("Optimized the test classpath from " + classpathEntries.getCount() + " to " + testClasspathEntries.getCount() + " entries.").await();
+                        }
+                        final Iterable<String> classpaths = testClasspathEntries
                             .where((FileSystemEntry entry) -> entry.exists().await())
                             .map(FileSystemEntry::toString)
                             .toList();
+                        javaParameters.setArgumentFileFolder(outputsFolder.getFolder("argfiles/test").await());
                         javaParameters.addClasspath(classpaths);
 
                         javaParameters.addArgument(Types.getFullTypeName(JavaProjectTest.class));
@@ -219,6 +273,12 @@ public interface JavaProjectTest
 
                         javaParameters.addArgument("--" + JavaProjectTest.logFileParameterName + "=" + logFile.toString());
 
+                        final boolean testResults = testResultsParameter.getValue().await();
+                        if (testResults)
+                        {
+                            javaParameters.addArgument("--" + JavaProjectTest.testResultsParameterName + "=" + testResults);
+                        }
+
                         final PathPattern pattern = patternParameter.getValue().await();
                         if (pattern != null)
                         {
@@ -252,35 +312,131 @@ public interface JavaProjectTest
 
                             final VerboseChildProcessRunner childProcessRunnerForCoverage = VerboseChildProcessRunner.create(process, logStreamsAfterTests.getVerbose());
                             final Java javaForCoverage = jdkFolder.getJava(childProcessRunnerForCoverage).await();
-                            process.setExitCode(javaForCoverage.run((JavaParameters javaParameters) ->
+                            final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+
+                            // When coverage data was written per test class, the merged coverage.exec
+                            // file only contains the coverage that was collected after the last test
+                            // class finished, so the per-class files are used instead. This also
+                            // means that the report's inputs only change when a test class reruns.
+                            // Per-class coverage data is only written when test.json is used.
+                            final boolean useCoverageData = testJsonParameter.getValue().await() && patternParameter.getValue().await() == null;
+                            final Folder coverageDataFolder = projectFolder.getCoverageDataFolder().await();
+                            final List<File> coverageDataFiles = List.create();
+                            if (useCoverageData && coverageDataFolder.exists().await())
                             {
-                                final File jacococliJarFile = jacocoFolder.getFile("lib/jacococli.jar").await();
-                                javaParameters.addArguments("-jar", jacococliJarFile.toString());
+                                coverageDataFiles.addAll(coverageDataFolder.iterateFilesRecursively()
+                                    .where((File coverageDataFile) -> Comparer.equal(".exec", coverageDataFile.getFileExtension())));
+                            }
 
-                                javaParameters.addArgument("report");
+                            final Iterable<File> coverageExecFiles = coverageDataFiles.any()
+                                ? coverageDataFiles.order((File lhs, File rhs) -> lhs.getPath().lessThan(rhs.getPath()))
+                                : Iterable.create(outputsFolder.getFile("coverage.exec").await());
 
-                                final File coverageExecFile = outputsFolder.getFile("coverage.exec").await();
-                                javaParameters.addArgument(coverageExecFile.toString());
+                            final List<Folder> coverageClassFolders = List.create();
+                            final List<Folder> coverageSourceFolders = List.create();
+                            if (coverage == Coverage.Sources || coverage == Coverage.All)
+                            {
+                                coverageClassFolders.add(outputsSourcesFolder);
+                                coverageSourceFolders.add(projectFolder.getSourcesFolder().await());
+                            }
+                            if (coverage == Coverage.Tests || coverage == Coverage.All)
+                            {
+                                coverageClassFolders.add(outputsTestsFolder);
+                                coverageSourceFolders.add(projectFolder.getTestSourcesFolder().await());
+                            }
 
-                                if (coverage == Coverage.Sources || coverage == Coverage.All)
+                            final File jacococliJarFile = jacocoFolder.getFile("lib/jacococli.jar").await();
+                            final CoverageJSON newCoverageJson = CoverageJSON.create()
+                                .setCoverage(coverage)
+                                .setReportGenerator(jacococliJarFile.toString());
+                            if (coverageDataFiles.any())
+                            {
+                                final List<File> coverageInputFiles = List.create();
+                                coverageInputFiles.addAll(coverageDataFiles);
+                                for (final Folder coverageClassFolder : coverageClassFolders)
                                 {
-                                    javaParameters.addArguments("--classfiles", outputsSourcesFolder.toString());
-                                    javaParameters.addArguments("--sourcefiles", projectFolder.getSourcesFolder().await().toString());
+                                    coverageInputFiles.addAll(JavaProjectTest.iterateCoverageClassFiles(coverageClassFolder));
                                 }
-                                if (coverage == Coverage.Tests || coverage == Coverage.All)
+                                newCoverageJson.setInputFiles(coverageInputFiles
+                                    .order((File lhs, File rhs) -> lhs.getPath().lessThan(rhs.getPath()))
+                                    .map((File coverageInputFile) -> PackJSONFile.create(coverageInputFile.relativeTo(outputsFolder), coverageInputFile.getLastModified().await()))
+                                    .toList());
+                            }
+
+                            // The previous report can only be reused if it was created by the same
+                            // version of JaCoCo for the same type of coverage and it hasn't been
+                            // deleted since.
+                            final CoverageJSON previousCoverageJson = projectFolder.getCoverageJson().catchError().await();
+                            final boolean previousReportExists = previousCoverageJson != null &&
+                                previousCoverageJson.getCoverage() == coverage &&
+                                Comparer.equal(previousCoverageJson.getReportGenerator(), newCoverageJson.getReportGenerator()) &&
+                                coverageXmlFile.exists().await() &&
+                                coverageFolder.getFile("index.html").await().exists().await();
+                            final boolean coverageReportIsUpToDate = previousReportExists &&
+                                coverageDataFiles.any() &&
+                                newCoverageJson.hasSameInputs(previousCoverageJson);
+
+                            if (coverageReportIsUpToDate)
+                            {
+                                logStreamsAfterTests.getVerbose().writeLine("Coverage report is up to date.").await();
+                            }
+                            else
+                            {
+                                // JaCoCo is loaded into this process so that the report doesn't need
+                                // its own JVM. If that isn't possible, then jacococli creates the
+                                // report in a separate process instead.
+                                final JacocoReport jacocoReport = JacocoReport.load(jacococliJarFile)
+                                    .catchError((Throwable error) ->
+                                    {
+                                        logStreamsAfterTests.getVerbose().writeLine("Unable to load JaCoCo into this process. The coverage report will be created by jacococli.").await();
+                                    })
+                                    .await();
+                                if (jacocoReport != null)
                                 {
-                                    javaParameters.addArguments("--classfiles", outputsTestsFolder.toString());
-                                    javaParameters.addArguments("--sourcefiles", projectFolder.getTestSourcesFolder().await().toString());
+                                    try (final JacocoReport report = jacocoReport)
+                                    {
+                                        report.createReport(coverageExecFiles, coverageClassFolders, coverageSourceFolders, coverageFolder, coverageXmlFile)
+                                            .catchError((Throwable error) ->
+                                            {
+                                                output.writeLine("Failed to create the coverage report: " + error.getMessage()).await();
+                                                process.setExitCode(1);
+                                            })
+                                            .await();
+                                    }
                                 }
+                                else
+                                {
+                                    process.setExitCode(javaForCoverage.run((JavaParameters javaParameters) ->
+                                    {
+                                        javaParameters.addArguments("-jar", jacococliJarFile.toString());
 
-                                javaParameters.addArguments("--html", coverageFolder.toString());
+                                        javaParameters.addArgument("report");
 
-                                final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
-                                javaParameters.addArguments("--xml", coverageXmlFile.toString());
+                                        for (final File coverageExecFile : coverageExecFiles)
+                                        {
+                                            javaParameters.addArgument(coverageExecFile.toString());
+                                        }
+
+                                        for (int i = 0; i < coverageClassFolders.getCount(); ++i)
+                                        {
+                                            javaParameters.addArguments("--classfiles", coverageClassFolders.get(i).toString());
+                                            javaParameters.addArguments("--sourcefiles", coverageSourceFolders.get(i).toString());
+                                        }
+
+                                        javaParameters.addArguments("--html", coverageFolder.toString());
 
-                                javaParameters.redirectOutputTo(logStreamsAfterTests.getVerbose());
-                                javaParameters.redirectErrorTo(logStreamsAfterTests.getVerbose());
-                            }).await());
+                                        javaParameters.addArguments("--xml", coverageXmlFile.toString());
+
+                                        javaParameters.redirectOutputTo(logStreamsAfterTests.getVerbose());
+                                        javaParameters.redirectErrorTo(logStreamsAfterTests.getVerbose());
+                                    }).await());
+                                }
+
+                                if (process.getExitCode() == 0)
+                                {
+                                    projectFolder.writeCoverageJson(newCoverageJson).await();
+                                }
+                            }
 
                             if (process.getExitCode() == 0 && Booleans.isTrue(openCoverageReportParameter.getValue().await()))
                             {
@@ -288,6 +444,61 @@ public interface JavaProjectTest
                                 final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                                 defaultApplicationLauncher.openFileWithDefaultApplication(indexHtmlFile).await();
                             }
+
+                            if (process.getExitCode() == 0)
+                            {
+                                final JavaProjectJSON projectJson = projectFolder.getProjectJson().await();
+                                final JavaProjectConfiguration configuration = JavaProjectConfiguration.parse(process)
+                                    .catchError(() -> JavaProjectConfiguration.create())
+                                    .await();
+                                final Integer minimumLineCoverage = projectJson.getMinimumLineCoverage() != null
+                                    ? projectJson.getMinimumLineCoverage()
+                                    : configuration.getMinimumLineCoverage();
+                                final Integer minimumBranchCoverage = projectJson.getMinimumBranchCoverage() != null
+                                    ? projectJson.getMinimumBranchCoverage()
+                                    : configuration.getMinimumBranchCoverage();
+
+                                final CoverageSummary coverageSummary = CoverageSummary.parse(coverageXmlFile)
+                                    .catchError()
+                                    .await();
+                                if (coverageSummary == null)
+                                {
+                                    if (minimumLineCoverage != null || minimumBranchCoverage != null)
+                                    {
+                                        output.writeLine("Unable to verify the minimum code coverage because " + coverageXmlFile + " could not be read.").await();
+                                        process.setExitCode(1);
+                                    }
+                                }
+                                else
+                                {
+                                    final VerboseCharacterToByteWriteStream verbose = logStreamsAfterTests.getVerbose();
+                                    output.writeLine("Coverage summary:").await();
+                                    for (final CoverageCounts packageCounts : coverageSummary.getPackages())
+                                    {
+                                        output.writeLine("  " + packageCounts).await();
+                                    }
+                                    for (final CoverageCounts classCounts : coverageSummary.getClasses())
+                                    {
+                                        verbose.writeLine("  " + classCounts).await();
+                                    }
+                                    final CoverageCounts totalCounts = coverageSummary.getTotal();
+                                    output.writeLine("  " + totalCounts).await();
+
+                                    final Double lineCoverage = totalCounts.getLineCoveragePercentage();
+                                    if (minimumLineCoverage != null && lineCoverage != null && lineCoverage < minimumLineCoverage)
+                                    {
+                                        output.writeLine("Line coverage (" + CoverageCounts.formatPercentage(lineCoverage) + ") is below the minimum of " + minimumLineCoverage + "%.").await();
+                                        process.setExitCode(1);
+                                    }
+
+                                    final Double branchCoverage = totalCounts.getBranchCoveragePercentage();
+                                    if (minimumBranchCoverage != null && branchCoverage != null && branchCoverage < minimumBranchCoverage)
+                                    {
+                                        output.writeLine("Branch coverage (" + CoverageCounts.formatPercentage(branchCoverage) + ") is below the minimum of " + minimumBranchCoverage + "%.").await();
+                                        process.setExitCode(1);
+                                    }
+                                }
+                            }
                         }
                     }
                 }
@@ -295,20 +506,123 @@ public interface JavaProjectTest
         }
     }
 
+    /**
+     * Iterate the class files in the provided outputs folder that are analyzed when a coverage
+     * report is generated.
+     * @param outputsFolder The outputs folder to iterate.
+     * @return The class files in the provided outputs folder.
+     */
+    static Iterable<File> iterateCoverageClassFiles(Folder outputsFolder)
+    {
+        PreCondition.assertNotNull(outputsFolder, "outputsFolder");
+
+        return !outputsFolder.exists().await()
+            ? Iterable.create()
+            : outputsFolder.iterateFilesRecursively()
+                .where((File file) -> Comparer.equalIgnoreCase(".class", file.getFileExtension()))
+                .toList();
+    }
+
+    /**
+     * Get the folders that contain the class files that are analyzed when a coverage report is
+     * generated.
+     * @param projectFolder The project folder that contains the analyzed class files.
+     * @param coverage The type of coverage that is being collected.
+     * @return The folders that contain the analyzed class files.
+     */
+    static Iterable<Folder> getCoverageClassFolders(JavaProjectFolder projectFolder, Coverage coverage)
+    {
+        PreCondition.assertNotNull(projectFolder, "projectFolder");
+        PreCondition.assertNotNull(coverage, "coverage");
+
+        final List<Folder> result = List.create();
+        if (coverage == Coverage.Sources || coverage == Coverage.All)
+        {
+            result.add(projectFolder.getOutputsSourcesFolder().await());
+        }
+        if (coverage == Coverage.Tests || coverage == Coverage.All)
+        {
+            result.add(projectFolder.getOutputsTestsFolder().await());
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of an analyzed class that has changed since the provided coverage data file was
+     * written. A coverage data file only records the classes that its test class loaded, so a
+     * coverage data file that doesn't record a changed class is still valid. Recorded classes that
+     * don't have a class file in the provided class folders (such as dependency classes) are
+     * ignored.
+     * @param coverageDataFile The coverage data file to check.
+     * @param coverageClassFolders The folders that contain the analyzed class files.
+     * @param classIds The class ids of the analyzed class files that have already been calculated.
+     *                 Class ids that are calculated by this function will be added to this map so
+     *                 that each analyzed class file is only read once.
+     * @return The name of a recorded class whose class file has changed, or null if none of the
+     * recorded classes have changed.
+     */
+    static Result<String> getChangedCoverageClassName(File coverageDataFile, Iterable<Folder> coverageClassFolders, MutableMap<String,Long> classIds)
+    {
+        PreCondition.assertNotNull(coverageDataFile, "coverageDataFile");
+        PreCondition.assertNotNull(coverageClassFolders, "coverageClassFolders");
+        PreCondition.assertNotNull(classIds, "classIds");
+
+        return Result.create(() ->
+        {
+            String result = null;
+
+            final JacocoExecutionData executionData = JacocoExecutionData.parse(coverageDataFile).await();
+            for (final String className : executionData.getClassNames())
+            {
+                final Long classId = classIds.getOrSet(className, () ->
+                {
+                    Long currentClassId = null;
+                    for (final Folder coverageClassFolder : coverageClassFolders)
+                    {
+                        final File classFile = coverageClassFolder.getFile(className + ".class").await();
+                        currentClassId = JacocoExecutionData.getClassId(classFile)
+                            .catchError(FileNotFoundException.class)
+                            .await();
+                        if (currentClassId != null)
+                        {
+                            break;
+                        }
+                    }
+                    return currentClassId;
+                }).await();
+
+                if (classId != null && classId.longValue() != executionData.getClassId(className).await().longValue())
+                {
+                    result = className;
+                    break;
+                }
+            }
+
+            return result;
+        });
+    }
+
     public static void main(String[] args)
     {
         DesktopProcess.run(args, JavaProjectTest::runTests);
     }
 
     static void runTests(DesktopProcess process)
+    {
+        JavaProjectTest.runTests(process, JacocoAgent::get);
+    }
+
+    static void runTests(DesktopProcess process, Function0<Result<JacocoAgent>> getJacocoAgent)
     {
         PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(getJacocoAgent, "getJacocoAgent");
 
         final CommandLineParameters parameters = process.createCommandLineParameters();
         final CommandLineParameter<Folder> projectFolderParameter = JavaProjectTest.addProjectFolderParameter(parameters, process);
         final CommandLineParameter<PathPattern> patternParameter = JavaProjectTest.addPattern(parameters);
         final CommandLineParameter<Coverage> coverageParameter = JavaProjectTest.addCoverage(parameters);
         final CommandLineParameterBoolean testJsonParameter = JavaProjectTest.addTestJson(parameters);
+        final CommandLineParameterBoolean testResultsParameter = JavaProjectTest.addTestResults(parameters);
         final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
         final CommandLineParameter<File> logFileParameter = parameters.addFile(JavaProjectTest.logFileParameterName, process);
         final CommandLineParameterProfiler profilerParameter = parameters.addProfiler(process, JavaProjectTest.class);
@@ -320,6 +634,7 @@ public interface JavaProjectTest
         final File logFile = logFileParameter.getValue().await();
         final Coverage coverage = coverageParameter.getValue().await();
         final boolean testJson = testJsonParameter.getValue().await();
+        final boolean testResults = testResultsParameter.getValue().await();
         final CharacterToByteWriteStream outputStream = process.getOutputWriteStream();
         final VerboseCharacterToByteWriteStream verboseStream = verboseParameter.getVerboseCharacterToByteWriteStream().await();
 
@@ -376,6 +691,49 @@ public interface JavaProjectTest
             final int testClassFilesCount = testClassFiles.getCount();
             verbose.writeLine("Found " + testClassFilesCount + " test class file" + (testClassFilesCount == 1 ? "" : "s") + " to test.").await();
 
+            if (coverage != Coverage.None)
+            {
+                final Folder coverageDataFolder = projectFolder.getCoverageDataFolder().await();
+                if (coverageDataFolder.exists().await())
+                {
+                    final Folder outputsTestsFolder = projectFolder.getOutputsTestsFolder().await();
+                    final Iterable<String> testClassFullTypeNames = testClassFiles
+                        .map((JavaClassFile testClassFile) -> JavaFile.getFullTypeName(outputsTestsFolder, testClassFile))
+                        .toList();
+
+                    // The coverage data files identify each class by a hash of its bytecode, so a
+                    // coverage data file that recorded a class that has since been recompiled no
+                    // longer matches that class and must be recollected. Coverage data files that
+                    // only recorded unchanged classes are kept.
+                    final Iterable<Folder> coverageClassFolders = JavaProjectTest.getCoverageClassFolders(projectFolder, coverage);
+                    final MutableMap<String,Long> classIds = MutableMap.create();
+                    for (final File coverageDataFile : coverageDataFolder.iterateFilesRecursively().toList())
+                    {
+                        final String testClassFullTypeName = coverageDataFile.getNameWithoutFileExtension();
+                        if (!testClassFullTypeNames.contains(testClassFullTypeName))
+                        {
+                            verbose.writeLine("Deleting coverage data for removed test class " + testClassFullTypeName + "...").await();
+                            coverageDataFile.delete().await();
+                        }
+                        else
+                        {
+                            final String changedClassName = JavaProjectTest.getChangedCoverageClassName(coverageDataFile, coverageClassFolders, classIds)
+                                .catchError((Throwable error) ->
+                                {
+                                    verbose.writeLine("Deleting invalid coverage data for test class " + testClassFullTypeName + ": " + error.getMessage()).await();
+                                    coverageDataFile.delete().await();
+                                })
+                                .await();
+                            if (changedClassName != null)
+                            {
+                                verbose.writeLine("Deleting stale coverage data for test class " + testClassFullTypeName + " because " + changedClassName + " has changed...").await();
+                                coverageDataFile.delete().await();
+                            }
+                        }
+                    }
+                }
+            }
+
             if (testClassFilesCount == 0)
             {
                 output.writeLine("No test classes found.").await();
@@ -399,8 +757,7 @@ public interface JavaProjectTest
 
                 if (!useTestJson ||
                     previousTestJson == null ||
-                    !Comparer.equal(previousTestJson.getJavaVersion(), currentJavaVersion) ||
-                    coverage != Coverage.None)
+                    !Comparer.equal(previousTestJson.getJavaVersion(), currentJavaVersion))
                 {
                     verbose.writeLine("Running all tests...").await();
                     testClassFilesToRun = testClassFiles;
@@ -430,6 +787,11 @@ public interface JavaProjectTest
                                 verbose.writeLine("Found unmodified class file with errors: " + testClassFileRelativePath.toString() + " (Last modified: " + testClassFile.getLastModified().await().toString() + ")").await();
                                 changedTestClassFiles.add(testClassFile);
                             }
+                            else if (coverage != Coverage.None && !projectFolder.getCoverageDataFile(JavaFile.getFullTypeName(outputsTestsFolder, testClassFile)).await().exists().await())
+                            {
+                                verbose.writeLine("Found unmodified class file with no coverage data: " + testClassFileRelativePath.toString() + " (Last modified: " + testClassFile.getLastModified().await().toString() + ")").await();
+                                changedTestClassFiles.add(testClassFile);
+                            }
                             else
                             {
                                 verbose.writeLine("Found unmodified class file with no errors: " + testClassFileRelativePath.toString() + " (Last modified: " + testClassFile.getLastModified().await().toString() + ")").await();
@@ -463,12 +825,29 @@ public interface JavaProjectTest
                     final JavaProjectConfiguration configuration = JavaProjectConfiguration.parse(process)
                         .catchError(() -> JavaProjectConfiguration.create())
                         .await();
-                    final StackTraceFormat format = StackTraceFormat.create();
+                    final StackTraceFormat format = StackTraceFormat.create()
+                        .setCollapseRepeatedFrames(configuration.getCollapseRepeatedStackFrames());
                     for (final String ignoredStackTraceType : configuration.getIgnoredStackTraceTypes())
                     {
                         format.ignoreType(ignoredStackTraceType);
                     }
 
+                    final JacocoAgent jacocoAgent = coverage == Coverage.None
+                        ? null
+                        : getJacocoAgent.run().catchError().await();
+
+                    final JUnitXmlReportWriter testResultsWriter;
+                    if (!testResults)
+                    {
+                        testResultsWriter = null;
+                    }
+                    else
+                    {
+                        final Folder testResultsFolder = projectFolder.getTestResultsFolder().await();
+                        verbose.writeLine("Writing JUnit XML test result files to " + testResultsFolder + "...").await();
+                        testResultsWriter = JUnitXmlReportWriter.create(testResultsFolder, format);
+                    }
+
                     final MutableMap<Path,JavaClassFile> relativePathToTestClassFilesToRunMap = testClassFilesToRun.toMap(
                         (JavaClassFile testClassFileToRun) -> testClassFileToRun.relativeTo(outputsTestsFolder),
                         (JavaClassFile testClassFileToRun) -> testClassFileToRun);
@@ -516,12 +895,22 @@ public interface JavaProjectTest
 
                         indentedOutput.write(test.getName()).await();
                         indentedOutput.increaseIndent();
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.beforeTest(test);
+                        }
                     });
                     runner.afterTestSuccess((Test test) ->
                     {
                         passedTestCount.increment();
 
                         indentedOutput.writeLine(" - Passed").await();
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.afterTestSuccess(test);
+                        }
                     });
                     runner.afterTestFailure((Test test, TestError failure) ->
                     {
@@ -529,6 +918,11 @@ public interface JavaProjectTest
 
                         indentedOutput.writeLine(" - Failed").await();
                         JavaProjectTest.writeFailure(indentedOutput, failure, format);
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.afterTestFailure(test, failure);
+                        }
                     });
                     runner.afterTestSkipped((Test test) ->
                     {
@@ -536,6 +930,11 @@ public interface JavaProjectTest
 
                         final String skipMessage = test.getSkipMessage();
                         indentedOutput.writeLine(" - Skipped" + (Strings.isNullOrEmpty(skipMessage) ? "" : ": " + skipMessage)).await();
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.afterTestSkipped(test);
+                        }
                     });
                     runner.afterTest((Test test) ->
                     {
@@ -552,6 +951,11 @@ public interface JavaProjectTest
 
                         indentedOutput.writeLine(testGroup.getName() + " - Failed").await();
                         JavaProjectTest.writeFailure(indentedOutput, failure, format);
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.afterTestGroupFailure(testGroup, failure);
+                        }
                     });
                     runner.afterTestGroupSkipped((TestGroup testGroup) ->
                     {
@@ -582,6 +986,34 @@ public interface JavaProjectTest
                                 .setFailedTestCount(testClass.getFailedTestCount()));
                         }
 
+                        final File coverageDataFile = projectFolder.getCoverageDataFile(testClass.getFullName()).await();
+                        if (jacocoAgent != null && useTestJson)
+                        {
+                            // Resetting the agent's execution data after each test class means that
+                            // each coverage data file only contains the coverage from its own test
+                            // class. This allows unmodified test classes to be skipped on later runs
+                            // while their cached coverage data is still merged into the report.
+                            // Coverage data is only written when test.json is used because a
+                            // filtered test run would otherwise replace a test class's coverage
+                            // with the coverage from only some of its tests.
+                            verbose.writeLine("Writing coverage data for " + testClass.getFullName() + "...").await();
+                            final byte[] executionData = jacocoAgent.getExecutionData(true).await();
+                            coverageDataFile.setContents(executionData).await();
+                        }
+                        else if (coverage == Coverage.None && coverageDataFile.exists().await())
+                        {
+                            verbose.writeLine("Deleting stale coverage data for " + testClass.getFullName() + "...").await();
+                            coverageDataFile.delete().await();
+                        }
+
+                        if (testResultsWriter != null)
+                        {
+                            testResultsWriter.afterTestClass(testClass)
+                                .onValue((File testResultFile) -> verbose.writeLine("Wrote " + testResultFile + ".").await())
+                                .catchError((Throwable e) -> verbose.writeLine("Failed to write test result file for " + testClass.getFullName() + ": " + e.getMessage()).await())
+                                .await();
+                        }
+
                         if (testParentsWrittenToConsole.remove(testClass))
                         {
                             indentedOutput.decreaseIndent();
@@ -799,12 +1231,9 @@ public interface JavaProjectTest
         {
             writeStream.writeLine("Stack Trace:").await();
             writeStream.increaseIndent();
-            for (StackTraceElement stackTraceElement : stackTraceElements)
+            for (final String stackTraceLine : format.getLines(stackTraceElements))
             {
-                if (format.shouldShow(stackTraceElement))
-                {
-                    writeStream.writeLine("at " + stackTraceElement.toString()).await();
-                }
+                writeStream.writeLine(stackTraceLine).await();
             }
             writeStream.decreaseIndent();
         }
@@ -1,6 +1,6 @@
 package qub;
 
-public class JavacParameters extends ChildProcessParametersDecorator<JavacParameters>
+public class JavacParameters extends ArgumentFileParametersDecorator<JavacParameters>
 {
     protected JavacParameters(Path executablePath)
     {
@@ -101,7 +101,9 @@ public class JavacParameters extends ChildProcessParametersDecorator<JavacParame
     }
 
     /**
-     * Add a class path argument that will indicate where existing class files are.
+     * Add a class path argument that will indicate where existing class files are. If the class
+     * path is longer than the argument file threshold, then it will be passed through an argument
+     * file.
      * @param classpath The class path argument that indicates where existing class files are.
      * @return This object for method chaining.
      */
@@ -109,7 +111,20 @@ public class JavacParameters extends ChildProcessParametersDecorator<JavacParame
     {
         PreCondition.assertNotNullAndNotEmpty(classpath, "classpath");
 
-        return this.addArguments("--class-path", Strings.join(';', classpath));
+        return this.addArgumentGroup("javac-classpath", Iterable.create("--class-path", Strings.join(';', classpath)));
+    }
+
+    /**
+     * Add the paths to the source files that will be compiled. If the source file paths are longer
+     * than the argument file threshold, then they will be passed through an argument file.
+     * @param sourceFilePaths The paths to the source files that will be compiled.
+     * @return This object for method chaining.
+     */
+    public JavacParameters addSourceFiles(Iterable<String> sourceFilePaths)
+    {
+        PreCondition.assertNotNull(sourceFilePaths, "sourceFilePaths");
+
+        return this.addArgumentGroup("javac-sources", sourceFilePaths);
     }
 
     /**
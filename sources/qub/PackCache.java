@@ -0,0 +1,367 @@
+package qub;
+
+/**
+ * A local, content-addressed cache of the jar files that the pack action creates. Jar files are
+ * stored under a key that is derived from the contents of the files that went into the jar file
+ * and the settings that were used to create it, so the same inputs that are packed in a
+ * different project folder (such as a second checkout of the same commit) can reuse a jar file
+ * that has already been created. The cache is bounded in size and evicts the least recently used
+ * jar files first.
+ */
+public class PackCache
+{
+    private static final String indexFileName = "index.json";
+    private static final String jarFileExtension = ".jar";
+    private static final String temporaryFileExtension = ".tmp";
+    private static final String restoringFileExtension = ".restoring";
+    private static final String lastUsePropertyName = "lastUse";
+    private static final String entriesPropertyName = "entries";
+    private static final String sizePropertyName = "size";
+    private static final String usePropertyName = "use";
+
+    private final Folder cacheFolder;
+    private final long maximumSizeInBytes;
+
+    private PackCache(Folder cacheFolder, long maximumSizeInBytes)
+    {
+        PreCondition.assertNotNull(cacheFolder, "cacheFolder");
+        PreCondition.assertGreaterThanOrEqualTo(maximumSizeInBytes, 0, "maximumSizeInBytes");
+
+        this.cacheFolder = cacheFolder;
+        this.maximumSizeInBytes = maximumSizeInBytes;
+    }
+
+    public static PackCache create(Folder cacheFolder, long maximumSizeInBytes)
+    {
+        return new PackCache(cacheFolder, maximumSizeInBytes);
+    }
+
+    /**
+     * Get the folder that this cache stores its jar files in.
+     * @return The folder that this cache stores its jar files in.
+     */
+    public Folder getCacheFolder()
+    {
+        return this.cacheFolder;
+    }
+
+    /**
+     * Get the maximum number of bytes that the jar files in this cache can use.
+     * @return The maximum number of bytes that the jar files in this cache can use.
+     */
+    public long getMaximumSizeInBytes()
+    {
+        return this.maximumSizeInBytes;
+    }
+
+    /**
+     * Get the cache key for a jar file that contains the provided files.
+     * @param baseFolder The folder that the files will be added to the jar file relative to.
+     * @param baseFolderFiles The files that will be added to the jar file.
+     * @param jarSettings A description of the settings that will be used to create the jar file.
+     *                    Jar files that are created with different settings have different keys.
+     * @return The cache key.
+     */
+    public static Result<String> getKey(Folder baseFolder, Iterable<File> baseFolderFiles, String jarSettings)
+    {
+        PreCondition.assertNotNull(baseFolder, "baseFolder");
+        PreCondition.assertNotNull(baseFolderFiles, "baseFolderFiles");
+        PreCondition.assertNotNull(jarSettings, "jarSettings");
+
+        return Result.create(() ->
+        {
+            final java.security.MessageDigest digest = ContentHash.createDigest();
+            digest.update(jarSettings.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            digest.update((byte)0);
+
+            final Iterable<File> orderedFiles = baseFolderFiles.order((File lhs, File rhs) ->
+                lhs.relativeTo(baseFolder).toString().compareTo(rhs.relativeTo(baseFolder).toString()) < 0);
+            for (final File file : orderedFiles)
+            {
+                digest.update(file.relativeTo(baseFolder).toString().replace('\\', '/').getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                digest.update((byte)0);
+                digest.update(ContentHash.get(file).await().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                digest.update((byte)0);
+            }
+
+            return ContentHash.toHexString(digest.digest());
+        });
+    }
+
+    /**
+     * Get the file that the jar file with the provided key is stored in.
+     * @param key The cache key.
+     * @return The file that the jar file with the provided key is stored in.
+     */
+    public Result<File> getCachedJarFile(String key)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+
+        return this.cacheFolder.getFile(key + PackCache.jarFileExtension);
+    }
+
+    /**
+     * Copy the jar file with the provided key from this cache to the provided jar file. While the
+     * jar file is being copied, a marker file in the cache folder keeps other processes from
+     * evicting it. The cached jar file is always copied and never hard linked, since the pack
+     * action rewrites a project's jar files in place and would otherwise change the cached jar
+     * file too.
+     * @param key The cache key.
+     * @param jarFile The file to copy the cached jar file to.
+     * @return Whether the cache contained a jar file with the provided key.
+     */
+    public Result<Boolean> restore(String key, File jarFile)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+        PreCondition.assertNotNull(jarFile, "jarFile");
+
+        return Result.create(() ->
+        {
+            boolean result = false;
+            final File cachedJarFile = this.getCachedJarFile(key).await();
+            if (cachedJarFile.exists().await())
+            {
+                final File restoringFile = this.cacheFolder.getFile(PackCache.getUniqueFileName(key, PackCache.restoringFileExtension)).await();
+                restoringFile.setContents(new byte[0]).await();
+                try
+                {
+                    // The jar file could have been evicted before the marker file was written.
+                    if (cachedJarFile.exists().await())
+                    {
+                        FileOperations.copy(cachedJarFile, jarFile).await();
+                        result = true;
+                    }
+                }
+                finally
+                {
+                    restoringFile.delete().catchError().await();
+                }
+
+                if (result)
+                {
+                    synchronized (this)
+                    {
+                        final JSONObject index = this.readIndex();
+                        final JSONObject indexEntry = PackCache.getIndexEntries(index).getObject(key).catchError().await();
+                        if (indexEntry != null)
+                        {
+                            indexEntry.setNumber(PackCache.usePropertyName, PackCache.nextUse(index));
+                            this.writeIndex(index).catchError().await();
+                        }
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Copy the provided jar file into this cache under the provided key, and then evict the least
+     * recently used jar files until this cache is no larger than its maximum size. The jar file is
+     * written to a temporary file first and then moved into place, so other processes that share
+     * this cache never see a partially written jar file.
+     * @param key The cache key.
+     * @param jarFile The jar file to store.
+     * @return The size of the stored jar file in bytes.
+     */
+    public Result<Long> store(String key, File jarFile)
+    {
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+        PreCondition.assertNotNull(jarFile, "jarFile");
+
+        return Result.create(() ->
+        {
+            final File cachedJarFile = this.getCachedJarFile(key).await();
+            final File temporaryFile = this.cacheFolder.getFile(PackCache.getUniqueFileName(key, PackCache.temporaryFileExtension)).await();
+            final long size;
+            try
+            {
+                size = FileOperations.copy(jarFile, temporaryFile).await();
+                FileOperations.move(temporaryFile, cachedJarFile).await();
+            }
+            finally
+            {
+                temporaryFile.delete().catchError().await();
+            }
+
+            synchronized (this)
+            {
+                // The index is only a record of each jar file's size and of when it was last used.
+                // Other processes can add and remove jar files at any time, so the index is
+                // rebuilt from the jar files that are actually in the cache folder.
+                final JSONObject index = this.rebuildIndex();
+                PackCache.getIndexEntries(index).setObject(key, JSONObject.create()
+                    .setNumber(PackCache.sizePropertyName, size)
+                    .setNumber(PackCache.usePropertyName, PackCache.nextUse(index)));
+                this.evict(index);
+                this.writeIndex(index).catchError().await();
+            }
+            return size;
+        });
+    }
+
+    /**
+     * Read this cache's index and make its entries match the jar files that are in the cache
+     * folder. Entries for jar files that no longer exist are removed, and jar files that another
+     * process stored are added as the least recently used entries.
+     */
+    private JSONObject rebuildIndex()
+    {
+        final JSONObject index = this.readIndex();
+        final JSONObject indexEntries = PackCache.getIndexEntries(index);
+        final JSONObject rebuiltIndexEntries = JSONObject.create();
+        for (final File file : this.cacheFolder.iterateFiles().catchError())
+        {
+            if (PackCache.jarFileExtension.equals(file.getFileExtension()))
+            {
+                final String key = file.getNameWithoutFileExtension();
+                JSONObject indexEntry = indexEntries.getObject(key).catchError().await();
+                if (indexEntry == null)
+                {
+                    final Long size = FileOperations.getByteCount(file).catchError().await();
+                    if (size != null)
+                    {
+                        indexEntry = JSONObject.create()
+                            .setNumber(PackCache.sizePropertyName, size)
+                            .setNumber(PackCache.usePropertyName, 0);
+                    }
+                }
+                if (indexEntry != null)
+                {
+                    rebuiltIndexEntries.setObject(key, indexEntry);
+                }
+            }
+        }
+        index.setObject(PackCache.entriesPropertyName, rebuiltIndexEntries);
+        return index;
+    }
+
+    /**
+     * Remove the least recently used jar files from this cache until the jar files in the
+     * provided index use no more than this cache's maximum size. Jar files that another process
+     * is restoring are never removed.
+     */
+    private void evict(JSONObject index)
+    {
+        final java.util.Set<String> restoringKeys = new java.util.HashSet<>();
+        for (final File file : this.cacheFolder.iterateFiles().catchError())
+        {
+            if (PackCache.restoringFileExtension.equals(file.getFileExtension()))
+            {
+                restoringKeys.add(PackCache.getKey(file));
+            }
+        }
+
+        final List<JSONProperty> indexEntries = List.create();
+        for (final JSONProperty indexEntry : PackCache.getIndexEntries(index).getProperties())
+        {
+            final long size = PackCache.getIndexEntryNumber(indexEntry, PackCache.sizePropertyName);
+            if (size >= 0)
+            {
+                indexEntries.add(indexEntry);
+            }
+        }
+
+        final JSONObject remainingIndexEntries = JSONObject.create();
+        final Iterable<JSONProperty> mostRecentlyUsedEntries = indexEntries.order((JSONProperty lhs, JSONProperty rhs) ->
+            PackCache.getIndexEntryNumber(lhs, PackCache.usePropertyName) > PackCache.getIndexEntryNumber(rhs, PackCache.usePropertyName));
+        long remainingSize = 0;
+        for (final JSONProperty indexEntry : mostRecentlyUsedEntries)
+        {
+            final long size = PackCache.getIndexEntryNumber(indexEntry, PackCache.sizePropertyName);
+            final boolean restoring = restoringKeys.contains(indexEntry.getName());
+            if (restoring || remainingSize + size <= this.maximumSizeInBytes)
+            {
+                remainingIndexEntries.setObject(indexEntry.getName(), indexEntry.getObjectValue().await());
+                remainingSize += size;
+            }
+            else
+            {
+                this.getCachedJarFile(indexEntry.getName()).await().delete().catchError().await();
+            }
+        }
+        index.setObject(PackCache.entriesPropertyName, remainingIndexEntries);
+    }
+
+    private static JSONObject getIndexEntries(JSONObject index)
+    {
+        JSONObject result = index.getObject(PackCache.entriesPropertyName).catchError().await();
+        if (result == null)
+        {
+            result = JSONObject.create();
+            index.setObject(PackCache.entriesPropertyName, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the next use number from the provided index. Use numbers increase every time that a jar
+     * file is stored in or restored from this cache, so the jar file with the lowest use number is
+     * the least recently used one.
+     */
+    private static long nextUse(JSONObject index)
+    {
+        final Integer lastUse = index.getInteger(PackCache.lastUsePropertyName).catchError().await();
+        final long result = (lastUse == null ? 0 : lastUse) + 1;
+        index.setNumber(PackCache.lastUsePropertyName, result);
+        return result;
+    }
+
+    /**
+     * Get the number property with the provided name from the provided index entry, or -1 if the
+     * index entry doesn't have the property.
+     */
+    private static long getIndexEntryNumber(JSONProperty indexEntry, String propertyName)
+    {
+        final Integer result = indexEntry.getObjectValue()
+            .then((JSONObject indexEntryJson) -> indexEntryJson.getInteger(propertyName).await())
+            .catchError()
+            .await();
+        return result == null ? -1 : result;
+    }
+
+    private JSONObject readIndex()
+    {
+        return this.cacheFolder.getFile(PackCache.indexFileName)
+            .then((File indexFile) -> JSON.parseObject(indexFile).await())
+            .catchError(() -> JSONObject.create())
+            .await();
+    }
+
+    private Result<Void> writeIndex(JSONObject index)
+    {
+        return Result.create(() ->
+        {
+            final File indexFile = this.cacheFolder.getFile(PackCache.indexFileName).await();
+            final File temporaryFile = this.cacheFolder.getFile(PackCache.getUniqueFileName(indexFile.getNameWithoutFileExtension(), PackCache.temporaryFileExtension)).await();
+            try
+            {
+                temporaryFile.setContentsAsString(index.toString(JSONFormat.pretty)).await();
+                FileOperations.move(temporaryFile, indexFile).await();
+            }
+            finally
+            {
+                temporaryFile.delete().catchError().await();
+            }
+        });
+    }
+
+    /**
+     * Get a file name that starts with the provided key, that ends with the provided file
+     * extension, and that no other process will use.
+     */
+    private static String getUniqueFileName(String key, String fileExtension)
+    {
+        return key + "." + java.util.UUID.randomUUID().toString().replace("-", "") + fileExtension;
+    }
+
+    /**
+     * Get the key of the provided file in the cache folder.
+     */
+    private static String getKey(File file)
+    {
+        final String fileName = file.getName();
+        final int dotIndex = fileName.indexOf('.');
+        return dotIndex < 0 ? fileName : fileName.substring(0, dotIndex);
+    }
+}
@@ -8,6 +8,10 @@ public class PackJSON extends JSONObjectWrapperBase
     private static final String sourceOutputFilesPropertyName = "sourceOutputFiles";
     private static final String testSourceFilesPropertyName = "testSourceFiles";
     private static final String testOutputFilesPropertyName = "testOutputFiles";
+    private static final String packSettingsPropertyName = "packSettings";
+    private static final String jarHashesPropertyName = "jarHashes";
+    private static final String folderDigestsPropertyName = "folderDigests";
+    private static final String fatJarDigestPropertyName = "fatJarDigest";
 
     protected PackJSON(JSONObject json)
     {
@@ -175,4 +179,160 @@ public class PackJSON extends JSONObjectWrapperBase
             .catchError(() -> Iterable.create())
             .await();
     }
+
+    /**
+     * Set the project.json pack settings that were used to create the jar files.
+     * @param packSettings The project.json pack settings that were used to create the jar files.
+     * @return This object for method chaining.
+     */
+    public PackJSON setPackSettings(JavaProjectJSONPack packSettings)
+    {
+        PreCondition.assertNotNull(packSettings, "packSettings");
+
+        this.toJson().setObject(PackJSON.packSettingsPropertyName, packSettings.toJson());
+
+        return this;
+    }
+
+    /**
+     * Get the project.json pack settings that were used to create the jar files.
+     * @return The project.json pack settings that were used to create the jar files. If no pack
+     * settings were recorded, then empty (default) pack settings will be returned.
+     */
+    public JavaProjectJSONPack getPackSettings()
+    {
+        return this.toJson().getObject(PackJSON.packSettingsPropertyName)
+            .then((JSONObject packSettingsJson) -> JavaProjectJSONPack.create(packSettingsJson))
+            .catchError(() -> JavaProjectJSONPack.create())
+            .await();
+    }
+
+    /**
+     * Set the content hash of the jar file at the provided relative path.
+     * @param jarFileRelativePath The path to the jar file relative to the project folder.
+     * @param jarHash The {@link ContentHash} of the jar file.
+     * @return This object for method chaining.
+     */
+    public PackJSON setJarHash(Path jarFileRelativePath, String jarHash)
+    {
+        PreCondition.assertNotNull(jarFileRelativePath, "jarFileRelativePath");
+        PreCondition.assertFalse(jarFileRelativePath.isRooted(), "jarFileRelativePath.isRooted()");
+        PreCondition.assertNotNullAndNotEmpty(jarHash, "jarHash");
+
+        final JSONObject jarHashesJson = this.toJson().getObject(PackJSON.jarHashesPropertyName)
+            .catchError(() ->
+            {
+                final JSONObject newJarHashesJson = JSONObject.create();
+                this.toJson().setObject(PackJSON.jarHashesPropertyName, newJarHashesJson);
+                return newJarHashesJson;
+            })
+            .await();
+        jarHashesJson.setString(jarFileRelativePath.toString(), jarHash);
+
+        return this;
+    }
+
+    /**
+     * Get the content hash of the jar file at the provided relative path.
+     * @param jarFileRelativePath The path to the jar file relative to the project folder.
+     * @return The {@link ContentHash} of the jar file, or null if no hash was recorded.
+     */
+    public String getJarHash(Path jarFileRelativePath)
+    {
+        PreCondition.assertNotNull(jarFileRelativePath, "jarFileRelativePath");
+
+        return this.toJson().getObject(PackJSON.jarHashesPropertyName)
+            .then((JSONObject jarHashesJson) -> jarHashesJson.getString(jarFileRelativePath.toString()).await())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get the aggregate digest of the provided files. The digest only depends on each file's
+     * relative path and last modified time, so it changes whenever a file is added, removed, or
+     * modified, regardless of the order that the files are provided in.
+     * @param files The files to get the digest of.
+     * @return The {@link ContentHash} of the files' relative paths and last modified times.
+     */
+    public static String getFolderDigest(Iterable<PackJSONFile> files)
+    {
+        PreCondition.assertNotNull(files, "files");
+
+        final CharacterList text = CharacterList.create();
+        for (final PackJSONFile file : files.order((PackJSONFile lhs, PackJSONFile rhs) -> Strings.lessThan(lhs.toJson().getName(), rhs.toJson().getName())))
+        {
+            text.addAll(file.toJson().getName());
+            text.add('\0');
+            text.addAll(file.toJson().getStringValue().catchError(() -> "").await());
+            text.add('\n');
+        }
+        return ContentHash.get(text.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Set the aggregate digest of the files in the folder at the provided relative path.
+     * @param folderRelativePath The path to the folder relative to the project folder.
+     * @param folderDigest The digest of the folder's files (see
+     * {@link #getFolderDigest(Iterable)}).
+     * @return This object for method chaining.
+     */
+    public PackJSON setFolderDigest(Path folderRelativePath, String folderDigest)
+    {
+        PreCondition.assertNotNull(folderRelativePath, "folderRelativePath");
+        PreCondition.assertFalse(folderRelativePath.isRooted(), "folderRelativePath.isRooted()");
+        PreCondition.assertNotNullAndNotEmpty(folderDigest, "folderDigest");
+
+        final JSONObject folderDigestsJson = this.toJson().getObject(PackJSON.folderDigestsPropertyName)
+            .catchError(() ->
+            {
+                final JSONObject newFolderDigestsJson = JSONObject.create();
+                this.toJson().setObject(PackJSON.folderDigestsPropertyName, newFolderDigestsJson);
+                return newFolderDigestsJson;
+            })
+            .await();
+        folderDigestsJson.setString(folderRelativePath.toString(), folderDigest);
+
+        return this;
+    }
+
+    /**
+     * Get the aggregate digest of the files in the folder at the provided relative path.
+     * @param folderRelativePath The path to the folder relative to the project folder.
+     * @return The digest of the folder's files, or null if no digest was recorded.
+     */
+    public String getFolderDigest(Path folderRelativePath)
+    {
+        PreCondition.assertNotNull(folderRelativePath, "folderRelativePath");
+
+        return this.toJson().getObject(PackJSON.folderDigestsPropertyName)
+            .then((JSONObject folderDigestsJson) -> folderDigestsJson.getString(folderRelativePath.toString()).await())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the digest of the inputs that the fat jar file was created from (see
+     * {@link FatJarWriter#getInputDigest()}).
+     * @param fatJarDigest The digest of the fat jar file's inputs.
+     * @return This object for method chaining.
+     */
+    public PackJSON setFatJarDigest(String fatJarDigest)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fatJarDigest, "fatJarDigest");
+
+        this.toJson().setString(PackJSON.fatJarDigestPropertyName, fatJarDigest);
+
+        return this;
+    }
+
+    /**
+     * Get the digest of the inputs that the fat jar file was created from.
+     * @return The digest of the fat jar file's inputs, or null if no digest was recorded.
+     */
+    public String getFatJarDigest()
+    {
+        return this.toJson().getString(PackJSON.fatJarDigestPropertyName)
+            .catchError()
+            .await();
+    }
 }
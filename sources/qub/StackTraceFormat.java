@@ -2,11 +2,22 @@ package qub;
 
 public class StackTraceFormat
 {
-    private final MutableSet<String> fullyQualifiedTypeNamesToIgnore;
+    /**
+     * The longest sequence of frames that will be detected as a repeating run when repeated frames
+     * are collapsed.
+     */
+    private static final int maximumRepeatedFrameRunLength = 16;
+
+    private final MutableSet<String> ignoredTypeNames;
+    private List<String> ignoredTypeNamePrefixes;
+    private MutableMap<String,Boolean> shouldShowByClassName;
+    private boolean collapseRepeatedFrames;
 
     private StackTraceFormat()
     {
-        this.fullyQualifiedTypeNamesToIgnore = MutableSet.create();
+        this.ignoredTypeNames = MutableSet.create();
+        this.ignoredTypeNamePrefixes = List.create();
+        this.shouldShowByClassName = MutableMap.create();
     }
 
     public static StackTraceFormat create()
@@ -27,7 +38,11 @@ public class StackTraceFormat
     }
 
     /**
-     * Ignore any {@link StackTraceElement}s that belong to the provided type.
+     * Ignore any {@link StackTraceElement}s that belong to the provided type. A type name that
+     * ends with a '*' is a prefix: any type whose name starts with the characters before the '*'
+     * will be ignored. For example, "java.lang.reflect.*" ignores every type in the
+     * java.lang.reflect package and its sub-packages, "a.B*" ignores a.B, its nested types, and
+     * a.BC, and "*" ignores every type.
      * @param fullyQualifiedTypeName The type that will be added to the ignore list.
      * @return This object for method chaining.
      */
@@ -35,7 +50,47 @@ public class StackTraceFormat
     {
         PreCondition.assertNotNullAndNotEmpty(fullyQualifiedTypeName, "fullyQualifiedTypeName");
 
-        this.fullyQualifiedTypeNamesToIgnore.add(fullyQualifiedTypeName);
+        if (!fullyQualifiedTypeName.endsWith("*"))
+        {
+            this.ignoredTypeNames.add(fullyQualifiedTypeName);
+        }
+        else
+        {
+            // No prefix in the list starts with another prefix in the list, so each class name is
+            // compared to as few prefixes as possible.
+            final String prefix = fullyQualifiedTypeName.substring(0, fullyQualifiedTypeName.length() - 1);
+            if (!StackTraceFormat.startsWithAny(prefix, this.ignoredTypeNamePrefixes))
+            {
+                this.ignoredTypeNamePrefixes = this.ignoredTypeNamePrefixes
+                    .where((String ignoredTypeNamePrefix) -> !ignoredTypeNamePrefix.startsWith(prefix))
+                    .toList();
+                this.ignoredTypeNamePrefixes.add(prefix);
+            }
+        }
+        this.shouldShowByClassName = MutableMap.create();
+
+        return this;
+    }
+
+    /**
+     * Get whether runs of repeated stack frames (such as those produced by deep recursion) will be
+     * collapsed into a single summary line.
+     * @return Whether runs of repeated stack frames will be collapsed.
+     */
+    public boolean getCollapseRepeatedFrames()
+    {
+        return this.collapseRepeatedFrames;
+    }
+
+    /**
+     * Set whether runs of repeated stack frames (such as those produced by deep recursion) will be
+     * collapsed into a single summary line.
+     * @param collapseRepeatedFrames Whether runs of repeated stack frames will be collapsed.
+     * @return This object for method chaining.
+     */
+    public StackTraceFormat setCollapseRepeatedFrames(boolean collapseRepeatedFrames)
+    {
+        this.collapseRepeatedFrames = collapseRepeatedFrames;
 
         return this;
     }
@@ -49,6 +104,117 @@ public class StackTraceFormat
     {
         PreCondition.assertNotNull(element, "element");
 
-        return !this.fullyQualifiedTypeNamesToIgnore.contains(element.getClassName());
+        final String className = element.getClassName();
+        return this.shouldShowByClassName.getOrSet(className, () -> !this.isIgnored(className)).await();
+    }
+
+    private boolean isIgnored(String className)
+    {
+        return this.ignoredTypeNames.contains(className) ||
+            StackTraceFormat.startsWithAny(className, this.ignoredTypeNamePrefixes);
+    }
+
+    private static boolean startsWithAny(String value, Iterable<String> prefixes)
+    {
+        boolean result = false;
+        for (final String prefix : prefixes)
+        {
+            if (value.startsWith(prefix))
+            {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the lines that should be written for the provided stack trace. Ignored frames are
+     * removed and, if enabled, runs of repeated frames are collapsed.
+     * @param stackTraceElements The stack trace to format.
+     * @return The lines that should be written for the provided stack trace.
+     */
+    public Iterable<String> getLines(StackTraceElement[] stackTraceElements)
+    {
+        PreCondition.assertNotNull(stackTraceElements, "stackTraceElements");
+
+        final List<StackTraceElement> visibleElements = List.create();
+        for (final StackTraceElement stackTraceElement : stackTraceElements)
+        {
+            if (this.shouldShow(stackTraceElement))
+            {
+                visibleElements.add(stackTraceElement);
+            }
+        }
+
+        final List<String> result = List.create();
+        final int visibleElementCount = visibleElements.getCount();
+        int index = 0;
+        while (index < visibleElementCount)
+        {
+            int runLength = 0;
+            int runRepeats = 0;
+            if (this.collapseRepeatedFrames)
+            {
+                final int maximumRunLength = Math.min(StackTraceFormat.maximumRepeatedFrameRunLength, (visibleElementCount - index) / 2);
+                for (int candidateRunLength = 1; candidateRunLength <= maximumRunLength; ++candidateRunLength)
+                {
+                    final int candidateRunRepeats = StackTraceFormat.getRunRepeats(visibleElements, index, candidateRunLength);
+                    if (candidateRunRepeats > 0)
+                    {
+                        runLength = candidateRunLength;
+                        runRepeats = candidateRunRepeats;
+                        break;
+                    }
+                }
+            }
+
+            if (runRepeats == 0)
+            {
+                result.add("at " + visibleElements.get(index));
+                ++index;
+            }
+            else
+            {
+                for (int i = 0; i < runLength; ++i)
+                {
+                    result.add("at " + visibleElements.get(index + i));
+                }
+                result.add("... " + (runLength == 1 ? "previous frame" : "previous " + runLength + " frames") + " repeated " + runRepeats + " more time" + (runRepeats == 1 ? "" : "s"));
+                index += runLength * (runRepeats + 1);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the number of times that the run of frames that starts at the provided index is
+     * immediately repeated.
+     */
+    private static int getRunRepeats(List<StackTraceElement> elements, int startIndex, int runLength)
+    {
+        final int elementCount = elements.getCount();
+        int result = 0;
+        int nextRunStartIndex = startIndex + runLength;
+        while (nextRunStartIndex + runLength <= elementCount &&
+            StackTraceFormat.runsEqual(elements, startIndex, nextRunStartIndex, runLength))
+        {
+            ++result;
+            nextRunStartIndex += runLength;
+        }
+        return result;
+    }
+
+    private static boolean runsEqual(List<StackTraceElement> elements, int lhsStartIndex, int rhsStartIndex, int runLength)
+    {
+        boolean result = true;
+        for (int i = 0; result && i < runLength; ++i)
+        {
+            result = elements.get(lhsStartIndex + i).equals(elements.get(rhsStartIndex + i));
+        }
+        return result;
     }
 }
@@ -0,0 +1,545 @@
+package qub;
+
+/**
+ * An object that trims and orders the classpath that a project's tests are run with. Only the
+ * project's compiled class files and the kept dependency test jars are scanned for the classes
+ * that they reference. Dependency sources jars are never scanned, since a published sources jar
+ * can't reference the classes in a tests jar. Those references are used to:
+ * <ul>
+ *     <li>drop dependency test jars that don't contain any class that the project (or a kept test
+ *     jar) references,</li>
+ *     <li>remove duplicate entries, such as parent JVM classpath entries that are already on the
+ *     classpath, and</li>
+ *     <li>order the dependency jars so that the jars that contain the most referenced classes are
+ *     searched first.</li>
+ * </ul>
+ * The jars are only reordered when no class exists in more than one of them, so reordering never
+ * changes which class the JVM loads. When a {@link JarClassIndexCache} is provided, a jar file is
+ * only read if it has changed since its class index was stored in the cache.
+ */
+public class TestClasspathOptimizer
+{
+    private static final int classFileMagic = 0xCAFEBABE;
+    private static final String classFileExtension = ".class";
+    private static final java.util.regex.Pattern descriptorClassNamePattern = java.util.regex.Pattern.compile("L([\\w/$]+);");
+
+    private final List<FileSystemEntry> projectEntries;
+    private final List<File> dependencyJarFiles;
+    private final java.util.Set<String> dependencyTestJarFilePaths;
+    private final List<FileSystemEntry> additionalEntries;
+    private JarClassIndexCache jarClassIndexCache;
+
+    private TestClasspathOptimizer()
+    {
+        this.projectEntries = List.create();
+        this.dependencyJarFiles = List.create();
+        this.dependencyTestJarFilePaths = new java.util.HashSet<>();
+        this.additionalEntries = List.create();
+    }
+
+    public static TestClasspathOptimizer create()
+    {
+        return new TestClasspathOptimizer();
+    }
+
+    /**
+     * Add an entry that contains the project's own compiled classes. Project entries are always
+     * kept, are always put first on the classpath, and are scanned for class references.
+     * @param projectEntry The project entry to add.
+     * @return This object for method chaining.
+     */
+    public TestClasspathOptimizer addProjectEntry(FileSystemEntry projectEntry)
+    {
+        PreCondition.assertNotNull(projectEntry, "projectEntry");
+
+        this.projectEntries.add(projectEntry);
+
+        return this;
+    }
+
+    /**
+     * Add the compiled sources jar of a dependency. Dependency jars are always kept and are not
+     * scanned for class references.
+     * @param dependencyJarFile The dependency jar to add.
+     * @return This object for method chaining.
+     */
+    public TestClasspathOptimizer addDependencyJarFile(File dependencyJarFile)
+    {
+        PreCondition.assertNotNull(dependencyJarFile, "dependencyJarFile");
+
+        this.dependencyJarFiles.add(dependencyJarFile);
+
+        return this;
+    }
+
+    /**
+     * Add the compiled tests jar of a dependency. Dependency test jars are only kept if they
+     * contain a class that is referenced by the project or by another kept jar.
+     * @param dependencyTestJarFile The dependency test jar to add.
+     * @return This object for method chaining.
+     */
+    public TestClasspathOptimizer addDependencyTestJarFile(File dependencyTestJarFile)
+    {
+        PreCondition.assertNotNull(dependencyTestJarFile, "dependencyTestJarFile");
+
+        this.dependencyJarFiles.add(dependencyTestJarFile);
+        this.dependencyTestJarFilePaths.add(dependencyTestJarFile.toString());
+
+        return this;
+    }
+
+    /**
+     * Add an entry that isn't part of the project's dependency graph, such as an entry from the
+     * parent JVM's classpath. Additional entries are always kept (unless they are duplicates) and
+     * are put at the end of the classpath in the order that they were added.
+     * @param additionalEntry The additional entry to add.
+     * @return This object for method chaining.
+     */
+    public TestClasspathOptimizer addAdditionalEntry(FileSystemEntry additionalEntry)
+    {
+        PreCondition.assertNotNull(additionalEntry, "additionalEntry");
+
+        this.additionalEntries.add(additionalEntry);
+
+        return this;
+    }
+
+    /**
+     * Set the cache that the class indexes of the dependency jars will be read from and stored
+     * in. The cache isn't saved by this object.
+     * @param jarClassIndexCache The cache of the dependency jars' class indexes, or null to read
+     *                           every dependency jar.
+     * @return This object for method chaining.
+     */
+    public TestClasspathOptimizer setJarClassIndexCache(JarClassIndexCache jarClassIndexCache)
+    {
+        this.jarClassIndexCache = jarClassIndexCache;
+
+        return this;
+    }
+
+    /**
+     * Get the optimized classpath. Entries that don't exist are skipped. If any of the project's
+     * class files can't be parsed, then no dependency test jars are dropped.
+     * @return The entries of the optimized classpath in the order that they should be searched.
+     */
+    public Result<Iterable<FileSystemEntry>> optimize()
+    {
+        return Result.create(() ->
+        {
+            final java.util.Set<String> referencedClassNames = new java.util.HashSet<>();
+            boolean referencesAreComplete = true;
+            for (final FileSystemEntry projectEntry : this.projectEntries)
+            {
+                if (!TestClasspathOptimizer.addReferencedClassNames(projectEntry, referencedClassNames))
+                {
+                    referencesAreComplete = false;
+                }
+            }
+
+            final java.util.Set<String> entryPaths = new java.util.HashSet<>();
+            final List<FileSystemEntry> result = List.create();
+            for (final FileSystemEntry projectEntry : this.projectEntries)
+            {
+                if (entryPaths.add(projectEntry.toString()) && projectEntry.exists().await())
+                {
+                    result.add(projectEntry);
+                }
+            }
+
+            final List<JarClasses> jars = List.create();
+            for (final File dependencyJarFile : this.dependencyJarFiles)
+            {
+                final String dependencyJarFilePath = dependencyJarFile.toString();
+                if (entryPaths.add(dependencyJarFilePath) && dependencyJarFile.exists().await())
+                {
+                    final boolean testJar = this.dependencyTestJarFilePaths.contains(dependencyJarFilePath);
+                    jars.add(JarClasses.read(dependencyJarFile, testJar, !referencesAreComplete || !testJar, this.jarClassIndexCache));
+                }
+            }
+
+            // A kept test jar's classes can reference classes in another test jar, so keep adding
+            // the references of newly kept test jars until no more jars are kept.
+            for (final JarClasses jar : jars)
+            {
+                if (jar.kept && jar.testJar && !jar.addReferencedClassNames(referencedClassNames))
+                {
+                    referencesAreComplete = false;
+                }
+            }
+            boolean keptJar = true;
+            while (keptJar)
+            {
+                keptJar = false;
+                for (final JarClasses jar : jars)
+                {
+                    if (!jar.kept && (!referencesAreComplete || jar.getHitCount(referencedClassNames) > 0))
+                    {
+                        jar.kept = true;
+                        keptJar = true;
+                        if (jar.testJar && !jar.addReferencedClassNames(referencedClassNames))
+                        {
+                            referencesAreComplete = false;
+                        }
+                    }
+                }
+            }
+
+            final java.util.List<JarClasses> keptJars = new java.util.ArrayList<>();
+            for (final JarClasses jar : jars)
+            {
+                if (jar.kept)
+                {
+                    jar.hitCount = jar.getHitCount(referencedClassNames);
+                    keptJars.add(jar);
+                }
+            }
+            if (!TestClasspathOptimizer.containsDuplicateClasses(keptJars))
+            {
+                // java.util.List.sort() is stable, so jars with the same hit count keep their
+                // original order.
+                keptJars.sort((JarClasses lhs, JarClasses rhs) -> Integer.compare(rhs.hitCount, lhs.hitCount));
+            }
+            for (final JarClasses keptJar : keptJars)
+            {
+                result.add(keptJar.jarFile);
+            }
+
+            for (final FileSystemEntry additionalEntry : this.additionalEntries)
+            {
+                if (entryPaths.add(additionalEntry.toString()) && additionalEntry.exists().await())
+                {
+                    result.add(additionalEntry);
+                }
+            }
+
+            return result;
+        });
+    }
+
+    private static boolean containsDuplicateClasses(java.util.List<JarClasses> jars)
+    {
+        final java.util.Set<String> classNames = new java.util.HashSet<>();
+        for (final JarClasses jar : jars)
+        {
+            for (final String className : jar.classNames)
+            {
+                if (!classNames.add(className))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the names of the classes that are referenced by the class files in the provided entry.
+     * @param entry The folder or class file to scan.
+     * @param referencedClassNames The set to add the referenced class names to.
+     * @return Whether every class file in the provided entry was parsed.
+     */
+    private static boolean addReferencedClassNames(FileSystemEntry entry, java.util.Set<String> referencedClassNames)
+    {
+        boolean result = true;
+        if (entry instanceof Folder)
+        {
+            final Folder folder = (Folder)entry;
+            if (folder.exists().await())
+            {
+                for (final File file : folder.iterateFilesRecursively().toList())
+                {
+                    if (Comparer.equal(TestClasspathOptimizer.classFileExtension, file.getFileExtension()))
+                    {
+                        final Iterable<String> classNames = TestClasspathOptimizer.getReferencedClassNames(FileOperations.readAllBytes(file).await())
+                            .catchError()
+                            .await();
+                        if (classNames == null)
+                        {
+                            result = false;
+                        }
+                        else
+                        {
+                            for (final String className : classNames)
+                            {
+                                referencedClassNames.add(className);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the names of the classes that are referenced by the provided class file bytes. The names
+     * are read from the class file's constant pool and are returned in their internal form (for
+     * example "qub/Result").
+     * @param classFileBytes The bytes of the class file.
+     * @return The names of the classes that are referenced by the provided class file.
+     */
+    static Result<Iterable<String>> getReferencedClassNames(byte[] classFileBytes)
+    {
+        PreCondition.assertNotNull(classFileBytes, "classFileBytes");
+
+        return Result.create(() ->
+        {
+            if (classFileBytes.length < 10 || TestClasspathOptimizer.readInt(classFileBytes, 0) != TestClasspathOptimizer.classFileMagic)
+            {
+                throw new ParseException("Invalid class file header.");
+            }
+
+            final int constantPoolCount = TestClasspathOptimizer.readUnsignedShort(classFileBytes, 8);
+            final String[] utf8Constants = new String[constantPoolCount];
+            final List<Integer> classNameIndexes = List.create();
+            int index = 10;
+            try
+            {
+                for (int constantIndex = 1; constantIndex < constantPoolCount; ++constantIndex)
+                {
+                    final int tag = classFileBytes[index] & 0xFF;
+                    ++index;
+                    switch (tag)
+                    {
+                        case 1: // Utf8
+                            final int length = TestClasspathOptimizer.readUnsignedShort(classFileBytes, index);
+                            utf8Constants[constantIndex] = new String(classFileBytes, index + 2, length, java.nio.charset.StandardCharsets.UTF_8);
+                            index += 2 + length;
+                            break;
+
+                        case 7: // Class
+                            classNameIndexes.add(TestClasspathOptimizer.readUnsignedShort(classFileBytes, index));
+                            index += 2;
+                            break;
+
+                        case 8: // String
+                        case 16: // MethodType
+                        case 19: // Module
+                        case 20: // Package
+                            index += 2;
+                            break;
+
+                        case 15: // MethodHandle
+                            index += 3;
+                            break;
+
+                        case 3: // Integer
+                        case 4: // Float
+                        case 9: // Fieldref
+                        case 10: // Methodref
+                        case 11: // InterfaceMethodref
+                        case 12: // NameAndType
+                        case 17: // Dynamic
+                        case 18: // InvokeDynamic
+                            index += 4;
+                            break;
+
+                        case 5: // Long
+                        case 6: // Double
+                            index += 8;
+                            ++constantIndex;
+                            break;
+
+                        default:
+                            throw new ParseException("Unknown class file constant pool tag: " + tag);
+                    }
+                }
+            }
+            catch (IndexOutOfBoundsException e)
+            {
+                throw new ParseException("The class file's constant pool extends past the end of the class file.");
+            }
+
+            final java.util.Set<String> classNames = new java.util.HashSet<>();
+            final List<String> result = List.create();
+            for (final Integer classNameIndex : classNameIndexes)
+            {
+                final String className = classNameIndex < utf8Constants.length ? utf8Constants[classNameIndex] : null;
+                if (className != null && !className.startsWith("[") && classNames.add(className))
+                {
+                    result.add(className);
+                }
+            }
+            // Field and method descriptors (and array class names) reference classes with
+            // "L<class-name>;". Matching other strings this way can only keep extra jars.
+            for (final String utf8Constant : utf8Constants)
+            {
+                if (utf8Constant != null && utf8Constant.indexOf(';') != -1)
+                {
+                    final java.util.regex.Matcher matcher = TestClasspathOptimizer.descriptorClassNamePattern.matcher(utf8Constant);
+                    while (matcher.find())
+                    {
+                        final String className = matcher.group(1);
+                        if (classNames.add(className))
+                        {
+                            result.add(className);
+                        }
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int index)
+    {
+        return ((bytes[index] & 0xFF) << 8) | (bytes[index + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int index)
+    {
+        return (TestClasspathOptimizer.readUnsignedShort(bytes, index) << 16) | TestClasspathOptimizer.readUnsignedShort(bytes, index + 2);
+    }
+
+    /**
+     * The classes that are contained in a jar file.
+     */
+    private static class JarClasses
+    {
+        private final File jarFile;
+        private final DateTime lastModified;
+        private final JarClassIndexCache cache;
+        private ZipArchive archive;
+        private final Iterable<String> classNames;
+        private final boolean testJar;
+        private boolean kept;
+        private int hitCount;
+
+        private JarClasses(File jarFile, DateTime lastModified, JarClassIndexCache cache, ZipArchive archive, Iterable<String> classNames, boolean testJar, boolean kept)
+        {
+            this.jarFile = jarFile;
+            this.lastModified = lastModified;
+            this.cache = cache;
+            this.archive = archive;
+            this.classNames = classNames;
+            this.testJar = testJar;
+            this.kept = kept;
+        }
+
+        /**
+         * Read the names of the classes in the provided jar file. The jar file is only read if
+         * its class names aren't in the provided cache. A jar that can't be parsed is always
+         * kept.
+         */
+        static JarClasses read(File jarFile, boolean testJar, boolean kept, JarClassIndexCache cache)
+        {
+            final DateTime lastModified = cache == null ? null : jarFile.getLastModified().catchError().await();
+            Iterable<String> classNames = lastModified == null ? null : cache.getClassNames(jarFile, lastModified);
+            ZipArchive archive = null;
+            boolean parsed = true;
+            if (classNames == null)
+            {
+                archive = JarClasses.parseArchive(jarFile);
+                parsed = (archive != null);
+
+                final List<String> archiveClassNames = List.create();
+                if (archive != null)
+                {
+                    for (final ZipArchiveEntry entry : archive.getEntries())
+                    {
+                        final String entryName = entry.getName();
+                        if (!entry.isFolder() && entryName.endsWith(TestClasspathOptimizer.classFileExtension))
+                        {
+                            archiveClassNames.add(entryName.substring(0, entryName.length() - TestClasspathOptimizer.classFileExtension.length()));
+                        }
+                    }
+                    if (lastModified != null)
+                    {
+                        cache.setClassNames(jarFile, lastModified, archiveClassNames);
+                    }
+                }
+                classNames = archiveClassNames;
+            }
+            return new JarClasses(jarFile, lastModified, cache, archive, classNames, testJar, kept || !parsed);
+        }
+
+        private static ZipArchive parseArchive(File jarFile)
+        {
+            return ZipArchive.parse(FileOperations.readAllBytes(jarFile).await())
+                .catchError()
+                .await();
+        }
+
+        int getHitCount(java.util.Set<String> referencedClassNames)
+        {
+            int result = 0;
+            for (final String className : this.classNames)
+            {
+                if (referencedClassNames.contains(className))
+                {
+                    ++result;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Add the names of the classes that are referenced by the classes in this jar. The jar
+         * file is only read if its referenced class names aren't in the cache.
+         * @return Whether every class file in this jar was parsed.
+         */
+        boolean addReferencedClassNames(java.util.Set<String> referencedClassNames)
+        {
+            Iterable<String> jarReferencedClassNames = this.lastModified == null
+                ? null
+                : this.cache.getReferencedClassNames(this.jarFile, this.lastModified);
+            boolean result = true;
+            if (jarReferencedClassNames == null)
+            {
+                if (this.archive == null)
+                {
+                    this.archive = JarClasses.parseArchive(this.jarFile);
+                }
+
+                final List<String> archiveReferencedClassNames = List.create();
+                final java.util.Set<String> archiveReferencedClassNameSet = new java.util.HashSet<>();
+                if (this.archive == null)
+                {
+                    result = false;
+                }
+                else
+                {
+                    for (final ZipArchiveEntry entry : this.archive.getEntries())
+                    {
+                        if (!entry.isFolder() && entry.getName().endsWith(TestClasspathOptimizer.classFileExtension))
+                        {
+                            final byte[] contents = this.archive.getContents(entry).catchError().await();
+                            final Iterable<String> classNames = contents == null
+                                ? null
+                                : TestClasspathOptimizer.getReferencedClassNames(contents).catchError().await();
+                            if (classNames == null)
+                            {
+                                result = false;
+                            }
+                            else
+                            {
+                                for (final String className : classNames)
+                                {
+                                    if (archiveReferencedClassNameSet.add(className))
+                                    {
+                                        archiveReferencedClassNames.add(className);
+                                    }
+                                }
+                            }
+                        }
+                    }
+
+                    // Incomplete references aren't cached, so the jar is read again (and its
+                    // unparseable classes keep every test jar) the next time.
+                    if (result && this.lastModified != null && this.cache.getClassNames(this.jarFile, this.lastModified) != null)
+                    {
+                        this.cache.setReferencedClassNames(this.jarFile, this.lastModified, archiveReferencedClassNames);
+                    }
+                }
+                jarReferencedClassNames = archiveReferencedClassNames;
+            }
+
+            for (final String className : jarReferencedClassNames)
+            {
+                referencedClassNames.add(className);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package qub;
+
+/**
+ * A read-only view of the entries in an in-memory zip (or jar) archive. Unlike
+ * {@link java.util.zip.ZipInputStream}, this gives access to each entry's compressed bytes so that
+ * they can be copied into another archive without being decompressed and recompressed.
+ */
+public class ZipArchive
+{
+    static final int localFileHeaderSignature = 0x04034b50;
+    static final int centralDirectoryHeaderSignature = 0x02014b50;
+    static final int endOfCentralDirectorySignature = 0x06054b50;
+    static final int zip64EndOfCentralDirectorySignature = 0x06064b50;
+    static final int zip64EndOfCentralDirectoryLocatorSignature = 0x07064b50;
+    static final int zip64ExtraFieldId = 0x0001;
+    static final int localFileHeaderSize = 30;
+    static final int centralDirectoryHeaderSize = 46;
+    static final int endOfCentralDirectorySize = 22;
+    static final int zip64EndOfCentralDirectorySize = 56;
+    static final int zip64EndOfCentralDirectoryLocatorSize = 20;
+    static final int zip64ExtraFieldHeaderSize = 4;
+
+    private final byte[] bytes;
+    private final List<ZipArchiveEntry> entries;
+    private final MutableMap<String,ZipArchiveEntry> entriesByName;
+
+    private ZipArchive(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        this.bytes = bytes;
+        this.entries = List.create();
+        this.entriesByName = MutableMap.create();
+    }
+
+    /**
+     * Parse the central directory of the provided archive bytes.
+     * @param bytes The bytes of the archive.
+     * @return The parsed archive, or a {@link ParseException} if the bytes are not a zip archive
+     * that this type supports.
+     */
+    public static Result<ZipArchive> parse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return Result.create(() ->
+        {
+            final ZipArchive result = new ZipArchive(bytes);
+
+            int endOfCentralDirectoryIndex = -1;
+            final int lowestPossibleIndex = Math.max(0, bytes.length - ZipArchive.endOfCentralDirectorySize - 0xFFFF);
+            for (int i = bytes.length - ZipArchive.endOfCentralDirectorySize; lowestPossibleIndex <= i; --i)
+            {
+                if (ZipArchive.readInt(bytes, i) == ZipArchive.endOfCentralDirectorySignature)
+                {
+                    endOfCentralDirectoryIndex = i;
+                    break;
+                }
+            }
+            if (endOfCentralDirectoryIndex == -1)
+            {
+                throw new ParseException("Missing zip end of central directory record.");
+            }
+
+            long entryCount = ZipArchive.readShort(bytes, endOfCentralDirectoryIndex + 10);
+            long centralDirectoryOffset = ZipArchive.readUnsignedInt(bytes, endOfCentralDirectoryIndex + 16);
+            if (entryCount == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL)
+            {
+                final int locatorIndex = endOfCentralDirectoryIndex - ZipArchive.zip64EndOfCentralDirectoryLocatorSize;
+                if (locatorIndex < 0 || ZipArchive.readInt(bytes, locatorIndex) != ZipArchive.zip64EndOfCentralDirectoryLocatorSignature)
+                {
+                    throw new ParseException("Missing zip64 end of central directory locator.");
+                }
+
+                final long zip64EndOfCentralDirectoryIndex = ZipArchive.readLong(bytes, locatorIndex + 8);
+                if (zip64EndOfCentralDirectoryIndex < 0 ||
+                    locatorIndex < zip64EndOfCentralDirectoryIndex + ZipArchive.zip64EndOfCentralDirectorySize ||
+                    ZipArchive.readInt(bytes, (int)zip64EndOfCentralDirectoryIndex) != ZipArchive.zip64EndOfCentralDirectorySignature)
+                {
+                    throw new ParseException("Invalid zip64 end of central directory record.");
+                }
+                entryCount = ZipArchive.readLong(bytes, (int)zip64EndOfCentralDirectoryIndex + 32);
+                centralDirectoryOffset = ZipArchive.readLong(bytes, (int)zip64EndOfCentralDirectoryIndex + 48);
+            }
+            if (centralDirectoryOffset < 0 || bytes.length < centralDirectoryOffset)
+            {
+                throw new ParseException("Invalid zip central directory offset: " + centralDirectoryOffset);
+            }
+
+            int index = (int)centralDirectoryOffset;
+            for (int entryIndex = 0; entryIndex < entryCount; ++entryIndex)
+            {
+                if (index + ZipArchive.centralDirectoryHeaderSize > bytes.length ||
+                    ZipArchive.readInt(bytes, index) != ZipArchive.centralDirectoryHeaderSignature)
+                {
+                    throw new ParseException("Invalid zip central directory header at offset " + index + ".");
+                }
+
+                final int nameLength = ZipArchive.readShort(bytes, index + 28);
+                final int extraLength = ZipArchive.readShort(bytes, index + 30);
+                final int commentLength = ZipArchive.readShort(bytes, index + 32);
+                final String name = new String(bytes, index + ZipArchive.centralDirectoryHeaderSize, nameLength, java.nio.charset.StandardCharsets.UTF_8);
+
+                long compressedSize = ZipArchive.readUnsignedInt(bytes, index + 20);
+                long uncompressedSize = ZipArchive.readUnsignedInt(bytes, index + 24);
+                long localHeaderOffset = ZipArchive.readUnsignedInt(bytes, index + 42);
+                if (compressedSize == 0xFFFFFFFFL || uncompressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL)
+                {
+                    // The zip64 extra field only contains the values that didn't fit in the
+                    // header, in this order.
+                    int zip64ValueIndex = ZipArchive.getZip64ExtraFieldDataIndex(bytes, index + ZipArchive.centralDirectoryHeaderSize + nameLength, extraLength, name);
+                    if (uncompressedSize == 0xFFFFFFFFL)
+                    {
+                        uncompressedSize = ZipArchive.readLong(bytes, zip64ValueIndex);
+                        zip64ValueIndex += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL)
+                    {
+                        compressedSize = ZipArchive.readLong(bytes, zip64ValueIndex);
+                        zip64ValueIndex += 8;
+                    }
+                    if (localHeaderOffset == 0xFFFFFFFFL)
+                    {
+                        localHeaderOffset = ZipArchive.readLong(bytes, zip64ValueIndex);
+                    }
+                }
+
+                final ZipArchiveEntry entry = ZipArchiveEntry.create(name)
+                    .setFlags(ZipArchive.readShort(bytes, index + 8))
+                    .setMethod(ZipArchive.readShort(bytes, index + 10))
+                    .setLastModifiedDos(ZipArchive.readShort(bytes, index + 12), ZipArchive.readShort(bytes, index + 14))
+                    .setCrc(ZipArchive.readUnsignedInt(bytes, index + 16))
+                    .setCompressedSize(compressedSize)
+                    .setUncompressedSize(uncompressedSize)
+                    .setLocalHeaderOffset(localHeaderOffset);
+                result.entries.add(entry);
+                result.entriesByName.set(name, entry);
+
+                index += ZipArchive.centralDirectoryHeaderSize + nameLength + extraLength + commentLength;
+            }
+
+            return result;
+        });
+    }
+
+    private static int getZip64ExtraFieldDataIndex(byte[] bytes, int extraFieldsIndex, int extraFieldsLength, String entryName)
+    {
+        int index = extraFieldsIndex;
+        final int endIndex = extraFieldsIndex + extraFieldsLength;
+        while (index + ZipArchive.zip64ExtraFieldHeaderSize <= endIndex)
+        {
+            final int fieldId = ZipArchive.readShort(bytes, index);
+            final int fieldLength = ZipArchive.readShort(bytes, index + 2);
+            if (fieldId == ZipArchive.zip64ExtraFieldId)
+            {
+                return index + ZipArchive.zip64ExtraFieldHeaderSize;
+            }
+            index += ZipArchive.zip64ExtraFieldHeaderSize + fieldLength;
+        }
+        throw new ParseException("Missing zip64 extra field for " + Strings.escapeAndQuote(entryName) + ".");
+    }
+
+    /**
+     * Get the entries in this archive in the order that they appear in the central directory.
+     * @return The entries in this archive.
+     */
+    public Iterable<ZipArchiveEntry> getEntries()
+    {
+        return this.entries;
+    }
+
+    /**
+     * Get the entry with the provided name.
+     * @param name The name of the entry to get.
+     * @return The entry with the provided name, or a {@link NotFoundException} if no entry with the
+     * provided name exists.
+     */
+    public Result<ZipArchiveEntry> getEntry(String name)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+
+        return this.entriesByName.get(name)
+            .convertError(NotFoundException.class, (NotFoundException error) -> new NotFoundException("No entry named " + Strings.escapeAndQuote(name) + " exists in the zip archive."));
+    }
+
+    /**
+     * Get the bytes of this archive.
+     * @return The bytes of this archive.
+     */
+    byte[] getBytes()
+    {
+        return this.bytes;
+    }
+
+    /**
+     * Get the index in this archive's bytes where the provided entry's (possibly compressed) data
+     * starts.
+     * @param entry The entry to get the data start index of.
+     * @return The index where the provided entry's data starts.
+     */
+    Result<Integer> getDataStartIndex(ZipArchiveEntry entry)
+    {
+        PreCondition.assertNotNull(entry, "entry");
+
+        return Result.create(() ->
+        {
+            final int localHeaderIndex = (int)entry.getLocalHeaderOffset();
+            if (localHeaderIndex + ZipArchive.localFileHeaderSize > this.bytes.length ||
+                ZipArchive.readInt(this.bytes, localHeaderIndex) != ZipArchive.localFileHeaderSignature)
+            {
+                throw new ParseException("Invalid zip local file header for " + Strings.escapeAndQuote(entry.getName()) + ".");
+            }
+
+            final int nameLength = ZipArchive.readShort(this.bytes, localHeaderIndex + 26);
+            final int extraLength = ZipArchive.readShort(this.bytes, localHeaderIndex + 28);
+            final int result = localHeaderIndex + ZipArchive.localFileHeaderSize + nameLength + extraLength;
+            if (result + entry.getCompressedSize() > this.bytes.length)
+            {
+                throw new ParseException("The data for " + Strings.escapeAndQuote(entry.getName()) + " extends past the end of the zip archive.");
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the uncompressed contents of the provided entry.
+     * @param entry The entry to get the contents of.
+     * @return The uncompressed contents of the provided entry.
+     */
+    public Result<byte[]> getContents(ZipArchiveEntry entry)
+    {
+        PreCondition.assertNotNull(entry, "entry");
+
+        return Result.create(() ->
+        {
+            final int dataStartIndex = this.getDataStartIndex(entry).await();
+            final int compressedSize = (int)entry.getCompressedSize();
+            final byte[] result;
+            if (entry.getMethod() == ZipArchiveEntry.storedMethod)
+            {
+                result = java.util.Arrays.copyOfRange(this.bytes, dataStartIndex, dataStartIndex + compressedSize);
+            }
+            else if (entry.getMethod() == ZipArchiveEntry.deflatedMethod)
+            {
+                result = new byte[(int)entry.getUncompressedSize()];
+                final java.util.zip.Inflater inflater = new java.util.zip.Inflater(true);
+                try
+                {
+                    inflater.setInput(this.bytes, dataStartIndex, compressedSize);
+                    int resultLength = 0;
+                    while (resultLength < result.length && !inflater.finished())
+                    {
+                        final int inflatedByteCount = inflater.inflate(result, resultLength, result.length - resultLength);
+                        if (inflatedByteCount == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        {
+                            break;
+                        }
+                        resultLength += inflatedByteCount;
+                    }
+                    if (resultLength != result.length)
+                    {
+                        throw new ParseException("The data for " + Strings.escapeAndQuote(entry.getName()) + " is shorter than its uncompressed size.");
+                    }
+                }
+                catch (java.util.zip.DataFormatException e)
+                {
+                    throw new ParseException("The data for " + Strings.escapeAndQuote(entry.getName()) + " is not valid deflate data.");
+                }
+                finally
+                {
+                    inflater.end();
+                }
+            }
+            else
+            {
+                throw new ParseException("The compression method (" + entry.getMethod() + ") of " + Strings.escapeAndQuote(entry.getName()) + " is not supported.");
+            }
+            return result;
+        });
+    }
+
+    static int readShort(byte[] bytes, int index)
+    {
+        return (bytes[index] & 0xFF) | ((bytes[index + 1] & 0xFF) << 8);
+    }
+
+    static int readInt(byte[] bytes, int index)
+    {
+        return (bytes[index] & 0xFF) |
+            ((bytes[index + 1] & 0xFF) << 8) |
+            ((bytes[index + 2] & 0xFF) << 16) |
+            ((bytes[index + 3] & 0xFF) << 24);
+    }
+
+    static long readUnsignedInt(byte[] bytes, int index)
+    {
+        return ZipArchive.readInt(bytes, index) & 0xFFFFFFFFL;
+    }
+
+    static long readLong(byte[] bytes, int index)
+    {
+        return ZipArchive.readUnsignedInt(bytes, index) | (ZipArchive.readUnsignedInt(bytes, index + 4) << 32);
+    }
+}
@@ -0,0 +1,163 @@
+package qub;
+
+/**
+ * The central directory record of a single entry in a zip (or jar) archive.
+ */
+public class ZipArchiveEntry
+{
+    /**
+     * The compression method that is used for entries whose data is stored without compression.
+     */
+    public static final int storedMethod = 0;
+
+    /**
+     * The compression method that is used for entries whose data is compressed with deflate.
+     */
+    public static final int deflatedMethod = 8;
+
+    private final String name;
+    private int method;
+    private int flags;
+    private int lastModifiedDosTime;
+    private int lastModifiedDosDate;
+    private long crc;
+    private long compressedSize;
+    private long uncompressedSize;
+    private long localHeaderOffset;
+
+    private ZipArchiveEntry(String name)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+
+        this.name = name;
+    }
+
+    public static ZipArchiveEntry create(String name)
+    {
+        return new ZipArchiveEntry(name);
+    }
+
+    /**
+     * Get the name of this entry. Folder entries end with a '/'.
+     * @return The name of this entry.
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Get whether this entry is a folder entry.
+     * @return Whether this entry is a folder entry.
+     */
+    public boolean isFolder()
+    {
+        return this.name.endsWith("/");
+    }
+
+    public int getMethod()
+    {
+        return this.method;
+    }
+
+    public ZipArchiveEntry setMethod(int method)
+    {
+        this.method = method;
+
+        return this;
+    }
+
+    public int getFlags()
+    {
+        return this.flags;
+    }
+
+    public ZipArchiveEntry setFlags(int flags)
+    {
+        this.flags = flags;
+
+        return this;
+    }
+
+    public int getLastModifiedDosTime()
+    {
+        return this.lastModifiedDosTime;
+    }
+
+    public int getLastModifiedDosDate()
+    {
+        return this.lastModifiedDosDate;
+    }
+
+    public ZipArchiveEntry setLastModifiedDos(int lastModifiedDosTime, int lastModifiedDosDate)
+    {
+        this.lastModifiedDosTime = lastModifiedDosTime;
+        this.lastModifiedDosDate = lastModifiedDosDate;
+
+        return this;
+    }
+
+    public long getCrc()
+    {
+        return this.crc;
+    }
+
+    public ZipArchiveEntry setCrc(long crc)
+    {
+        this.crc = crc;
+
+        return this;
+    }
+
+    public long getCompressedSize()
+    {
+        return this.compressedSize;
+    }
+
+    public ZipArchiveEntry setCompressedSize(long compressedSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(compressedSize, 0, "compressedSize");
+
+        this.compressedSize = compressedSize;
+
+        return this;
+    }
+
+    public long getUncompressedSize()
+    {
+        return this.uncompressedSize;
+    }
+
+    public ZipArchiveEntry setUncompressedSize(long uncompressedSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(uncompressedSize, 0, "uncompressedSize");
+
+        this.uncompressedSize = uncompressedSize;
+
+        return this;
+    }
+
+    /**
+     * Get the offset from the start of the archive to this entry's local file header.
+     * @return The offset from the start of the archive to this entry's local file header.
+     */
+    public long getLocalHeaderOffset()
+    {
+        return this.localHeaderOffset;
+    }
+
+    public ZipArchiveEntry setLocalHeaderOffset(long localHeaderOffset)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(localHeaderOffset, 0, "localHeaderOffset");
+
+        this.localHeaderOffset = localHeaderOffset;
+
+        return this;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name;
+    }
+}
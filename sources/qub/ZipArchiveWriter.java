@@ -0,0 +1,408 @@
+package qub;
+
+/**
+ * A type that writes a zip (or jar) archive to a {@link java.io.OutputStream}. Besides writing
+ * new entries, this can copy an entry's compressed bytes from an existing {@link ZipArchive}
+ * without decompressing and recompressing them. Archives with 65535 or more entries, or that are
+ * 4 GiB or larger, are written with zip64 records. Like {@link java.util.zip.ZipOutputStream},
+ * every entry is written with external file attributes of 0, so Unix file modes (such as the
+ * executable bit) are not preserved.
+ */
+public class ZipArchiveWriter implements Disposable
+{
+    /**
+     * The general purpose flag that marks an entry's name as UTF-8 encoded.
+     */
+    private static final int utf8NameFlag = 0x0800;
+    private static final int storedVersionNeeded = 10;
+    private static final int deflatedVersionNeeded = 20;
+    private static final int zip64VersionNeeded = 45;
+    private static final int versionMadeBy = 20;
+    private static final long maximumUnsignedInt = 0xFFFFFFFFL;
+    private static final int maximumUnsignedShort = 0xFFFF;
+
+    private final java.io.OutputStream outputStream;
+    private final List<ZipArchiveEntry> entries;
+    private int compressionLevel;
+    private long offset;
+    private int lastModifiedDosTime;
+    private int lastModifiedDosDate;
+    private boolean disposed;
+
+    private ZipArchiveWriter(java.io.OutputStream outputStream)
+    {
+        PreCondition.assertNotNull(outputStream, "outputStream");
+
+        this.outputStream = outputStream;
+        this.entries = List.create();
+        this.compressionLevel = java.util.zip.Deflater.DEFAULT_COMPRESSION;
+        this.setLastModified(java.time.LocalDateTime.now());
+    }
+
+    public static ZipArchiveWriter create(java.io.OutputStream outputStream)
+    {
+        return new ZipArchiveWriter(outputStream);
+    }
+
+    /**
+     * Get the deflate compression level that {@link #addFile(String, byte[])} uses.
+     * @return The deflate compression level (0-9), or -1 if the default compression level is used.
+     */
+    public int getCompressionLevel()
+    {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Set the deflate compression level that {@link #addFile(String, byte[])} uses.
+     * @param compressionLevel The deflate compression level (0-9), or -1 to use the default
+     *                         compression level.
+     * @return This object for method chaining.
+     */
+    public ZipArchiveWriter setCompressionLevel(int compressionLevel)
+    {
+        PreCondition.assertBetween(-1, compressionLevel, 9, "compressionLevel");
+
+        this.compressionLevel = compressionLevel;
+
+        return this;
+    }
+
+    /**
+     * Set the last modified time that will be written for the new entries that are added to this
+     * archive. Entries that are copied from another archive keep their existing last modified
+     * time.
+     * @param lastModified The last modified time that will be written for new entries.
+     * @return This object for method chaining.
+     */
+    public ZipArchiveWriter setLastModified(java.time.LocalDateTime lastModified)
+    {
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.lastModifiedDosTime = ZipArchiveWriter.getDosTime(lastModified);
+        this.lastModifiedDosDate = ZipArchiveWriter.getDosDate(lastModified);
+
+        return this;
+    }
+
+    /**
+     * Get the time part of the MS-DOS date/time that the zip format uses to store the provided
+     * time.
+     * @param dateTime The time to convert.
+     * @return The time part of the MS-DOS date/time.
+     */
+    static int getDosTime(java.time.LocalDateTime dateTime)
+    {
+        PreCondition.assertNotNull(dateTime, "dateTime");
+
+        final java.time.LocalDateTime dosDateTime = ZipArchiveWriter.getDosRepresentableDateTime(dateTime);
+        return (dosDateTime.getSecond() / 2) |
+            (dosDateTime.getMinute() << 5) |
+            (dosDateTime.getHour() << 11);
+    }
+
+    /**
+     * Get the date part of the MS-DOS date/time that the zip format uses to store the provided
+     * time.
+     * @param dateTime The time to convert.
+     * @return The date part of the MS-DOS date/time.
+     */
+    static int getDosDate(java.time.LocalDateTime dateTime)
+    {
+        PreCondition.assertNotNull(dateTime, "dateTime");
+
+        final java.time.LocalDateTime dosDateTime = ZipArchiveWriter.getDosRepresentableDateTime(dateTime);
+        return dosDateTime.getDayOfMonth() |
+            (dosDateTime.getMonthValue() << 5) |
+            ((dosDateTime.getYear() - 1980) << 9);
+    }
+
+    private static java.time.LocalDateTime getDosRepresentableDateTime(java.time.LocalDateTime dateTime)
+    {
+        // The zip format can't represent times before 1980.
+        return dateTime.getYear() < 1980
+            ? java.time.LocalDateTime.of(1980, 1, 1, 0, 0)
+            : dateTime;
+    }
+
+    /**
+     * Add a folder entry to this archive.
+     * @param name The name of the folder entry. This must end with a '/'.
+     * @return The result of adding the folder entry.
+     */
+    public Result<Void> addFolder(String name)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertTrue(name.endsWith("/"), "name.endsWith(\"/\")");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return Result.create(() ->
+        {
+            final ZipArchiveEntry entry = ZipArchiveEntry.create(name)
+                .setMethod(ZipArchiveEntry.storedMethod)
+                .setFlags(ZipArchiveWriter.utf8NameFlag)
+                .setLastModifiedDos(this.lastModifiedDosTime, this.lastModifiedDosDate);
+            this.writeEntry(entry, new byte[0], 0);
+        });
+    }
+
+    /**
+     * Add a file entry to this archive. The provided contents will be compressed with deflate.
+     * @param name The name of the file entry.
+     * @param contents The uncompressed contents of the file entry.
+     * @return The result of adding the file entry.
+     */
+    public Result<Void> addFile(String name, byte[] contents)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertFalse(name.endsWith("/"), "name.endsWith(\"/\")");
+        PreCondition.assertNotNull(contents, "contents");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return this.addFile(ZipCompressedFile.compress(name, contents, this.compressionLevel));
+    }
+
+    /**
+     * Add a file entry whose contents have already been compressed to this archive.
+     * @param compressedFile The compressed file to add.
+     * @return The result of adding the file entry.
+     */
+    public Result<Void> addFile(ZipCompressedFile compressedFile)
+    {
+        PreCondition.assertNotNull(compressedFile, "compressedFile");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return Result.create(() ->
+        {
+            final byte[] compressedContents = compressedFile.getCompressedContents();
+            final ZipArchiveEntry entry = ZipArchiveEntry.create(compressedFile.getName())
+                .setMethod(ZipArchiveEntry.deflatedMethod)
+                .setFlags(ZipArchiveWriter.utf8NameFlag)
+                .setLastModifiedDos(this.lastModifiedDosTime, this.lastModifiedDosDate)
+                .setCrc(compressedFile.getCrc())
+                .setUncompressedSize(compressedFile.getUncompressedSize())
+                .setCompressedSize(compressedContents.length);
+            this.writeEntry(entry, compressedContents, 0);
+        });
+    }
+
+    /**
+     * Copy the provided entry from the provided archive into this archive without decompressing
+     * and recompressing its contents.
+     * @param sourceArchive The archive that contains the entry.
+     * @param sourceEntry The entry to copy.
+     * @return The result of copying the entry.
+     */
+    public Result<Void> copyEntry(ZipArchive sourceArchive, ZipArchiveEntry sourceEntry)
+    {
+        PreCondition.assertNotNull(sourceArchive, "sourceArchive");
+        PreCondition.assertNotNull(sourceEntry, "sourceEntry");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return Result.create(() ->
+        {
+            final int dataStartIndex = sourceArchive.getDataStartIndex(sourceEntry).await();
+            final ZipArchiveEntry entry = ZipArchiveEntry.create(sourceEntry.getName())
+                .setMethod(sourceEntry.getMethod())
+                .setFlags(ZipArchiveWriter.utf8NameFlag)
+                .setLastModifiedDos(sourceEntry.getLastModifiedDosTime(), sourceEntry.getLastModifiedDosDate())
+                .setCrc(sourceEntry.getCrc())
+                .setUncompressedSize(sourceEntry.getUncompressedSize())
+                .setCompressedSize(sourceEntry.getCompressedSize());
+            this.writeEntry(entry, sourceArchive.getBytes(), dataStartIndex);
+        });
+    }
+
+    private void writeEntry(ZipArchiveEntry entry, byte[] data, int dataStartIndex)
+    {
+        // An entry's contents are always held in a byte[], so only the archive's offsets and
+        // entry count can need zip64 records.
+        if (ZipArchiveWriter.maximumUnsignedInt <= entry.getUncompressedSize() ||
+            ZipArchiveWriter.maximumUnsignedInt <= entry.getCompressedSize())
+        {
+            throw new RuntimeException("Zip entries that are 4 GiB or larger are not supported.");
+        }
+
+        entry.setLocalHeaderOffset(this.offset);
+
+        final byte[] nameBytes = entry.getName().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        this.writeInt(ZipArchive.localFileHeaderSignature);
+        this.writeShort(ZipArchiveWriter.getVersionNeeded(entry));
+        this.writeShort(entry.getFlags());
+        this.writeShort(entry.getMethod());
+        this.writeShort(entry.getLastModifiedDosTime());
+        this.writeShort(entry.getLastModifiedDosDate());
+        this.writeInt((int)entry.getCrc());
+        this.writeInt((int)entry.getCompressedSize());
+        this.writeInt((int)entry.getUncompressedSize());
+        this.writeShort(nameBytes.length);
+        this.writeShort(0);
+        this.writeBytes(nameBytes, 0, nameBytes.length);
+        this.writeBytes(data, dataStartIndex, (int)entry.getCompressedSize());
+
+        this.entries.add(entry);
+    }
+
+    private static int getVersionNeeded(ZipArchiveEntry entry)
+    {
+        return entry.getMethod() == ZipArchiveEntry.deflatedMethod
+            ? ZipArchiveWriter.deflatedVersionNeeded
+            : ZipArchiveWriter.storedVersionNeeded;
+    }
+
+    /**
+     * Get whether the local file header of the provided entry starts at an offset that can only
+     * be written in a zip64 extra field.
+     */
+    private static boolean hasZip64LocalHeaderOffset(ZipArchiveEntry entry)
+    {
+        return ZipArchiveWriter.maximumUnsignedInt <= entry.getLocalHeaderOffset();
+    }
+
+    private void writeShort(int value)
+    {
+        this.writeByte(value);
+        this.writeByte(value >>> 8);
+    }
+
+    private void writeInt(int value)
+    {
+        this.writeShort(value);
+        this.writeShort(value >>> 16);
+    }
+
+    private void writeLong(long value)
+    {
+        this.writeInt((int)value);
+        this.writeInt((int)(value >>> 32));
+    }
+
+    private void writeByte(int value)
+    {
+        try
+        {
+            this.outputStream.write(value & 0xFF);
+            ++this.offset;
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeBytes(byte[] bytes, int startIndex, int length)
+    {
+        try
+        {
+            this.outputStream.write(bytes, startIndex, length);
+            this.offset += length;
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    /**
+     * Write this archive's central directory and close the underlying {@link java.io.OutputStream}.
+     * @return Whether this writer was disposed by this call.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                try
+                {
+                    final int entryCount = this.entries.getCount();
+                    final long centralDirectoryOffset = this.offset;
+                    for (final ZipArchiveEntry entry : this.entries)
+                    {
+                        final boolean zip64LocalHeaderOffset = ZipArchiveWriter.hasZip64LocalHeaderOffset(entry);
+                        final byte[] nameBytes = entry.getName().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                        this.writeInt(ZipArchive.centralDirectoryHeaderSignature);
+                        this.writeShort(ZipArchiveWriter.versionMadeBy);
+                        this.writeShort(zip64LocalHeaderOffset ? ZipArchiveWriter.zip64VersionNeeded : ZipArchiveWriter.getVersionNeeded(entry));
+                        this.writeShort(entry.getFlags());
+                        this.writeShort(entry.getMethod());
+                        this.writeShort(entry.getLastModifiedDosTime());
+                        this.writeShort(entry.getLastModifiedDosDate());
+                        this.writeInt((int)entry.getCrc());
+                        this.writeInt((int)entry.getCompressedSize());
+                        this.writeInt((int)entry.getUncompressedSize());
+                        this.writeShort(nameBytes.length);
+                        this.writeShort(zip64LocalHeaderOffset ? ZipArchive.zip64ExtraFieldHeaderSize + 8 : 0); // Extra field length
+                        this.writeShort(0); // Comment length
+                        this.writeShort(0); // Disk number start
+                        this.writeShort(0); // Internal file attributes
+                        this.writeInt(0); // External file attributes
+                        this.writeInt((int)Math.min(entry.getLocalHeaderOffset(), ZipArchiveWriter.maximumUnsignedInt));
+                        this.writeBytes(nameBytes, 0, nameBytes.length);
+                        if (zip64LocalHeaderOffset)
+                        {
+                            this.writeShort(ZipArchive.zip64ExtraFieldId);
+                            this.writeShort(8);
+                            this.writeLong(entry.getLocalHeaderOffset());
+                        }
+                    }
+                    final long centralDirectorySize = this.offset - centralDirectoryOffset;
+
+                    if (ZipArchiveWriter.maximumUnsignedShort <= entryCount ||
+                        ZipArchiveWriter.maximumUnsignedInt <= centralDirectoryOffset ||
+                        ZipArchiveWriter.maximumUnsignedInt <= centralDirectorySize)
+                    {
+                        final long zip64EndOfCentralDirectoryOffset = this.offset;
+                        this.writeInt(ZipArchive.zip64EndOfCentralDirectorySignature);
+                        this.writeLong(ZipArchive.zip64EndOfCentralDirectorySize - 12); // Size of the rest of the record
+                        this.writeShort(ZipArchiveWriter.zip64VersionNeeded); // Version made by
+                        this.writeShort(ZipArchiveWriter.zip64VersionNeeded);
+                        this.writeInt(0); // Number of this disk
+                        this.writeInt(0); // Disk where the central directory starts
+                        this.writeLong(entryCount);
+                        this.writeLong(entryCount);
+                        this.writeLong(centralDirectorySize);
+                        this.writeLong(centralDirectoryOffset);
+
+                        this.writeInt(ZipArchive.zip64EndOfCentralDirectoryLocatorSignature);
+                        this.writeInt(0); // Disk where the zip64 end of central directory record starts
+                        this.writeLong(zip64EndOfCentralDirectoryOffset);
+                        this.writeInt(1); // Total number of disks
+                    }
+
+                    // Values that don't fit in the end of central directory record are set to
+                    // their maximum, which tells readers to use the zip64 record instead.
+                    this.writeInt(ZipArchive.endOfCentralDirectorySignature);
+                    this.writeShort(0); // Number of this disk
+                    this.writeShort(0); // Disk where the central directory starts
+                    this.writeShort(Math.min(entryCount, ZipArchiveWriter.maximumUnsignedShort));
+                    this.writeShort(Math.min(entryCount, ZipArchiveWriter.maximumUnsignedShort));
+                    this.writeInt((int)Math.min(centralDirectorySize, ZipArchiveWriter.maximumUnsignedInt));
+                    this.writeInt((int)Math.min(centralDirectoryOffset, ZipArchiveWriter.maximumUnsignedInt));
+                    this.writeShort(0); // Comment length
+                }
+                finally
+                {
+                    try
+                    {
+                        this.outputStream.close();
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+}
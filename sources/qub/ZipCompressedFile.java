@@ -0,0 +1,96 @@
+package qub;
+
+/**
+ * A file whose contents have been compressed with deflate and that is ready to be written to a
+ * zip (or jar) archive by a {@link ZipArchiveWriter}. Compressing a file doesn't depend on any
+ * archive state, so files can be compressed on worker threads and then written to the archive in
+ * order.
+ */
+public class ZipCompressedFile
+{
+    private static final int bufferSize = 64 * 1024;
+
+    private final String name;
+    private final long crc;
+    private final long uncompressedSize;
+    private final byte[] compressedContents;
+
+    private ZipCompressedFile(String name, long crc, long uncompressedSize, byte[] compressedContents)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertGreaterThanOrEqualTo(uncompressedSize, 0, "uncompressedSize");
+        PreCondition.assertNotNull(compressedContents, "compressedContents");
+
+        this.name = name;
+        this.crc = crc;
+        this.uncompressedSize = uncompressedSize;
+        this.compressedContents = compressedContents;
+    }
+
+    /**
+     * Compress the provided file contents.
+     * @param name The name of the archive entry that the contents will be written to.
+     * @param contents The uncompressed contents of the file.
+     * @param compressionLevel The deflate compression level (0-9), or -1 to use the default
+     *                         compression level.
+     * @return The compressed file.
+     */
+    public static ZipCompressedFile compress(String name, byte[] contents, int compressionLevel)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertFalse(name.endsWith("/"), "name.endsWith(\"/\")");
+        PreCondition.assertNotNull(contents, "contents");
+        PreCondition.assertBetween(-1, compressionLevel, 9, "compressionLevel");
+
+        final java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        crc.update(contents, 0, contents.length);
+
+        final java.io.ByteArrayOutputStream compressedContents = new java.io.ByteArrayOutputStream();
+        final java.util.zip.Deflater deflater = new java.util.zip.Deflater(compressionLevel, true);
+        try
+        {
+            deflater.setInput(contents);
+            deflater.finish();
+            final byte[] buffer = new byte[Math.min(ZipCompressedFile.bufferSize, contents.length + 64)];
+            while (!deflater.finished())
+            {
+                final int compressedByteCount = deflater.deflate(buffer);
+                compressedContents.write(buffer, 0, compressedByteCount);
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return new ZipCompressedFile(name, crc.getValue(), contents.length, compressedContents.toByteArray());
+    }
+
+    /**
+     * Get the name of the archive entry that this file will be written to.
+     * @return The name of the archive entry that this file will be written to.
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Get the CRC-32 of this file's uncompressed contents.
+     * @return The CRC-32 of this file's uncompressed contents.
+     */
+    public long getCrc()
+    {
+        return this.crc;
+    }
+
+    public long getUncompressedSize()
+    {
+        return this.uncompressedSize;
+    }
+
+    public byte[] getCompressedContents()
+    {
+        return this.compressedContents;
+    }
+}
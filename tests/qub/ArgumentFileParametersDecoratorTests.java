@@ -0,0 +1,103 @@
+package qub;
+
+public interface ArgumentFileParametersDecoratorTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ArgumentFileParametersDecorator.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JavaParameters parameters = JavaParameters.create();
+                test.assertNull(parameters.getArgumentFileFolder());
+                test.assertEqual(ArgumentFileParametersDecorator.defaultArgumentFileThreshold, parameters.getArgumentFileThreshold());
+            });
+
+            runner.testGroup("setArgumentFileThreshold(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final JavaParameters parameters = JavaParameters.create();
+                    test.assertThrows(() -> parameters.setArgumentFileThreshold(-1),
+                        new PreConditionFailure("argumentFileThreshold (-1) must be greater than or equal to 0."));
+                    test.assertEqual(ArgumentFileParametersDecorator.defaultArgumentFileThreshold, parameters.getArgumentFileThreshold());
+                });
+
+                runner.test("with 0", (Test test) ->
+                {
+                    final JavaParameters parameters = JavaParameters.create();
+                    test.assertSame(parameters, parameters.setArgumentFileThreshold(0));
+                    test.assertEqual(0, parameters.getArgumentFileThreshold());
+                });
+            });
+
+            runner.testGroup("getArgumentsLength(Iterable<String>)", () ->
+            {
+                final Action2<Iterable<String>,Integer> getArgumentsLengthTest = (Iterable<String> arguments, Integer expected) ->
+                {
+                    runner.test("with " + arguments, (Test test) ->
+                    {
+                        test.assertEqual(expected, ArgumentFileParametersDecorator.getArgumentsLength(arguments));
+                    });
+                };
+
+                getArgumentsLengthTest.run(Iterable.create(), 0);
+                getArgumentsLengthTest.run(Iterable.create("a"), 2);
+                getArgumentsLengthTest.run(Iterable.create("abc", "de"), 7);
+            });
+
+            runner.testGroup("getArgumentFileContents(Iterable<String>)", () ->
+            {
+                final Action2<Iterable<String>,String> getArgumentFileContentsTest = (Iterable<String> arguments, String expected) ->
+                {
+                    runner.test("with " + arguments, (Test test) ->
+                    {
+                        test.assertEqual(expected, ArgumentFileParametersDecorator.getArgumentFileContents(arguments));
+                    });
+                };
+
+                getArgumentFileContentsTest.run(Iterable.create(), "");
+                getArgumentFileContentsTest.run(Iterable.create("a"), "\"a\"\n");
+                getArgumentFileContentsTest.run(Iterable.create("a b", "c"), "\"a b\"\n\"c\"\n");
+                getArgumentFileContentsTest.run(Iterable.create("C:\\qub\\a.jar"), "\"C:\\\\qub\\\\a.jar\"\n");
+                getArgumentFileContentsTest.run(Iterable.create("say \"hi\""), "\"say \\\"hi\\\"\"\n");
+            });
+
+            runner.testGroup("writeArgumentFile(File,Iterable<String>)", () ->
+            {
+                runner.test("with file that doesn't exist",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File argumentFile = process.getCurrentFolder().getFile("a.args").await();
+                    test.assertTrue(ArgumentFileParametersDecorator.writeArgumentFile(argumentFile, Iterable.create("a", "b")).await());
+                    test.assertEqual("\"a\"\n\"b\"\n", argumentFile.getContentsAsString().await());
+                });
+
+                runner.test("with file that has the same arguments",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File argumentFile = process.getCurrentFolder().getFile("a.args").await();
+                    argumentFile.setContentsAsString("\"a\"\n\"b\"\n").await();
+                    final DateTime lastModified = argumentFile.getLastModified().await();
+                    process.getClock().advance(Duration.minutes(1)).await();
+
+                    test.assertFalse(ArgumentFileParametersDecorator.writeArgumentFile(argumentFile, Iterable.create("a", "b")).await());
+                    test.assertEqual(lastModified, argumentFile.getLastModified().await());
+                });
+
+                runner.test("with file that has different arguments",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File argumentFile = process.getCurrentFolder().getFile("a.args").await();
+                    argumentFile.setContentsAsString("\"a\"\n").await();
+
+                    test.assertTrue(ArgumentFileParametersDecorator.writeArgumentFile(argumentFile, Iterable.create("a", "b")).await());
+                    test.assertEqual("\"a\"\n\"b\"\n", argumentFile.getContentsAsString().await());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package qub;
+
+public interface ByteReadStreamInputStreamTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ByteReadStreamInputStream.class, () ->
+        {
+            runner.test("create(ByteReadStream)", (Test test) ->
+            {
+                test.assertThrows(() -> ByteReadStreamInputStream.create(null),
+                    new PreConditionFailure("innerStream cannot be null."));
+            });
+
+            runner.test("read()",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final File file = process.getCurrentFolder().getFile("file.txt").await();
+                file.setContentsAsString("ab").await();
+
+                try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(file.getContentsReadStream().await()))
+                {
+                    test.assertEqual((int)'a', inputStream.read());
+                    test.assertEqual((int)'b', inputStream.read());
+                    test.assertEqual(-1, inputStream.read());
+                    test.assertEqual(-1, inputStream.read());
+                }
+            });
+
+            runner.test("read(byte[],int,int)",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final File file = process.getCurrentFolder().getFile("file.txt").await();
+                file.setContentsAsString("abc").await();
+
+                try (final ByteReadStreamInputStream inputStream = ByteReadStreamInputStream.create(file.getContentsReadStream().await()))
+                {
+                    final byte[] buffer = new byte[5];
+                    test.assertEqual(0, inputStream.read(buffer, 0, 0));
+                    test.assertEqual(3, inputStream.read(buffer, 1, 4));
+                    test.assertEqual(new byte[] { 0, 'a', 'b', 'c', 0 }, buffer);
+                    test.assertEqual(-1, inputStream.read(buffer, 0, 5));
+                }
+            });
+        });
+    }
+}
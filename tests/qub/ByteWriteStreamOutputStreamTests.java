@@ -0,0 +1,63 @@
+package qub;
+
+public interface ByteWriteStreamOutputStreamTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ByteWriteStreamOutputStream.class, () ->
+        {
+            runner.test("create(ByteWriteStream)", (Test test) ->
+            {
+                test.assertThrows(() -> ByteWriteStreamOutputStream.create(null),
+                    new PreConditionFailure("innerStream cannot be null."));
+            });
+
+            runner.test("write(int)",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final File file = process.getCurrentFolder().getFile("file.txt").await();
+
+                try (final ByteWriteStreamOutputStream outputStream = ByteWriteStreamOutputStream.create(file.getContentsByteWriteStream().await()))
+                {
+                    outputStream.write('a');
+                    outputStream.write('b');
+                }
+
+                test.assertEqual("ab", file.getContentsAsString().await());
+            });
+
+            runner.testGroup("write(byte[],int,int)", () ->
+            {
+                runner.test("with null bytes",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+
+                    try (final ByteWriteStreamOutputStream outputStream = ByteWriteStreamOutputStream.create(file.getContentsByteWriteStream().await()))
+                    {
+                        test.assertThrows(() -> outputStream.write(null, 0, 0),
+                            new PreConditionFailure("bytes cannot be null."));
+                    }
+                });
+
+                runner.test("with valid arguments",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+
+                    try (final ByteWriteStreamOutputStream outputStream = ByteWriteStreamOutputStream.create(file.getContentsByteWriteStream().await()))
+                    {
+                        final byte[] bytes = new byte[] { 'a', 'b', 'c', 'd' };
+                        outputStream.write(bytes, 0, 0);
+                        outputStream.write(bytes, 1, 2);
+                    }
+
+                    test.assertEqual("bc", file.getContentsAsString().await());
+                });
+            });
+        });
+    }
+}
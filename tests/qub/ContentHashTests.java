@@ -0,0 +1,71 @@
+package qub;
+
+public interface ContentHashTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ContentHash.class, () ->
+        {
+            runner.testGroup("get(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ContentHash.get((byte[])null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertEqual("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ContentHash.get(new byte[0]));
+                });
+
+                runner.test("with \"abc\"", (Test test) ->
+                {
+                    test.assertEqual("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", ContentHash.get(new byte[] { 'a', 'b', 'c' }));
+                });
+            });
+
+            runner.testGroup("get(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ContentHash.get((File)null),
+                        new PreConditionFailure("file cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    test.assertThrows(() -> ContentHash.get(file).await(),
+                        new FileNotFoundException(file));
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    file.setContentsAsString("abc").await();
+                    test.assertEqual("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", ContentHash.get(file).await());
+                });
+            });
+
+            runner.testGroup("toHexString(byte[])", () ->
+            {
+                final Action2<byte[],String> toHexStringTest = (byte[] digestBytes, String expected) ->
+                {
+                    runner.test("with " + java.util.Arrays.toString(digestBytes), (Test test) ->
+                    {
+                        test.assertEqual(expected, ContentHash.toHexString(digestBytes));
+                    });
+                };
+
+                toHexStringTest.run(new byte[0], "");
+                toHexStringTest.run(new byte[] { 0, 1, 15, 16 }, "00010f10");
+                toHexStringTest.run(new byte[] { (byte)0xAB, (byte)0xFF }, "abff");
+            });
+        });
+    }
+}
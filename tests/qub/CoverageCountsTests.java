@@ -0,0 +1,86 @@
+package qub;
+
+public interface CoverageCountsTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(CoverageCounts.class, () ->
+        {
+            runner.testGroup("create(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> CoverageCounts.create(null),
+                        new PreConditionFailure("name cannot be null."));
+                });
+
+                runner.test("with \"qub\"", (Test test) ->
+                {
+                    final CoverageCounts counts = CoverageCounts.create("qub");
+                    test.assertEqual("qub", counts.getName());
+                    test.assertEqual(0, counts.getMissedLines());
+                    test.assertEqual(0, counts.getCoveredLines());
+                    test.assertEqual(0, counts.getMissedBranches());
+                    test.assertEqual(0, counts.getCoveredBranches());
+                    test.assertNull(counts.getLineCoveragePercentage());
+                    test.assertNull(counts.getBranchCoveragePercentage());
+                    test.assertEqual("qub: n/a lines (0/0), n/a branches (0/0)", counts.toString());
+                });
+            });
+
+            runner.testGroup("setLines(int,int)", () ->
+            {
+                runner.test("with negative missedLines", (Test test) ->
+                {
+                    final CoverageCounts counts = CoverageCounts.create("qub");
+                    test.assertThrows(() -> counts.setLines(-1, 0),
+                        new PreConditionFailure("missedLines (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with 1 missed and 3 covered", (Test test) ->
+                {
+                    final CoverageCounts counts = CoverageCounts.create("qub");
+                    test.assertSame(counts, counts.setLines(1, 3));
+                    test.assertEqual(1, counts.getMissedLines());
+                    test.assertEqual(3, counts.getCoveredLines());
+                    test.assertEqual(75.0, counts.getLineCoveragePercentage());
+                });
+            });
+
+            runner.testGroup("setBranches(int,int)", () ->
+            {
+                runner.test("with negative coveredBranches", (Test test) ->
+                {
+                    final CoverageCounts counts = CoverageCounts.create("qub");
+                    test.assertThrows(() -> counts.setBranches(0, -2),
+                        new PreConditionFailure("coveredBranches (-2) must be greater than or equal to 0."));
+                });
+
+                runner.test("with 2 missed and 1 covered", (Test test) ->
+                {
+                    final CoverageCounts counts = CoverageCounts.create("qub");
+                    test.assertSame(counts, counts.setBranches(2, 1));
+                    test.assertEqual(2, counts.getMissedBranches());
+                    test.assertEqual(1, counts.getCoveredBranches());
+                    test.assertEqual("qub: n/a lines (0/0), 33.3% branches (1/3)", counts.toString());
+                });
+            });
+
+            runner.testGroup("formatPercentage(Double)", () ->
+            {
+                final Action2<Double,String> formatPercentageTest = (Double percentage, String expected) ->
+                {
+                    runner.test("with " + percentage, (Test test) ->
+                    {
+                        test.assertEqual(expected, CoverageCounts.formatPercentage(percentage));
+                    });
+                };
+
+                formatPercentageTest.run(null, "n/a");
+                formatPercentageTest.run(0.0, "0.0%");
+                formatPercentageTest.run(66.66666, "66.6%");
+                formatPercentageTest.run(100.0, "100.0%");
+            });
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package qub;
+
+public interface CoverageJSONTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(CoverageJSON.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final CoverageJSON coverageJson = CoverageJSON.create();
+                test.assertNotNull(coverageJson);
+                test.assertEqual(JSONObject.create(), coverageJson.toJson());
+                test.assertNull(coverageJson.getCoverage());
+                test.assertEqual(Iterable.create(), coverageJson.getInputFiles());
+            });
+
+            runner.testGroup("create(JSONObject)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> CoverageJSON.create(null),
+                        new PreConditionFailure("json cannot be null."));
+                });
+
+                runner.test("with unrecognized coverage", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create(JSONObject.create()
+                        .setString("coverage", "spam"));
+                    test.assertNull(coverageJson.getCoverage());
+                });
+
+                runner.test("with non-object inputFiles", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create(JSONObject.create()
+                        .setString("inputFiles", "spam"));
+                    test.assertEqual(Iterable.create(), coverageJson.getInputFiles());
+                });
+            });
+
+            runner.testGroup("setCoverage(Coverage)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertThrows(() -> coverageJson.setCoverage(null),
+                        new PreConditionFailure("coverage cannot be null."));
+                    test.assertNull(coverageJson.getCoverage());
+                });
+
+                runner.test("with " + Coverage.All, (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertSame(coverageJson, coverageJson.setCoverage(Coverage.All));
+                    test.assertEqual(Coverage.All, coverageJson.getCoverage());
+                    test.assertEqual("{\"coverage\":\"All\"}", coverageJson.toString());
+                });
+            });
+
+            runner.testGroup("setInputFiles(Iterable<PackJSONFile>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertThrows(() -> coverageJson.setInputFiles(null),
+                        new PreConditionFailure("inputFiles cannot be null."));
+                    test.assertEqual(Iterable.create(), coverageJson.getInputFiles());
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertSame(coverageJson, coverageJson.setInputFiles(Iterable.create()));
+                    test.assertEqual(Iterable.create(), coverageJson.getInputFiles());
+                    test.assertEqual("{\"inputFiles\":{}}", coverageJson.toString());
+                });
+
+                runner.test("with one file", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    final PackJSONFile inputFile = PackJSONFile.create("coverage-data/a.b.CTests.exec", DateTime.create(1, 2, 3));
+                    test.assertSame(coverageJson, coverageJson.setInputFiles(Iterable.create(inputFile)));
+                    test.assertEqual(Iterable.create(inputFile), coverageJson.getInputFiles());
+                });
+            });
+
+            runner.testGroup("setReportGenerator(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertThrows(() -> coverageJson.setReportGenerator(null),
+                        new PreConditionFailure("reportGenerator cannot be null."));
+                    test.assertNull(coverageJson.getReportGenerator());
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertSame(coverageJson, coverageJson.setReportGenerator("/jacococli.jar"));
+                    test.assertEqual("/jacococli.jar", coverageJson.getReportGenerator());
+                    test.assertEqual("{\"reportGenerator\":\"/jacococli.jar\"}", coverageJson.toString());
+                });
+            });
+
+            runner.testGroup("hasSameInputs(CoverageJSON)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CoverageJSON coverageJson = CoverageJSON.create();
+                    test.assertThrows(() -> coverageJson.hasSameInputs(null),
+                        new PreConditionFailure("other cannot be null."));
+                });
+
+                final Action3<CoverageJSON,CoverageJSON,Boolean> hasSameInputsTest = (CoverageJSON lhs, CoverageJSON rhs, Boolean expected) ->
+                {
+                    runner.test("with " + lhs + " and " + rhs, (Test test) ->
+                    {
+                        test.assertEqual(expected, lhs.hasSameInputs(rhs));
+                    });
+                };
+
+                final PackJSONFile inputFile = PackJSONFile.create("coverage-data/a.b.CTests.exec", DateTime.create(1, 2, 3));
+                hasSameInputsTest.run(CoverageJSON.create(), CoverageJSON.create(), true);
+                hasSameInputsTest.run(CoverageJSON.create().setCoverage(Coverage.All), CoverageJSON.create(), false);
+                hasSameInputsTest.run(CoverageJSON.create().setCoverage(Coverage.All), CoverageJSON.create().setCoverage(Coverage.All), true);
+                hasSameInputsTest.run(CoverageJSON.create().setInputFiles(Iterable.create(inputFile)), CoverageJSON.create(), false);
+                hasSameInputsTest.run(CoverageJSON.create().setInputFiles(Iterable.create(inputFile)), CoverageJSON.create().setInputFiles(Iterable.create(inputFile)), true);
+                hasSameInputsTest.run(
+                    CoverageJSON.create().setInputFiles(Iterable.create(inputFile)),
+                    CoverageJSON.create().setInputFiles(Iterable.create(PackJSONFile.create("coverage-data/a.b.CTests.exec", DateTime.create(1, 2, 4)))),
+                    false);
+                hasSameInputsTest.run(
+                    CoverageJSON.create().setInputFiles(Iterable.create(inputFile)).setReportGenerator("a"),
+                    CoverageJSON.create().setInputFiles(Iterable.create(inputFile)).setReportGenerator("b"),
+                    true);
+            });
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package qub;
+
+public interface CoverageSummaryTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(CoverageSummary.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final CoverageSummary summary = CoverageSummary.create();
+                test.assertEqual("Total", summary.getTotal().getName());
+                test.assertEqual(Iterable.create(), summary.getPackages());
+                test.assertEqual(Iterable.create(), summary.getClasses());
+            });
+
+            runner.testGroup("parse(java.io.InputStream)", () ->
+            {
+                final Function1<String,java.io.InputStream> createInputStream = (String text) ->
+                {
+                    return new java.io.ByteArrayInputStream(text.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                };
+
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> CoverageSummary.parse((java.io.InputStream)null),
+                        new PreConditionFailure("inputStream cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertNull(CoverageSummary.parse(createInputStream.run(""))
+                        .catchError(ParseException.class)
+                        .await());
+                });
+
+                runner.test("with no report element", (Test test) ->
+                {
+                    test.assertThrows(() -> CoverageSummary.parse(createInputStream.run("<spam/>")).await(),
+                        new ParseException("Missing JaCoCo report element."));
+                });
+
+                runner.test("with JaCoCo report", (Test test) ->
+                {
+                    final String reportXml = Strings.join('\n', Iterable.create(
+                        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>",
+                        "<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.1//EN\" \"report.dtd\">",
+                        "<report name=\"project\">",
+                        "  <sessioninfo id=\"a\" start=\"1\" dump=\"2\"/>",
+                        "  <package name=\"qub/a\">",
+                        "    <class name=\"qub/a/Foo\" sourcefilename=\"Foo.java\">",
+                        "      <method name=\"bar\" desc=\"()V\" line=\"5\">",
+                        "        <counter type=\"LINE\" missed=\"100\" covered=\"100\"/>",
+                        "      </method>",
+                        "      <counter type=\"INSTRUCTION\" missed=\"7\" covered=\"9\"/>",
+                        "      <counter type=\"BRANCH\" missed=\"1\" covered=\"3\"/>",
+                        "      <counter type=\"LINE\" missed=\"2\" covered=\"8\"/>",
+                        "    </class>",
+                        "    <sourcefile name=\"Foo.java\">",
+                        "      <line nr=\"5\" mi=\"0\" ci=\"3\" mb=\"0\" cb=\"0\"/>",
+                        "      <counter type=\"LINE\" missed=\"50\" covered=\"50\"/>",
+                        "    </sourcefile>",
+                        "    <counter type=\"BRANCH\" missed=\"1\" covered=\"3\"/>",
+                        "    <counter type=\"LINE\" missed=\"2\" covered=\"8\"/>",
+                        "  </package>",
+                        "  <counter type=\"BRANCH\" missed=\"1\" covered=\"3\"/>",
+                        "  <counter type=\"LINE\" missed=\"2\" covered=\"8\"/>",
+                        "</report>"));
+
+                    final CoverageSummary summary = CoverageSummary.parse(createInputStream.run(reportXml)).await();
+                    test.assertNotNull(summary);
+
+                    test.assertEqual(
+                        Iterable.create("Total: 80.0% lines (8/10), 75.0% branches (3/4)"),
+                        Iterable.create(summary.getTotal()).map(CoverageCounts::toString));
+                    test.assertEqual(
+                        Iterable.create("qub.a: 80.0% lines (8/10), 75.0% branches (3/4)"),
+                        summary.getPackages().map(CoverageCounts::toString).toList());
+                    test.assertEqual(
+                        Iterable.create("qub.a.Foo: 80.0% lines (8/10), 75.0% branches (3/4)"),
+                        summary.getClasses().map(CoverageCounts::toString).toList());
+                });
+            });
+
+            runner.testGroup("parse(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> CoverageSummary.parse((File)null),
+                        new PreConditionFailure("coverageXmlFile cannot be null."));
+                });
+
+                runner.test("with file that doesn't exist",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File coverageXmlFile = process.getCurrentFolder().getFile("coverage.xml").await();
+                    test.assertThrows(() -> CoverageSummary.parse(coverageXmlFile).await(),
+                        new FileNotFoundException(coverageXmlFile));
+                });
+
+                runner.test("with empty report",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File coverageXmlFile = process.getCurrentFolder().getFile("coverage.xml").await();
+                    coverageXmlFile.setContentsAsString("<report name=\"project\"></report>").await();
+
+                    final CoverageSummary summary = CoverageSummary.parse(coverageXmlFile).await();
+                    test.assertNull(summary.getTotal().getLineCoveragePercentage());
+                    test.assertEqual(Iterable.create(), summary.getPackages());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package qub;
+
+public interface DaemonExecutorTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(DaemonExecutor.class, () ->
+        {
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> DaemonExecutor.create(0),
+                        new PreConditionFailure("threadCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 3", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(3))
+                    {
+                        test.assertEqual(3, executor.getThreadCount());
+                        test.assertFalse(executor.isDisposed());
+                        test.assertTrue(executor.submit(() -> Thread.currentThread().isDaemon()).await());
+                    }
+                });
+            });
+
+            runner.test("getDefaultThreadCount()", (Test test) ->
+            {
+                test.assertEqual(Math.max(1, Runtime.getRuntime().availableProcessors()), DaemonExecutor.getDefaultThreadCount());
+            });
+
+            runner.testGroup("submit(Function0<T>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(1))
+                    {
+                        test.assertThrows(() -> executor.submit((Function0<Integer>)null),
+                            new PreConditionFailure("function cannot be null."));
+                    }
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    final DaemonExecutor executor = DaemonExecutor.create(1);
+                    test.assertTrue(executor.dispose().await());
+                    test.assertFalse(executor.dispose().await());
+                    test.assertThrows(() -> executor.submit(() -> 5),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with function that returns a value", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(2))
+                    {
+                        final DaemonExecutor.Task<Integer> task = executor.submit(() -> 5);
+                        test.assertEqual(5, task.await());
+                        test.assertTrue(task.isCompleted());
+                    }
+                });
+
+                runner.test("with function that throws", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(2))
+                    {
+                        final DaemonExecutor.Task<Integer> task = executor.submit(() ->
+                        {
+                            throw new NotFoundException("abc");
+                        });
+                        test.assertThrows(() -> task.await(),
+                            new NotFoundException("abc"));
+                    }
+                });
+
+                runner.test("runs functions concurrently", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(2))
+                    {
+                        // Each function waits for the other to start, so they can only both finish
+                        // if they run at the same time.
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(2);
+                        final Function0<Boolean> function = () ->
+                        {
+                            latch.countDown();
+                            try
+                            {
+                                return latch.await(10, java.util.concurrent.TimeUnit.SECONDS);
+                            }
+                            catch (InterruptedException e)
+                            {
+                                throw new RuntimeException(e);
+                            }
+                        };
+                        final DaemonExecutor.Task<Boolean> task1 = executor.submit(function);
+                        final DaemonExecutor.Task<Boolean> task2 = executor.submit(function);
+                        test.assertTrue(task1.await());
+                        test.assertTrue(task2.await());
+                    }
+                });
+            });
+
+            runner.testGroup("takeCompletedTask()", () ->
+            {
+                runner.test("returns tasks in the order that they complete", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(2))
+                    {
+                        final java.util.concurrent.CountDownLatch firstTaskCompleted = new java.util.concurrent.CountDownLatch(1);
+                        final DaemonExecutor.Task<Integer> slowTask = executor.submit(() ->
+                        {
+                            try
+                            {
+                                firstTaskCompleted.await(10, java.util.concurrent.TimeUnit.SECONDS);
+                            }
+                            catch (InterruptedException e)
+                            {
+                                throw new RuntimeException(e);
+                            }
+                            return 1;
+                        });
+                        final DaemonExecutor.Task<Integer> fastTask = executor.submit(() -> 2);
+
+                        test.assertSame(fastTask, executor.takeCompletedTask());
+                        firstTaskCompleted.countDown();
+                        test.assertSame(slowTask, executor.takeCompletedTask());
+                    }
+                });
+            });
+
+            runner.testGroup("Task.waitForCompletion(long)", () ->
+            {
+                runner.test("with task that doesn't complete in time", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(1))
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final DaemonExecutor.Task<Void> task = executor.submit(() ->
+                        {
+                            try
+                            {
+                                latch.await();
+                            }
+                            catch (InterruptedException e)
+                            {
+                                throw new RuntimeException(e);
+                            }
+                        });
+                        test.assertFalse(task.waitForCompletion(0));
+                        test.assertFalse(task.isCompleted());
+
+                        task.cancel();
+                        test.assertTrue(task.isCompleted());
+                    }
+                });
+
+                runner.test("with completed task", (Test test) ->
+                {
+                    try (final DaemonExecutor executor = DaemonExecutor.create(1))
+                    {
+                        final DaemonExecutor.Task<Integer> task = executor.submit(() -> 5);
+                        test.assertTrue(task.waitForCompletion(10));
+                        test.assertEqual(5, task.await());
+                    }
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,262 @@
+package qub;
+
+public interface DependencyGraphCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(DependencyGraphCache.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final DependencyGraphCache cache = DependencyGraphCache.create();
+                test.assertNotNull(cache);
+                test.assertNull(cache.getCacheFile());
+                test.assertFalse(cache.isModified());
+                test.assertEqual(JSONObject.create(), cache.toJson());
+            });
+
+            runner.testGroup("get(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> DependencyGraphCache.get((File)null),
+                        new PreConditionFailure("cacheFile cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File cacheFile = process.getCurrentFolder().getFile(DependencyGraphCache.fileName).await();
+                    final DependencyGraphCache cache = DependencyGraphCache.get(cacheFile).await();
+                    test.assertSame(cacheFile, cache.getCacheFile());
+                    test.assertEqual(JSONObject.create(), cache.toJson());
+                });
+
+                runner.test("with invalid file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File cacheFile = process.getCurrentFolder().getFile(DependencyGraphCache.fileName).await();
+                    cacheFile.setContentsAsString("[").await();
+                    final DependencyGraphCache cache = DependencyGraphCache.get(cacheFile).await();
+                    test.assertEqual(JSONObject.create(), cache.toJson());
+                });
+            });
+
+            runner.testGroup("get(DesktopProcess)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> DependencyGraphCache.get((DesktopProcess)null),
+                        new PreConditionFailure("process cannot be null."));
+                });
+
+                runner.test("when not enabled",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    test.assertNull(DependencyGraphCache.get(process).await());
+                });
+
+                runner.test("when enabled",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    JavaProjectConfiguration.setConfigurationFile(process, JavaProjectConfiguration.create()
+                        .setDependencyGraphCacheEnabled(true)).await();
+
+                    final DependencyGraphCache cache = DependencyGraphCache.get(process).await();
+                    test.assertNotNull(cache);
+                    test.assertEqual(
+                        process.getQubProjectDataFolder().await().getFile(DependencyGraphCache.fileName).await(),
+                        cache.getCacheFile());
+                });
+            });
+
+            runner.testGroup("getDependencies(JavaPublishedProjectFolder)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.getDependencies(null),
+                        new PreConditionFailure("publishedProjectFolder cannot be null."));
+                });
+
+                runner.test("with non-existing project.json file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaPublishedProjectFolder publishedProjectFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder("a", "b", "1").await());
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.getDependencies(publishedProjectFolder).await(),
+                        new FileNotFoundException(publishedProjectFolder.getProjectJsonFile().await()));
+                    test.assertFalse(cache.isModified());
+                });
+
+                runner.test("only parses project.json files that have changed",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaPublishedProjectFolder publishedProjectFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder("a", "b", "1").await());
+                    final File projectJsonFile = publishedProjectFolder.getProjectJsonFile().await();
+                    final ProjectSignature dependency1 = ProjectSignature.create("c", "d", "2");
+                    final ProjectSignature dependency2 = ProjectSignature.create("e", "f", "3");
+                    projectJsonFile.setContentsAsString(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency1))
+                        .toString()).await();
+
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertEqual(Iterable.create(dependency1), cache.getDependencies(publishedProjectFolder).await());
+                    test.assertTrue(cache.isModified());
+
+                    // The file's last modified time hasn't changed, so the cached dependencies
+                    // are returned.
+                    projectJsonFile.setContentsAsString(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency2))
+                        .toString()).await();
+                    test.assertEqual(Iterable.create(dependency1), cache.getDependencies(publishedProjectFolder).await());
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    projectJsonFile.setContentsAsString(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency2))
+                        .toString()).await();
+                    test.assertEqual(Iterable.create(dependency2), cache.getDependencies(publishedProjectFolder).await());
+                });
+            });
+
+            runner.testGroup("getDependencyFolders(QubFolder,Iterable<ProjectSignature>,boolean)", () ->
+            {
+                runner.test("with null qubFolder", (Test test) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.getDependencyFolders(null, Iterable.create(), false),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with null projectSignatures",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.getDependencyFolders(process.getQubFolder().await(), null, false),
+                        new PreConditionFailure("projectSignatures cannot be null."));
+                });
+
+                runner.test("with graph that isn't cached",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.getDependencyFolders(process.getQubFolder().await(), Iterable.create(ProjectSignature.create("a", "b", "1")), false).await(),
+                        new NotFoundException("No resolved dependency graph is cached for \"unvalidated:a/b@1\"."));
+                });
+
+                runner.test("only returns graphs whose project.json files haven't changed",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature dependency1 = ProjectSignature.create("a", "b", "1");
+                    final ProjectSignature dependency2 = ProjectSignature.create("c", "d", "2");
+                    final JavaPublishedProjectFolder dependencyFolder1 = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(dependency1).await());
+                    final JavaPublishedProjectFolder dependencyFolder2 = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(dependency2).await());
+                    dependencyFolder1.getProjectJsonFile().await().setContentsAsString(JavaProjectJSON.create()
+                        .setPublisher("a")
+                        .setProject("b")
+                        .setVersion("1")
+                        .setDependencies(Iterable.create(dependency2))
+                        .toString()).await();
+                    final File projectJsonFile2 = dependencyFolder2.getProjectJsonFile().await();
+                    projectJsonFile2.setContentsAsString(JavaProjectJSON.create()
+                        .setPublisher("c")
+                        .setProject("d")
+                        .setVersion("2")
+                        .toString()).await();
+
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    final Iterable<ProjectSignature> roots = Iterable.create(dependency1);
+                    cache.setDependencyFolders(roots, true, Iterable.create(dependencyFolder1, dependencyFolder2)).await();
+                    test.assertTrue(cache.isModified());
+                    test.assertEqual(Iterable.create(dependencyFolder1, dependencyFolder2), cache.getDependencyFolders(qubFolder, roots, true).await());
+
+                    // Graphs that were resolved without validation are stored separately.
+                    test.assertThrows(() -> cache.getDependencyFolders(qubFolder, roots, false).await(),
+                        new NotFoundException("No resolved dependency graph is cached for \"unvalidated:a/b@1\"."));
+
+                    // The file's last modified time hasn't changed, so the cached graph is
+                    // returned.
+                    projectJsonFile2.setContentsAsString(JavaProjectJSON.create()
+                        .setPublisher("c")
+                        .setProject("d")
+                        .setVersion("2")
+                        .setDependencies(Iterable.create(ProjectSignature.create("e", "f", "3")))
+                        .toString()).await();
+                    test.assertEqual(Iterable.create(dependencyFolder1, dependencyFolder2), cache.getDependencyFolders(qubFolder, roots, true).await());
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    projectJsonFile2.setContentsAsString(JavaProjectJSON.create()
+                        .setPublisher("c")
+                        .setProject("d")
+                        .setVersion("2")
+                        .setDependencies(Iterable.create(ProjectSignature.create("e", "f", "3")))
+                        .toString()).await();
+                    test.assertThrows(() -> cache.getDependencyFolders(qubFolder, roots, true).await(),
+                        new NotFoundException("The cached dependency graph for \"validated:a/b@1\" has changed."));
+                });
+            });
+
+            runner.testGroup("setDependencyFolders(Iterable<ProjectSignature>,boolean,Iterable<JavaPublishedProjectFolder>)", () ->
+            {
+                runner.test("with null projectSignatures", (Test test) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.setDependencyFolders(null, false, Iterable.create()),
+                        new PreConditionFailure("projectSignatures cannot be null."));
+                });
+
+                runner.test("with null dependencyFolders", (Test test) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertThrows(() -> cache.setDependencyFolders(Iterable.create(), false, null),
+                        new PreConditionFailure("dependencyFolders cannot be null."));
+                });
+            });
+
+            runner.testGroup("save()", () ->
+            {
+                runner.test("with in-memory cache", (Test test) ->
+                {
+                    final DependencyGraphCache cache = DependencyGraphCache.create();
+                    test.assertNull(cache.save().await());
+                });
+
+                runner.test("with modified cache",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaPublishedProjectFolder publishedProjectFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder("a", "b", "1").await());
+                    final ProjectSignature dependency = ProjectSignature.create("c", "d", "2");
+                    publishedProjectFolder.getProjectJsonFile().await().setContentsAsString(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency))
+                        .toString()).await();
+
+                    final File cacheFile = process.getCurrentFolder().getFile(DependencyGraphCache.fileName).await();
+                    final DependencyGraphCache cache = DependencyGraphCache.get(cacheFile).await();
+                    cache.getDependencies(publishedProjectFolder).await();
+                    cache.save().await();
+                    test.assertFalse(cache.isModified());
+                    test.assertTrue(cacheFile.exists().await());
+
+                    final DependencyGraphCache savedCache = DependencyGraphCache.get(cacheFile).await();
+                    test.assertEqual(cache.toJson(), savedCache.toJson());
+                    test.assertEqual(Iterable.create(dependency), savedCache.getDependencies(publishedProjectFolder).await());
+                    test.assertFalse(savedCache.isModified());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package qub;
+
+public interface DependencyGraphTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(DependencyGraph.class, () ->
+        {
+            runner.testGroup("create(Iterable<ProjectSignature>,Function1<ProjectSignature,Result<Iterable<ProjectSignature>>>)", () ->
+            {
+                runner.test("with null rootProjects", (Test test) ->
+                {
+                    test.assertThrows(() -> DependencyGraph.create((Iterable<ProjectSignature>)null, (ProjectSignature project) -> Result.create(() -> Iterable.create())),
+                        new PreConditionFailure("rootProjects cannot be null."));
+                });
+
+                runner.test("with null getDependencies", (Test test) ->
+                {
+                    test.assertThrows(() -> DependencyGraph.create(Iterable.create(), (Function1<ProjectSignature,Result<Iterable<ProjectSignature>>>)null),
+                        new PreConditionFailure("getDependencies cannot be null."));
+                });
+
+                runner.test("with no root projects", (Test test) ->
+                {
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(), (ProjectSignature project) -> Result.create(() -> Iterable.create())).await();
+                    test.assertEqual(0, graph.getNodeCount());
+                    test.assertEqual(0, graph.getEdgeCount());
+                    test.assertEqual(0, graph.getRootIds().length);
+                    test.assertEqual(Iterable.create(), graph.getVersionConflicts());
+                });
+
+                runner.test("with diamond graph", (Test test) ->
+                {
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "1");
+                    final ProjectSignature c = ProjectSignature.create("c", "c", "1");
+                    final ProjectSignature d = ProjectSignature.create("d", "d", "1");
+                    final MutableMap<String,Iterable<ProjectSignature>> dependencies = MutableMap.create();
+                    dependencies.set(a.toString(), Iterable.create(b, c));
+                    dependencies.set(b.toString(), Iterable.create(d));
+                    dependencies.set(c.toString(), Iterable.create(d));
+                    dependencies.set(d.toString(), Iterable.create());
+                    final List<ProjectSignature> reads = List.create();
+
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(a), (ProjectSignature project) ->
+                    {
+                        reads.add(project);
+                        return dependencies.get(project.toString());
+                    }).await();
+                    test.assertEqual(Iterable.create(a, b, c, d), reads);
+                    test.assertEqual(4, graph.getNodeCount());
+                    test.assertEqual(4, graph.getEdgeCount());
+
+                    final int aId = graph.getNodeId(a).await();
+                    final int dId = graph.getNodeId(d).await();
+                    test.assertEqual(aId, graph.getRootIds()[0]);
+                    test.assertEqual(a, graph.getProject(aId));
+                    test.assertEqual(2, graph.getDependencyIds(aId).length);
+                    test.assertEqual(dId, graph.getDependencyIds(graph.getNodeId(b).await())[0]);
+                    test.assertEqual(dId, graph.getDependencyIds(graph.getNodeId(c).await())[0]);
+                    test.assertEqual(0, graph.getDependencyIds(dId).length);
+                    test.assertNull(graph.getErrorMessage(dId));
+                });
+
+                runner.test("with cycle", (Test test) ->
+                {
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "1");
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(a), (ProjectSignature project) ->
+                    {
+                        return Result.create(() -> Iterable.create(project.equals(a) ? b : a));
+                    }).await();
+                    test.assertEqual(2, graph.getNodeCount());
+                    test.assertEqual(2, graph.getEdgeCount());
+                });
+
+                runner.test("with error", (Test test) ->
+                {
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final MutableMap<String,Iterable<ProjectSignature>> dependencies = MutableMap.create();
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(a), (ProjectSignature project) ->
+                    {
+                        return dependencies.get(project.toString());
+                    }).await();
+                    test.assertEqual(1, graph.getNodeCount());
+                    test.assertEqual(0, graph.getDependencyIds(0).length);
+                    test.assertNotNull(graph.getErrorMessage(0));
+                });
+
+                runner.test("with version conflicts", (Test test) ->
+                {
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b1 = ProjectSignature.create("b", "b", "1");
+                    final ProjectSignature b2 = ProjectSignature.create("b", "b", "2");
+                    final ProjectSignature c = ProjectSignature.create("c", "c", "1");
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(a, c), (ProjectSignature project) ->
+                    {
+                        final Iterable<ProjectSignature> dependencies = project.equals(a)
+                            ? Iterable.create(b1)
+                            : project.equals(c)
+                                ? Iterable.create(b2)
+                                : Iterable.create();
+                        return Result.create(() -> dependencies);
+                    }).await();
+                    test.assertEqual(Iterable.create(Iterable.create(b1, b2)), graph.getVersionConflicts());
+                });
+
+                runner.test("with large layered graph", (Test test) ->
+                {
+                    // Every node in a layer depends on three nodes in the next layer, so walking
+                    // this graph as a tree would visit 3^19 paths. The interned graph reads each
+                    // node's dependencies once.
+                    final int layerCount = 20;
+                    final int layerWidth = 100;
+                    final List<ProjectSignature> roots = List.create();
+                    for (int i = 0; i < layerWidth; ++i)
+                    {
+                        roots.add(ProjectSignature.create("p", "layer0-" + i, "1"));
+                    }
+                    final int[] readCount = new int[1];
+
+                    final DependencyGraph graph = DependencyGraph.create(roots, (ProjectSignature project) ->
+                    {
+                        ++readCount[0];
+                        final String name = project.getProject();
+                        final int dashIndex = name.indexOf('-');
+                        final int layer = Integer.parseInt(name.substring("layer".length(), dashIndex));
+                        final int index = Integer.parseInt(name.substring(dashIndex + 1));
+                        final List<ProjectSignature> dependencies = List.create();
+                        if (layer + 1 < layerCount)
+                        {
+                            for (int i = 0; i < 3; ++i)
+                            {
+                                dependencies.add(ProjectSignature.create("p", "layer" + (layer + 1) + "-" + ((index + i) % layerWidth), "1"));
+                            }
+                        }
+                        return Result.create(() -> dependencies);
+                    }).await();
+                    test.assertEqual(layerCount * layerWidth, graph.getNodeCount());
+                    test.assertEqual(layerCount * layerWidth, readCount[0]);
+                    test.assertEqual((layerCount - 1) * layerWidth * 3, graph.getEdgeCount());
+
+                    final InMemoryCharacterToByteStream outputStream = InMemoryCharacterToByteStream.create();
+                    JavaProjectDependenciesList.writeDependencyTree(graph, IndentedCharacterWriteStream.create(outputStream));
+                    test.assertEqual(layerWidth + graph.getEdgeCount(), outputStream.getText().await().split("\n").length);
+                });
+            });
+
+            runner.testGroup("getNodeId(ProjectSignature)", () ->
+            {
+                runner.test("with unknown project", (Test test) ->
+                {
+                    final DependencyGraph graph = DependencyGraph.create(Iterable.create(), (ProjectSignature project) -> Result.create(() -> Iterable.create())).await();
+                    test.assertThrows(() -> graph.getNodeId(ProjectSignature.create("a", "b", "1")).await(),
+                        new NotFoundException("No node for a/b@1 exists in the dependency graph."));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package qub;
+
+public interface DependentsJSONTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(DependentsJSON.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final DependentsJSON dependentsJson = DependentsJSON.create();
+                test.assertNotNull(dependentsJson);
+                test.assertEqual(JSONObject.create(), dependentsJson.toJson());
+                test.assertEqual(Iterable.create(), dependentsJson.getDependents("a", "b"));
+            });
+
+            runner.testGroup("create(JSONObject)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> DependentsJSON.create((JSONObject)null),
+                        new PreConditionFailure("json cannot be null."));
+                });
+
+                runner.test("with empty JSONObject", (Test test) ->
+                {
+                    final JSONObject json = JSONObject.create();
+                    final DependentsJSON dependentsJson = DependentsJSON.create(json);
+                    test.assertSame(json, dependentsJson.toJson());
+                });
+            });
+
+            runner.testGroup("create(QubFolder)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> DependentsJSON.create((QubFolder)null),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with published projects",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a1 = ProjectSignature.parse("a/a@1").await();
+                    final ProjectSignature b1 = ProjectSignature.parse("b/b@1").await();
+                    final ProjectSignature b2 = ProjectSignature.parse("b/b@2").await();
+                    final ProjectSignature c5 = ProjectSignature.parse("c/c@5").await();
+                    DependentsJSONTests.publish(qubFolder, a1, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, b1, Iterable.create(a1));
+                    DependentsJSONTests.publish(qubFolder, b2, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, c5, Iterable.create(a1));
+
+                    final DependentsJSON dependentsJson = DependentsJSON.create(qubFolder).await();
+                    test.assertEqual(Iterable.create(c5), dependentsJson.getDependents("a", "a"));
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependents("b", "b"));
+                    test.assertEqual(Iterable.create(a1), dependentsJson.getDependencies("c", "c"));
+                });
+            });
+
+            runner.testGroup("getDependents(QubFolder,String,String)", () ->
+            {
+                runner.test("with null qubFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> DependentsJSON.create().getDependents(null, "a", "b"),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with index created from the qub folder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a1 = ProjectSignature.parse("a/a@1").await();
+                    final ProjectSignature b1 = ProjectSignature.parse("b/b@1").await();
+                    DependentsJSONTests.publish(qubFolder, a1, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, b1, Iterable.create(a1));
+
+                    final DependentsJSON dependentsJson = DependentsJSON.create(qubFolder).await();
+                    test.assertEqual(Iterable.create(b1), dependentsJson.getDependents(qubFolder, "a", "a").await());
+                    test.assertEqual(DependentsJSON.create(qubFolder).await().toJson(), dependentsJson.toJson());
+                });
+
+                runner.test("with newer version of a dependent in the qub folder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a1 = ProjectSignature.parse("a/a@1").await();
+                    final ProjectSignature c1 = ProjectSignature.parse("c/c@1").await();
+                    DependentsJSONTests.publish(qubFolder, a1, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.parse("b/b@1").await(), Iterable.create(a1));
+                    DependentsJSONTests.publish(qubFolder, c1, Iterable.create(a1));
+                    final DependentsJSON dependentsJson = DependentsJSON.create(qubFolder).await();
+
+                    final ProjectSignature b2 = ProjectSignature.parse("b/b@2").await();
+                    final ProjectSignature c2 = ProjectSignature.parse("c/c@2").await();
+                    DependentsJSONTests.publish(qubFolder, b2, Iterable.create(a1));
+                    DependentsJSONTests.publish(qubFolder, c2, Iterable.create());
+                    test.assertEqual(Iterable.create(b2), dependentsJson.getDependents(qubFolder, "a", "a").await());
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependencies("c", "c"));
+                });
+
+                runner.test("with dependent that isn't in the qub folder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a1 = ProjectSignature.parse("a/a@1").await();
+                    DependentsJSONTests.publish(qubFolder, a1, Iterable.create());
+                    final DependentsJSON dependentsJson = DependentsJSON.create(qubFolder).await()
+                        .setProject(ProjectSignature.parse("b/b@1").await(), Iterable.create(a1));
+
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependents(qubFolder, "a", "a").await());
+                    test.assertEqual(DependentsJSON.create(qubFolder).await().toJson(), dependentsJson.toJson());
+                });
+
+                runner.test("doesn't read projects that aren't dependents",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a1 = ProjectSignature.parse("a/a@1").await();
+                    DependentsJSONTests.publish(qubFolder, a1, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.parse("b/b@1").await(), Iterable.create());
+                    final DependentsJSON dependentsJson = DependentsJSON.create(qubFolder).await();
+
+                    // b/b isn't a dependent of a/a, so its newer version isn't noticed.
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.parse("b/b@2").await(), Iterable.create(a1));
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependents(qubFolder, "a", "a").await());
+                });
+            });
+
+            runner.testGroup("setProject(ProjectSignature,Iterable<ProjectSignature>)", () ->
+            {
+                runner.test("with null project", (Test test) ->
+                {
+                    final DependentsJSON dependentsJson = DependentsJSON.create();
+                    test.assertThrows(() -> dependentsJson.setProject(null, Iterable.create()),
+                        new PreConditionFailure("project cannot be null."));
+                });
+
+                runner.test("with null dependencies", (Test test) ->
+                {
+                    final DependentsJSON dependentsJson = DependentsJSON.create();
+                    test.assertThrows(() -> dependentsJson.setProject(ProjectSignature.create("a", "b", "1"), null),
+                        new PreConditionFailure("dependencies cannot be null."));
+                });
+
+                runner.test("with new project", (Test test) ->
+                {
+                    final DependentsJSON dependentsJson = DependentsJSON.create();
+                    final ProjectSignature dependency = ProjectSignature.create("a", "b", "1");
+                    final ProjectSignature project = ProjectSignature.create("c", "d", "2");
+                    test.assertSame(dependentsJson, dependentsJson.setProject(project, Iterable.create(dependency)));
+                    test.assertEqual(Iterable.create(dependency), dependentsJson.getDependencies("c", "d"));
+                    test.assertEqual(Iterable.create(project), dependentsJson.getDependents("a", "b"));
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependents("c", "d"));
+                });
+
+                runner.test("with new version that removes a dependency", (Test test) ->
+                {
+                    final DependentsJSON dependentsJson = DependentsJSON.create();
+                    final ProjectSignature dependency1 = ProjectSignature.create("a", "b", "1");
+                    final ProjectSignature dependency2 = ProjectSignature.create("e", "f", "3");
+                    dependentsJson.setProject(ProjectSignature.create("c", "d", "2"), Iterable.create(dependency1, dependency2));
+
+                    final ProjectSignature project = ProjectSignature.create("c", "d", "3");
+                    dependentsJson.setProject(project, Iterable.create(dependency2));
+                    test.assertEqual(Iterable.create(), dependentsJson.getDependents("a", "b"));
+                    test.assertEqual(Iterable.create(project), dependentsJson.getDependents("e", "f"));
+                });
+
+                runner.test("with multiple dependents", (Test test) ->
+                {
+                    final DependentsJSON dependentsJson = DependentsJSON.create();
+                    final ProjectSignature dependency = ProjectSignature.create("a", "b", "1");
+                    final ProjectSignature project1 = ProjectSignature.create("c", "d", "2");
+                    final ProjectSignature project2 = ProjectSignature.create("e", "f", "3");
+                    dependentsJson.setProject(project1, Iterable.create(dependency));
+                    dependentsJson.setProject(project2, Iterable.create(dependency));
+                    test.assertEqual(Iterable.create(project1, project2), dependentsJson.getDependents("a", "b"));
+                });
+            });
+
+            runner.testGroup("parse(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> DependentsJSON.parse(null),
+                        new PreConditionFailure("dependentsJsonFile cannot be null."));
+                });
+
+                runner.test("with written index",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final ProjectSignature project = ProjectSignature.create("c", "d", "2");
+                    final DependentsJSON dependentsJson = DependentsJSON.create()
+                        .setProject(project, Iterable.create(ProjectSignature.create("a", "b", "1")));
+                    final File dependentsJsonFile = process.getCurrentFolder().getFile(DependentsJSON.fileName).await();
+                    dependentsJsonFile.setContentsAsString(dependentsJson.toString(JSONFormat.pretty)).await();
+
+                    final DependentsJSON parsedDependentsJson = DependentsJSON.parse(dependentsJsonFile).await();
+                    test.assertEqual(dependentsJson.toJson(), parsedDependentsJson.toJson());
+                    test.assertEqual(Iterable.create(project), parsedDependentsJson.getDependents("a", "b"));
+                });
+            });
+        });
+    }
+
+    static void publish(QubFolder qubFolder, ProjectSignature project, Iterable<ProjectSignature> dependencies)
+    {
+        final JavaPublishedProjectFolder publishedProjectFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(project).await());
+        publishedProjectFolder.getProjectJsonFile().await()
+            .setContentsAsString(JavaProjectJSON.create()
+                .setPublisher(project.getPublisher())
+                .setProject(project.getProject())
+                .setVersion(project.getVersion().toString())
+                .setDependencies(dependencies)
+                .toString())
+            .await();
+    }
+}
@@ -0,0 +1,141 @@
+package qub;
+
+public interface FatJarWriterTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(FatJarWriter.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final FatJarWriter writer = FatJarWriter.create();
+                test.assertNotNull(writer);
+                test.assertNull(writer.getMainClass());
+                test.assertEqual(Iterable.create(), writer.getJarFiles());
+            });
+
+            runner.testGroup("addJarFile(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final FatJarWriter writer = FatJarWriter.create();
+                    test.assertThrows(() -> writer.addJarFile(null),
+                        new PreConditionFailure("jarFile cannot be null."));
+                });
+
+                runner.test("with jar file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final FatJarWriter writer = FatJarWriter.create();
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    test.assertSame(writer, writer.addJarFile(jarFile));
+                    test.assertEqual(Iterable.create(jarFile), writer.getJarFiles());
+                });
+            });
+
+            runner.testGroup("isExcludedEntry(String)", () ->
+            {
+                final Action2<String,Boolean> isExcludedEntryTest = (String entryName, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(entryName), (Test test) ->
+                    {
+                        test.assertEqual(expected, FatJarWriter.isExcludedEntry(entryName));
+                    });
+                };
+
+                isExcludedEntryTest.run("META-INF/", true);
+                isExcludedEntryTest.run("META-INF/MANIFEST.MF", true);
+                isExcludedEntryTest.run("META-INF/INDEX.LIST", true);
+                isExcludedEntryTest.run("META-INF/SIGNER.SF", true);
+                isExcludedEntryTest.run("META-INF/signer.rsa", true);
+                isExcludedEntryTest.run("META-INF/services/a.B", false);
+                isExcludedEntryTest.run("META-INF/versions/9/a/B.SF", false);
+                isExcludedEntryTest.run("a/B.class", false);
+            });
+
+            runner.testGroup("getInputDigest()", () ->
+            {
+                runner.test("with different main classes",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    test.assertNotEqual(
+                        FatJarWriter.create().setMainClass("a.B").getInputDigest().await(),
+                        FatJarWriter.create().setMainClass("a.C").getInputDigest().await());
+                });
+
+                runner.test("with modified jar file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    jarFile.setContentsAsString("a").await();
+                    final FatJarWriter writer = FatJarWriter.create().addJarFile(jarFile);
+                    final String digest1 = writer.getInputDigest().await();
+                    test.assertEqual(digest1, writer.getInputDigest().await());
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    jarFile.setContentsAsString("b").await();
+                    test.assertNotEqual(digest1, writer.getInputDigest().await());
+                });
+            });
+
+            runner.testGroup("write(File)", () ->
+            {
+                runner.test("with null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final FatJarWriter writer = FatJarWriter.create();
+                    test.assertThrows(() -> writer.write(null),
+                        new PreConditionFailure("fatJarFile cannot be null."));
+                });
+
+                runner.test("with multiple jar files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+
+                    final Folder projectOutputsFolder = currentFolder.getFolder("project").await();
+                    projectOutputsFolder.getFile("a/Main.class").await().setContentsAsString("Main contents").await();
+                    projectOutputsFolder.getFile("a/Shared.class").await().setContentsAsString("project Shared contents").await();
+                    projectOutputsFolder.getFile("META-INF/services/a.Service").await().setContentsAsString("a.ProjectService").await();
+                    final File projectJarFile = currentFolder.getFile("project.jar").await();
+                    JarFileWriter.create().setMainClass("a.Main").write(projectJarFile, projectOutputsFolder).await();
+
+                    final Folder dependencyOutputsFolder = currentFolder.getFolder("dependency").await();
+                    dependencyOutputsFolder.getFile("a/Shared.class").await().setContentsAsString("dependency Shared contents").await();
+                    dependencyOutputsFolder.getFile("b/Library.class").await().setContentsAsString("Library contents").await();
+                    dependencyOutputsFolder.getFile("META-INF/services/a.Service").await().setContentsAsString("b.DependencyService\n").await();
+                    final File dependencyJarFile = currentFolder.getFile("dependency.jar").await();
+                    JarFileWriter.create().write(dependencyJarFile, dependencyOutputsFolder).await();
+
+                    final File fatJarFile = currentFolder.getFile("project.fat.jar").await();
+                    final Iterable<String> duplicateEntries = FatJarWriter.create()
+                        .setMainClass("a.Main")
+                        .addJarFile(projectJarFile)
+                        .addJarFile(dependencyJarFile)
+                        .write(fatJarFile)
+                        .await();
+                    test.assertEqual(
+                        Iterable.create("a/Shared.class in " + dependencyJarFile + " (used the entry from " + projectJarFile + ")"),
+                        duplicateEntries);
+
+                    final List<String> entryNames = List.create();
+                    final MutableMap<String,String> entryContents = MutableMap.create();
+                    final java.util.jar.Manifest manifest = JarFileWriterTests.readJarFile(fatJarFile, entryNames, entryContents);
+                    test.assertEqual("a.Main", manifest.getMainAttributes().getValue(java.util.jar.Attributes.Name.MAIN_CLASS));
+                    test.assertEqual(
+                        Iterable.create("META-INF/services/", "META-INF/services/a.Service", "a/", "a/Main.class", "a/Shared.class", "b/", "b/Library.class"),
+                        entryNames.order(Strings::lessThan));
+                    test.assertEqual("Main contents", entryContents.get("a/Main.class").await());
+                    test.assertEqual("project Shared contents", entryContents.get("a/Shared.class").await());
+                    test.assertEqual("Library contents", entryContents.get("b/Library.class").await());
+                    test.assertEqual("a.ProjectService\nb.DependencyService\n", entryContents.get("META-INF/services/a.Service").await());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package qub;
+
+public interface FileOperationsTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(FileOperations.class, () ->
+        {
+            runner.testGroup("readAllBytes(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.readAllBytes(null),
+                        new PreConditionFailure("file cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    test.assertThrows(() -> FileOperations.readAllBytes(file).await(),
+                        new FileNotFoundException(file));
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    file.setContentsAsString("abc").await();
+                    test.assertEqual(new byte[] { 'a', 'b', 'c' }, FileOperations.readAllBytes(file).await());
+                });
+            });
+
+            runner.testGroup("copy(File,File)", () ->
+            {
+                runner.test("with null source", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.copy(null, null),
+                        new PreConditionFailure("source cannot be null."));
+                });
+
+                runner.test("with non-existing source",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File source = process.getCurrentFolder().getFile("source.txt").await();
+                    final File destination = process.getCurrentFolder().getFile("destination.txt").await();
+                    test.assertThrows(() -> FileOperations.copy(source, destination).await(),
+                        new FileNotFoundException(source));
+                    test.assertFalse(destination.exists().await());
+                });
+
+                runner.test("with existing source larger than the buffer",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final byte[] contents = new byte[FileOperations.bufferSize * 2 + 1];
+                    for (int i = 0; i < contents.length; ++i)
+                    {
+                        contents[i] = (byte)i;
+                    }
+                    final File source = process.getCurrentFolder().getFile("source.bin").await();
+                    source.setContents(contents).await();
+                    final File destination = process.getCurrentFolder().getFile("folder/destination.bin").await();
+
+                    test.assertEqual((long)contents.length, FileOperations.copy(source, destination).await());
+                    test.assertEqual(contents, FileOperations.readAllBytes(destination).await());
+                    test.assertEqual(contents, FileOperations.readAllBytes(source).await());
+                });
+            });
+
+            runner.testGroup("getByteCount(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.getByteCount(null),
+                        new PreConditionFailure("file cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    test.assertThrows(() -> FileOperations.getByteCount(file).await(),
+                        new FileNotFoundException(file));
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("file.txt").await();
+                    file.setContentsAsString("abc").await();
+                    test.assertEqual(3L, FileOperations.getByteCount(file).await());
+                });
+            });
+
+            runner.testGroup("setExecutable(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.setExecutable(null),
+                        new PreConditionFailure("file cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("launcher").await();
+                    test.assertThrows(() -> FileOperations.setExecutable(file).await(),
+                        new FileNotFoundException(file));
+                    test.assertFalse(file.exists().await());
+                });
+
+                runner.test("with existing file in the in-memory file system",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("launcher").await();
+                    file.setContentsAsString("#!/bin/sh").await();
+                    test.assertTrue(FileOperations.setExecutable(file).await());
+                    test.assertEqual("#!/bin/sh", file.getContentsAsString().await());
+                });
+            });
+
+            runner.testGroup("move(File,File)", () ->
+            {
+                runner.test("with null source", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.move((File)null, (File)null),
+                        new PreConditionFailure("source cannot be null."));
+                });
+
+                runner.test("with non-existing source",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File source = process.getCurrentFolder().getFile("source.txt").await();
+                    final File destination = process.getCurrentFolder().getFile("destination.txt").await();
+                    test.assertThrows(() -> FileOperations.move(source, destination).await(),
+                        new FileNotFoundException(source));
+                    test.assertFalse(destination.exists().await());
+                });
+
+                runner.test("with existing destination",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File source = process.getCurrentFolder().getFile("source.txt").await();
+                    source.setContentsAsString("new").await();
+                    final File destination = process.getCurrentFolder().getFile("destination.txt").await();
+                    destination.setContentsAsString("old").await();
+
+                    FileOperations.move(source, destination).await();
+
+                    test.assertFalse(source.exists().await());
+                    test.assertEqual("new", destination.getContentsAsString().await());
+                });
+            });
+
+            runner.testGroup("move(Folder,Folder)", () ->
+            {
+                runner.test("with null source", (Test test) ->
+                {
+                    test.assertThrows(() -> FileOperations.move((Folder)null, (Folder)null),
+                        new PreConditionFailure("source cannot be null."));
+                });
+
+                runner.test("with existing destination",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder source = process.getCurrentFolder().getFolder("source").await();
+                    source.getFile("a.txt").await().setContentsAsString("new").await();
+                    final Folder destination = process.getCurrentFolder().getFolder("destination").await();
+                    destination.getFile("b.txt").await().setContentsAsString("old").await();
+
+                    test.assertThrows(() -> FileOperations.move(source, destination).await(),
+                        new RuntimeException("Can't move " + source + " to " + destination + " because " + destination + " already exists."));
+                    test.assertEqual("new", source.getFile("a.txt").await().getContentsAsString().await());
+                    test.assertEqual("old", destination.getFile("b.txt").await().getContentsAsString().await());
+                    test.assertFalse(destination.getFile("a.txt").await().exists().await());
+                });
+
+                runner.test("with non-existing destination",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder source = process.getCurrentFolder().getFolder("source").await();
+                    source.getFile("a.txt").await().setContentsAsString("a").await();
+                    source.getFile("sub/b.txt").await().setContentsAsString("b").await();
+                    final Folder destination = process.getCurrentFolder().getFolder("parent/destination").await();
+
+                    FileOperations.move(source, destination).await();
+
+                    test.assertFalse(source.exists().await());
+                    test.assertEqual("a", destination.getFile("a.txt").await().getContentsAsString().await());
+                    test.assertEqual("b", destination.getFile("sub/b.txt").await().getContentsAsString().await());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package qub;
+
+public interface JUnitXmlReportWriterTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JUnitXmlReportWriter.class, () ->
+        {
+            runner.testGroup("create(Folder,StackTraceFormat)", () ->
+            {
+                runner.test("with null testResultsFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> JUnitXmlReportWriter.create(null, StackTraceFormat.create()),
+                        new PreConditionFailure("testResultsFolder cannot be null."));
+                });
+
+                runner.test("with null format",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    test.assertThrows(() -> JUnitXmlReportWriter.create(process.getCurrentFolder(), null),
+                        new PreConditionFailure("format cannot be null."));
+                });
+
+                runner.test("with valid arguments",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JUnitXmlReportWriter writer = JUnitXmlReportWriter.create(process.getCurrentFolder(), StackTraceFormat.create());
+                    test.assertNotNull(writer);
+                });
+            });
+
+            runner.testGroup("create(Folder,StackTraceFormat,Function0<Long>)", () ->
+            {
+                runner.test("with null nanoTimeFunction",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    test.assertThrows(() -> JUnitXmlReportWriter.create(process.getCurrentFolder(), StackTraceFormat.create(), null),
+                        new PreConditionFailure("nanoTimeFunction cannot be null."));
+                });
+            });
+
+            runner.testGroup("getTestResultFile(String)", () ->
+            {
+                final Action2<String,Throwable> getTestResultFileErrorTest = (String testClassFullName, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(testClassFullName),
+                        (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                        (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JUnitXmlReportWriter writer = JUnitXmlReportWriter.create(process.getCurrentFolder(), StackTraceFormat.create());
+                        test.assertThrows(() -> writer.getTestResultFile(testClassFullName).await(),
+                            expected);
+                    });
+                };
+
+                getTestResultFileErrorTest.run(null, new PreConditionFailure("testClassFullName cannot be null."));
+                getTestResultFileErrorTest.run("", new PreConditionFailure("testClassFullName cannot be empty."));
+
+                runner.test("with \"a.b.CTests\"",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder testResultsFolder = process.getCurrentFolder().getFolder("test-results").await();
+                    final JUnitXmlReportWriter writer = JUnitXmlReportWriter.create(testResultsFolder, StackTraceFormat.create());
+                    final File testResultFile = writer.getTestResultFile("a.b.CTests").await();
+                    test.assertEqual("TEST-a.b.CTests.xml", testResultFile.relativeTo(testResultsFolder).toString());
+                });
+            });
+
+            runner.testGroup("getSeconds(long)", () ->
+            {
+                final Action2<Long,String> getSecondsTest = (Long nanoseconds, String expected) ->
+                {
+                    runner.test("with " + nanoseconds, (Test test) ->
+                    {
+                        test.assertEqual(expected, JUnitXmlReportWriter.getSeconds(nanoseconds));
+                    });
+                };
+
+                getSecondsTest.run(-1L, "0.000");
+                getSecondsTest.run(0L, "0.000");
+                getSecondsTest.run(999999L, "0.000");
+                getSecondsTest.run(1000000L, "0.001");
+                getSecondsTest.run(12000000L, "0.012");
+                getSecondsTest.run(123000000L, "0.123");
+                getSecondsTest.run(1000000000L, "1.000");
+                getSecondsTest.run(61234000000L, "61.234");
+            });
+
+            runner.testGroup("escape(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JUnitXmlReportWriter.escape(null),
+                        new PreConditionFailure("text cannot be null."));
+                });
+
+                final Action2<String,String> escapeTest = (String text, String expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertEqual(expected, JUnitXmlReportWriter.escape(text));
+                    });
+                };
+
+                escapeTest.run("", "");
+                escapeTest.run("abc", "abc");
+                escapeTest.run("a < b", "a &lt; b");
+                escapeTest.run("a > b", "a &gt; b");
+                escapeTest.run("a & b", "a &amp; b");
+                escapeTest.run("\"a\"", "&quot;a&quot;");
+                escapeTest.run("'a'", "&apos;a&apos;");
+                escapeTest.run("a\tb\nc\rd", "a\tb\nc\rd");
+                escapeTest.run("a\u0000b\u001Bc", "abc");
+            });
+
+            runner.testGroup("afterTestClass(TestClass)", () ->
+            {
+                runner.test("with null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JUnitXmlReportWriter writer = JUnitXmlReportWriter.create(process.getCurrentFolder(), StackTraceFormat.create());
+                    test.assertThrows(() -> writer.afterTestClass(null),
+                        new PreConditionFailure("testClass cannot be null."));
+                });
+
+                runner.test("after passed, failed, and skipped tests",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    TestParent testParent = test.getParent();
+                    while (testParent != null && !(testParent instanceof TestClass))
+                    {
+                        testParent = testParent.getParent();
+                    }
+                    final TestClass testClass = (TestClass)testParent;
+                    test.assertNotNull(testClass);
+
+                    // Each call to the nano time function is one millisecond after the previous call.
+                    final long[] nanoTime = new long[1];
+                    final Folder testResultsFolder = process.getCurrentFolder().getFolder("test-results").await();
+                    final JUnitXmlReportWriter writer = JUnitXmlReportWriter.create(testResultsFolder, StackTraceFormat.create(), () ->
+                    {
+                        nanoTime[0] += 1000000;
+                        return nanoTime[0];
+                    });
+
+                    TestError failure = null;
+                    try
+                    {
+                        test.assertEqual("<a & b>", "c");
+                    }
+                    catch (TestError e)
+                    {
+                        failure = e;
+                    }
+                    test.assertNotNull(failure);
+
+                    writer.beforeTest(test);
+                    writer.afterTestSuccess(test);
+                    writer.beforeTest(test);
+                    writer.afterTestFailure(test, failure);
+                    writer.afterTestSkipped(test);
+                    final File testResultFile = writer.afterTestClass(testClass).await();
+                    test.assertEqual(writer.getTestResultFile(testClass.getFullName()).await(), testResultFile);
+
+                    final String testCaseStart = "  <testcase" +
+                        " classname=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestClassName(test.getParent())) + "\"" +
+                        " name=\"" + JUnitXmlReportWriter.escape(JUnitXmlReportWriter.getTestCaseName(test)) + "\"";
+                    final String testResultText = testResultFile.getContentsAsString().await();
+                    final String[] testResultLines = testResultText.split("\n");
+                    test.assertEqual("<?xml version=\"1.0\" encoding=\"UTF-8\"?>", testResultLines[0].trim());
+                    test.assertEqual("<testsuite name=\"" + JUnitXmlReportWriter.escape(testClass.getFullName()) + "\" tests=\"3\" failures=\"1\" errors=\"0\" skipped=\"1\" time=\"0.005\">", testResultLines[1].trim());
+                    test.assertEqual(testCaseStart + " time=\"0.001\"/>", testResultLines[2]);
+                    test.assertEqual(testCaseStart + " time=\"0.001\">", testResultLines[3]);
+                    test.assertTrue(testResultLines[4].trim().startsWith("<failure message=\""));
+                    test.assertTrue(testResultText.contains("&lt;a &amp; b&gt;"));
+                    test.assertFalse(testResultText.contains("<a & b>"));
+                    test.assertTrue(testResultText.contains("</failure>\n  </testcase>\n" + testCaseStart + " time=\"0.000\">\n    <skipped/>\n  </testcase>\n</testsuite>"));
+
+                    final File emptyTestResultFile = writer.afterTestClass(testClass).await();
+                    test.assertTrue(emptyTestResultFile.getContentsAsString().await().contains(" tests=\"0\" failures=\"0\" errors=\"0\" skipped=\"0\""));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package qub;
+
+public interface JacocoAgentTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JacocoAgent.class, () ->
+        {
+            runner.test("get()", (Test test) ->
+            {
+                // Whether an agent is attached depends on whether these tests are being run with
+                // code coverage enabled.
+                final JacocoAgent agent = JacocoAgent.get()
+                    .catchError(NotFoundException.class)
+                    .await();
+                if (agent != null)
+                {
+                    test.assertNotNull(agent.getExecutionData(false).await());
+                }
+            });
+
+            runner.test("create(Function1<Boolean,byte[]>)", (Test test) ->
+            {
+                final List<Boolean> resets = List.create();
+                final JacocoAgent agent = JacocoAgent.create((Boolean reset) ->
+                {
+                    resets.add(reset);
+                    return new byte[] { 1, 2, 3 };
+                });
+                test.assertEqual(new byte[] { 1, 2, 3 }, agent.getExecutionData(true).await());
+                test.assertEqual(new byte[] { 1, 2, 3 }, agent.getExecutionData(false).await());
+                test.assertEqual(Iterable.create(true, false), resets);
+            });
+        });
+    }
+}
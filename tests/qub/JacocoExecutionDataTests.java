@@ -0,0 +1,188 @@
+package qub;
+
+public interface JacocoExecutionDataTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JacocoExecutionData.class, () ->
+        {
+            runner.testGroup("parse(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.parse((byte[])null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with no bytes", (Test test) ->
+                {
+                    final JacocoExecutionData executionData = JacocoExecutionData.parse(new byte[0]).await();
+                    test.assertEqual(Iterable.create(), executionData.getClassNames());
+                });
+
+                runner.test("with invalid magic number", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.parse(new byte[] { 0x01, 0x12, 0x34, 0x10, 0x07 }).await(),
+                        new ParseException("Invalid JaCoCo execution data header."));
+                });
+
+                runner.test("with unknown block type", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.parse(new byte[] { 0x05 }).await(),
+                        new ParseException("Unknown JaCoCo execution data block type: 5"));
+                });
+
+                runner.test("with truncated execution data", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.parse(new byte[] { 0x01, (byte)0xC0 }).await(),
+                        new ParseException("Unexpected end of JaCoCo execution data."));
+                });
+
+                runner.test("with execution data", (Test test) ->
+                {
+                    final MutableMap<String,Long> classIds = MutableMap.create();
+                    classIds.set("a/A", 1L);
+                    classIds.set("a/B", -2L);
+                    final JacocoExecutionData executionData = JacocoExecutionData.parse(JacocoExecutionDataTests.createExecutionData(classIds)).await();
+                    test.assertEqual(Iterable.create("a/A", "a/B"), executionData.getClassNames());
+                    test.assertEqual(1L, executionData.getClassId("a/A").await());
+                    test.assertEqual(-2L, executionData.getClassId("a/B").await());
+                    test.assertNull(executionData.getClassId("a/C").catchError(NotFoundException.class).await());
+                });
+
+                runner.test("with appended execution data", (Test test) ->
+                {
+                    final MutableMap<String,Long> classIds1 = MutableMap.create();
+                    classIds1.set("a/A", 1L);
+                    final MutableMap<String,Long> classIds2 = MutableMap.create();
+                    classIds2.set("a/B", 2L);
+                    final byte[] executionData1 = JacocoExecutionDataTests.createExecutionData(classIds1);
+                    final byte[] executionData2 = JacocoExecutionDataTests.createExecutionData(classIds2);
+                    final byte[] bytes = new byte[executionData1.length + executionData2.length];
+                    System.arraycopy(executionData1, 0, bytes, 0, executionData1.length);
+                    System.arraycopy(executionData2, 0, bytes, executionData1.length, executionData2.length);
+
+                    final JacocoExecutionData executionData = JacocoExecutionData.parse(bytes).await();
+                    test.assertEqual(Iterable.create("a/A", "a/B"), executionData.getClassNames());
+                });
+            });
+
+            runner.testGroup("parse(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.parse((File)null),
+                        new PreConditionFailure("execFile cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File execFile = process.getCurrentFolder().getFile("coverage.exec").await();
+                    test.assertThrows(() -> JacocoExecutionData.parse(execFile).await(),
+                        new FileNotFoundException(execFile));
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final MutableMap<String,Long> classIds = MutableMap.create();
+                    classIds.set("a/A", 3L);
+                    final File execFile = process.getCurrentFolder().getFile("coverage.exec").await();
+                    execFile.setContents(JacocoExecutionDataTests.createExecutionData(classIds)).await();
+
+                    final JacocoExecutionData executionData = JacocoExecutionData.parse(execFile).await();
+                    test.assertEqual(3L, executionData.getClassId("a/A").await());
+                });
+            });
+
+            runner.testGroup("getClassId(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.getClassId((byte[])null),
+                        new PreConditionFailure("classFileBytes cannot be null."));
+                });
+
+                runner.test("with no bytes", (Test test) ->
+                {
+                    test.assertEqual(0L, JacocoExecutionData.getClassId(new byte[0]));
+                });
+
+                runner.test("with different bytes", (Test test) ->
+                {
+                    test.assertNotEqual(
+                        JacocoExecutionData.getClassId(new byte[] { 1, 2, 3 }),
+                        JacocoExecutionData.getClassId(new byte[] { 1, 2, 4 }));
+                });
+
+                runner.test("with Java 9 class file version", (Test test) ->
+                {
+                    final byte[] java8ClassFileBytes = new byte[] { (byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE, 0x00, 0x00, 0x00, 52, 0x01 };
+                    final byte[] java9ClassFileBytes = new byte[] { (byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE, 0x00, 0x00, 0x00, 53, 0x01 };
+                    final byte[] java10ClassFileBytes = new byte[] { (byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE, 0x00, 0x00, 0x00, 54, 0x01 };
+                    test.assertEqual(JacocoExecutionData.getClassId(java8ClassFileBytes), JacocoExecutionData.getClassId(java9ClassFileBytes));
+                    test.assertNotEqual(JacocoExecutionData.getClassId(java8ClassFileBytes), JacocoExecutionData.getClassId(java10ClassFileBytes));
+                });
+            });
+
+            runner.testGroup("getClassId(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoExecutionData.getClassId((File)null),
+                        new PreConditionFailure("classFile cannot be null."));
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File classFile = process.getCurrentFolder().getFile("A.class").await();
+                    classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                    test.assertEqual(JacocoExecutionData.getClassId(new byte[] { 1, 2, 3 }), JacocoExecutionData.getClassId(classFile).await());
+                });
+            });
+        });
+    }
+
+    /**
+     * Create execution data in the JaCoCo exec file format that records the provided classes.
+     * Each class is recorded with three probes.
+     * @param classIds The names of the classes to record mapped to their class ids.
+     * @return The execution data.
+     */
+    static byte[] createExecutionData(Map<String,Long> classIds)
+    {
+        PreCondition.assertNotNull(classIds, "classIds");
+
+        final java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+        try (final java.io.DataOutputStream output = new java.io.DataOutputStream(result))
+        {
+            output.writeByte(0x01);
+            output.writeChar(0xC0C0);
+            output.writeChar(0x1007);
+
+            output.writeByte(0x10);
+            output.writeUTF("fake-session");
+            output.writeLong(0);
+            output.writeLong(0);
+
+            for (final MapEntry<String,Long> classId : classIds)
+            {
+                output.writeByte(0x11);
+                output.writeLong(classId.getValue());
+                output.writeUTF(classId.getKey());
+                output.writeByte(3);
+                output.writeByte(0x05);
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,34 @@
+package qub;
+
+public interface JacocoReportTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JacocoReport.class, () ->
+        {
+            runner.testGroup("load(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JacocoReport.load(null),
+                        new PreConditionFailure("jacococliJarFile cannot be null."));
+                });
+
+                runner.test("with file that isn't on the local disk",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jacococliJarFile = process.getCurrentFolder().getFile("jacococli.jar").await();
+                    final java.io.ByteArrayOutputStream jarBytes = new java.io.ByteArrayOutputStream();
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(jarBytes))
+                    {
+                        writer.addFile("a/B.class", new byte[] { 1, 2, 3 }).await();
+                    }
+                    jacococliJarFile.setContents(jarBytes.toByteArray()).await();
+                    test.assertThrows(() -> JacocoReport.load(jacococliJarFile).await(),
+                        new NotFoundException("The JaCoCo type \"org.jacoco.core.analysis.Analyzer\" could not be found."));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package qub;
+
+public interface JarClassIndexCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JarClassIndexCache.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JarClassIndexCache cache = JarClassIndexCache.create();
+                test.assertNotNull(cache);
+                test.assertNull(cache.getCacheFile());
+                test.assertFalse(cache.isModified());
+                test.assertEqual(JSONObject.create(), cache.toJson());
+            });
+
+            runner.testGroup("get(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JarClassIndexCache.get((File)null),
+                        new PreConditionFailure("cacheFile cannot be null."));
+                });
+
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File cacheFile = process.getCurrentFolder().getFile(JarClassIndexCache.fileName).await();
+                    final JarClassIndexCache cache = JarClassIndexCache.get(cacheFile).await();
+                    test.assertSame(cacheFile, cache.getCacheFile());
+                    test.assertEqual(JSONObject.create(), cache.toJson());
+                });
+
+                runner.test("with invalid file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File cacheFile = process.getCurrentFolder().getFile(JarClassIndexCache.fileName).await();
+                    cacheFile.setContentsAsString("[").await();
+                    final JarClassIndexCache cache = JarClassIndexCache.get(cacheFile).await();
+                    test.assertEqual(JSONObject.create(), cache.toJson());
+                });
+            });
+
+            runner.testGroup("get(DesktopProcess)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JarClassIndexCache.get((DesktopProcess)null),
+                        new PreConditionFailure("process cannot be null."));
+                });
+
+                runner.test("with non-null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JarClassIndexCache cache = JarClassIndexCache.get(process).await();
+                    test.assertEqual(
+                        process.getQubProjectDataFolder().await().getFile(JarClassIndexCache.fileName).await(),
+                        cache.getCacheFile());
+                });
+            });
+
+            runner.testGroup("setClassNames(File,DateTime,Iterable<String>)", () ->
+            {
+                runner.test("with null jarFile", (Test test) ->
+                {
+                    final JarClassIndexCache cache = JarClassIndexCache.create();
+                    test.assertThrows(() -> cache.setClassNames(null, DateTime.create(2020, 1, 2), Iterable.create()),
+                        new PreConditionFailure("jarFile cannot be null."));
+                });
+
+                runner.test("with class names",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final DateTime lastModified = DateTime.create(2020, 1, 2);
+                    final JarClassIndexCache cache = JarClassIndexCache.create();
+                    test.assertSame(cache, cache.setClassNames(jarFile, lastModified, Iterable.create("a/A", "a/B")));
+                    test.assertTrue(cache.isModified());
+                    test.assertEqual(Iterable.create("a/A", "a/B"), cache.getClassNames(jarFile, lastModified));
+                    test.assertNull(cache.getReferencedClassNames(jarFile, lastModified));
+                    test.assertNull(cache.getClassNames(jarFile, DateTime.create(2020, 1, 3)));
+                });
+
+                runner.test("removes referenced class names of an older jar file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final DateTime lastModified1 = DateTime.create(2020, 1, 2);
+                    final DateTime lastModified2 = DateTime.create(2020, 1, 3);
+                    final JarClassIndexCache cache = JarClassIndexCache.create()
+                        .setClassNames(jarFile, lastModified1, Iterable.create("a/A"))
+                        .setReferencedClassNames(jarFile, lastModified1, Iterable.create("b/B"));
+
+                    cache.setClassNames(jarFile, lastModified2, Iterable.create("a/A"));
+                    test.assertNull(cache.getReferencedClassNames(jarFile, lastModified2));
+                });
+            });
+
+            runner.testGroup("setReferencedClassNames(File,DateTime,Iterable<String>)", () ->
+            {
+                runner.test("without class names",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final JarClassIndexCache cache = JarClassIndexCache.create();
+                    test.assertThrows(() -> cache.setReferencedClassNames(jarFile, DateTime.create(2020, 1, 2), Iterable.create("b/B")),
+                        new PreConditionFailure("this.getClassNames(jarFile, lastModified) cannot be null."));
+                });
+
+                runner.test("with class names",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final DateTime lastModified = DateTime.create(2020, 1, 2);
+                    final JarClassIndexCache cache = JarClassIndexCache.create()
+                        .setClassNames(jarFile, lastModified, Iterable.create("a/A"));
+                    test.assertSame(cache, cache.setReferencedClassNames(jarFile, lastModified, Iterable.create("b/B")));
+                    test.assertEqual(Iterable.create("b/B"), cache.getReferencedClassNames(jarFile, lastModified));
+                    test.assertEqual(Iterable.create("a/A"), cache.getClassNames(jarFile, lastModified));
+                });
+            });
+
+            runner.testGroup("save()", () ->
+            {
+                runner.test("with in-memory cache", (Test test) ->
+                {
+                    final JarClassIndexCache cache = JarClassIndexCache.create();
+                    test.assertNull(cache.save().await());
+                });
+
+                runner.test("with modified cache",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final DateTime lastModified = DateTime.create(2020, 1, 2);
+                    final File cacheFile = process.getCurrentFolder().getFile(JarClassIndexCache.fileName).await();
+                    final JarClassIndexCache cache = JarClassIndexCache.get(cacheFile).await()
+                        .setClassNames(jarFile, lastModified, Iterable.create("a/A"));
+                    cache.save().await();
+                    test.assertFalse(cache.isModified());
+                    test.assertTrue(cacheFile.exists().await());
+
+                    final JarClassIndexCache savedCache = JarClassIndexCache.get(cacheFile).await();
+                    test.assertEqual(cache.toJson(), savedCache.toJson());
+                    test.assertEqual(Iterable.create("a/A"), savedCache.getClassNames(jarFile, lastModified));
+                });
+            });
+        });
+    }
+}
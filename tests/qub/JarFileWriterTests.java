@@ -0,0 +1,310 @@
+package qub;
+
+public interface JarFileWriterTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JarFileWriter.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JarFileWriter writer = JarFileWriter.create();
+                test.assertNotNull(writer);
+                test.assertNull(writer.getMainClass());
+            });
+
+            runner.testGroup("setMainClass(String)", () ->
+            {
+                final Action1<String> setMainClassTest = (String mainClassFullTypeName) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(mainClassFullTypeName), (Test test) ->
+                    {
+                        final JarFileWriter writer = JarFileWriter.create();
+                        test.assertSame(writer, writer.setMainClass(mainClassFullTypeName));
+                        test.assertEqual(mainClassFullTypeName, writer.getMainClass());
+                    });
+                };
+
+                setMainClassTest.run(null);
+                setMainClassTest.run("");
+                setMainClassTest.run("a.b.C");
+            });
+
+            runner.testGroup("setCompressionLevel(int)", () ->
+            {
+                runner.test("with 10", (Test test) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create();
+                    test.assertThrows(() -> writer.setCompressionLevel(10),
+                        new PreConditionFailure("compressionLevel (10) must be between -1 and 9."));
+                    test.assertEqual(-1, writer.getCompressionLevel());
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create();
+                    test.assertSame(writer, writer.setCompressionLevel(1));
+                    test.assertEqual(1, writer.getCompressionLevel());
+                });
+            });
+
+            runner.testGroup("createManifest()", () ->
+            {
+                runner.test("with no main class or created by", (Test test) ->
+                {
+                    final java.util.jar.Attributes attributes = JarFileWriter.create().createManifest().getMainAttributes();
+                    test.assertEqual(1, attributes.size());
+                    test.assertEqual("1.0", attributes.getValue(java.util.jar.Attributes.Name.MANIFEST_VERSION));
+                });
+
+                runner.test("with main class and created by", (Test test) ->
+                {
+                    final java.util.jar.Attributes attributes = JarFileWriter.create()
+                        .setMainClass("a.b.C")
+                        .setCreatedBy("fake-created-by")
+                        .createManifest()
+                        .getMainAttributes();
+                    test.assertEqual(3, attributes.size());
+                    test.assertEqual("1.0", attributes.getValue(java.util.jar.Attributes.Name.MANIFEST_VERSION));
+                    test.assertEqual("a.b.C", attributes.getValue(java.util.jar.Attributes.Name.MAIN_CLASS));
+                    test.assertEqual("fake-created-by", attributes.getValue("Created-By"));
+                });
+            });
+
+            runner.testGroup("write(File,Folder)", () ->
+            {
+                runner.test("with null jarFile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create();
+                    test.assertThrows(() -> writer.write(null, process.getCurrentFolder()),
+                        new PreConditionFailure("jarFile cannot be null."));
+                });
+
+                runner.test("with null baseFolder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create();
+                    final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+                    test.assertThrows(() -> writer.write(jarFile, null),
+                        new PreConditionFailure("baseFolder cannot be null."));
+                });
+
+                runner.test("with files and folders",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder baseFolder = process.getCurrentFolder().getFolder("outputs").await();
+                    baseFolder.getFile("a/B.class").await().setContentsAsString("B contents").await();
+                    baseFolder.getFile("C.class").await().setContentsAsString("C contents").await();
+                    final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+
+                    final JarFileWriter writer = JarFileWriter.create()
+                        .setMainClass("C");
+                    test.assertNull(writer.write(jarFile, baseFolder).await());
+
+                    final List<String> entryNames = List.create();
+                    final MutableMap<String,String> entryContents = MutableMap.create();
+                    final java.util.jar.Manifest manifest = JarFileWriterTests.readJarFile(jarFile, entryNames, entryContents);
+                    test.assertEqual("C", manifest.getMainAttributes().getValue(java.util.jar.Attributes.Name.MAIN_CLASS));
+
+                    test.assertEqual(Iterable.create("C.class", "a/", "a/B.class"), entryNames.order(Strings::lessThan));
+                    test.assertEqual("B contents", entryContents.get("a/B.class").await());
+                    test.assertEqual("C contents", entryContents.get("C.class").await());
+                });
+            });
+
+            runner.testGroup("update(File,Folder,Iterable<Path>)", () ->
+            {
+                runner.test("with null unchangedFileRelativePaths",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create();
+                    final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+                    test.assertThrows(() -> writer.update(jarFile, process.getCurrentFolder(), null),
+                        new PreConditionFailure("unchangedFileRelativePaths cannot be null."));
+                });
+
+                runner.test("with non-existing jar file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder baseFolder = process.getCurrentFolder().getFolder("outputs").await();
+                    baseFolder.getFile("C.class").await().setContentsAsString("C contents").await();
+                    final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+
+                    final JarFileWriter writer = JarFileWriter.create();
+                    test.assertEqual(0, writer.update(jarFile, baseFolder, Iterable.create(Path.parse("C.class"))).await());
+                    test.assertTrue(jarFile.exists().await());
+                });
+
+                runner.test("with unchanged and changed files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder baseFolder = process.getCurrentFolder().getFolder("outputs").await();
+                    final File bClassFile = baseFolder.getFile("a/B.class").await();
+                    final File cClassFile = baseFolder.getFile("C.class").await();
+                    bClassFile.setContentsAsString("B contents").await();
+                    cClassFile.setContentsAsString("C contents").await();
+                    final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+
+                    final JarFileWriter writer = JarFileWriter.create();
+                    writer.write(jarFile, baseFolder).await();
+
+                    cClassFile.setContentsAsString("new C contents").await();
+                    baseFolder.getFile("D.class").await().setContentsAsString("D contents").await();
+
+                    test.assertEqual(1, writer.update(jarFile, baseFolder, Iterable.create(Path.parse("a/B.class"))).await());
+
+                    final List<String> entryNames = List.create();
+                    final MutableMap<String,String> entryContents = MutableMap.create();
+                    final java.util.jar.Manifest manifest = JarFileWriterTests.readJarFile(jarFile, entryNames, entryContents);
+                    test.assertNotNull(manifest);
+
+                    test.assertEqual(Iterable.create("C.class", "D.class", "a/", "a/B.class"), entryNames.order(Strings::lessThan));
+                    test.assertEqual("B contents", entryContents.get("a/B.class").await());
+                    test.assertEqual("new C contents", entryContents.get("C.class").await());
+                    test.assertEqual("D contents", entryContents.get("D.class").await());
+                });
+            });
+
+            runner.testGroup("write(File,Folder) with compression executor", () ->
+            {
+                final Action1<Integer> writeTest = (Integer threadCount) ->
+                {
+                    runner.test("with " + threadCount + " thread" + (threadCount == 1 ? "" : "s"),
+                        (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                        (Test test, FakeDesktopProcess process) ->
+                    {
+                        // There are more files than the number of compressions that can be pending
+                        // at once, so the writer has to keep starting compressions as it writes.
+                        final Folder baseFolder = process.getCurrentFolder().getFolder("outputs").await();
+                        for (int i = 0; i < 20; ++i)
+                        {
+                            baseFolder.getFile("C" + i + ".class").await().setContentsAsString("C" + i + " contents").await();
+                        }
+                        baseFolder.getFile("d/E.class").await().setContentsAsString("E contents").await();
+                        final File jarFile = process.getCurrentFolder().getFile("fake.jar").await();
+
+                        try (final DaemonExecutor compressionExecutor = DaemonExecutor.create(threadCount))
+                        {
+                            JarFileWriter.create()
+                                .setCompressionLevel(9)
+                                .setCompressionExecutor(compressionExecutor)
+                                .write(jarFile, baseFolder)
+                                .await();
+                        }
+
+                        final List<String> entryNames = List.create();
+                        final MutableMap<String,String> entryContents = MutableMap.create();
+                        JarFileWriterTests.readJarFile(jarFile, entryNames, entryContents);
+
+                        // Entries are written in the order that the base folder's entries are
+                        // iterated, even though they are compressed in parallel.
+                        test.assertEqual(
+                            baseFolder.iterateEntriesRecursively()
+                                .map((FileSystemEntry entry) -> entry.relativeTo(baseFolder).toString().replace('\\', '/') + (entry instanceof Folder ? "/" : ""))
+                                .toList(),
+                            entryNames);
+                        for (int i = 0; i < 20; ++i)
+                        {
+                            test.assertEqual("C" + i + " contents", entryContents.get("C" + i + ".class").await());
+                        }
+                        test.assertEqual("E contents", entryContents.get("d/E.class").await());
+                    });
+                };
+
+                writeTest.run(1);
+                writeTest.run(4);
+            });
+
+            runner.testGroup("setDeterministic(boolean)", () ->
+            {
+                runner.test("with true", (Test test) ->
+                {
+                    final JarFileWriter writer = JarFileWriter.create()
+                        .setCreatedBy("fake-created-by");
+                    test.assertFalse(writer.getDeterministic());
+                    test.assertSame(writer, writer.setDeterministic(true));
+                    test.assertTrue(writer.getDeterministic());
+
+                    final java.util.jar.Attributes attributes = writer.createManifest().getMainAttributes();
+                    test.assertNull(attributes.getValue("Created-By"));
+                });
+
+                runner.test("write(File,Folder) produces identical bytes for identical files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final ManualClock clock = process.getClock();
+
+                    final Folder baseFolder1 = currentFolder.getFolder("outputs1").await();
+                    baseFolder1.getFile("b/C.class").await().setContentsAsString("C contents").await();
+                    baseFolder1.getFile("A.class").await().setContentsAsString("A contents").await();
+
+                    clock.advance(Duration.minutes(5)).await();
+                    final Folder baseFolder2 = currentFolder.getFolder("outputs2").await();
+                    baseFolder2.getFile("A.class").await().setContentsAsString("A contents").await();
+                    baseFolder2.getFile("b/C.class").await().setContentsAsString("C contents").await();
+
+                    final File jarFile1 = currentFolder.getFile("fake1.jar").await();
+                    final File jarFile2 = currentFolder.getFile("fake2.jar").await();
+                    final JarFileWriter writer = JarFileWriter.create()
+                        .setDeterministic(true)
+                        .setMainClass("A");
+                    writer.write(jarFile1, baseFolder1).await();
+                    writer.write(jarFile2, baseFolder2).await();
+
+                    test.assertEqual(ContentHash.get(jarFile1).await(), ContentHash.get(jarFile2).await());
+
+                    final List<String> entryNames = List.create();
+                    JarFileWriterTests.readJarFile(jarFile1, entryNames, MutableMap.create());
+                    test.assertEqual(Iterable.create("A.class", "b/", "b/C.class"), entryNames);
+                });
+            });
+        });
+    }
+
+    /**
+     * Read the entries of the provided jar file with the JDK's {@link java.util.jar.JarInputStream}.
+     * @param jarFile The jar file to read.
+     * @param entryNames The list that the names of the jar file's entries will be added to.
+     * @param entryContents The map that the contents of the jar file's file entries will be added
+     *                      to.
+     * @return The jar file's manifest.
+     */
+    static java.util.jar.Manifest readJarFile(File jarFile, List<String> entryNames, MutableMap<String,String> entryContents)
+    {
+        try (final java.util.jar.JarInputStream jarStream = new java.util.jar.JarInputStream(ByteReadStreamInputStream.create(jarFile.getContentsReadStream().await())))
+        {
+            java.util.jar.JarEntry entry = jarStream.getNextJarEntry();
+            while (entry != null)
+            {
+                entryNames.add(entry.getName());
+                if (!entry.isDirectory())
+                {
+                    final java.io.ByteArrayOutputStream contents = new java.io.ByteArrayOutputStream();
+                    final byte[] buffer = new byte[1024];
+                    int bytesRead = jarStream.read(buffer, 0, buffer.length);
+                    while (bytesRead != -1)
+                    {
+                        contents.write(buffer, 0, bytesRead);
+                        bytesRead = jarStream.read(buffer, 0, buffer.length);
+                    }
+                    entryContents.set(entry.getName(), new String(contents.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+                }
+                entry = jarStream.getNextJarEntry();
+            }
+            return jarStream.getManifest();
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+}
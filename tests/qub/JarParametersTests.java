@@ -500,6 +500,21 @@ public interface JarParametersTests
                 addContentPathWithWorkingFolderPathTest.run(Path.parse("relative/fake-manifest-file"), "/working/folder/", Iterable.create("relative/fake-manifest-file"));
                 addContentPathWithWorkingFolderPathTest.run(Path.parse("/rooted/fake-manifest-file"), "/working/folder/", Iterable.create("../../rooted/fake-manifest-file"));
             });
+
+            runner.test("addContentPaths(Iterable<Path>) with content paths longer than the argument file threshold",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final Folder argumentFileFolder = process.getCurrentFolder().getFolder("argfiles").await();
+                final JarParameters parameters = JarParameters.create()
+                    .setWorkingFolderPath("/working/folder/")
+                    .setArgumentFileFolder(argumentFileFolder)
+                    .setArgumentFileThreshold(10);
+                test.assertSame(parameters, parameters.addContentPaths(Iterable.create(Path.parse("/working/folder/A.class"), Path.parse("relative/B.class"))));
+                final File argumentFile = argumentFileFolder.getFile("jar-contents.args").await();
+                test.assertEqual(Iterable.create("@" + argumentFile), parameters.getArguments());
+                test.assertEqual("\"A.class\"\n\"relative/B.class\"\n", argumentFile.getContentsAsString().await());
+            });
         });
     }
 }
@@ -309,6 +309,92 @@ public interface JavaParametersTests
                 addShowVersionTest.run(JavaVersionDestination.StandardOutput, "--show-version");
                 addShowVersionTest.run(JavaVersionDestination.StandardError, "-showversion");
             });
+
+            runner.testGroup("addJarFile(String)", () ->
+            {
+                final Action2<String,Throwable> addJarFileErrorTest = (String jarFilePath, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(jarFilePath), (Test test) ->
+                    {
+                        final JavaParameters parameters = JavaParameters.create();
+                        test.assertThrows(() -> parameters.addJarFile(jarFilePath),
+                            expected);
+                        test.assertEqual(Iterable.create(), parameters.getArguments());
+                    });
+                };
+
+                addJarFileErrorTest.run(null, new PreConditionFailure("jarFilePath cannot be null."));
+                addJarFileErrorTest.run("", new PreConditionFailure("jarFilePath cannot be empty."));
+
+                runner.test("with outputs/a.fat.jar", (Test test) ->
+                {
+                    final JavaParameters parameters = JavaParameters.create();
+                    test.assertSame(parameters, parameters.addJarFile("outputs/a.fat.jar"));
+                    test.assertEqual(Iterable.create("-jar", "outputs/a.fat.jar"), parameters.getArguments());
+                });
+            });
+
+            runner.testGroup("addArchiveClassesAtExit(String)", () ->
+            {
+                final Action2<String,Throwable> addArchiveClassesAtExitErrorTest = (String archiveFilePath, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(archiveFilePath), (Test test) ->
+                    {
+                        final JavaParameters parameters = JavaParameters.create();
+                        test.assertThrows(() -> parameters.addArchiveClassesAtExit(archiveFilePath),
+                            expected);
+                        test.assertEqual(Iterable.create(), parameters.getArguments());
+                    });
+                };
+
+                addArchiveClassesAtExitErrorTest.run(null, new PreConditionFailure("archiveFilePath cannot be null."));
+                addArchiveClassesAtExitErrorTest.run("", new PreConditionFailure("archiveFilePath cannot be empty."));
+
+                runner.test("with outputs/a.jsa", (Test test) ->
+                {
+                    final JavaParameters parameters = JavaParameters.create();
+                    test.assertSame(parameters, parameters.addArchiveClassesAtExit("outputs/a.jsa"));
+                    test.assertEqual(Iterable.create("-XX:ArchiveClassesAtExit=outputs/a.jsa"), parameters.getArguments());
+                });
+            });
+
+            runner.testGroup("addSharedArchiveFile(String)", () ->
+            {
+                final Action2<String,Throwable> addSharedArchiveFileErrorTest = (String archiveFilePath, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(archiveFilePath), (Test test) ->
+                    {
+                        final JavaParameters parameters = JavaParameters.create();
+                        test.assertThrows(() -> parameters.addSharedArchiveFile(archiveFilePath),
+                            expected);
+                        test.assertEqual(Iterable.create(), parameters.getArguments());
+                    });
+                };
+
+                addSharedArchiveFileErrorTest.run(null, new PreConditionFailure("archiveFilePath cannot be null."));
+                addSharedArchiveFileErrorTest.run("", new PreConditionFailure("archiveFilePath cannot be empty."));
+
+                runner.test("with outputs/a.jsa", (Test test) ->
+                {
+                    final JavaParameters parameters = JavaParameters.create();
+                    test.assertSame(parameters, parameters.addSharedArchiveFile("outputs/a.jsa"));
+                    test.assertEqual(Iterable.create("-XX:SharedArchiveFile=outputs/a.jsa"), parameters.getArguments());
+                });
+            });
+
+            runner.test("addClasspath(String) with classpath longer than the argument file threshold",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final Folder argumentFileFolder = process.getCurrentFolder().getFolder("argfiles").await();
+                final JavaParameters parameters = JavaParameters.create()
+                    .setArgumentFileFolder(argumentFileFolder)
+                    .setArgumentFileThreshold(10);
+                test.assertSame(parameters, parameters.addClasspath("/a.jar;/b.jar"));
+                final File argumentFile = argumentFileFolder.getFile("java-classpath.args").await();
+                test.assertEqual(Iterable.create("@" + argumentFile), parameters.getArguments());
+                test.assertEqual("\"-classpath\"\n\"/a.jar;/b.jar\"\n", argumentFile.getContentsAsString().await());
+            });
         });
     }
 }
@@ -135,6 +135,145 @@ public interface JavaProjectConfigurationTests
                             "a")),
                     Iterable.create("a"));
             });
+
+            runner.testGroup("getCollapseRepeatedStackFrames()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertFalse(JavaProjectConfiguration.create().getCollapseRepeatedStackFrames());
+                });
+
+                runner.test("when set to true", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setCollapseRepeatedStackFrames(true);
+                    test.assertTrue(configuration.getCollapseRepeatedStackFrames());
+                });
+
+                runner.test("when not a boolean", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create(JSONObject.create()
+                        .setString("collapseRepeatedStackFrames", "true"));
+                    test.assertFalse(configuration.getCollapseRepeatedStackFrames());
+                });
+            });
+
+            runner.testGroup("getMinimumLineCoverage()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertNull(JavaProjectConfiguration.create().getMinimumLineCoverage());
+                });
+
+                runner.test("when set", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setMinimumLineCoverage(80);
+                    test.assertEqual(80, configuration.getMinimumLineCoverage());
+                });
+            });
+
+            runner.testGroup("getMinimumBranchCoverage()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertNull(JavaProjectConfiguration.create().getMinimumBranchCoverage());
+                });
+
+                runner.test("when set", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setMinimumBranchCoverage(65);
+                    test.assertEqual(65, configuration.getMinimumBranchCoverage());
+                });
+            });
+
+            runner.testGroup("getPackCacheEnabled()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertFalse(JavaProjectConfiguration.create().getPackCacheEnabled());
+                });
+
+                runner.test("when set to true", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setPackCacheEnabled(true);
+                    test.assertTrue(configuration.getPackCacheEnabled());
+                });
+            });
+
+            runner.testGroup("getPackCacheMaximumSizeInMegabytes()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertEqual(1024, JavaProjectConfiguration.create().getPackCacheMaximumSizeInMegabytes());
+                });
+
+                runner.test("when set", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setPackCacheMaximumSizeInMegabytes(50);
+                    test.assertEqual(50, configuration.getPackCacheMaximumSizeInMegabytes());
+                });
+
+                runner.test("with negative value", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectConfiguration.create().setPackCacheMaximumSizeInMegabytes(-1),
+                        new PreConditionFailure("packCacheMaximumSizeInMegabytes (-1) must be greater than or equal to 0."));
+                });
+            });
+
+            runner.testGroup("getDependencyGraphCacheEnabled()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertFalse(JavaProjectConfiguration.create().getDependencyGraphCacheEnabled());
+                });
+
+                runner.test("when set to true", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setDependencyGraphCacheEnabled(true);
+                    test.assertTrue(configuration.getDependencyGraphCacheEnabled());
+                });
+            });
+
+            runner.testGroup("getTestClasspathOptimizationEnabled()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertFalse(JavaProjectConfiguration.create().getTestClasspathOptimizationEnabled());
+                });
+
+                runner.test("when set to true", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setTestClasspathOptimizationEnabled(true);
+                    test.assertTrue(configuration.getTestClasspathOptimizationEnabled());
+                });
+            });
+
+            runner.testGroup("getMaximumThreadCount()", () ->
+            {
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertEqual(DaemonExecutor.getDefaultThreadCount(), JavaProjectConfiguration.create().getMaximumThreadCount());
+                });
+
+                runner.test("when set", (Test test) ->
+                {
+                    final JavaProjectConfiguration configuration = JavaProjectConfiguration.create()
+                        .setMaximumThreadCount(3);
+                    test.assertEqual(3, configuration.getMaximumThreadCount());
+                });
+
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectConfiguration.create().setMaximumThreadCount(0),
+                        new PreConditionFailure("maximumThreadCount (0) must be greater than or equal to 1."));
+                });
+            });
         });
     }
 }
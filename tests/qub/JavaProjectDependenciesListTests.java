@@ -357,6 +357,54 @@ public interface JavaProjectDependenciesListTests
                     test.assertEqual(0, process.getExitCode());
                 });
 
+                runner.test("with shared sub-dependency, version conflict, and --recurse",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("--recurse")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a = ProjectSignature.parse("a/a@1").await();
+                    final ProjectSignature b = ProjectSignature.parse("b/b@1").await();
+                    final ProjectSignature c = ProjectSignature.parse("c/c@1").await();
+                    final ProjectSignature d1 = ProjectSignature.parse("d/d@1").await();
+                    final ProjectSignature d2 = ProjectSignature.parse("d/d@2").await();
+                    DependentsJSONTests.publish(qubFolder, a, Iterable.create(c));
+                    DependentsJSONTests.publish(qubFolder, b, Iterable.create(c, d2));
+                    DependentsJSONTests.publish(qubFolder, c, Iterable.create(d1));
+                    DependentsJSONTests.publish(qubFolder, d1, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, d2, Iterable.create());
+
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    projectFolder.getProjectJsonFile().await()
+                        .setContentsAsString(JavaProjectJSON.create()
+                            .setDependencies(Iterable.create(a, b))
+                            .toString())
+                            .await();
+
+                    final CommandLineAction action = JavaProjectDependenciesListTests.createCommandLineAction(process);
+
+                    JavaProjectDependenciesList.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Getting dependencies for /...",
+                            "Found 2 dependencies:",
+                            "  a/a@1",
+                            "    c/c@1",
+                            "      d/d@1",
+                            "  b/b@1",
+                            "    c/c@1 (dependencies listed above)",
+                            "    d/d@2",
+                            "Found 1 version conflict:",
+                            "  d/d",
+                            "    d/d@2",
+                            "    d/d@1"),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                });
+
                 runner.test("with two dependencies that don't exist",
                     (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
                     (Test test, FakeDesktopProcess process) ->
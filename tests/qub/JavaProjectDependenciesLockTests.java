@@ -0,0 +1,162 @@
+package qub;
+
+public interface JavaProjectDependenciesLockTests
+{
+    public static void test(TestRunner runner)
+    {
+        runner.testGroup(JavaProjectDependenciesLock.class, () ->
+        {
+            runner.testGroup("addAction(CommandLineActions)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectDependenciesLock.addAction(null),
+                        new PreConditionFailure("actions cannot be null."));
+                });
+
+                runner.test("with non-null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineActions actions = JavaProjectDependenciesTests.createCommandLineActions(process);
+                    final CommandLineAction action = JavaProjectDependenciesLock.addAction(actions);
+                    test.assertNotNull(action);
+                    test.assertEqual("lock", action.getName());
+                    test.assertEqual("qub-javaproject dependencies lock", action.getFullName());
+                    test.assertEqual("Write the Java project's resolved dependency graph to a lockfile.", action.getDescription());
+                    test.assertEqual(Iterable.create(), action.getAliases());
+                    test.assertSame(process, action.getProcess());
+                    test.assertSame(action, actions.getAction(action.getName()).await());
+                });
+            });
+
+            runner.testGroup("run(DesktopProcess,CommandLineAction)", () ->
+            {
+                runner.test("with null process", (Test test) ->
+                {
+                    final CommandLineAction action = CommandLineAction.create("fake-action-name", (DesktopProcess actionProcess) -> {});
+
+                    test.assertThrows(() -> JavaProjectDependenciesLock.run(null, action),
+                        new PreConditionFailure("process cannot be null."));
+                });
+
+                runner.test("with null action",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    test.assertThrows(() -> JavaProjectDependenciesLock.run(process, null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("with " + Strings.escapeAndQuote("-?"),
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("-?")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectDependenciesLockTests.createCommandLineAction(process);
+
+                    JavaProjectDependenciesLock.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Usage: qub-javaproject dependencies lock [[--projectFolder=]<projectFolder-value>] [--help] [--verbose] [--profiler]",
+                            "  Write the Java project's resolved dependency graph to a lockfile.",
+                            "  --projectFolder: The folder that contains the Java project to lock the dependencies of. Defaults to the current folder.",
+                            "  --help(?):       Show the help message for this application.",
+                            "  --verbose(v):    Whether or not to show verbose logs.",
+                            "  --profiler:      Whether or not this application should pause before it is run to allow a profiler to be attached."),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(-1, process.getExitCode());
+                });
+
+                runner.test("with no project.json file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectDependenciesLockTests.createCommandLineAction(process);
+
+                    JavaProjectDependenciesLock.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Locking dependencies for /...",
+                            "The file at \"/project.json\" doesn't exist."),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(-1, process.getExitCode());
+                    test.assertFalse(JavaProjectFolder.get(process.getCurrentFolder()).getProjectLockJsonFile().await().exists().await());
+                });
+
+                runner.test("with no dependencies",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()).await();
+
+                    final CommandLineAction action = JavaProjectDependenciesLockTests.createCommandLineAction(process);
+
+                    JavaProjectDependenciesLock.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Locking dependencies for /...",
+                            "Locked 0 dependencies."),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+
+                    final JavaProjectLockJSON projectLockJson = projectFolder.getProjectLockJson().await();
+                    test.assertEqual(Iterable.create(), projectLockJson.getDependencies());
+                    test.assertEqual(Iterable.create(), projectLockJson.getResolvedDependencies());
+                });
+
+                runner.test("with dependency that has a sub-dependency",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature dependency = ProjectSignature.parse("a/b@1").await();
+                    final ProjectSignature subDependency = ProjectSignature.parse("c/d@2").await();
+                    DependentsJSONTests.publish(qubFolder, dependency, Iterable.create(subDependency));
+                    DependentsJSONTests.publish(qubFolder, subDependency, Iterable.create());
+
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency)))
+                        .await();
+
+                    final CommandLineAction action = JavaProjectDependenciesLockTests.createCommandLineAction(process);
+
+                    JavaProjectDependenciesLock.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Locking dependencies for /...",
+                            "Locked 2 dependencies."),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+
+                    final JavaProjectLockJSON projectLockJson = projectFolder.getProjectLockJson().await();
+                    test.assertEqual(Iterable.create(dependency), projectLockJson.getDependencies());
+                    test.assertEqual(Iterable.create(dependency, subDependency), projectLockJson.getResolvedDependencies());
+                });
+            });
+        });
+    }
+
+    public static CommandLineAction createCommandLineAction(FakeDesktopProcess process)
+    {
+        final CommandLineActions actions = JavaProjectDependenciesTests.createCommandLineActions(process);
+        return JavaProjectDependenciesLock.addAction(actions);
+    }
+}
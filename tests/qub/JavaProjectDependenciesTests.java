@@ -65,6 +65,7 @@ public interface JavaProjectDependenciesTests
                             "",
                             "Actions:",
                             "  list:   List the Java project's dependencies.",
+                            "  lock:   Write the Java project's resolved dependency graph to a lockfile.",
                             "  update: Update the Java project's dependencies to the latest versions."),
                         process.getOutputWriteStream());
                     test.assertLinesEqual(
@@ -90,6 +91,7 @@ public interface JavaProjectDependenciesTests
                             "",
                             "Actions:",
                             "  list:   List the Java project's dependencies.",
+                            "  lock:   Write the Java project's resolved dependency graph to a lockfile.",
                             "  update: Update the Java project's dependencies to the latest versions."),
                         process.getOutputWriteStream());
                     test.assertLinesEqual(
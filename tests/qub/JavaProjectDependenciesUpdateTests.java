@@ -85,9 +85,10 @@ public interface JavaProjectDependenciesUpdateTests
 
                     test.assertLinesEqual(
                         Iterable.create(
-                            "Usage: qub-javaproject dependencies update [[--projectFolder=]<projectFolder-value>] [--help] [--verbose] [--profiler]",
+                            "Usage: qub-javaproject dependencies update [[--projectFolder=]<projectFolder-value>] [--dry-run] [--help] [--verbose] [--profiler]",
                             "  Update the Java project's dependencies to the latest versions.",
                             "  --projectFolder: The folder that contains the Java source code project to update.",
+                            "  --dry-run:       Whether to only report the available updates for the project's entire dependency graph without changing any files. Defaults to false.",
                             "  --help(?):       Show the help message for this application.",
                             "  --verbose(v):    Whether or not to show verbose logs.",
                             "  --profiler:      Whether or not this application should pause before it is run to allow a profiler to be attached."),
@@ -431,6 +432,39 @@ public interface JavaProjectDependenciesUpdateTests
                         fakeProjectLogFile.getContentsAsString().await());
                 });
 
+                runner.test("with Intellij module file that is already up to date",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectDependenciesUpdateTests.createCommandLineAction(process);
+
+                    final FileSystem fileSystem = process.getFileSystem();
+                    final Folder projectFolder = fileSystem.getFolder("/project/folder/").await();
+                    projectFolder.getFile("project.json").await().setContentsAsString(
+                        JavaProjectJSON.create()
+                            .toString(JSONFormat.pretty))
+                        .await();
+                    final File intellijModuleFile = projectFolder.getFile("project.iml").await();
+                    final String intellijModuleContents = IntellijModule.create()
+                        .addSourceFolder(IntellijSourceFolder.create("file://$MODULE_DIR$/sources"))
+                        .toString(XMLFormat.pretty);
+                    intellijModuleFile.setContentsAsString(intellijModuleContents).await();
+                    final DateTime intellijModuleLastModified = intellijModuleFile.getLastModified().await();
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    JavaProjectDependenciesUpdate.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Getting dependencies for /project/folder/...",
+                            "No dependencies found.",
+                            "Updating IntelliJ module files..."),
+                        process.getOutputWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(intellijModuleContents, intellijModuleFile.getContentsAsString().await());
+                    test.assertEqual(intellijModuleLastModified, intellijModuleFile.getLastModified().await());
+                });
+
                 runner.test("with no dependencies and Intellij module file with a Qub dependency",
                     (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/")),
                     (Test test, FakeDesktopProcess process) ->
@@ -1239,6 +1273,84 @@ public interface JavaProjectDependenciesUpdateTests
                         fakeProjectLogFile.getContentsAsString().await());
                 });
 
+                runner.test("with newer dependency available and --dry-run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--dry-run")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectDependenciesUpdateTests.createCommandLineAction(process);
+
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature dependency = ProjectSignature.create("a", "b", "3");
+                    final ProjectSignature subDependency = ProjectSignature.create("c", "d", "1");
+                    DependentsJSONTests.publish(qubFolder, dependency, Iterable.create(subDependency));
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.create("a", "b", "4"), Iterable.create(subDependency));
+                    DependentsJSONTests.publish(qubFolder, subDependency, Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.create("c", "d", "2"), Iterable.create());
+
+                    final FileSystem fileSystem = process.getFileSystem();
+                    final Folder projectFolder = fileSystem.getFolder("/project/folder/").await();
+                    final File projectJsonFile = projectFolder.getFile("project.json").await();
+                    final String projectJsonContents = JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(dependency))
+                        .toString(JSONFormat.pretty);
+                    projectJsonFile.setContentsAsString(projectJsonContents).await();
+                    final Folder vscodeFolder = projectFolder.getFolder(".vscode").await();
+                    final File settingsJsonFile = vscodeFolder.getFile("settings.json").await();
+                    final String settingsJsonContents = JSONObject.create()
+                        .setArray("java.project.referencedLibraries", JSONArray.create(Iterable.create(
+                            JSONString.get("/qub/a/b/versions/3/b.jar"))))
+                        .toString(JSONFormat.pretty);
+                    settingsJsonFile.setContentsAsString(settingsJsonContents).await();
+
+                    JavaProjectDependenciesUpdate.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Getting dependencies for /project/folder/...",
+                            "Found 2 dependencies in the dependency graph:",
+                            "  a/b@3 - Update available: a/b@4",
+                            "  c/d@1 - Update available: c/d@2"),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+
+                    test.assertEqual(projectJsonContents, projectJsonFile.getContentsAsString().await());
+                    test.assertEqual(settingsJsonContents, settingsJsonFile.getContentsAsString().await());
+                });
+
+                runner.test("with dependency that isn't published and --dry-run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--dry-run")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectDependenciesUpdateTests.createCommandLineAction(process);
+
+                    final FileSystem fileSystem = process.getFileSystem();
+                    final Folder projectFolder = fileSystem.getFolder("/project/folder/").await();
+                    final File projectJsonFile = projectFolder.getFile("project.json").await();
+                    final String projectJsonContents = JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(ProjectSignature.create("a", "b", "3")))
+                        .toString(JSONFormat.pretty);
+                    projectJsonFile.setContentsAsString(projectJsonContents).await();
+
+                    JavaProjectDependenciesUpdate.run(process, action);
+
+                    // The dependency graph can't be resolved, so only the declared dependencies
+                    // are reported.
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Getting dependencies for /project/folder/...",
+                            "Found 1 dependencies in the dependency graph:",
+                            "  a/b@3 - Not Found"),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(projectJsonContents, projectJsonFile.getContentsAsString().await());
+                });
+
                 runner.test("with newer dependency available and messed up settings.json file",
                     (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/")),
                     (Test test, FakeDesktopProcess process) ->
@@ -1505,6 +1617,111 @@ public interface JavaProjectDependenciesUpdateTests
                         fakeProjectLogFile.getContentsAsString().await());
                 });
             });
+
+            runner.testGroup("getIntellijModuleFiles(Folder)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectDependenciesUpdate.getIntellijModuleFiles(null),
+                        new PreConditionFailure("projectFolder cannot be null."));
+                });
+
+                runner.test("with no modules.xml file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder projectFolder = process.getFileSystem().getFolder("/project/folder/").await();
+                    final File moduleFile = projectFolder.getFile("sub/project.iml").await();
+                    moduleFile.setContentsAsString("").await();
+                    projectFolder.getFile("project.json").await().setContentsAsString("").await();
+
+                    test.assertEqual(Iterable.create(moduleFile), JavaProjectDependenciesUpdate.getIntellijModuleFiles(projectFolder));
+                });
+
+                runner.test("with modules.xml file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder projectFolder = process.getFileSystem().getFolder("/project/folder/").await();
+                    final File listedModuleFile = projectFolder.getFile("project.iml").await();
+                    listedModuleFile.setContentsAsString("").await();
+                    final File unlistedModuleFile = projectFolder.getFile("outputs/copy.iml").await();
+                    unlistedModuleFile.setContentsAsString("").await();
+                    projectFolder.getFile(".idea/modules.xml").await().setContentsAsString(Strings.join('\n', Iterable.create(
+                        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                        "<project version=\"4\">",
+                        "  <component name=\"ProjectModuleManager\">",
+                        "    <modules>",
+                        "      <module fileurl=\"file://$PROJECT_DIR$/project.iml\" filepath=\"$PROJECT_DIR$/project.iml\" />",
+                        "      <module fileurl=\"file://$PROJECT_DIR$/missing.iml\" filepath=\"$PROJECT_DIR$/missing.iml\" />",
+                        "    </modules>",
+                        "  </component>",
+                        "</project>"))).await();
+
+                    test.assertEqual(Iterable.create(listedModuleFile), JavaProjectDependenciesUpdate.getIntellijModuleFiles(projectFolder));
+                });
+
+                runner.test("with invalid modules.xml file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder projectFolder = process.getFileSystem().getFolder("/project/folder/").await();
+                    final File moduleFile = projectFolder.getFile("project.iml").await();
+                    moduleFile.setContentsAsString("").await();
+                    projectFolder.getFile(".idea/modules.xml").await().setContentsAsString("<project>").await();
+
+                    test.assertEqual(Iterable.create(moduleFile), JavaProjectDependenciesUpdate.getIntellijModuleFiles(projectFolder));
+                });
+            });
+
+            runner.testGroup("getLatestProjectVersionFolders(QubFolder,Iterable<ProjectSignature>,int)", () ->
+            {
+                runner.test("with null qubFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectDependenciesUpdate.getLatestProjectVersionFolders(null, Iterable.create(), 1),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with null projectSignatures",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    test.assertThrows(() -> JavaProjectDependenciesUpdate.getLatestProjectVersionFolders(qubFolder, null, 1),
+                        new PreConditionFailure("projectSignatures cannot be null."));
+                });
+
+                runner.test("with 0 maximumThreadCount",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    test.assertThrows(() -> JavaProjectDependenciesUpdate.getLatestProjectVersionFolders(qubFolder, Iterable.create(), 0),
+                        new PreConditionFailure("maximumThreadCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with published and unpublished projects",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.create("a", "b", "1"), Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.create("a", "b", "2"), Iterable.create());
+                    DependentsJSONTests.publish(qubFolder, ProjectSignature.create("c", "d", "5"), Iterable.create());
+
+                    final MutableMap<String,QubProjectVersionFolder> latestVersionFolders = JavaProjectDependenciesUpdate.getLatestProjectVersionFolders(qubFolder,
+                        Iterable.create(
+                            ProjectSignature.create("a", "b", "1"),
+                            ProjectSignature.create("c", "d", "5"),
+                            ProjectSignature.create("e", "f", "1"),
+                            ProjectSignature.create("a", "b", "2")),
+                        4);
+                    test.assertEqual(2, latestVersionFolders.getCount());
+                    test.assertEqual(qubFolder.getProjectVersionFolder("a", "b", "2").await(), latestVersionFolders.get("a/b").await());
+                    test.assertEqual(qubFolder.getProjectVersionFolder("c", "d", "5").await(), latestVersionFolders.get("c/d").await());
+                    test.assertNull(latestVersionFolders.get("e/f").catchError().await());
+                });
+            });
         });
     }
 
@@ -55,6 +55,54 @@ public interface JavaProjectFolderTests
                 test.assertEqual("outputs/tests", outputsTestsFolder.relativeTo(projectFolder).toString());
             });
 
+            runner.test("getTestResultsFolder()",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                final Folder testResultsFolder = projectFolder.getTestResultsFolder().await();
+                test.assertNotNull(testResultsFolder);
+                test.assertEqual("outputs/test-results", testResultsFolder.relativeTo(projectFolder).toString());
+            });
+
+            runner.test("getCoverageDataFolder()",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                final Folder coverageDataFolder = projectFolder.getCoverageDataFolder().await();
+                test.assertNotNull(coverageDataFolder);
+                test.assertEqual("outputs/coverage-data", coverageDataFolder.relativeTo(projectFolder).toString());
+            });
+
+            runner.testGroup("getCoverageDataFile(String)", () ->
+            {
+                final Action2<String,Throwable> getCoverageDataFileErrorTest = (String testClassFullName, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(testClassFullName),
+                        (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                        (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                        test.assertThrows(() -> projectFolder.getCoverageDataFile(testClassFullName),
+                            expected);
+                    });
+                };
+
+                getCoverageDataFileErrorTest.run(null, new PreConditionFailure("testClassFullName cannot be null."));
+                getCoverageDataFileErrorTest.run("", new PreConditionFailure("testClassFullName cannot be empty."));
+
+                runner.test("with \"a.b.CTests\"",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                    final File coverageDataFile = projectFolder.getCoverageDataFile("a.b.CTests").await();
+                    test.assertNotNull(coverageDataFile);
+                    test.assertEqual("outputs/coverage-data/a.b.CTests.exec", coverageDataFile.relativeTo(projectFolder).toString());
+                });
+            });
+
             runner.test("getBuildJsonFile()",
                 (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
                 (Test test, FakeDesktopProcess process) ->
@@ -340,6 +388,76 @@ public interface JavaProjectFolderTests
                     });
             });
 
+            runner.test("getCoverageJsonFile()",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                final File coverageJsonFile = projectFolder.getCoverageJsonFile().await();
+                test.assertNotNull(coverageJsonFile);
+                test.assertEqual("outputs/coverage.json", coverageJsonFile.relativeTo(projectFolder).toString());
+            });
+
+            runner.testGroup("getCoverageJson()", () ->
+            {
+                runner.test("when it doesn't exist",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                        final File coverageJsonFile = projectFolder.getCoverageJsonFile().await();
+
+                        test.assertThrows(() -> projectFolder.getCoverageJson().await(),
+                            new FileNotFoundException(coverageJsonFile));
+
+                        test.assertFalse(coverageJsonFile.exists().await());
+                    });
+
+                runner.test("when it is an empty JSON object",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+                        final File coverageJsonFile = projectFolder.getCoverageJsonFile().await();
+                        coverageJsonFile.setContentsAsString(JSONObject.create().toString()).await();
+
+                        final CoverageJSON coverageJson = projectFolder.getCoverageJson().await();
+                        test.assertNotNull(coverageJson);
+                        test.assertEqual(JSONObject.create(), coverageJson.toJson());
+                    });
+            });
+
+            runner.testGroup("writeCoverageJson(CoverageJSON)", () ->
+            {
+                runner.test("with null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+
+                        test.assertThrows(() -> projectFolder.writeCoverageJson(null),
+                            new PreConditionFailure("coverageJson cannot be null."));
+
+                        test.assertFalse(projectFolder.getCoverageJsonFile().await().exists().await());
+                    });
+
+                runner.test("with non-null",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                    {
+                        final JavaProjectFolder projectFolder = JavaProjectFolderTests.getProjectFolder(process);
+
+                        final CoverageJSON coverageJson = CoverageJSON.create()
+                            .setCoverage(Coverage.Sources);
+
+                        projectFolder.writeCoverageJson(coverageJson).await();
+
+                        final File coverageJsonFile = projectFolder.getCoverageJsonFile().await();
+                        test.assertTrue(coverageJsonFile.exists().await());
+                        test.assertEqual(coverageJson.toString(JSONFormat.pretty), coverageJsonFile.getContentsAsString().await());
+                    });
+            });
+
             runner.testGroup("iterateClassFiles()", () ->
             {
                 runner.test("when outputs folder doesn't exist",
@@ -789,9 +907,237 @@ public interface JavaProjectFolderTests
                         projectFolder.iterateEntriesRecursively().toList());
                 });
             });
+
+            runner.testGroup("getFreshProjectLockJson(QubFolder)", () ->
+            {
+                runner.test("with null qubFolder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    test.assertThrows(() -> projectFolder.getFreshProjectLockJson(null),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with no lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()).await();
+
+                    test.assertThrows(() -> projectFolder.getFreshProjectLockJson(qubFolder).await(),
+                        new NotFoundException("No project.lock.json file found in /."));
+                });
+
+                runner.test("with fresh lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final JavaPublishedProjectFolder aFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await());
+                    final File aSourcesJarFile = aFolder.getCompiledSourcesJarFile().await();
+                    final File aTestsJarFile = aFolder.getCompiledTestsJarFile().await();
+                    aSourcesJarFile.setContentsAsString("").await();
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(a)))
+                        .await();
+                    projectFolder.writeProjectLockJson(JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a)).await()).await();
+
+                    final JavaProjectLockJSON projectLockJson = projectFolder.getFreshProjectLockJson(qubFolder).await();
+                    test.assertEqual(Iterable.create(aSourcesJarFile.toString()), projectLockJson.getCompileClasspath());
+                    test.assertEqual(Iterable.create(aSourcesJarFile.toString(), aTestsJarFile.toString()), projectLockJson.getTestClasspath());
+                    test.assertEqual(Iterable.create(aFolder), projectLockJson.getResolvedDependencyFolders(qubFolder));
+                });
+            });
+
+            runner.testGroup("getLockedDependencyFolders(QubFolder)", () ->
+            {
+                runner.test("with null qubFolder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    test.assertThrows(() -> projectFolder.getLockedDependencyFolders(null),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with no lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()).await();
+
+                    test.assertThrows(() -> projectFolder.getLockedDependencyFolders(qubFolder).await(),
+                        new NotFoundException("No project.lock.json file found in /."));
+                });
+
+                runner.test("with out of date lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(a)))
+                        .await();
+                    projectFolder.writeProjectLockJson(JavaProjectLockJSON.create()).await();
+
+                    test.assertThrows(() -> projectFolder.getLockedDependencyFolders(qubFolder).await(),
+                        new NotFoundException("The project.lock.json file in / is out of date."));
+                });
+
+                runner.test("with missing locked dependency",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(a)))
+                        .await();
+                    projectFolder.writeProjectLockJson(JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a)).await()).await();
+
+                    test.assertThrows(() -> projectFolder.getLockedDependencyFolders(qubFolder).await(),
+                        new NotFoundException("The project.lock.json file in / is out of date."));
+                });
+
+                runner.test("with fresh lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "2");
+                    final JavaPublishedProjectFolder aFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await());
+                    final JavaPublishedProjectFolder bFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(b).await());
+                    aFolder.getCompiledSourcesJarFile().await().setContentsAsString("").await();
+                    bFolder.getCompiledSourcesJarFile().await().setContentsAsString("").await();
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(a)))
+                        .await();
+                    projectFolder.writeProjectLockJson(JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a, b)).await()).await();
+
+                    test.assertEqual(Iterable.create(aFolder, bFolder), projectFolder.getLockedDependencyFolders(qubFolder).await());
+                });
+
+                runner.test("with changed locked dependency project.json file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JavaProjectFolder projectFolder = JavaProjectFolder.get(process.getCurrentFolder());
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final JavaPublishedProjectFolder aFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await());
+                    aFolder.getCompiledSourcesJarFile().await().setContentsAsString("").await();
+                    final File aProjectJsonFile = aFolder.getProjectJsonFile().await();
+                    aProjectJsonFile.setContentsAsString(JavaProjectJSON.create().toString()).await();
+                    projectFolder.writeProjectJson(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(a)))
+                        .await();
+                    projectFolder.writeProjectLockJson(JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a)).await()).await();
+                    test.assertEqual(Iterable.create(aFolder), projectFolder.getLockedDependencyFolders(qubFolder).await());
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    aProjectJsonFile.setContentsAsString(JavaProjectJSON.create()
+                        .setDependencies(Iterable.create(ProjectSignature.create("b", "b", "2")))
+                        .toString()).await();
+                    test.assertThrows(() -> projectFolder.getLockedDependencyFolders(qubFolder).await(),
+                        new NotFoundException("The project.lock.json file in / is out of date."));
+                });
+            });
+
+            runner.testGroup("prefetchDependencies(QubFolder,Iterable<ProjectSignature>,DependencyGraphCache,int)", () ->
+            {
+                runner.test("with null qubFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectFolder.prefetchDependencies(null, Iterable.create(), null, 1),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with no project signatures",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    test.assertEqual(0, JavaProjectFolder.prefetchDependencies(qubFolder, Iterable.create(), null, 1).getCount());
+                });
+
+                runner.test("with diamond dependency graph",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "1");
+                    final ProjectSignature c = ProjectSignature.create("c", "c", "1");
+                    final ProjectSignature d = ProjectSignature.create("d", "d", "1");
+                    final Action2<ProjectSignature,Iterable<ProjectSignature>> publish = (ProjectSignature project, Iterable<ProjectSignature> dependencies) ->
+                    {
+                        JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(project).await())
+                            .getProjectJsonFile().await()
+                            .setContentsAsString(JavaProjectJSON.create()
+                                .setDependencies(dependencies)
+                                .toString())
+                            .await();
+                    };
+                    publish.run(a, Iterable.create(b, c));
+                    publish.run(b, Iterable.create(d));
+                    publish.run(c, Iterable.create(d));
+                    publish.run(d, Iterable.create());
+
+                    final MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> prefetchedDependencies = JavaProjectFolder.prefetchDependencies(qubFolder, Iterable.create(a), null, 4);
+                    test.assertEqual(4, prefetchedDependencies.getCount());
+                    test.assertEqual(Iterable.create(b, c), JavaProjectFolderTests.getPrefetchedDependencies(prefetchedDependencies, qubFolder.getProjectVersionFolder(a).await()));
+                    test.assertEqual(Iterable.create(d), JavaProjectFolderTests.getPrefetchedDependencies(prefetchedDependencies, qubFolder.getProjectVersionFolder(c).await()));
+                    test.assertEqual(Iterable.create(), JavaProjectFolderTests.getPrefetchedDependencies(prefetchedDependencies, qubFolder.getProjectVersionFolder(d).await()));
+                });
+
+                runner.test("with missing dependency",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "1");
+                    JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await())
+                        .getProjectJsonFile().await()
+                        .setContentsAsString(JavaProjectJSON.create()
+                            .setDependencies(Iterable.create(b))
+                            .toString())
+                        .await();
+
+                    final MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> prefetchedDependencies = JavaProjectFolder.prefetchDependencies(qubFolder, Iterable.create(a), null, 4);
+                    test.assertEqual(2, prefetchedDependencies.getCount());
+                    test.assertNull(JavaProjectFolderTests.getPrefetchedDependencies(prefetchedDependencies, qubFolder.getProjectVersionFolder(b).await()));
+                });
+            });
         });
     }
 
+    /**
+     * Get the dependencies that were prefetched for the provided project version folder, or null
+     * if the read of the project version folder's dependencies failed.
+     */
+    static Iterable<ProjectSignature> getPrefetchedDependencies(MutableMap<String,DaemonExecutor.Task<Iterable<ProjectSignature>>> prefetchedDependencies, QubProjectVersionFolder projectVersionFolder)
+    {
+        PreCondition.assertNotNull(prefetchedDependencies, "prefetchedDependencies");
+        PreCondition.assertNotNull(projectVersionFolder, "projectVersionFolder");
+
+        final DaemonExecutor.Task<Iterable<ProjectSignature>> prefetchedRead = prefetchedDependencies.get(projectVersionFolder.toString()).await();
+        return Result.create(prefetchedRead::await)
+            .catchError()
+            .await();
+    }
+
     static JavaProjectFolder getProjectFolder(FakeDesktopProcess process)
     {
         PreCondition.assertNotNull(process, "process");
@@ -0,0 +1,266 @@
+package qub;
+
+public interface JavaProjectJSONPackTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JavaProjectJSONPack.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                test.assertNotNull(pack);
+                test.assertEqual(JSONObject.create(), pack.toJson());
+                test.assertFalse(pack.getInProcess());
+            });
+
+            runner.testGroup("create(JSONObject)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectJSONPack.create(null),
+                        new PreConditionFailure("json cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final JSONObject json = JSONObject.create();
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                    test.assertSame(json, pack.toJson());
+                });
+            });
+
+            runner.testGroup("getInProcess()", () ->
+            {
+                final Action2<JSONObject,Boolean> getInProcessTest = (JSONObject json, Boolean expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getInProcess());
+                    });
+                };
+
+                getInProcessTest.run(JSONObject.create(), false);
+                getInProcessTest.run(JSONObject.create().setString("inProcess", "true"), false);
+                getInProcessTest.run(JSONObject.create().setBoolean("inProcess", false), false);
+                getInProcessTest.run(JSONObject.create().setBoolean("inProcess", true), true);
+                getInProcessTest.run(JSONObject.create().setBoolean("deterministic", true), true);
+                getInProcessTest.run(JSONObject.create().setBoolean("inProcess", false).setBoolean("deterministic", true), true);
+            });
+
+            runner.testGroup("setInProcess(boolean)", () ->
+            {
+                final Action1<Boolean> setInProcessTest = (Boolean inProcess) ->
+                {
+                    runner.test("with " + inProcess, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                        test.assertSame(pack, pack.setInProcess(inProcess));
+                        test.assertEqual(inProcess, pack.getInProcess());
+                        test.assertEqual(JSONObject.create().setBoolean("inProcess", inProcess), pack.toJson());
+                    });
+                };
+
+                setInProcessTest.run(false);
+                setInProcessTest.run(true);
+            });
+
+            runner.testGroup("getCompressionLevel()", () ->
+            {
+                final Action2<JSONObject,Integer> getCompressionLevelTest = (JSONObject json, Integer expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getCompressionLevel());
+                    });
+                };
+
+                getCompressionLevelTest.run(JSONObject.create(), null);
+                getCompressionLevelTest.run(JSONObject.create().setString("compressionLevel", "5"), null);
+                getCompressionLevelTest.run(JSONObject.create().setNumber("compressionLevel", 5), 5);
+            });
+
+            runner.testGroup("setCompressionLevel(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertThrows(() -> pack.setCompressionLevel(-1),
+                        new PreConditionFailure("compressionLevel (-1) must be between 0 and 9."));
+                    test.assertNull(pack.getCompressionLevel());
+                });
+
+                runner.test("with 10", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertThrows(() -> pack.setCompressionLevel(10),
+                        new PreConditionFailure("compressionLevel (10) must be between 0 and 9."));
+                    test.assertNull(pack.getCompressionLevel());
+                });
+
+                runner.test("with 9", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertSame(pack, pack.setCompressionLevel(9));
+                    test.assertEqual(9, pack.getCompressionLevel());
+                });
+            });
+
+            runner.testGroup("getDeterministic()", () ->
+            {
+                final Action2<JSONObject,Boolean> getDeterministicTest = (JSONObject json, Boolean expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getDeterministic());
+                    });
+                };
+
+                getDeterministicTest.run(JSONObject.create(), false);
+                getDeterministicTest.run(JSONObject.create().setNumber("deterministic", 1), false);
+                getDeterministicTest.run(JSONObject.create().setBoolean("deterministic", true), true);
+            });
+
+            runner.test("setDeterministic(boolean)", (Test test) ->
+            {
+                final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                test.assertSame(pack, pack.setDeterministic(true));
+                test.assertTrue(pack.getDeterministic());
+                test.assertEqual(JSONObject.create().setBoolean("deterministic", true), pack.toJson());
+            });
+
+            runner.testGroup("getFatJar()", () ->
+            {
+                final Action2<JSONObject,Boolean> getFatJarTest = (JSONObject json, Boolean expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getFatJar());
+                    });
+                };
+
+                getFatJarTest.run(JSONObject.create(), false);
+                getFatJarTest.run(JSONObject.create().setBoolean("fatJar", false), false);
+                getFatJarTest.run(JSONObject.create().setBoolean("fatJar", true), true);
+                getFatJarTest.run(JSONObject.create().setBoolean("appCds", true), true);
+            });
+
+            runner.test("setFatJar(boolean)", (Test test) ->
+            {
+                final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                test.assertSame(pack, pack.setFatJar(true));
+                test.assertTrue(pack.getFatJar());
+                test.assertEqual(JSONObject.create().setBoolean("fatJar", true), pack.toJson());
+            });
+
+            runner.testGroup("getAppCds()", () ->
+            {
+                final Action2<JSONObject,Boolean> getAppCdsTest = (JSONObject json, Boolean expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getAppCds());
+                    });
+                };
+
+                getAppCdsTest.run(JSONObject.create(), false);
+                getAppCdsTest.run(JSONObject.create().setString("appCds", "true"), false);
+                getAppCdsTest.run(JSONObject.create().setBoolean("appCds", true), true);
+            });
+
+            runner.test("setAppCds(boolean)", (Test test) ->
+            {
+                final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                test.assertSame(pack, pack.setAppCds(true));
+                test.assertTrue(pack.getAppCds());
+                test.assertEqual(JSONObject.create().setBoolean("appCds", true), pack.toJson());
+            });
+
+            runner.testGroup("setAppCdsTrainingArguments(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertThrows(() -> pack.setAppCdsTrainingArguments(null),
+                        new PreConditionFailure("appCdsTrainingArguments cannot be null."));
+                });
+
+                runner.test("when not set", (Test test) ->
+                {
+                    test.assertEqual(Iterable.create(), JavaProjectJSONPack.create().getAppCdsTrainingArguments());
+                });
+
+                runner.test("with arguments", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertSame(pack, pack.setAppCdsTrainingArguments(Iterable.create("--help")));
+                    test.assertEqual(Iterable.create("--help"), pack.getAppCdsTrainingArguments());
+                    test.assertEqual(
+                        JSONObject.create().setArray("appCdsTrainingArguments", JSONArray.create(JSONString.get("--help"))),
+                        pack.toJson());
+                });
+            });
+
+            runner.testGroup("getAppCdsTrainingTimeoutSeconds()", () ->
+            {
+                final Action2<JSONObject,Integer> getAppCdsTrainingTimeoutSecondsTest = (JSONObject json, Integer expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSONPack pack = JavaProjectJSONPack.create(json);
+                        test.assertEqual(expected, pack.getAppCdsTrainingTimeoutSeconds());
+                    });
+                };
+
+                getAppCdsTrainingTimeoutSecondsTest.run(JSONObject.create(), 300);
+                getAppCdsTrainingTimeoutSecondsTest.run(JSONObject.create().setString("appCdsTrainingTimeoutSeconds", "60"), 300);
+                getAppCdsTrainingTimeoutSecondsTest.run(JSONObject.create().setNumber("appCdsTrainingTimeoutSeconds", 0), 300);
+                getAppCdsTrainingTimeoutSecondsTest.run(JSONObject.create().setNumber("appCdsTrainingTimeoutSeconds", 60), 60);
+            });
+
+            runner.testGroup("setAppCdsTrainingTimeoutSeconds(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertThrows(() -> pack.setAppCdsTrainingTimeoutSeconds(0),
+                        new PreConditionFailure("appCdsTrainingTimeoutSeconds (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 60", (Test test) ->
+                {
+                    final JavaProjectJSONPack pack = JavaProjectJSONPack.create();
+                    test.assertSame(pack, pack.setAppCdsTrainingTimeoutSeconds(60));
+                    test.assertEqual(60, pack.getAppCdsTrainingTimeoutSeconds());
+                    test.assertEqual(JSONObject.create().setNumber("appCdsTrainingTimeoutSeconds", 60), pack.toJson());
+                });
+            });
+
+            runner.testGroup("getJarSettings()", () ->
+            {
+                final Action2<JavaProjectJSONPack,String> getJarSettingsTest = (JavaProjectJSONPack pack, String expected) ->
+                {
+                    runner.test("with " + pack, (Test test) ->
+                    {
+                        test.assertEqual(expected, pack.getJarSettings());
+                    });
+                };
+
+                getJarSettingsTest.run(JavaProjectJSONPack.create(), "inProcess=false\ncompressionLevel=null\ndeterministic=false");
+                getJarSettingsTest.run(JavaProjectJSONPack.create().setCompressionLevel(9), "inProcess=false\ncompressionLevel=9\ndeterministic=false");
+                getJarSettingsTest.run(JavaProjectJSONPack.create().setDeterministic(true), "inProcess=true\ncompressionLevel=null\ndeterministic=true");
+                getJarSettingsTest.run(
+                    JavaProjectJSONPack.create()
+                        .setFatJar(true)
+                        .setAppCds(true)
+                        .setAppCdsTrainingArguments(Iterable.create("--help")),
+                    "inProcess=false\ncompressionLevel=null\ndeterministic=false");
+            });
+        });
+    }
+}
@@ -614,6 +614,193 @@ public interface JavaProjectJSONTests
                     "fake-shortcut-name");
             });
 
+            runner.testGroup("getMinimumLineCoverage()", () ->
+            {
+                final Action2<JSONObject,Integer> getMinimumLineCoverageTest = (JSONObject json, Integer expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSON projectJson = JavaProjectJSON.create(json);
+                        test.assertEqual(expected, projectJson.getMinimumLineCoverage());
+                    });
+                };
+
+                getMinimumLineCoverageTest.run(
+                    JSONObject.create(),
+                    null);
+                getMinimumLineCoverageTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()),
+                    null);
+                getMinimumLineCoverageTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setString("minimumLineCoverage", "80")),
+                    null);
+                getMinimumLineCoverageTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setNumber("minimumLineCoverage", 80)),
+                    80);
+            });
+
+            runner.testGroup("setMinimumLineCoverage(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertThrows(() -> projectJson.setMinimumLineCoverage(-1),
+                        new PreConditionFailure("minimumLineCoverage (-1) must be between 0 and 100."));
+                    test.assertNull(projectJson.getMinimumLineCoverage());
+                });
+
+                runner.test("with 75", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertSame(projectJson, projectJson.setMinimumLineCoverage(75));
+                    test.assertEqual(75, projectJson.getMinimumLineCoverage());
+                });
+            });
+
+            runner.testGroup("getMinimumBranchCoverage()", () ->
+            {
+                final Action2<JSONObject,Integer> getMinimumBranchCoverageTest = (JSONObject json, Integer expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSON projectJson = JavaProjectJSON.create(json);
+                        test.assertEqual(expected, projectJson.getMinimumBranchCoverage());
+                    });
+                };
+
+                getMinimumBranchCoverageTest.run(
+                    JSONObject.create(),
+                    null);
+                getMinimumBranchCoverageTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setNumber("minimumBranchCoverage", 60)),
+                    60);
+            });
+
+            runner.testGroup("setMinimumBranchCoverage(int)", () ->
+            {
+                runner.test("with 101", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertThrows(() -> projectJson.setMinimumBranchCoverage(101),
+                        new PreConditionFailure("minimumBranchCoverage (101) must be between 0 and 100."));
+                    test.assertNull(projectJson.getMinimumBranchCoverage());
+                });
+
+                runner.test("with 50", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertSame(projectJson, projectJson.setMinimumBranchCoverage(50));
+                    test.assertEqual(50, projectJson.getMinimumBranchCoverage());
+                });
+            });
+
+            runner.testGroup("getPack()", () ->
+            {
+                final Action2<JSONObject,Boolean> getPackTest = (JSONObject json, Boolean expectedInProcess) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSON projectJson = JavaProjectJSON.create(json);
+                        final JavaProjectJSONPack pack = projectJson.getPack();
+                        test.assertNotNull(pack);
+                        test.assertEqual(expectedInProcess, pack.getInProcess());
+                    });
+                };
+
+                getPackTest.run(
+                    JSONObject.create(),
+                    false);
+                getPackTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setString("pack", "hello")),
+                    false);
+                getPackTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setObject("pack", JSONObject.create()
+                                .setBoolean("inProcess", true))),
+                    true);
+            });
+
+            runner.testGroup("setPack(JavaProjectJSONPack)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertThrows(() -> projectJson.setPack(null),
+                        new PreConditionFailure("pack cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertSame(projectJson, projectJson.setPack(JavaProjectJSONPack.create().setInProcess(true)));
+                    test.assertTrue(projectJson.getPack().getInProcess());
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setObject("java", JSONObject.create()
+                                .setObject("pack", JSONObject.create()
+                                    .setBoolean("inProcess", true))),
+                        projectJson.toJson());
+                });
+            });
+
+            runner.testGroup("getJvmArguments()", () ->
+            {
+                final Action2<JSONObject,Iterable<String>> getJvmArgumentsTest = (JSONObject json, Iterable<String> expected) ->
+                {
+                    runner.test("with " + json, (Test test) ->
+                    {
+                        final JavaProjectJSON projectJson = JavaProjectJSON.create(json);
+                        test.assertEqual(expected, projectJson.getJvmArguments());
+                    });
+                };
+
+                getJvmArgumentsTest.run(
+                    JSONObject.create(),
+                    Iterable.create());
+                getJvmArgumentsTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setString("jvmArguments", "-Xmx1g")),
+                    Iterable.create());
+                getJvmArgumentsTest.run(
+                    JSONObject.create()
+                        .setObject("java", JSONObject.create()
+                            .setArray("jvmArguments", JSONArray.create(JSONString.get("-Xmx1g"), JSONObject.create(), JSONString.get("-XX:+UseSerialGC")))),
+                    Iterable.create("-Xmx1g", "-XX:+UseSerialGC"));
+            });
+
+            runner.testGroup("setJvmArguments(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertThrows(() -> projectJson.setJvmArguments(null),
+                        new PreConditionFailure("jvmArguments cannot be null."));
+                });
+
+                runner.test("with arguments", (Test test) ->
+                {
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create();
+                    test.assertSame(projectJson, projectJson.setJvmArguments(Iterable.create("-Xmx1g")));
+                    test.assertEqual(Iterable.create("-Xmx1g"), projectJson.getJvmArguments());
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setObject("java", JSONObject.create()
+                                .setArray("jvmArguments", JSONArray.create(JSONString.get("-Xmx1g")))),
+                        projectJson.toJson());
+                });
+            });
+
             runner.testGroup("getDependencies()", () ->
             {
                 final Action2<JSONObject,Iterable<ProjectSignature>> getDependenciesTest = (JSONObject json, Iterable<ProjectSignature> expected) ->
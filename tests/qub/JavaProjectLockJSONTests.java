@@ -0,0 +1,183 @@
+package qub;
+
+public interface JavaProjectLockJSONTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(JavaProjectLockJSON.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                test.assertNotNull(projectLockJson);
+                test.assertEqual(JSONObject.create(), projectLockJson.toJson());
+                test.assertEqual(Iterable.create(), projectLockJson.getDependencies());
+                test.assertEqual(Iterable.create(), projectLockJson.getResolvedDependencies());
+                test.assertEqual(Iterable.create(), projectLockJson.getCompileClasspath());
+                test.assertEqual(Iterable.create(), projectLockJson.getTestClasspath());
+            });
+
+            runner.testGroup("create(JSONObject)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectLockJSON.create((JSONObject)null),
+                        new PreConditionFailure("json cannot be null."));
+                });
+
+                runner.test("with empty JSONObject", (Test test) ->
+                {
+                    final JSONObject json = JSONObject.create();
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create(json);
+                    test.assertSame(json, projectLockJson.toJson());
+                });
+            });
+
+            runner.testGroup("setDependencies(Iterable<ProjectSignature>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertThrows(() -> projectLockJson.setDependencies(null),
+                        new PreConditionFailure("dependencies cannot be null."));
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    final ProjectSignature dependency = ProjectSignature.create("a", "b", "1");
+                    test.assertSame(projectLockJson, projectLockJson.setDependencies(Iterable.create(dependency)));
+                    test.assertEqual(Iterable.create(dependency), projectLockJson.getDependencies());
+                });
+            });
+
+            runner.testGroup("setResolvedDependencies(Iterable<ProjectSignature>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertThrows(() -> projectLockJson.setResolvedDependencies(null),
+                        new PreConditionFailure("resolvedDependencies cannot be null."));
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    final ProjectSignature dependency1 = ProjectSignature.create("a", "b", "1");
+                    final ProjectSignature dependency2 = ProjectSignature.create("c", "d", "2");
+                    test.assertSame(projectLockJson, projectLockJson.setResolvedDependencies(Iterable.create(dependency1, dependency2)));
+                    test.assertEqual(Iterable.create(dependency1, dependency2), projectLockJson.getResolvedDependencies());
+                });
+            });
+
+            runner.testGroup("setCompileClasspath(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertThrows(() -> projectLockJson.setCompileClasspath(null),
+                        new PreConditionFailure("compileClasspath cannot be null."));
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertSame(projectLockJson, projectLockJson.setCompileClasspath(Iterable.create("/a.jar")));
+                    test.assertEqual(Iterable.create("/a.jar"), projectLockJson.getCompileClasspath());
+                });
+            });
+
+            runner.testGroup("setTestClasspath(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertThrows(() -> projectLockJson.setTestClasspath(null),
+                        new PreConditionFailure("testClasspath cannot be null."));
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create();
+                    test.assertSame(projectLockJson, projectLockJson.setTestClasspath(Iterable.create("/a.jar", "/a.tests.jar")));
+                    test.assertEqual(Iterable.create("/a.jar", "/a.tests.jar"), projectLockJson.getTestClasspath());
+                });
+            });
+
+            runner.testGroup("create(QubFolder,Iterable<ProjectSignature>,Iterable<ProjectSignature>)", () ->
+            {
+                runner.test("with null qubFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectLockJSON.create(null, Iterable.create(), Iterable.create()),
+                        new PreConditionFailure("qubFolder cannot be null."));
+                });
+
+                runner.test("with resolved dependencies",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final ProjectSignature b = ProjectSignature.create("b", "b", "2");
+                    final JavaPublishedProjectFolder aFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await());
+                    final JavaPublishedProjectFolder bFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(b).await());
+
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a, b)).await();
+                    test.assertEqual(Iterable.create(a), projectLockJson.getDependencies());
+                    test.assertEqual(Iterable.create(a, b), projectLockJson.getResolvedDependencies());
+                    test.assertEqual(
+                        Iterable.create(
+                            aFolder.getCompiledSourcesJarFile().await().toString(),
+                            bFolder.getCompiledSourcesJarFile().await().toString()),
+                        projectLockJson.getCompileClasspath());
+                    test.assertEqual(
+                        Iterable.create(
+                            aFolder.getCompiledSourcesJarFile().await().toString(),
+                            aFolder.getCompiledTestsJarFile().await().toString(),
+                            bFolder.getCompiledSourcesJarFile().await().toString(),
+                            bFolder.getCompiledTestsJarFile().await().toString()),
+                        projectLockJson.getTestClasspath());
+                    test.assertNull(projectLockJson.getProjectJsonLastModified(a));
+                    test.assertNull(projectLockJson.getProjectJsonLastModified(b));
+                });
+
+                runner.test("with resolved dependency that has a project.json file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final ProjectSignature a = ProjectSignature.create("a", "a", "1");
+                    final JavaPublishedProjectFolder aFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder(a).await());
+                    final File aProjectJsonFile = aFolder.getProjectJsonFile().await();
+                    aProjectJsonFile.setContentsAsString(JavaProjectJSON.create().toString()).await();
+
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create(qubFolder, Iterable.create(a), Iterable.create(a)).await();
+                    test.assertEqual(aProjectJsonFile.getLastModified().await().toString(), projectLockJson.getProjectJsonLastModified(a));
+                });
+            });
+
+            runner.testGroup("parse(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectLockJSON.parse(null),
+                        new PreConditionFailure("lockJsonFile cannot be null."));
+                });
+
+                runner.test("with written lockfile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectLockJSON projectLockJson = JavaProjectLockJSON.create()
+                        .setDependencies(Iterable.create(ProjectSignature.create("a", "b", "1")))
+                        .setCompileClasspath(Iterable.create("/a.jar"));
+                    final File lockJsonFile = process.getCurrentFolder().getFile(JavaProjectLockJSON.fileName).await();
+                    lockJsonFile.setContentsAsString(projectLockJson.toString(JSONFormat.pretty)).await();
+
+                    final JavaProjectLockJSON parsedProjectLockJson = JavaProjectLockJSON.parse(lockJsonFile).await();
+                    test.assertEqual(projectLockJson.toJson(), parsedProjectLockJson.toJson());
+                });
+            });
+        });
+    }
+}
@@ -31,6 +31,112 @@ public interface JavaProjectPackTests
                 });
             });
 
+            runner.testGroup("createAppCdsArchive(Java,File,Iterable<String>,File,long)", () ->
+            {
+                runner.test("with successful training run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(process.getQubFolder().await());
+                    final Java java = jdkFolder.getJava(process).await();
+                    final File fatJarFile = process.getCurrentFolder().getFile("a.fat.jar").await();
+                    final File appCdsArchiveFile = process.getCurrentFolder().getFile("a.jsa").await();
+                    final File temporaryArchiveFile = process.getCurrentFolder().getFile("a.jsa.tmp").await();
+                    process.getChildProcessRunner().add(
+                        FakeChildProcessRun.create(jdkFolder.getJavaFile().await(), "-XX:ArchiveClassesAtExit=/project/a.jsa.tmp", "-jar", "/project/a.fat.jar", "--help")
+                            .setAction((FakeDesktopProcess childProcess) ->
+                            {
+                                temporaryArchiveFile.setContentsAsString("archive").await();
+                            }));
+
+                    test.assertNull(JavaProjectPack.createAppCdsArchive(java, fatJarFile, Iterable.create("--help"), appCdsArchiveFile, 10).await());
+                    test.assertEqual("archive", appCdsArchiveFile.getContentsAsString().await());
+                    test.assertFalse(temporaryArchiveFile.exists().await());
+                });
+
+                runner.test("with failed training run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(process.getQubFolder().await());
+                    final Java java = jdkFolder.getJava(process).await();
+                    final File fatJarFile = process.getCurrentFolder().getFile("a.fat.jar").await();
+                    final File appCdsArchiveFile = process.getCurrentFolder().getFile("a.jsa").await();
+                    appCdsArchiveFile.setContentsAsString("previous archive").await();
+                    final File temporaryArchiveFile = process.getCurrentFolder().getFile("a.jsa.tmp").await();
+                    process.getChildProcessRunner().add(
+                        FakeChildProcessRun.create(jdkFolder.getJavaFile().await(), "-XX:ArchiveClassesAtExit=/project/a.jsa.tmp", "-jar", "/project/a.fat.jar")
+                            .setAction((FakeDesktopProcess childProcess) ->
+                            {
+                                temporaryArchiveFile.setContentsAsString("partial archive").await();
+                                childProcess.setExitCode(1);
+                            }));
+
+                    test.assertThrows(() -> JavaProjectPack.createAppCdsArchive(java, fatJarFile, Iterable.create(), appCdsArchiveFile, 10).await(),
+                        new RuntimeException("The AppCDS training run failed with exit code 1."));
+                    test.assertFalse(appCdsArchiveFile.exists().await());
+                    test.assertFalse(temporaryArchiveFile.exists().await());
+                });
+
+                runner.test("with training run that doesn't create an archive",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(process.getQubFolder().await());
+                    final Java java = jdkFolder.getJava(process).await();
+                    final File fatJarFile = process.getCurrentFolder().getFile("a.fat.jar").await();
+                    final File appCdsArchiveFile = process.getCurrentFolder().getFile("a.jsa").await();
+                    process.getChildProcessRunner().add(
+                        FakeChildProcessRun.create(jdkFolder.getJavaFile().await(), "-XX:ArchiveClassesAtExit=/project/a.jsa.tmp", "-jar", "/project/a.fat.jar"));
+
+                    test.assertThrows(() -> JavaProjectPack.createAppCdsArchive(java, fatJarFile, Iterable.create(), appCdsArchiveFile, 10).await(),
+                        new RuntimeException("The AppCDS training run didn't create an archive."));
+                    test.assertFalse(appCdsArchiveFile.exists().await());
+                });
+            });
+
+            runner.testGroup("createAppCdsArchive(Java,Iterable<File>,String,Iterable<String>,File,long)", () ->
+            {
+                runner.test("with successful training run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(process.getQubFolder().await());
+                    final Java java = jdkFolder.getJava(process).await();
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final File appCdsArchiveFile = process.getCurrentFolder().getFile("a.jsa").await();
+                    final File temporaryArchiveFile = process.getCurrentFolder().getFile("a.jsa.tmp").await();
+                    process.getChildProcessRunner().add(
+                        FakeChildProcessRun.create(jdkFolder.getJavaFile().await(), "-XX:ArchiveClassesAtExit=/project/a.jsa.tmp", "-classpath", "/project/a.jar", "a.Main", "--help")
+                            .setAction((FakeDesktopProcess childProcess) ->
+                            {
+                                temporaryArchiveFile.setContentsAsString("archive").await();
+                            }));
+
+                    test.assertNull(JavaProjectPack.createAppCdsArchive(java, Iterable.create(jarFile), "a.Main", Iterable.create("--help"), appCdsArchiveFile, 10).await());
+                    test.assertEqual("archive", appCdsArchiveFile.getContentsAsString().await());
+                    test.assertFalse(temporaryArchiveFile.exists().await());
+                });
+            });
+
+            runner.testGroup("killTrainingRun(File)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPack.killTrainingRun(null),
+                        new PreConditionFailure("temporaryArchiveFile cannot be null."));
+                });
+
+                runner.test("with no training run",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File temporaryArchiveFile = process.getCurrentFolder().getFile("a.jsa.tmp").await();
+                    JavaProjectPack.killTrainingRun(temporaryArchiveFile);
+                    test.assertFalse(temporaryArchiveFile.exists().await());
+                });
+            });
+
             runner.testGroup("run(DesktopProcess,CommandLineAction)", () ->
             {
                 runner.test("with null process",
@@ -508,6 +614,10 @@ public interface JavaProjectPackTests
                             .setSourceOutputFiles(Iterable.create(
                                 PackJSONFile.create("outputs/sources/A.class", DateTime.create(1970, 1, 1, 0, 1))))
                             .setTestOutputFiles(Iterable.create())
+                            .setFolderDigest(Path.parse("sources"), PackJSON.getFolderDigest(Iterable.create(
+                                PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1)))))
+                            .setFolderDigest(Path.parse("outputs/sources"), PackJSON.getFolderDigest(Iterable.create(
+                                PackJSONFile.create("outputs/sources/A.class", DateTime.create(1970, 1, 1, 0, 1)))))
                             .toString(JSONFormat.pretty),
                         packJsonFile.getContentsAsString().await());
                     test.assertEqual(DateTime.create(1970, 1, 1, 0, 4), packJsonFile.getLastModified().await());
@@ -586,6 +696,194 @@ public interface JavaProjectPackTests
                             jdkFolder),
                         qubFolder.iterateEntriesRecursively().toList());
                 });
+
+                runner.test("with one source file and in-process jar files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final CommandLineAction action = JavaProjectTests.createAction(process);
+                    final QubFolder qubFolder = process.getQubFolder().await();
+                    final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(qubFolder);
+                    final File javacFile = jdkFolder.getJavacFile().await();
+                    final File javaFile = jdkFolder.getJavaFile().await();
+
+                    final ManualClock clock = process.getClock();
+
+                    final FileSystem fileSystem = process.getFileSystem();
+                    final Folder projectFolder = fileSystem.getFolder("/project/folder/").await();
+                    final JavaProjectJSON projectJson = JavaProjectJSON.create()
+                        .setProject("fake-project-to-pack")
+                        .setPack(JavaProjectJSONPack.create()
+                            .setInProcess(true));
+                    final File projectJsonFile = projectFolder.getFile("project.json").await();
+                    projectJsonFile.setContentsAsString(projectJson.toString()).await();
+
+                    final Folder sourcesFolder = projectFolder.getFolder("sources").await();
+                    final File aJavaFile = sourcesFolder.getFile("A.java").await();
+                    aJavaFile.setContentsAsString("A.java source").await();
+
+                    final Folder outputsFolder = projectFolder.getFolder("outputs").await();
+                    final File buildJsonFile = outputsFolder.getFile("build.json").await();
+                    final File testJsonFile = outputsFolder.getFile("test.json").await();
+                    final File packJsonFile = outputsFolder.getFile("pack.json").await();
+                    final File sourcesJarFile = outputsFolder.getFile("fake-project-to-pack-sources.jar").await();
+                    final File compiledSourcesJarFile = outputsFolder.getFile("fake-project-to-pack.jar").await();
+                    final Folder outputsSourcesFolder = outputsFolder.getFolder("sources").await();
+                    final File aClassFile = outputsSourcesFolder.getFile("A.class").await();
+
+                    final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
+                    JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
+                    childProcessRunner.add(FakeChildProcessRun.create(javacFile, "-d", "/project/folder/outputs/sources/", "--class-path", "/project/folder/outputs/sources/", "-Xlint:all,-try,-overrides,-varargs,-serial,-overloads", "sources/A.java")
+                        .setAction(() ->
+                        {
+                            clock.advance(Duration.minutes(1)).await();
+                            aClassFile.setContentsAsString("A.java bytecode").await();
+                        }));
+                    childProcessRunner.add(FakeChildProcessRun.create(javaFile, "-classpath", "/project/folder/outputs/sources/", "qub.JavaProjectTest", "--verbose=false", "--testjson=true", "--logfile=/qub/fake-publisher/fake-project/data/logs/1.log", "--projectFolder=/project/folder/", "--coverage=None", "--profiler=false")
+                        .setAction((FakeDesktopProcess testProcess) ->
+                        {
+                            clock.advance(Duration.minutes(1)).await();
+                            JavaProjectTest.runTests(testProcess);
+                        }));
+                    JavaProjectPack.run(process, action);
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "Compiling 1 source file...",
+                            "No test classes found.",
+                            "Creating outputs/fake-project-to-pack-sources.jar...",
+                            "Creating outputs/fake-project-to-pack.jar..."),
+                        process.getOutputWriteStream());
+                    test.assertLinesEqual(
+                        Iterable.create(),
+                        process.getErrorWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+
+                    test.assertEqual(
+                        Iterable.create(
+                            outputsFolder,
+                            sourcesFolder,
+                            projectJsonFile,
+                            outputsSourcesFolder,
+                            buildJsonFile,
+                            sourcesJarFile,
+                            compiledSourcesJarFile,
+                            packJsonFile,
+                            testJsonFile,
+                            aClassFile,
+                            aJavaFile),
+                        projectFolder.iterateEntriesRecursively().toList());
+                    test.assertEqual(
+                        BuildJSON.create()
+                            .setJavacVersion("17")
+                            .setProjectJson(projectJson)
+                            .setJavaFiles(Iterable.create(
+                                BuildJSONJavaFile.create("sources/A.java")
+                                    .setLastModified(DateTime.create(1970, 1, 1))
+                                    .setClassFiles(Iterable.create(
+                                        BuildJSONClassFile.create("outputs/sources/A.class", DateTime.create(1970, 1, 1, 0, 1))))))
+                            .toString(JSONFormat.pretty),
+                        buildJsonFile.getContentsAsString().await());
+                    test.assertEqual(DateTime.create(1970, 1, 1, 0, 1), buildJsonFile.getLastModified().await());
+                    test.assertEqual(
+                        TestJSON.create()
+                            .setJavaVersion("fake-java-version")
+                            .setClassFiles(Iterable.create())
+                            .toString(JSONFormat.pretty),
+                        testJsonFile.getContentsAsString().await());
+                    test.assertEqual(DateTime.create(1970, 1, 1, 0, 2), testJsonFile.getLastModified().await());
+                    test.assertEqual(
+                        PackJSON.create()
+                            .setJarVersion("fake-java-version")
+                            .setPackSettings(JavaProjectJSONPack.create()
+                                .setInProcess(true))
+                            .setSourceFiles(Iterable.create(
+                                PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1))))
+                            .setTestSourceFiles(Iterable.create())
+                            .setSourceOutputFiles(Iterable.create(
+                                PackJSONFile.create("outputs/sources/A.class", DateTime.create(1970, 1, 1, 0, 1))))
+                            .setTestOutputFiles(Iterable.create())
+                            .setFolderDigest(Path.parse("sources"), PackJSON.getFolderDigest(Iterable.create(
+                                PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1)))))
+                            .setFolderDigest(Path.parse("outputs/sources"), PackJSON.getFolderDigest(Iterable.create(
+                                PackJSONFile.create("outputs/sources/A.class", DateTime.create(1970, 1, 1, 0, 1)))))
+                            .toString(JSONFormat.pretty),
+                        packJsonFile.getContentsAsString().await());
+                    test.assertEqual(DateTime.create(1970, 1, 1, 0, 2), packJsonFile.getLastModified().await());
+                    test.assertTrue(sourcesJarFile.exists().await());
+                    test.assertEqual(DateTime.create(1970, 1, 1, 0, 2), sourcesJarFile.getLastModified().await());
+                    test.assertTrue(compiledSourcesJarFile.exists().await());
+                    test.assertEqual(DateTime.create(1970, 1, 1, 0, 2), compiledSourcesJarFile.getLastModified().await());
+
+                    final QubPublisherFolder fakePublisherFolder = qubFolder.getPublisherFolder("fake-publisher").await();
+                    final QubProjectFolder fakeProjectFolder = fakePublisherFolder.getProjectFolder("fake-project").await();
+                    final Folder fakeProjectDataFolder = fakeProjectFolder.getProjectDataFolder().await();
+                    final Folder fakeProjectLogsFolder = fakeProjectDataFolder.getFolder("logs").await();
+                    final File fakeLogFile = fakeProjectLogsFolder.getFile("1.log").await();
+                    final Folder fakeProjectVersionsFolder = fakeProjectFolder.getProjectVersionsFolder().await();
+                    final JavaPublishedProjectFolder fakeProjectVersionFolder = JavaPublishedProjectFolder.get(fakeProjectFolder.getProjectVersionFolder("8").await());
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "VERBOSE: Parsing /project/folder/project.json...",
+                            "VERBOSE: Discovering dependencies...",
+                            "VERBOSE: Parsing outputs/build.json...",
+                            "VERBOSE: Checking if dependencies have changed since the previous build...",
+                            "VERBOSE:   Previous dependencies have not changed.",
+                            "VERBOSE: Checking if latest installed JDK has changed since the previous build...",
+                            "VERBOSE: /qub/openjdk/jdk/versions/17/bin/javac --version",
+                            "VERBOSE:   Installed JDK has changed.",
+                            "VERBOSE: Looking for .java files that have been deleted...",
+                            "VERBOSE: Looking for .java files to compile...",
+                            "VERBOSE: sources/A.java - New file",
+                            "VERBOSE: Update .java file dependencies...",
+                            "VERBOSE: Discovering unmodified .java files that have dependencies that are being compiled or were deleted...",
+                            "VERBOSE: Discovering unmodified .java files that have missing or modified .class files...",
+                            "VERBOSE: Discovering unmodified .java file issues...",
+                            "Compiling 1 source file...",
+                            "VERBOSE: /qub/openjdk/jdk/versions/17/bin/javac -d /project/folder/outputs/sources/ --class-path /project/folder/outputs/sources/ -Xlint:all,-try,-overrides,-varargs,-serial,-overloads sources/A.java",
+                            "VERBOSE: Adding compilation issues to new build.json...",
+                            "VERBOSE: Associating .class files with original .java files...",
+                            "VERBOSE: Updating outputs/build.json...",
+                            "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -classpath /project/folder/outputs/sources/ qub.JavaProjectTest --verbose=false --testjson=true --logfile=/qub/fake-publisher/fake-project/data/logs/1.log --projectFolder=/project/folder/ --coverage=None --profiler=false",
+                            "VERBOSE: Current Java version: fake-java-version",
+                            "VERBOSE: No test.json file found.",
+                            "VERBOSE: Found 0 test class files to test.",
+                            "No test classes found.",
+                            "VERBOSE: Updating test.json file...",
+                            "VERBOSE: Parsing pack.json file...",
+                            "VERBOSE: Getting jar version...",
+                            "VERBOSE: Previous jar version number: null",
+                            "VERBOSE: Current jar version number:  fake-java-version",
+                            "VERBOSE: Checking if the outputs/fake-project-to-pack-sources.jar needs to be created...",
+                            "VERBOSE: Jar version changed.",
+                            "Creating outputs/fake-project-to-pack-sources.jar...",
+                            "VERBOSE: Writing outputs/fake-project-to-pack-sources.jar in-process...",
+                            "VERBOSE: Checking if the outputs/fake-project-to-pack.test-sources.jar needs to be created...",
+                            "VERBOSE: No files exist that would go into outputs/fake-project-to-pack.test-sources.jar.",
+                            "VERBOSE: Checking if the outputs/fake-project-to-pack.jar needs to be created...",
+                            "VERBOSE: Jar version changed.",
+                            "Creating outputs/fake-project-to-pack.jar...",
+                            "VERBOSE: Writing outputs/fake-project-to-pack.jar in-process...",
+                            "VERBOSE: Checking if the outputs/fake-project-to-pack.tests.jar needs to be created...",
+                            "VERBOSE: No files exist that would go into outputs/fake-project-to-pack.tests.jar.",
+                            "VERBOSE: Updating outputs/pack.json..."),
+                        fakeLogFile.getContentsAsString().await());
+                    test.assertEqual(
+                        Iterable.create(
+                            fakePublisherFolder,
+                            jdkFolder.getPublisherFolder().await(),
+                            fakeProjectFolder,
+                            fakeProjectDataFolder,
+                            fakeProjectVersionsFolder,
+                            fakeProjectLogsFolder,
+                            fakeProjectLogsFolder.getFile("1.log").await(),
+                            fakeProjectVersionFolder,
+                            fakeProjectVersionFolder.getCompiledSourcesJarFile().await(),
+                            jdkFolder.getProjectFolder().await(),
+                            jdkFolder.getProjectVersionsFolder().await(),
+                            jdkFolder),
+                        qubFolder.iterateEntriesRecursively().toList());
+                });
             });
         });
     }
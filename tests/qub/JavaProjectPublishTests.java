@@ -320,6 +320,175 @@ public interface JavaProjectPublishTests
                             qubFolder.iterateEntriesRecursively().toList());
                     });
             });
+
+            runner.testGroup("stageFile(File,Folder,QubProjectVersionFolder,Action1<String>)", () ->
+            {
+                runner.test("with non-existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("a.jar").await();
+                    final Folder stagingFolder = process.getCurrentFolder().getFolder("staging").await();
+                    final QubProjectVersionFolder publishedFolder = process.getQubFolder().await().getProjectVersionFolder("a", "b", "1").await();
+                    final List<String> verboseLines = List.create();
+
+                    JavaProjectPublish.stageFile(file, stagingFolder, publishedFolder, verboseLines::add);
+
+                    test.assertEqual(
+                        Iterable.create(
+                            "Publishing " + file + " to " + publishedFolder + "...",
+                            file + " can't be published because it doesn't exist."),
+                        verboseLines);
+                    test.assertFalse(stagingFolder.getFile("a.jar").await().exists().await());
+                });
+
+                runner.test("with existing file",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final File file = process.getCurrentFolder().getFile("a.jar").await();
+                    file.setContentsAsString("jar contents").await();
+                    final Folder stagingFolder = process.getCurrentFolder().getFolder("staging").await();
+                    final QubProjectVersionFolder publishedFolder = process.getQubFolder().await().getProjectVersionFolder("a", "b", "1").await();
+                    final List<String> verboseLines = List.create();
+
+                    JavaProjectPublish.stageFile(file, stagingFolder, publishedFolder, verboseLines::add);
+
+                    test.assertEqual(
+                        Iterable.create(
+                            "Publishing " + file + " to " + publishedFolder + "..."),
+                        verboseLines);
+                    test.assertEqual("jar contents", stagingFolder.getFile("a.jar").await().getContentsAsString().await());
+                    test.assertFalse(publishedFolder.exists().await());
+                });
+            });
+
+            runner.testGroup("commitStagingFolder(Folder,QubProjectVersionFolder)", () ->
+            {
+                runner.test("with staged files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder stagingFolder = process.getCurrentFolder().getFolder("staging").await();
+                    stagingFolder.getFile("project.json").await().setContentsAsString("{}").await();
+                    stagingFolder.getFile("b.jar").await().setContentsAsString("jar contents").await();
+                    final QubProjectVersionFolder publishedFolder = process.getQubFolder().await().getProjectVersionFolder("a", "b", "1").await();
+
+                    JavaProjectPublish.commitStagingFolder(stagingFolder, publishedFolder);
+
+                    test.assertFalse(stagingFolder.exists().await());
+                    test.assertEqual("{}", publishedFolder.getFile("project.json").await().getContentsAsString().await());
+                    test.assertEqual("jar contents", publishedFolder.getFile("b.jar").await().getContentsAsString().await());
+                });
+
+                runner.test("with existing version folder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder stagingFolder = process.getCurrentFolder().getFolder("staging").await();
+                    stagingFolder.getFile("b.jar").await().setContentsAsString("new jar contents").await();
+                    final QubProjectVersionFolder publishedFolder = process.getQubFolder().await().getProjectVersionFolder("a", "b", "1").await();
+                    publishedFolder.getFile("b.jar").await().setContentsAsString("jar contents").await();
+
+                    test.assertThrows(() -> JavaProjectPublish.commitStagingFolder(stagingFolder, publishedFolder),
+                        new RuntimeException("Can't move " + stagingFolder + " to " + publishedFolder + " because " + publishedFolder + " already exists."));
+                    test.assertEqual("jar contents", publishedFolder.getFile("b.jar").await().getContentsAsString().await());
+                    test.assertEqual("new jar contents", stagingFolder.getFile("b.jar").await().getContentsAsString().await());
+                });
+            });
+
+            runner.testGroup("getShortcutJavaCommand(Iterable<String>,String,Iterable<String>,String)", () ->
+            {
+                runner.test("with null jvmArguments", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getShortcutJavaCommand(null, null, Iterable.create("%~dp0a.jar"), "a.B"),
+                        new PreConditionFailure("jvmArguments cannot be null."));
+                });
+
+                runner.test("with null classpath", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getShortcutJavaCommand(Iterable.create(), null, null, "a.B"),
+                        new PreConditionFailure("classpath cannot be null."));
+                });
+
+                runner.test("with empty classpath", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getShortcutJavaCommand(Iterable.create(), null, Iterable.create(), "a.B"),
+                        new PreConditionFailure("classpath.any() cannot be false."));
+                });
+
+                runner.test("with empty mainClass", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getShortcutJavaCommand(Iterable.create(), null, Iterable.create("%~dp0a.jar"), ""),
+                        new PreConditionFailure("mainClass cannot be empty."));
+                });
+
+                runner.test("with no shared archive file", (Test test) ->
+                {
+                    test.assertEqual(
+                        "java -classpath %~dp0a/b/1/b.jar;%~dp0c/d/2/d.jar a.B %*",
+                        JavaProjectPublish.getShortcutJavaCommand(Iterable.create(), null, Iterable.create("%~dp0a/b/1/b.jar", "%~dp0c/d/2/d.jar"), "a.B"));
+                });
+
+                runner.test("with shared archive file", (Test test) ->
+                {
+                    test.assertEqual(
+                        "java -XX:SharedArchiveFile=%~dp0a/b/1/b.jsa -classpath %~dp0a/b/1/b.fat.jar a.B %*",
+                        JavaProjectPublish.getShortcutJavaCommand(Iterable.create(), "%~dp0a/b/1/b.jsa", Iterable.create("%~dp0a/b/1/b.fat.jar"), "a.B"));
+                });
+
+                runner.test("with jvm arguments", (Test test) ->
+                {
+                    test.assertEqual(
+                        "java -Xmx1g -XX:+UseSerialGC -classpath %~dp0a/b/1/b.jar a.B %*",
+                        JavaProjectPublish.getShortcutJavaCommand(Iterable.create("-Xmx1g", "-XX:+UseSerialGC"), null, Iterable.create("%~dp0a/b/1/b.jar"), "a.B"));
+                });
+            });
+
+            runner.testGroup("getPosixLauncherContents(Iterable<String>,String,Iterable<String>,String)", () ->
+            {
+                runner.test("with null jvmArguments", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getPosixLauncherContents(null, null, Iterable.create("a.jar"), "a.B"),
+                        new PreConditionFailure("jvmArguments cannot be null."));
+                });
+
+                runner.test("with null classpathRelativePaths", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getPosixLauncherContents(Iterable.create(), null, null, "a.B"),
+                        new PreConditionFailure("classpathRelativePaths cannot be null."));
+                });
+
+                runner.test("with empty classpathRelativePaths", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getPosixLauncherContents(Iterable.create(), null, Iterable.create(), "a.B"),
+                        new PreConditionFailure("classpathRelativePaths.any() cannot be false."));
+                });
+
+                runner.test("with empty mainClass", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectPublish.getPosixLauncherContents(Iterable.create(), null, Iterable.create("a.jar"), ""),
+                        new PreConditionFailure("mainClass cannot be empty."));
+                });
+
+                runner.test("with no shared archive file", (Test test) ->
+                {
+                    test.assertEqual(
+                        "#!/bin/sh\n" +
+                        "DIR=\"$(cd \"$(dirname \"$0\")\" && pwd)\"\n" +
+                        "exec java -classpath \"$DIR/a/b/1/b.jar:$DIR/c/d/2/d.jar\" a.B \"$@\"\n",
+                        JavaProjectPublish.getPosixLauncherContents(Iterable.create(), null, Iterable.create("a/b/1/b.jar", "c\\d\\2\\d.jar"), "a.B"));
+                });
+
+                runner.test("with jvm arguments and shared archive file", (Test test) ->
+                {
+                    test.assertEqual(
+                        "#!/bin/sh\n" +
+                        "DIR=\"$(cd \"$(dirname \"$0\")\" && pwd)\"\n" +
+                        "exec java '-Xmx1g' '-Dname=it'\\''s' -XX:SharedArchiveFile=\"$DIR/a/b/1/b.jsa\" -classpath \"$DIR/a/b/1/b.fat.jar\" a.B \"$@\"\n",
+                        JavaProjectPublish.getPosixLauncherContents(Iterable.create("-Xmx1g", "-Dname=it's"), "a/b/1/b.jsa", Iterable.create("a/b/1/b.fat.jar"), "a.B"));
+                });
+            });
         });
     }
 
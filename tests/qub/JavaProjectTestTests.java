@@ -63,13 +63,14 @@ public interface JavaProjectTestTests
 
                     test.assertLinesEqual(
                         Iterable.create(
-                            "Usage: qub-javaproject test [[--projectFolder=]<projectFolder-value>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--openCoverageReport] [--help] [--verbose] [--profiler]",
+                            "Usage: qub-javaproject test [[--projectFolder=]<projectFolder-value>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--openCoverageReport] [--testResults] [--help] [--verbose] [--profiler]",
                             "  Run the tests of a Java source code project.",
                             "  --projectFolder:           The folder that contains a Java project to test. Defaults to the current folder.",
                             "  --pattern:                 The pattern to match against tests to determine if they will be run.",
                             "  --coverage(c):             Whether code coverage information will be collected while running tests.",
                             "  --testjson:                Whether to use a test.json file to cache test results in.",
                             "  --openCoverageReport(ocr): Whether to automatically open the HTML coverage report after the tests complete.",
+                            "  --testResults:             Whether to write JUnit XML test result files to the outputs/test-results folder.",
                             "  --help(?):                 Show the help message for this application.",
                             "  --verbose(v):              Whether or not to show verbose logs.",
                             "  --profiler:                Whether or not this application should pause before it is run to allow a profiler to be attached."),
@@ -1575,6 +1576,65 @@ public interface JavaProjectTestTests
                         qubFolder.iterateEntriesRecursively().toList());
                 });
 
+                final Action2<Boolean,String> testClasspathOptimizationTest = (Boolean testClasspathOptimizationEnabled, String expectedClasspath) ->
+                {
+                    runner.test("with one source file, an unreferenced dependency tests jar, and testClasspathOptimizationEnabled=" + testClasspathOptimizationEnabled,
+                        (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/")),
+                        (Test test, FakeDesktopProcess process) ->
+                    {
+                        final CommandLineAction action = JavaProjectTests.createAction(process);
+                        final QubFolder qubFolder = process.getQubFolder().await();
+                        final JDKFolder jdkFolder = JavaProjectTests.getJdkFolder(qubFolder);
+                        final File javacFile = jdkFolder.getJavacFile().await();
+                        final File javaFile = jdkFolder.getJavaFile().await();
+                        JavaProjectConfiguration.setConfigurationFile(process, JavaProjectConfiguration.create()
+                            .setTestClasspathOptimizationEnabled(testClasspathOptimizationEnabled))
+                            .await();
+
+                        final JavaPublishedProjectFolder bFolder = JavaPublishedProjectFolder.get(qubFolder.getProjectVersionFolder("a", "b", "1").await());
+                        bFolder.getProjectJsonFile().await()
+                            .setContentsAsString(JavaProjectJSON.create().toString()).await();
+                        TestClasspathOptimizerTests.createJarFile(bFolder, bFolder.getCompiledSourcesJarFile().await().getName(), "b/B");
+                        TestClasspathOptimizerTests.createJarFile(bFolder, bFolder.getCompiledTestsJarFile().await().getName(), "b/BTests");
+
+                        final Folder projectFolder = process.getFileSystem().getFolder("/project/folder/").await();
+                        projectFolder.getFile("project.json").await()
+                            .setContentsAsString(JavaProjectJSON.create()
+                                .setDependencies(Iterable.create(bFolder.getProjectSignature().await()))
+                                .toString())
+                            .await();
+                        projectFolder.getFile("sources/A.java").await().setContentsAsString("A.java source code").await();
+                        final File aClassFile = projectFolder.getFile("outputs/sources/A.class").await();
+
+                        final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
+                        JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
+                        childProcessRunner.add(
+                            FakeChildProcessRun.create(javacFile, "-d", "/project/folder/outputs/sources/", "--class-path", "/project/folder/outputs/sources/;/qub/a/b/versions/1/b.jar", "-Xlint:all,-try,-overrides,-varargs,-serial,-overloads", "sources/A.java")
+                                .setAction(() ->
+                                {
+                                    aClassFile.setContents(TestClasspathOptimizerTests.createClassFileBytes("A", "b/B")).await();
+                                }));
+                        childProcessRunner.add(
+                            FakeChildProcessRun.create(javaFile, "-classpath", expectedClasspath, "qub.JavaProjectTest", "--verbose=false", "--testjson=true", "--logfile=/qub/fake-publisher/fake-project/data/logs/1.log", "--projectFolder=/project/folder/", "--coverage=None", "--profiler=false")
+                                .setAction(JavaProjectTest::runTests));
+
+                        JavaProjectTest.run(process, action);
+
+                        test.assertLinesEqual(
+                            Iterable.create(
+                                "Compiling 1 source file...",
+                                "No test classes found."),
+                            process.getOutputWriteStream());
+                        test.assertLinesEqual(
+                            Iterable.create(),
+                            process.getErrorWriteStream());
+                        test.assertEqual(0, process.getExitCode());
+                    });
+                };
+
+                testClasspathOptimizationTest.run(false, "/project/folder/outputs/sources/;/qub/a/b/versions/1/b.jar;/qub/a/b/versions/1/b.tests.jar");
+                testClasspathOptimizationTest.run(true, "/project/folder/outputs/sources/;/qub/a/b/versions/1/b.jar");
+
                 runner.test("with one source file, one test file that has tests, and --coverage with no jacoco/jacococli published project",
                     (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--coverage")),
                     (Test test, FakeDesktopProcess process) ->
@@ -1813,6 +1873,7 @@ public interface JavaProjectTestTests
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
                     final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                     final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+                    final File coverageJsonFile = outputsFolder.getFile("coverage.json").await();
 
                     final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
                     JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
@@ -1887,6 +1948,7 @@ public interface JavaProjectTestTests
                             outputsSourcesFolder,
                             outputsTestsFolder,
                             buildJsonFile,
+                            coverageJsonFile,
                             coverageXmlFile,
                             testJsonFile,
                             indexHtmlFile,
@@ -1923,6 +1985,12 @@ public interface JavaProjectTestTests
                                     .setFailedTestCount(0)))
                             .toString(JSONFormat.pretty),
                         testJsonFile.getContentsAsString().await());
+                    test.assertEqual(
+                        CoverageJSON.create()
+                            .setCoverage(Coverage.Sources)
+                            .setReportGenerator("/qub/jacoco/jacococli/versions/8/lib/jacococli.jar")
+                            .toString(JSONFormat.pretty),
+                        coverageJsonFile.getContentsAsString().await());
 
                     final QubPublisherFolder fakePublisherFolder = qubFolder.getPublisherFolder("fake-publisher").await();
                     final QubProjectFolder fakeProjectFolder = fakePublisherFolder.getProjectFolder("fake-project").await();
@@ -1974,6 +2042,7 @@ public interface JavaProjectTestTests
                             "VERBOSE: Updating test.json file...",
                             "",
                             "Analyzing coverage...",
+                            "VERBOSE: Unable to load JaCoCo into this process. The coverage report will be created by jacococli.",
                             "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -jar /qub/jacoco/jacococli/versions/8/lib/jacococli.jar report /project/folder/outputs/coverage.exec --classfiles /project/folder/outputs/sources/ --sourcefiles /project/folder/sources/ --html /project/folder/outputs/coverage/ --xml /project/folder/outputs/coverage.xml"),
                         fakeLogFile.getContentsAsString().await());
                     test.assertEqual(
@@ -2234,6 +2303,7 @@ public interface JavaProjectTestTests
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
                     final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                     final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+                    final File coverageJsonFile = outputsFolder.getFile("coverage.json").await();
 
                     final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
                     JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
@@ -2308,6 +2378,7 @@ public interface JavaProjectTestTests
                             outputsSourcesFolder,
                             outputsTestsFolder,
                             buildJsonFile,
+                            coverageJsonFile,
                             coverageXmlFile,
                             testJsonFile,
                             indexHtmlFile,
@@ -2395,6 +2466,7 @@ public interface JavaProjectTestTests
                             "VERBOSE: Updating test.json file...",
                             "",
                             "Analyzing coverage...",
+                            "VERBOSE: Unable to load JaCoCo into this process. The coverage report will be created by jacococli.",
                             "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -jar /qub/jacoco/jacococli/versions/8/lib/jacococli.jar report /project/folder/outputs/coverage.exec --classfiles /project/folder/outputs/sources/ --sourcefiles /project/folder/sources/ --html /project/folder/outputs/coverage/ --xml /project/folder/outputs/coverage.xml"),
                         fakeLogFile.getContentsAsString().await());
                     test.assertEqual(
@@ -2456,6 +2528,7 @@ public interface JavaProjectTestTests
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
                     final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                     final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+                    final File coverageJsonFile = outputsFolder.getFile("coverage.json").await();
 
                     final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
                     JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
@@ -2530,6 +2603,7 @@ public interface JavaProjectTestTests
                             outputsSourcesFolder,
                             outputsTestsFolder,
                             buildJsonFile,
+                            coverageJsonFile,
                             coverageXmlFile,
                             testJsonFile,
                             indexHtmlFile,
@@ -2617,6 +2691,7 @@ public interface JavaProjectTestTests
                             "VERBOSE: Updating test.json file...",
                             "",
                             "Analyzing coverage...",
+                            "VERBOSE: Unable to load JaCoCo into this process. The coverage report will be created by jacococli.",
                             "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -jar /qub/jacoco/jacococli/versions/8/lib/jacococli.jar report /project/folder/outputs/coverage.exec --classfiles /project/folder/outputs/tests/ --sourcefiles /project/folder/tests/ --html /project/folder/outputs/coverage/ --xml /project/folder/outputs/coverage.xml"),
                         fakeLogFile.getContentsAsString().await());
                     test.assertEqual(
@@ -2678,6 +2753,7 @@ public interface JavaProjectTestTests
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
                     final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                     final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+                    final File coverageJsonFile = outputsFolder.getFile("coverage.json").await();
 
                     final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
                     JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
@@ -2752,6 +2828,7 @@ public interface JavaProjectTestTests
                             outputsSourcesFolder,
                             outputsTestsFolder,
                             buildJsonFile,
+                            coverageJsonFile,
                             coverageXmlFile,
                             testJsonFile,
                             indexHtmlFile,
@@ -2839,6 +2916,7 @@ public interface JavaProjectTestTests
                             "VERBOSE: Updating test.json file...",
                             "",
                             "Analyzing coverage...",
+                            "VERBOSE: Unable to load JaCoCo into this process. The coverage report will be created by jacococli.",
                             "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -jar /qub/jacoco/jacococli/versions/8/lib/jacococli.jar report /project/folder/outputs/coverage.exec --classfiles /project/folder/outputs/sources/ --sourcefiles /project/folder/sources/ --classfiles /project/folder/outputs/tests/ --sourcefiles /project/folder/tests/ --html /project/folder/outputs/coverage/ --xml /project/folder/outputs/coverage.xml"),
                         fakeLogFile.getContentsAsString().await());
                     test.assertEqual(
@@ -2900,6 +2978,7 @@ public interface JavaProjectTestTests
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
                     final File indexHtmlFile = coverageFolder.getFile("index.html").await();
                     final File coverageXmlFile = outputsFolder.getFile("coverage.xml").await();
+                    final File coverageJsonFile = outputsFolder.getFile("coverage.json").await();
 
                     final FakeChildProcessRunner childProcessRunner = process.getChildProcessRunner();
                     JavaProjectTests.addJavacVersionFakeChildProcessRun(childProcessRunner, javacFile);
@@ -2974,6 +3053,7 @@ public interface JavaProjectTestTests
                             outputsSourcesFolder,
                             outputsTestsFolder,
                             buildJsonFile,
+                            coverageJsonFile,
                             coverageXmlFile,
                             testJsonFile,
                             indexHtmlFile,
@@ -3066,6 +3146,7 @@ public interface JavaProjectTestTests
                             "VERBOSE: Updating test.json file...",
                             "",
                             "Analyzing coverage...",
+                            "VERBOSE: Unable to load JaCoCo into this process. The coverage report will be created by jacococli.",
                             "VERBOSE: /qub/openjdk/jdk/versions/17/bin/java -jar /qub/jacoco/jacococli/versions/8/lib/jacococli.jar report /project/folder/outputs/coverage.exec --classfiles /project/folder/outputs/sources/ --sourcefiles /project/folder/sources/ --html /project/folder/outputs/coverage/ --xml /project/folder/outputs/coverage.xml"),
                         fakeLogFile.getContentsAsString().await());
                     test.assertEqual(
@@ -3886,6 +3967,233 @@ public interface JavaProjectTestTests
                         qubFolder.iterateEntriesRecursively().toList());
                 });
             });
+
+            runner.testGroup("getChangedCoverageClassName(File,Iterable<Folder>,MutableMap<String,Long>)", () ->
+            {
+                runner.test("with null coverageDataFile", (Test test) ->
+                {
+                    test.assertThrows(() -> JavaProjectTest.getChangedCoverageClassName(null, Iterable.create(), MutableMap.create()),
+                        new PreConditionFailure("coverageDataFile cannot be null."));
+                });
+
+                runner.test("with one changed class",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final Folder outputsSourcesFolder = projectFolder.getOutputsSourcesFolder().await();
+                    outputsSourcesFolder.getFile("B.class").await().setContentsAsString("B.java byte code").await();
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+                    final File bTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "BTests", "A", "B");
+                    final File cTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "CTests", "qub/Dependency");
+
+                    outputsSourcesFolder.getFile("B.class").await().setContentsAsString("B.java modified byte code").await();
+
+                    final Iterable<Folder> coverageClassFolders = Iterable.create(outputsSourcesFolder);
+                    final MutableMap<String,Long> classIds = MutableMap.create();
+                    test.assertNull(JavaProjectTest.getChangedCoverageClassName(aTestsCoverageDataFile, coverageClassFolders, classIds).await());
+                    test.assertEqual("B", JavaProjectTest.getChangedCoverageClassName(bTestsCoverageDataFile, coverageClassFolders, classIds).await());
+                    test.assertNull(JavaProjectTest.getChangedCoverageClassName(cTestsCoverageDataFile, coverageClassFolders, classIds).await());
+                });
+
+                runner.test("with removed class",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final Folder outputsSourcesFolder = projectFolder.getOutputsSourcesFolder().await();
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+
+                    outputsSourcesFolder.getFile("A.class").await().delete().await();
+
+                    test.assertNull(JavaProjectTest.getChangedCoverageClassName(aTestsCoverageDataFile, Iterable.create(outputsSourcesFolder), MutableMap.create()).await());
+                });
+            });
+
+            runner.testGroup("runTests(DesktopProcess,Function0<Result<JacocoAgent>>)", () ->
+            {
+                runner.test("with unmodified test class that has coverage data",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+                    final byte[] aTestsCoverageData = aTestsCoverageDataFile.getContents().await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "No tests need to be run.",
+                            "",
+                            "Unmodified Tests:        1",
+                            "Unmodified Passed Tests: 1"),
+                        process.getOutputWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(), getExecutionDataCalls);
+                    test.assertEqual(aTestsCoverageData, aTestsCoverageDataFile.getContents().await());
+                });
+
+                runner.test("with modified test class",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    aTestsClassFile.setContentsAsString("ATests.java modified byte code").await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "",
+                            "Running tests...",
+                            "ATests",
+                            "  A",
+                            "    Passing test - Passed",
+                            "",
+                            "Tests Run:    1",
+                            "Tests Passed: 1"),
+                        process.getOutputWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(true), getExecutionDataCalls);
+                    test.assertEqual("new coverage data", aTestsCoverageDataFile.getContentsAsString().await());
+                });
+
+                runner.test("with analyzed class file that changed after the coverage data was written",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources", "--verbose")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    final File aClassFile = projectFolder.getOutputsSourcesFolder().await().getFile("A.class").await();
+                    aClassFile.setContentsAsString("A.java modified byte code").await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "VERBOSE: Current Java version: fake-java-version",
+                            "VERBOSE: Successfully parsed test.json file.",
+                            "VERBOSE: Found 1 test class file to test.",
+                            "VERBOSE: Deleting stale coverage data for test class ATests because A has changed...",
+                            "VERBOSE: Discovering which test class files to run...",
+                            "VERBOSE: Found unmodified class file with no coverage data: tests/ATests.class (Last modified: 1970-01-01T00:00Z)",
+                            "",
+                            "Running tests...",
+                            "ATests",
+                            "  A",
+                            "    Passing test - Passed",
+                            "VERBOSE: Updating test.json class file for ATests...",
+                            "VERBOSE: Writing coverage data for ATests...",
+                            "",
+                            "Tests Run:    1",
+                            "Tests Passed: 1",
+                            "VERBOSE: Updating test.json file..."),
+                        process.getOutputWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(true), getExecutionDataCalls);
+                    test.assertEqual("new coverage data", aTestsCoverageDataFile.getContentsAsString().await());
+                });
+
+                runner.test("with analyzed class file that changed and isn't recorded in the coverage data",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File bClassFile = projectFolder.getOutputsSourcesFolder().await().getFile("B.class").await();
+                    bClassFile.setContentsAsString("B.java byte code").await();
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+                    final byte[] aTestsCoverageData = aTestsCoverageDataFile.getContents().await();
+
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    bClassFile.setContentsAsString("B.java modified byte code").await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertLinesEqual(
+                        Iterable.create(
+                            "No tests need to be run.",
+                            "",
+                            "Unmodified Tests:        1",
+                            "Unmodified Passed Tests: 1"),
+                        process.getOutputWriteStream());
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(), getExecutionDataCalls);
+                    test.assertEqual(aTestsCoverageData, aTestsCoverageDataFile.getContents().await());
+                });
+
+                runner.test("with invalid coverage data",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = projectFolder.getCoverageDataFile("ATests").await();
+                    aTestsCoverageDataFile.setContentsAsString("ATests coverage data").await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(true), getExecutionDataCalls);
+                    test.assertEqual("new coverage data", aTestsCoverageDataFile.getContentsAsString().await());
+                });
+
+                runner.test("with coverage data for a removed test class",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+                    final byte[] aTestsCoverageData = aTestsCoverageDataFile.getContents().await();
+                    final File bTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "BTests", "A");
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertEqual(0, process.getExitCode());
+                    test.assertEqual(Iterable.create(), getExecutionDataCalls);
+                    test.assertFalse(bTestsCoverageDataFile.exists().await());
+                    test.assertEqual(aTestsCoverageData, aTestsCoverageDataFile.getContents().await());
+                });
+
+                runner.test("with --pattern",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess("/project/folder/", "--projectFolder=/project/folder/", "--coverage=Sources", "--pattern=*")),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final JavaProjectFolder projectFolder = JavaProjectTestTests.createCoverageProjectFolder(process);
+                    final File aTestsClassFile = projectFolder.getOutputsTestsFolder().await().getFile("ATests.class").await();
+                    JavaProjectTestTests.writeCoverageTestJson(projectFolder, aTestsClassFile);
+                    final File aTestsCoverageDataFile = JavaProjectTestTests.writeCoverageData(projectFolder, "ATests", "A");
+                    final byte[] aTestsCoverageData = aTestsCoverageDataFile.getContents().await();
+
+                    final List<Boolean> getExecutionDataCalls = List.create();
+                    JavaProjectTest.runTests(process, () -> Result.create(() -> JavaProjectTestTests.createFakeJacocoAgent(getExecutionDataCalls)));
+
+                    test.assertEqual(Iterable.create(), getExecutionDataCalls);
+                    test.assertEqual(aTestsCoverageData, aTestsCoverageDataFile.getContents().await());
+                });
+            });
         });
     }
 
@@ -3897,6 +4205,114 @@ public interface JavaProjectTestTests
         return JavaProjectTest.addAction(actions);
     }
 
+    /**
+     * Create a project folder that has already been built and that has one source class file and
+     * one test class file (ATests) with a single passing test.
+     * @param process The process to create the project folder in.
+     * @return The project folder.
+     */
+    static JavaProjectFolder createCoverageProjectFolder(FakeDesktopProcess process)
+    {
+        PreCondition.assertNotNull(process, "process");
+
+        final JavaProjectFolder result = JavaProjectFolder.get(process.getFileSystem().getFolder("/project/folder/").await());
+        result.getOutputsSourcesFolder().await().getFile("A.class").await()
+            .setContentsAsString("A.java byte code").await();
+        result.getOutputsTestsFolder().await().getFile("ATests.class").await()
+            .setContentsAsString("ATests.java byte code").await();
+
+        process.getTypeLoader()
+            .addType("ATests", new Object()
+            {
+                @SuppressWarnings("unused")
+                public static void test(TestRunner runner)
+                {
+                    runner.testGroup("A", () ->
+                    {
+                        runner.test("Passing test", (Test test) ->
+                        {
+                            test.assertNotNull(test);
+                        });
+                    });
+                }
+            }.getClass());
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Write a test.json file that records that the provided test class file's single test passed.
+     * @param projectFolder The project folder to write the test.json file to.
+     * @param testClassFile The test class file to record.
+     */
+    static void writeCoverageTestJson(JavaProjectFolder projectFolder, File testClassFile)
+    {
+        PreCondition.assertNotNull(projectFolder, "projectFolder");
+        PreCondition.assertNotNull(testClassFile, "testClassFile");
+
+        final Folder outputsFolder = projectFolder.getOutputsFolder().await();
+        projectFolder.writeTestJson(TestJSON.create()
+            .setJavaVersion("fake-java-version")
+            .setClassFiles(Iterable.create(
+                TestJSONClassFile.create(testClassFile.relativeTo(outputsFolder))
+                    .setLastModified(testClassFile.getLastModified().await())
+                    .setPassedTestCount(1)
+                    .setSkippedTestCount(0)
+                    .setFailedTestCount(0))))
+            .await();
+    }
+
+    /**
+     * Write coverage data for the provided test class that records the provided classes with the
+     * class ids of their current class files in the project's outputs sources folder. Classes
+     * that don't have a class file are recorded with a class id of 0.
+     * @param projectFolder The project folder to write the coverage data to.
+     * @param testClassFullName The full name of the test class that the coverage data is for.
+     * @param classNames The names of the classes to record.
+     * @return The coverage data file.
+     */
+    static File writeCoverageData(JavaProjectFolder projectFolder, String testClassFullName, String... classNames)
+    {
+        PreCondition.assertNotNull(projectFolder, "projectFolder");
+        PreCondition.assertNotNullAndNotEmpty(testClassFullName, "testClassFullName");
+        PreCondition.assertNotNull(classNames, "classNames");
+
+        final Folder outputsSourcesFolder = projectFolder.getOutputsSourcesFolder().await();
+        final MutableMap<String,Long> classIds = MutableMap.create();
+        for (final String className : classNames)
+        {
+            classIds.set(className, JacocoExecutionData.getClassId(outputsSourcesFolder.getFile(className + ".class").await())
+                .catchError(FileNotFoundException.class, () -> 0L)
+                .await());
+        }
+
+        final File result = projectFolder.getCoverageDataFile(testClassFullName).await();
+        result.setContents(JacocoExecutionDataTests.createExecutionData(classIds)).await();
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Create a fake JaCoCo agent that records the reset argument of each call to
+     * getExecutionData() and that always returns "new coverage data".
+     * @param getExecutionDataCalls The list that each call's reset argument will be added to.
+     * @return The fake JaCoCo agent.
+     */
+    static JacocoAgent createFakeJacocoAgent(List<Boolean> getExecutionDataCalls)
+    {
+        PreCondition.assertNotNull(getExecutionDataCalls, "getExecutionDataCalls");
+
+        return JacocoAgent.create((Boolean reset) ->
+        {
+            getExecutionDataCalls.add(reset);
+            return "new coverage data".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        });
+    }
+
     public static QubProjectVersionFolder getJacocoFolder(QubFolder qubFolder)
     {
         PreCondition.assertNotNull(qubFolder, "qubFolder");
@@ -336,6 +336,65 @@ public interface JavacParametersTests
                     test.assertEqual(Iterable.create("-Xlint:module,open,options"), parameters.getArguments());
                 });
             });
+
+            runner.testGroup("addSourceFiles(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavacParameters parameters = JavacParameters.create();
+                    test.assertThrows(() -> parameters.addSourceFiles(null),
+                        new PreConditionFailure("sourceFilePaths cannot be null."));
+                    test.assertEqual(Iterable.create(), parameters.getArguments());
+                });
+
+                runner.test("with no argument file folder", (Test test) ->
+                {
+                    final JavacParameters parameters = JavacParameters.create()
+                        .setArgumentFileThreshold(0);
+                    test.assertSame(parameters, parameters.addSourceFiles(Iterable.create("sources/qub/A.java", "sources/qub/B.java")));
+                    test.assertEqual(Iterable.create("sources/qub/A.java", "sources/qub/B.java"), parameters.getArguments());
+                });
+
+                runner.test("with source files shorter than the argument file threshold",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder argumentFileFolder = process.getCurrentFolder().getFolder("argfiles").await();
+                    final JavacParameters parameters = JavacParameters.create()
+                        .setArgumentFileFolder(argumentFileFolder);
+                    test.assertSame(parameters, parameters.addSourceFiles(Iterable.create("sources/qub/A.java", "sources/qub/B.java")));
+                    test.assertEqual(Iterable.create("sources/qub/A.java", "sources/qub/B.java"), parameters.getArguments());
+                    test.assertFalse(argumentFileFolder.exists().await());
+                });
+
+                runner.test("with source files longer than the argument file threshold",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder argumentFileFolder = process.getCurrentFolder().getFolder("argfiles").await();
+                    final JavacParameters parameters = JavacParameters.create()
+                        .setArgumentFileFolder(argumentFileFolder)
+                        .setArgumentFileThreshold(10);
+                    test.assertSame(parameters, parameters.addSourceFiles(Iterable.create("sources/qub/A.java", "sources/qub/B.java")));
+                    final File argumentFile = argumentFileFolder.getFile("javac-sources.args").await();
+                    test.assertEqual(Iterable.create("@" + argumentFile), parameters.getArguments());
+                    test.assertEqual("\"sources/qub/A.java\"\n\"sources/qub/B.java\"\n", argumentFile.getContentsAsString().await());
+                });
+            });
+
+            runner.test("addClasspath(Iterable<String>) with classpath longer than the argument file threshold",
+                (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                (Test test, FakeDesktopProcess process) ->
+            {
+                final Folder argumentFileFolder = process.getCurrentFolder().getFolder("argfiles").await();
+                final JavacParameters parameters = JavacParameters.create()
+                    .setArgumentFileFolder(argumentFileFolder)
+                    .setArgumentFileThreshold(10);
+                test.assertSame(parameters, parameters.addClasspath(Iterable.create("/a.jar", "/b.jar")));
+                final File argumentFile = argumentFileFolder.getFile("javac-classpath.args").await();
+                test.assertEqual(Iterable.create("@" + argumentFile), parameters.getArguments());
+                test.assertEqual("\"--class-path\"\n\"/a.jar;/b.jar\"\n", argumentFile.getContentsAsString().await());
+            });
         });
     }
 }
@@ -0,0 +1,275 @@
+package qub;
+
+public interface PackCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(PackCache.class, () ->
+        {
+            runner.testGroup("create(Folder,long)", () ->
+            {
+                runner.test("with null cacheFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> PackCache.create(null, 10),
+                        new PreConditionFailure("cacheFolder cannot be null."));
+                });
+
+                runner.test("with negative maximumSizeInBytes",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    test.assertThrows(() -> PackCache.create(cacheFolder, -1),
+                        new PreConditionFailure("maximumSizeInBytes (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with valid arguments",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    test.assertNotNull(cache);
+                    test.assertSame(cacheFolder, cache.getCacheFolder());
+                    test.assertEqual(10, cache.getMaximumSizeInBytes());
+                });
+            });
+
+            runner.testGroup("getKey(Folder,Iterable<File>,String)", () ->
+            {
+                runner.test("with null baseFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> PackCache.getKey(null, Iterable.create(), ""),
+                        new PreConditionFailure("baseFolder cannot be null."));
+                });
+
+                runner.test("with same files in different folders",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder folderA = process.getCurrentFolder().getFolder("a").await();
+                    folderA.getFile("b/C.class").await().setContentsAsString("c").await();
+                    folderA.getFile("D.class").await().setContentsAsString("d").await();
+                    final Folder folderB = process.getCurrentFolder().getFolder("b").await();
+                    folderB.getFile("D.class").await().setContentsAsString("d").await();
+                    folderB.getFile("b/C.class").await().setContentsAsString("c").await();
+
+                    final String keyA = PackCache.getKey(folderA, folderA.iterateFilesRecursively().toList(), "settings").await();
+                    final String keyB = PackCache.getKey(folderB, folderB.iterateFilesRecursively().toList(), "settings").await();
+                    test.assertEqual(64, keyA.length());
+                    test.assertEqual(keyA, keyB);
+                });
+
+                runner.test("with different file contents",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder folder = process.getCurrentFolder().getFolder("a").await();
+                    final File file = folder.getFile("A.class").await();
+                    file.setContentsAsString("a").await();
+                    final String key1 = PackCache.getKey(folder, Iterable.create(file), "settings").await();
+                    file.setContentsAsString("b").await();
+                    final String key2 = PackCache.getKey(folder, Iterable.create(file), "settings").await();
+                    test.assertNotEqual(key1, key2);
+                });
+
+                runner.test("with different settings",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder folder = process.getCurrentFolder().getFolder("a").await();
+                    final File file = folder.getFile("A.class").await();
+                    file.setContentsAsString("a").await();
+                    test.assertNotEqual(
+                        PackCache.getKey(folder, Iterable.create(file), "settings1").await(),
+                        PackCache.getKey(folder, Iterable.create(file), "settings2").await());
+                });
+            });
+
+            runner.testGroup("restore(String,File)", () ->
+            {
+                runner.test("with empty key",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    test.assertThrows(() -> cache.restore("", jarFile),
+                        new PreConditionFailure("key cannot be empty."));
+                });
+
+                runner.test("with missing key",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    test.assertFalse(cache.restore("abc", jarFile).await());
+                    test.assertFalse(jarFile.exists().await());
+                });
+
+                runner.test("with stored key",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 10);
+                    final File storedJarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    storedJarFile.setContentsAsString("abc").await();
+                    test.assertEqual(3L, cache.store("abc", storedJarFile).await());
+
+                    final File restoredJarFile = process.getCurrentFolder().getFile("b.jar").await();
+                    test.assertTrue(cache.restore("abc", restoredJarFile).await());
+                    test.assertEqual("abc", restoredJarFile.getContentsAsString().await());
+                    test.assertFalse(cache.getCacheFolder().iterateFiles()
+                        .any((File file) -> file.getName().endsWith(".restoring")));
+                });
+            });
+
+            runner.testGroup("store(String,File)", () ->
+            {
+                runner.test("with null jarFile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 10);
+                    test.assertThrows(() -> cache.store("abc", null),
+                        new PreConditionFailure("jarFile cannot be null."));
+                });
+
+                runner.test("with non-existing jarFile",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    test.assertThrows(() -> cache.store("abc", jarFile).await(),
+                        new FileNotFoundException(jarFile));
+                });
+
+                runner.test("when the cache is full, evicts the least recently used jar files",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    final File restoredJarFile = process.getCurrentFolder().getFile("b.jar").await();
+
+                    jarFile.setContentsAsString("1111").await();
+                    cache.store("one", jarFile).await();
+                    jarFile.setContentsAsString("2222").await();
+                    cache.store("two", jarFile).await();
+
+                    // Using "one" makes "two" the least recently used jar file.
+                    test.assertTrue(cache.restore("one", restoredJarFile).await());
+
+                    jarFile.setContentsAsString("3333").await();
+                    cache.store("three", jarFile).await();
+
+                    test.assertTrue(cache.getCachedJarFile("one").await().exists().await());
+                    test.assertFalse(cache.getCachedJarFile("two").await().exists().await());
+                    test.assertTrue(cache.getCachedJarFile("three").await().exists().await());
+                    test.assertFalse(cache.restore("two", restoredJarFile).await());
+                });
+
+                runner.test("doesn't leave temporary files in the cache folder",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    jarFile.setContentsAsString("abc").await();
+
+                    test.assertEqual(3L, cache.store("abc", jarFile).await());
+                    test.assertEqual(
+                        Iterable.create(
+                            cache.getCachedJarFile("abc").await(),
+                            cacheFolder.getFile("index.json").await()),
+                        cacheFolder.iterateEntries().toList());
+                    test.assertEqual("abc", cache.getCachedJarFile("abc").await().getContentsAsString().await());
+                });
+
+                runner.test("with a jar file that another process stored",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+
+                    jarFile.setContentsAsString("1111").await();
+                    cache.store("one", jarFile).await();
+
+                    // A jar file that isn't in the index is treated as the least recently used one.
+                    cache.getCachedJarFile("other").await().setContentsAsString("0000").await();
+
+                    jarFile.setContentsAsString("2222").await();
+                    cache.store("two", jarFile).await();
+
+                    test.assertTrue(cache.getCachedJarFile("one").await().exists().await());
+                    test.assertFalse(cache.getCachedJarFile("other").await().exists().await());
+                    test.assertTrue(cache.getCachedJarFile("two").await().exists().await());
+                });
+
+                runner.test("with a jar file that another process removed",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+
+                    jarFile.setContentsAsString("1111").await();
+                    cache.store("one", jarFile).await();
+                    jarFile.setContentsAsString("2222").await();
+                    cache.store("two", jarFile).await();
+
+                    // The removed jar file no longer counts against the cache's size.
+                    cache.getCachedJarFile("two").await().delete().await();
+
+                    jarFile.setContentsAsString("3333").await();
+                    cache.store("three", jarFile).await();
+
+                    test.assertTrue(cache.getCachedJarFile("one").await().exists().await());
+                    test.assertTrue(cache.getCachedJarFile("three").await().exists().await());
+                });
+
+                runner.test("with a jar file that another process is restoring",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder cacheFolder = process.getCurrentFolder().getFolder("cache").await();
+                    final PackCache cache = PackCache.create(cacheFolder, 10);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+
+                    jarFile.setContentsAsString("1111").await();
+                    cache.store("one", jarFile).await();
+                    jarFile.setContentsAsString("2222").await();
+                    cache.store("two", jarFile).await();
+
+                    cacheFolder.getFile("one.0123456789abcdef.restoring").await().setContentsAsString("").await();
+
+                    jarFile.setContentsAsString("3333").await();
+                    cache.store("three", jarFile).await();
+
+                    test.assertTrue(cache.getCachedJarFile("one").await().exists().await());
+                    test.assertFalse(cache.getCachedJarFile("two").await().exists().await());
+                    test.assertTrue(cache.getCachedJarFile("three").await().exists().await());
+                });
+
+                runner.test("with a jar file that is larger than the cache",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final PackCache cache = PackCache.create(process.getCurrentFolder().getFolder("cache").await(), 2);
+                    final File jarFile = process.getCurrentFolder().getFile("a.jar").await();
+                    jarFile.setContentsAsString("abc").await();
+
+                    test.assertEqual(3L, cache.store("abc", jarFile).await());
+                    test.assertFalse(cache.getCachedJarFile("abc").await().exists().await());
+                });
+            });
+        });
+    }
+}
@@ -1355,6 +1355,180 @@ public interface PackJSONTests
                     Iterable.create(
                         PackJSONFile.create("outputs/tests/BTest.class", DateTime.create(10, 11, 12))));
             });
+
+            runner.testGroup("setPackSettings(JavaProjectJSONPack)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setPackSettings(null),
+                        new PreConditionFailure("packSettings cannot be null."));
+                    test.assertEqual(JSONObject.create(), packJson.getPackSettings().toJson());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    final JavaProjectJSONPack packSettings = JavaProjectJSONPack.create()
+                        .setDeterministic(true);
+                    test.assertSame(packJson, packJson.setPackSettings(packSettings));
+                    test.assertTrue(packJson.getPackSettings().getDeterministic());
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setObject("packSettings", JSONObject.create()
+                                .setBoolean("deterministic", true)),
+                        packJson.toJson());
+                });
+            });
+
+            runner.testGroup("setJarHash(Path,String)", () ->
+            {
+                runner.test("with null jarFileRelativePath", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setJarHash(null, "abc"),
+                        new PreConditionFailure("jarFileRelativePath cannot be null."));
+                });
+
+                runner.test("with rooted jarFileRelativePath", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setJarHash(Path.parse("/outputs/a.jar"), "abc"),
+                        new PreConditionFailure("jarFileRelativePath.isRooted() cannot be true."));
+                });
+
+                runner.test("with empty jarHash", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setJarHash(Path.parse("outputs/a.jar"), ""),
+                        new PreConditionFailure("jarHash cannot be empty."));
+                });
+
+                runner.test("with multiple jar files", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertNull(packJson.getJarHash(Path.parse("outputs/a.jar")));
+
+                    test.assertSame(packJson, packJson.setJarHash(Path.parse("outputs/a.jar"), "abc"));
+                    test.assertSame(packJson, packJson.setJarHash(Path.parse("outputs/b.jar"), "def"));
+                    test.assertEqual("abc", packJson.getJarHash(Path.parse("outputs/a.jar")));
+                    test.assertEqual("def", packJson.getJarHash(Path.parse("outputs/b.jar")));
+                    test.assertNull(packJson.getJarHash(Path.parse("outputs/c.jar")));
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setObject("jarHashes", JSONObject.create()
+                                .setString("outputs/a.jar", "abc")
+                                .setString("outputs/b.jar", "def")),
+                        packJson.toJson());
+                });
+            });
+
+            runner.testGroup("getFolderDigest(Iterable<PackJSONFile>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> PackJSON.getFolderDigest((Iterable<PackJSONFile>)null),
+                        new PreConditionFailure("files cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertEqual(ContentHash.get(new byte[0]), PackJSON.getFolderDigest(Iterable.create()));
+                });
+
+                runner.test("with files in different orders", (Test test) ->
+                {
+                    final PackJSONFile a = PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1));
+                    final PackJSONFile b = PackJSONFile.create("sources/b/B.java", DateTime.create(1970, 1, 2));
+                    test.assertEqual(
+                        PackJSON.getFolderDigest(Iterable.create(a, b)),
+                        PackJSON.getFolderDigest(Iterable.create(b, a)));
+                });
+
+                runner.test("with modified file", (Test test) ->
+                {
+                    test.assertNotEqual(
+                        PackJSON.getFolderDigest(Iterable.create(PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1)))),
+                        PackJSON.getFolderDigest(Iterable.create(PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 2)))));
+                });
+
+                runner.test("with removed file", (Test test) ->
+                {
+                    final PackJSONFile a = PackJSONFile.create("sources/A.java", DateTime.create(1970, 1, 1));
+                    final PackJSONFile b = PackJSONFile.create("sources/B.java", DateTime.create(1970, 1, 1));
+                    test.assertNotEqual(
+                        PackJSON.getFolderDigest(Iterable.create(a, b)),
+                        PackJSON.getFolderDigest(Iterable.create(a)));
+                });
+            });
+
+            runner.testGroup("setFolderDigest(Path,String)", () ->
+            {
+                runner.test("with null folderRelativePath", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setFolderDigest(null, "abc"),
+                        new PreConditionFailure("folderRelativePath cannot be null."));
+                });
+
+                runner.test("with rooted folderRelativePath", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setFolderDigest(Path.parse("/sources"), "abc"),
+                        new PreConditionFailure("folderRelativePath.isRooted() cannot be true."));
+                });
+
+                runner.test("with empty folderDigest", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setFolderDigest(Path.parse("sources"), ""),
+                        new PreConditionFailure("folderDigest cannot be empty."));
+                });
+
+                runner.test("with multiple folders", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertNull(packJson.getFolderDigest(Path.parse("sources")));
+
+                    test.assertSame(packJson, packJson.setFolderDigest(Path.parse("sources"), "abc"));
+                    test.assertSame(packJson, packJson.setFolderDigest(Path.parse("outputs/sources"), "def"));
+                    test.assertEqual("abc", packJson.getFolderDigest(Path.parse("sources")));
+                    test.assertEqual("def", packJson.getFolderDigest(Path.parse("outputs/sources")));
+                    test.assertNull(packJson.getFolderDigest(Path.parse("tests")));
+                    test.assertEqual(
+                        JSONObject.create()
+                            .setObject("folderDigests", JSONObject.create()
+                                .setString("sources", "abc")
+                                .setString("outputs/sources", "def")),
+                        packJson.toJson());
+                });
+            });
+
+            runner.testGroup("setFatJarDigest(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setFatJarDigest(null),
+                        new PreConditionFailure("fatJarDigest cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertThrows(() -> packJson.setFatJarDigest(""),
+                        new PreConditionFailure("fatJarDigest cannot be empty."));
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final PackJSON packJson = PackJSON.create();
+                    test.assertNull(packJson.getFatJarDigest());
+                    test.assertSame(packJson, packJson.setFatJarDigest("abc"));
+                    test.assertEqual("abc", packJson.getFatJarDigest());
+                    test.assertEqual(JSONObject.create().setString("fatJarDigest", "abc"), packJson.toJson());
+                });
+            });
         });
     }
 }
@@ -0,0 +1,190 @@
+package qub;
+
+public interface StackTraceFormatTests
+{
+    static StackTraceElement createElement(String className, String methodName, int lineNumber)
+    {
+        return new StackTraceElement(className, methodName, className.substring(className.lastIndexOf('.') + 1) + ".java", lineNumber);
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(StackTraceFormat.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final StackTraceFormat format = StackTraceFormat.create();
+                test.assertNotNull(format);
+                test.assertFalse(format.getCollapseRepeatedFrames());
+                test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("a.B", "c", 1)));
+            });
+
+            runner.testGroup("ignoreType(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertThrows(() -> format.ignoreType((String)null),
+                        new PreConditionFailure("fullyQualifiedTypeName cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertThrows(() -> format.ignoreType(""),
+                        new PreConditionFailure("fullyQualifiedTypeName cannot be empty."));
+                });
+
+                runner.test("with exact type name", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertSame(format, format.ignoreType("a.B"));
+                    test.assertFalse(format.shouldShow(StackTraceFormatTests.createElement("a.B", "c", 1)));
+                    test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("a.BC", "c", 1)));
+                    test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("a.B$1", "c", 1)));
+                    test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("a", "c", 1)));
+                });
+
+                runner.test("with prefix", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertSame(format, format.ignoreType("java.lang.reflect.*"));
+                    test.assertFalse(format.shouldShow(StackTraceFormatTests.createElement("java.lang.reflect.Method", "invoke", 1)));
+                    test.assertFalse(format.shouldShow(StackTraceFormatTests.createElement("java.lang.reflect.a.B", "c", 1)));
+                    test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("java.lang.Thread", "run", 1)));
+                });
+
+                runner.test("after shouldShow() was already called", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    final StackTraceElement element = StackTraceFormatTests.createElement("a.B", "c", 1);
+                    test.assertTrue(format.shouldShow(element));
+
+                    format.ignoreType("a.B");
+                    test.assertFalse(format.shouldShow(element));
+                });
+
+                runner.test("with prefix after shouldShow() was already called", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    final StackTraceElement element = StackTraceFormatTests.createElement("a.b.C", "d", 1);
+                    test.assertTrue(format.shouldShow(element));
+
+                    format.ignoreType("a.b.*");
+                    test.assertFalse(format.shouldShow(element));
+                });
+
+                runner.test("with '*' that isn't at the end", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertSame(format, format.ignoreType("a.*.C"));
+                    test.assertTrue(format.shouldShow(StackTraceFormatTests.createElement("a.b.C", "d", 1)));
+                    test.assertFalse(format.shouldShow(StackTraceFormatTests.createElement("a.*.C", "d", 1)));
+                });
+            });
+
+            runner.testGroup("ignoreType(Class<?>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertThrows(() -> format.ignoreType((Class<?>)null),
+                        new PreConditionFailure("type cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertSame(format, format.ignoreType(StackTraceFormat.class));
+                    test.assertFalse(format.shouldShow(StackTraceFormatTests.createElement("qub.StackTraceFormat", "create", 1)));
+                });
+            });
+
+            runner.testGroup("shouldShow(StackTraceElement)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertThrows(() -> format.shouldShow(null),
+                        new PreConditionFailure("element cannot be null."));
+                });
+
+                final Action3<Iterable<String>,String,Boolean> shouldShowTest = (Iterable<String> ignoredTypes, String className, Boolean expected) ->
+                {
+                    runner.test("with " + English.andList(ignoredTypes, Strings.escapeAndQuote(className)), (Test test) ->
+                    {
+                        final StackTraceFormat format = StackTraceFormat.create();
+                        for (final String ignoredType : ignoredTypes)
+                        {
+                            format.ignoreType(ignoredType);
+                        }
+                        test.assertEqual(expected, format.shouldShow(StackTraceFormatTests.createElement(className, "m", 1)));
+                    });
+                };
+
+                shouldShowTest.run(Iterable.create(), "a.B", true);
+                shouldShowTest.run(Iterable.create("a.B"), "a.B", false);
+                shouldShowTest.run(Iterable.create("a.B"), "a.BC", true);
+                shouldShowTest.run(Iterable.create("a.B"), "a", true);
+                shouldShowTest.run(Iterable.create("a.B*"), "a.B", false);
+                shouldShowTest.run(Iterable.create("a.B*"), "a.BC", false);
+                shouldShowTest.run(Iterable.create("a.B*"), "a.B$1", false);
+                shouldShowTest.run(Iterable.create("a.B*"), "a.A", true);
+                shouldShowTest.run(Iterable.create("a.B*"), "a.C", true);
+                shouldShowTest.run(Iterable.create("*"), "a.B", false);
+                shouldShowTest.run(Iterable.create("a.*", "a.b.c.d*"), "a.b.c.e", false);
+                shouldShowTest.run(Iterable.create("a.b.c.d*", "a.*"), "a.b.c.e", false);
+                shouldShowTest.run(Iterable.create("a.b.*", "a.c.*"), "a.bb", true);
+                shouldShowTest.run(Iterable.create("a.b.*", "a.c.*"), "a.b.D", false);
+                shouldShowTest.run(Iterable.create("a.b.*", "a.c.*"), "a.c.D", false);
+                shouldShowTest.run(Iterable.create("a.b.*", "a.c.*"), "a.d.D", true);
+            });
+
+            runner.testGroup("getLines(StackTraceElement[])", () ->
+            {
+                final StackTraceElement a = StackTraceFormatTests.createElement("x.A", "a", 1);
+                final StackTraceElement b = StackTraceFormatTests.createElement("x.B", "b", 2);
+                final StackTraceElement c = StackTraceFormatTests.createElement("x.C", "c", 3);
+                final StackTraceElement ignored = StackTraceFormatTests.createElement("y.Ignored", "i", 4);
+
+                runner.test("with null", (Test test) ->
+                {
+                    final StackTraceFormat format = StackTraceFormat.create();
+                    test.assertThrows(() -> format.getLines(null),
+                        new PreConditionFailure("stackTraceElements cannot be null."));
+                });
+
+                final Action3<Boolean,StackTraceElement[],Iterable<String>> getLinesTest = (Boolean collapseRepeatedFrames, StackTraceElement[] elements, Iterable<String> expected) ->
+                {
+                    runner.test("with " + English.andList(collapseRepeatedFrames, Iterable.create(elements)), (Test test) ->
+                    {
+                        final StackTraceFormat format = StackTraceFormat.create()
+                            .ignoreType("y.*")
+                            .setCollapseRepeatedFrames(collapseRepeatedFrames);
+                        test.assertEqual(expected, format.getLines(elements));
+                    });
+                };
+
+                getLinesTest.run(false, new StackTraceElement[0], Iterable.create());
+                getLinesTest.run(false,
+                    new StackTraceElement[] { a, ignored, b },
+                    Iterable.create("at " + a, "at " + b));
+                getLinesTest.run(false,
+                    new StackTraceElement[] { a, a, a, b },
+                    Iterable.create("at " + a, "at " + a, "at " + a, "at " + b));
+                getLinesTest.run(true,
+                    new StackTraceElement[] { a, b, c },
+                    Iterable.create("at " + a, "at " + b, "at " + c));
+                getLinesTest.run(true,
+                    new StackTraceElement[] { a, a, a, b },
+                    Iterable.create("at " + a, "... previous frame repeated 2 more times", "at " + b));
+                getLinesTest.run(true,
+                    new StackTraceElement[] { c, a, b, a, ignored, b, a, b, c },
+                    Iterable.create("at " + c, "at " + a, "at " + b, "... previous 2 frames repeated 2 more times", "at " + c));
+                getLinesTest.run(true,
+                    new StackTraceElement[] { a, b, a, c },
+                    Iterable.create("at " + a, "at " + b, "at " + a, "at " + c));
+            });
+        });
+    }
+}
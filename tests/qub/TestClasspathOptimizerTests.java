@@ -0,0 +1,371 @@
+package qub;
+
+public interface TestClasspathOptimizerTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(TestClasspathOptimizer.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final TestClasspathOptimizer optimizer = TestClasspathOptimizer.create();
+                test.assertNotNull(optimizer);
+                test.assertEqual(Iterable.create(), optimizer.optimize().await());
+            });
+
+            runner.test("addProjectEntry(FileSystemEntry) with null", (Test test) ->
+            {
+                test.assertThrows(() -> TestClasspathOptimizer.create().addProjectEntry(null),
+                    new PreConditionFailure("projectEntry cannot be null."));
+            });
+
+            runner.test("addDependencyJarFile(File) with null", (Test test) ->
+            {
+                test.assertThrows(() -> TestClasspathOptimizer.create().addDependencyJarFile(null),
+                    new PreConditionFailure("dependencyJarFile cannot be null."));
+            });
+
+            runner.test("addDependencyTestJarFile(File) with null", (Test test) ->
+            {
+                test.assertThrows(() -> TestClasspathOptimizer.create().addDependencyTestJarFile(null),
+                    new PreConditionFailure("dependencyTestJarFile cannot be null."));
+            });
+
+            runner.test("addAdditionalEntry(FileSystemEntry) with null", (Test test) ->
+            {
+                test.assertThrows(() -> TestClasspathOptimizer.create().addAdditionalEntry(null),
+                    new PreConditionFailure("additionalEntry cannot be null."));
+            });
+
+            runner.testGroup("getReferencedClassNames(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClasspathOptimizer.getReferencedClassNames(null),
+                        new PreConditionFailure("classFileBytes cannot be null."));
+                });
+
+                runner.test("with invalid header", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClasspathOptimizer.getReferencedClassNames(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 }).await(),
+                        new ParseException("Invalid class file header."));
+                });
+
+                runner.test("with truncated constant pool", (Test test) ->
+                {
+                    final byte[] classFileBytes = TestClasspathOptimizerTests.createClassFileBytes("a/A", "b/B");
+                    test.assertThrows(() -> TestClasspathOptimizer.getReferencedClassNames(java.util.Arrays.copyOf(classFileBytes, 14)).await(),
+                        new ParseException("The class file's constant pool extends past the end of the class file."));
+                });
+
+                runner.test("with class references", (Test test) ->
+                {
+                    final byte[] classFileBytes = TestClasspathOptimizerTests.createClassFileBytes("a/A", "b/B", "c/C");
+                    test.assertEqual(Iterable.create("a/A", "b/B", "c/C"), TestClasspathOptimizer.getReferencedClassNames(classFileBytes).await());
+                });
+
+                runner.test("with descriptor references", (Test test) ->
+                {
+                    final byte[] classFileBytes = TestClasspathOptimizerTests.createClassFileBytes(
+                        Iterable.create("a/A", "[Lb/B;"),
+                        Iterable.create("(Lc/C;I)Ld/D;"));
+                    test.assertEqual(Iterable.create("a/A", "b/B", "c/C", "d/D"), TestClasspathOptimizer.getReferencedClassNames(classFileBytes).await());
+                });
+            });
+
+            runner.testGroup("optimize()", () ->
+            {
+                runner.test("with unreferenced dependency test jar",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder sourcesFolder = currentFolder.getFolder("outputs/sources").await();
+                    final Folder testsFolder = currentFolder.getFolder("outputs/tests").await();
+                    sourcesFolder.getFile("p/P.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/P", "a/A")).await();
+                    testsFolder.getFile("p/PTests.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/PTests", "p/P", "a/ATests")).await();
+                    final File aJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.jar", "a/A");
+                    final File aTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.tests.jar", "a/ATests");
+                    final File bJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.jar", "b/B");
+                    final File bTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.tests.jar", "b/BTests");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(sourcesFolder)
+                        .addProjectEntry(testsFolder)
+                        .addDependencyJarFile(aJarFile)
+                        .addDependencyTestJarFile(aTestsJarFile)
+                        .addDependencyJarFile(bJarFile)
+                        .addDependencyTestJarFile(bTestsJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(sourcesFolder, testsFolder, aJarFile, aTestsJarFile, bJarFile), classpath);
+                });
+
+                runner.test("with dependency test jar referenced by another dependency test jar",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder testsFolder = currentFolder.getFolder("outputs/tests").await();
+                    testsFolder.getFile("p/PTests.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/PTests", "a/ATests")).await();
+                    final File aTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.tests.jar", "a/ATests", Iterable.create("b/BTests"));
+                    final File bTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.tests.jar", "b/BTests");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(testsFolder)
+                        .addDependencyTestJarFile(bTestsJarFile)
+                        .addDependencyTestJarFile(aTestsJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(testsFolder, bTestsJarFile, aTestsJarFile), classpath);
+                });
+
+                runner.test("with dependency test jar referenced by a dependency jar",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder sourcesFolder = currentFolder.getFolder("outputs/sources").await();
+                    sourcesFolder.getFile("p/P.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/P", "a/A")).await();
+                    final File aJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.jar", "a/A", Iterable.create("a/ATests"));
+                    final File aTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.tests.jar", "a/ATests");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(sourcesFolder)
+                        .addDependencyJarFile(aJarFile)
+                        .addDependencyTestJarFile(aTestsJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(sourcesFolder, aJarFile), classpath);
+                });
+
+                runner.test("with project class file that can't be parsed",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder testsFolder = currentFolder.getFolder("outputs/tests").await();
+                    testsFolder.getFile("p/PTests.class").await().setContentsAsString("not a class file").await();
+                    final File aTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.tests.jar", "a/ATests");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(testsFolder)
+                        .addDependencyTestJarFile(aTestsJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(testsFolder, aTestsJarFile), classpath);
+                });
+
+                runner.test("with duplicate and missing entries",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder sourcesFolder = currentFolder.getFolder("outputs/sources").await();
+                    sourcesFolder.getFile("p/P.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/P", "a/A")).await();
+                    final File aJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.jar", "a/A");
+                    final File missingJarFile = currentFolder.getFile("missing.jar").await();
+                    final Folder jvmFolder = currentFolder.getFolder("jvm").await();
+                    jvmFolder.getFile("J.class").await().setContentsAsString("").await();
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(sourcesFolder)
+                        .addDependencyJarFile(aJarFile)
+                        .addDependencyJarFile(missingJarFile)
+                        .addAdditionalEntry(jvmFolder)
+                        .addAdditionalEntry(sourcesFolder)
+                        .addAdditionalEntry(aJarFile)
+                        .addAdditionalEntry(jvmFolder)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(sourcesFolder, aJarFile, jvmFolder), classpath);
+                });
+
+                runner.test("with jars that have different hit counts",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder sourcesFolder = currentFolder.getFolder("outputs/sources").await();
+                    sourcesFolder.getFile("p/P.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/P", "a/A", "b/B1", "b/B2", "c/C")).await();
+                    final File aJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.jar", "a/A");
+                    final File bJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.jar", "b/B1", "b/B2");
+                    final File cJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "c.jar", "c/C");
+                    final File dJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "d.jar", "d/D");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(sourcesFolder)
+                        .addDependencyJarFile(dJarFile)
+                        .addDependencyJarFile(aJarFile)
+                        .addDependencyJarFile(bJarFile)
+                        .addDependencyJarFile(cJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(sourcesFolder, bJarFile, aJarFile, cJarFile, dJarFile), classpath);
+                });
+
+                runner.test("with jars that contain the same class",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder sourcesFolder = currentFolder.getFolder("outputs/sources").await();
+                    sourcesFolder.getFile("p/P.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/P", "a/A", "b/B1", "b/B2")).await();
+                    final File aJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.jar", "a/A");
+                    final File bJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.jar", "a/A", "b/B1", "b/B2");
+
+                    final Iterable<FileSystemEntry> classpath = TestClasspathOptimizer.create()
+                        .addProjectEntry(sourcesFolder)
+                        .addDependencyJarFile(aJarFile)
+                        .addDependencyJarFile(bJarFile)
+                        .optimize().await();
+                    test.assertEqual(Iterable.create(sourcesFolder, aJarFile, bJarFile), classpath);
+                });
+
+                runner.test("with jar class index cache",
+                    (TestResources resources) -> Tuple.create(resources.createFakeDesktopProcess()),
+                    (Test test, FakeDesktopProcess process) ->
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    final Folder testsFolder = currentFolder.getFolder("outputs/tests").await();
+                    testsFolder.getFile("p/PTests.class").await().setContents(TestClasspathOptimizerTests.createClassFileBytes("p/PTests", "a/ATests")).await();
+                    final File aTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "a.tests.jar", "a/ATests", Iterable.create("b/BTests"));
+                    final File bTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "b.tests.jar", "b/BTests");
+                    final File cTestsJarFile = TestClasspathOptimizerTests.createJarFile(currentFolder, "c.tests.jar", "c/CTests");
+                    final JarClassIndexCache cache = JarClassIndexCache.create();
+                    final Function0<Iterable<FileSystemEntry>> optimize = () -> TestClasspathOptimizer.create()
+                        .setJarClassIndexCache(cache)
+                        .addProjectEntry(testsFolder)
+                        .addDependencyTestJarFile(aTestsJarFile)
+                        .addDependencyTestJarFile(bTestsJarFile)
+                        .addDependencyTestJarFile(cTestsJarFile)
+                        .optimize().await();
+
+                    test.assertEqual(Iterable.create(testsFolder, aTestsJarFile, bTestsJarFile), optimize.run());
+                    test.assertTrue(cache.isModified());
+                    final DateTime aLastModified = aTestsJarFile.getLastModified().await();
+                    test.assertEqual(Iterable.create("a/ATests"), cache.getClassNames(aTestsJarFile, aLastModified));
+                    test.assertEqual(Iterable.create("a/ATests", "b/BTests"), cache.getReferencedClassNames(aTestsJarFile, aLastModified));
+                    test.assertEqual(Iterable.create("c/CTests"), cache.getClassNames(cTestsJarFile, cTestsJarFile.getLastModified().await()));
+                    test.assertNull(cache.getReferencedClassNames(cTestsJarFile, cTestsJarFile.getLastModified().await()));
+
+                    // The jar files' last modified times haven't changed, so their cached class
+                    // indexes are used instead of reading them again.
+                    aTestsJarFile.setContentsAsString("not a jar file").await();
+                    test.assertEqual(Iterable.create(testsFolder, aTestsJarFile, bTestsJarFile), optimize.run());
+
+                    // A jar file that has changed is read again. A jar that can't be parsed is
+                    // always kept, and so are the test jars when its references are unknown.
+                    process.getClock().advance(Duration.minutes(1)).await();
+                    aTestsJarFile.setContentsAsString("still not a jar file").await();
+                    test.assertEqual(Iterable.create(testsFolder, aTestsJarFile, bTestsJarFile, cTestsJarFile), optimize.run());
+                });
+            });
+        });
+    }
+
+    /**
+     * Create the bytes of a minimal class file whose constant pool references the provided
+     * classes.
+     * @param classNames The internal names of the classes that the class file references.
+     * @return The bytes of the class file.
+     */
+    static byte[] createClassFileBytes(String... classNames)
+    {
+        return TestClasspathOptimizerTests.createClassFileBytes(Iterable.create(classNames), Iterable.create());
+    }
+
+    /**
+     * Create the bytes of a minimal class file whose constant pool contains a class entry for each
+     * of the provided class names and a Utf8 entry for each of the provided descriptors. A long
+     * constant is also added to make sure that its two constant pool slots are handled.
+     * @param classNames The internal names of the classes that the class file references.
+     * @param descriptors The field or method descriptors that the class file contains.
+     * @return The bytes of the class file.
+     */
+    static byte[] createClassFileBytes(Iterable<String> classNames, Iterable<String> descriptors)
+    {
+        final java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+        try (final java.io.DataOutputStream classStream = new java.io.DataOutputStream(result))
+        {
+            classStream.writeInt(0xCAFEBABE);
+            classStream.writeShort(0);
+            classStream.writeShort(52);
+            classStream.writeShort(1 + (classNames.getCount() * 2) + 2 + descriptors.getCount());
+            int constantIndex = 1;
+            for (final String className : classNames)
+            {
+                classStream.writeByte(1);
+                classStream.writeUTF(className);
+                classStream.writeByte(7);
+                classStream.writeShort(constantIndex);
+                constantIndex += 2;
+            }
+            classStream.writeByte(5);
+            classStream.writeLong(Long.MAX_VALUE);
+            for (final String descriptor : descriptors)
+            {
+                classStream.writeByte(1);
+                classStream.writeUTF(descriptor);
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Create a jar file that contains a single class file.
+     * @param folder The folder to create the jar file in.
+     * @param jarFileName The name of the jar file.
+     * @param className The internal name of the class in the jar file.
+     * @param referencedClassNames The internal names of the other classes that the class
+     *                             references.
+     * @return The jar file.
+     */
+    static File createJarFile(Folder folder, String jarFileName, String className, Iterable<String> referencedClassNames)
+    {
+        final List<String> classFileClassNames = List.create(className);
+        classFileClassNames.addAll(referencedClassNames);
+        return TestClasspathOptimizerTests.createJarFile(folder, jarFileName, Iterable.create(className), Iterable.create(TestClasspathOptimizerTests.createClassFileBytes(classFileClassNames, Iterable.create())));
+    }
+
+    /**
+     * Create a jar file that contains a class file for each of the provided class names. Each
+     * class file references the classes that follow it in the provided class names.
+     * @param folder The folder to create the jar file in.
+     * @param jarFileName The name of the jar file.
+     * @param classNames The internal names of the classes in the jar file.
+     * @return The jar file.
+     */
+    static File createJarFile(Folder folder, String jarFileName, String... classNames)
+    {
+        final List<byte[]> classFiles = List.create();
+        for (int i = 0; i < classNames.length; ++i)
+        {
+            classFiles.add(TestClasspathOptimizerTests.createClassFileBytes(java.util.Arrays.copyOfRange(classNames, i, classNames.length)));
+        }
+        return TestClasspathOptimizerTests.createJarFile(folder, jarFileName, Iterable.create(classNames), classFiles);
+    }
+
+    static File createJarFile(Folder folder, String jarFileName, Iterable<String> classNames, Iterable<byte[]> classFiles)
+    {
+        final java.io.ByteArrayOutputStream jarBytes = new java.io.ByteArrayOutputStream();
+        try (final java.util.zip.ZipOutputStream zipStream = new java.util.zip.ZipOutputStream(jarBytes))
+        {
+            final List<byte[]> classFilesList = classFiles.toList();
+            int index = 0;
+            for (final String className : classNames)
+            {
+                zipStream.putNextEntry(new java.util.zip.ZipEntry(className + ".class"));
+                zipStream.write(classFilesList.get(index));
+                zipStream.closeEntry();
+                ++index;
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+
+        final File result = folder.getFile(jarFileName).await();
+        result.setContents(jarBytes.toByteArray()).await();
+        return result;
+    }
+}
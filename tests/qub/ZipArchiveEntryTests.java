@@ -0,0 +1,61 @@
+package qub;
+
+public interface ZipArchiveEntryTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ZipArchiveEntry.class, () ->
+        {
+            runner.testGroup("create(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipArchiveEntry.create(null),
+                        new PreConditionFailure("name cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipArchiveEntry.create(""),
+                        new PreConditionFailure("name cannot be empty."));
+                });
+
+                runner.test("with file name", (Test test) ->
+                {
+                    final ZipArchiveEntry entry = ZipArchiveEntry.create("a/B.class");
+                    test.assertEqual("a/B.class", entry.getName());
+                    test.assertFalse(entry.isFolder());
+                    test.assertEqual(0, entry.getMethod());
+                    test.assertEqual(0L, entry.getCrc());
+                    test.assertEqual(0L, entry.getCompressedSize());
+                    test.assertEqual(0L, entry.getUncompressedSize());
+                    test.assertEqual(0L, entry.getLocalHeaderOffset());
+                    test.assertEqual("a/B.class", entry.toString());
+                });
+
+                runner.test("with folder name", (Test test) ->
+                {
+                    final ZipArchiveEntry entry = ZipArchiveEntry.create("a/");
+                    test.assertTrue(entry.isFolder());
+                });
+            });
+
+            runner.test("setCompressedSize(long)", (Test test) ->
+            {
+                final ZipArchiveEntry entry = ZipArchiveEntry.create("a");
+                test.assertThrows(() -> entry.setCompressedSize(-1),
+                    new PreConditionFailure("compressedSize (-1) must be greater than or equal to 0."));
+                test.assertSame(entry, entry.setCompressedSize(5));
+                test.assertEqual(5L, entry.getCompressedSize());
+            });
+
+            runner.test("setLastModifiedDos(int,int)", (Test test) ->
+            {
+                final ZipArchiveEntry entry = ZipArchiveEntry.create("a");
+                test.assertSame(entry, entry.setLastModifiedDos(1, 2));
+                test.assertEqual(1, entry.getLastModifiedDosTime());
+                test.assertEqual(2, entry.getLastModifiedDosDate());
+            });
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package qub;
+
+public interface ZipArchiveTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ZipArchive.class, () ->
+        {
+            runner.testGroup("parse(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipArchive.parse(null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipArchive.parse(new byte[0]).await(),
+                        new ParseException("Missing zip end of central directory record."));
+                });
+
+                runner.test("with non-zip bytes", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipArchive.parse(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24 }).await(),
+                        new ParseException("Missing zip end of central directory record."));
+                });
+
+                runner.test("with archive created by ZipOutputStream", (Test test) ->
+                {
+                    final byte[] bytes = ZipArchiveTests.createZipBytes();
+                    final ZipArchive archive = ZipArchive.parse(bytes).await();
+                    test.assertEqual(
+                        Iterable.create("a/", "a/B.class", "C.txt"),
+                        archive.getEntries().map(ZipArchiveEntry::getName));
+
+                    final ZipArchiveEntry folderEntry = archive.getEntry("a/").await();
+                    test.assertTrue(folderEntry.isFolder());
+
+                    final ZipArchiveEntry bEntry = archive.getEntry("a/B.class").await();
+                    test.assertFalse(bEntry.isFolder());
+                    test.assertEqual(ZipArchiveEntry.deflatedMethod, bEntry.getMethod());
+                    test.assertEqual((long)"B contents".length(), bEntry.getUncompressedSize());
+                    final java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+                    crc.update("B contents".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                    test.assertEqual(crc.getValue(), bEntry.getCrc());
+
+                    test.assertThrows(() -> archive.getEntry("D.txt").await(),
+                        new NotFoundException("No entry named \"D.txt\" exists in the zip archive."));
+                });
+
+                runner.test("with zip64 archive created by ZipOutputStream", (Test test) ->
+                {
+                    // ZipOutputStream writes zip64 end of central directory records when an
+                    // archive has 65535 or more entries.
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    try (final java.util.zip.ZipOutputStream zipStream = new java.util.zip.ZipOutputStream(bytes))
+                    {
+                        for (int i = 0; i < 0x10000; ++i)
+                        {
+                            zipStream.putNextEntry(new java.util.zip.ZipEntry("f" + i + "/"));
+                            zipStream.closeEntry();
+                        }
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+
+                    final ZipArchive archive = ZipArchive.parse(bytes.toByteArray()).await();
+                    test.assertEqual(0x10000, archive.getEntries().getCount());
+                    test.assertTrue(archive.getEntry("f65535/").await().isFolder());
+                });
+            });
+
+            runner.testGroup("getContents(ZipArchiveEntry)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ZipArchive archive = ZipArchive.parse(ZipArchiveTests.createZipBytes()).await();
+                    test.assertThrows(() -> archive.getContents(null),
+                        new PreConditionFailure("entry cannot be null."));
+                });
+
+                runner.test("with folder entry", (Test test) ->
+                {
+                    final ZipArchive archive = ZipArchive.parse(ZipArchiveTests.createZipBytes()).await();
+                    test.assertEqual(0, archive.getContents(archive.getEntry("a/").await()).await().length);
+                });
+
+                runner.test("with deflated file entry", (Test test) ->
+                {
+                    final ZipArchive archive = ZipArchive.parse(ZipArchiveTests.createZipBytes()).await();
+                    test.assertEqual("B contents", new String(archive.getContents(archive.getEntry("a/B.class").await()).await(), java.nio.charset.StandardCharsets.UTF_8));
+                    test.assertEqual("C contents", new String(archive.getContents(archive.getEntry("C.txt").await()).await(), java.nio.charset.StandardCharsets.UTF_8));
+                });
+            });
+        });
+    }
+
+    /**
+     * Create the bytes of a zip archive that contains an "a/" folder entry, an "a/B.class" file
+     * entry and a "C.txt" file entry.
+     */
+    static byte[] createZipBytes()
+    {
+        final java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+        try (final java.util.zip.ZipOutputStream zipStream = new java.util.zip.ZipOutputStream(result))
+        {
+            zipStream.putNextEntry(new java.util.zip.ZipEntry("a/"));
+            zipStream.closeEntry();
+            zipStream.putNextEntry(new java.util.zip.ZipEntry("a/B.class"));
+            zipStream.write("B contents".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            zipStream.closeEntry();
+            zipStream.putNextEntry(new java.util.zip.ZipEntry("C.txt"));
+            zipStream.write("C contents".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            zipStream.closeEntry();
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Read the names and contents of the file entries in the provided zip archive bytes with the
+     * JDK's {@link java.util.zip.ZipInputStream}.
+     */
+    static MutableMap<String,String> readZipBytes(byte[] bytes)
+    {
+        final MutableMap<String,String> result = MutableMap.create();
+        try (final java.util.zip.ZipInputStream zipStream = new java.util.zip.ZipInputStream(new java.io.ByteArrayInputStream(bytes)))
+        {
+            java.util.zip.ZipEntry entry = zipStream.getNextEntry();
+            while (entry != null)
+            {
+                final java.io.ByteArrayOutputStream contents = new java.io.ByteArrayOutputStream();
+                final byte[] buffer = new byte[1024];
+                int bytesRead = zipStream.read(buffer, 0, buffer.length);
+                while (bytesRead != -1)
+                {
+                    contents.write(buffer, 0, bytesRead);
+                    bytesRead = zipStream.read(buffer, 0, buffer.length);
+                }
+                result.set(entry.getName(), new String(contents.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+                entry = zipStream.getNextEntry();
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package qub;
+
+public interface ZipArchiveWriterTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ZipArchiveWriter.class, () ->
+        {
+            runner.test("create(java.io.OutputStream)", (Test test) ->
+            {
+                test.assertThrows(() -> ZipArchiveWriter.create(null),
+                    new PreConditionFailure("outputStream cannot be null."));
+            });
+
+            runner.testGroup("getDosTime(java.time.LocalDateTime)", () ->
+            {
+                final Action2<java.time.LocalDateTime,Integer> getDosTimeTest = (java.time.LocalDateTime dateTime, Integer expected) ->
+                {
+                    runner.test("with " + dateTime, (Test test) ->
+                    {
+                        test.assertEqual(expected, ZipArchiveWriter.getDosTime(dateTime));
+                    });
+                };
+
+                getDosTimeTest.run(java.time.LocalDateTime.of(1970, 1, 1, 10, 20, 30), 0);
+                getDosTimeTest.run(java.time.LocalDateTime.of(1980, 1, 1, 0, 0, 0), 0);
+                getDosTimeTest.run(java.time.LocalDateTime.of(2020, 6, 15, 10, 20, 31), (10 << 11) | (20 << 5) | 15);
+            });
+
+            runner.testGroup("getDosDate(java.time.LocalDateTime)", () ->
+            {
+                final Action2<java.time.LocalDateTime,Integer> getDosDateTest = (java.time.LocalDateTime dateTime, Integer expected) ->
+                {
+                    runner.test("with " + dateTime, (Test test) ->
+                    {
+                        test.assertEqual(expected, ZipArchiveWriter.getDosDate(dateTime));
+                    });
+                };
+
+                getDosDateTest.run(java.time.LocalDateTime.of(1970, 1, 1, 10, 20, 30), (1 << 5) | 1);
+                getDosDateTest.run(java.time.LocalDateTime.of(1980, 1, 1, 0, 0, 0), (1 << 5) | 1);
+                getDosDateTest.run(java.time.LocalDateTime.of(2020, 6, 15, 10, 20, 31), (40 << 9) | (6 << 5) | 15);
+            });
+
+            runner.testGroup("setCompressionLevel(int)", () ->
+            {
+                runner.test("with -2", (Test test) ->
+                {
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(new java.io.ByteArrayOutputStream()))
+                    {
+                        test.assertThrows(() -> writer.setCompressionLevel(-2),
+                            new PreConditionFailure("compressionLevel (-2) must be between -1 and 9."));
+                        test.assertEqual(-1, writer.getCompressionLevel());
+                    }
+                });
+
+                runner.test("with 0", (Test test) ->
+                {
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(new java.io.ByteArrayOutputStream()))
+                    {
+                        test.assertSame(writer, writer.setCompressionLevel(0));
+                        test.assertEqual(0, writer.getCompressionLevel());
+                    }
+                });
+            });
+
+            runner.testGroup("addFolder(String)", () ->
+            {
+                runner.test("with name that doesn't end with '/'", (Test test) ->
+                {
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(new java.io.ByteArrayOutputStream()))
+                    {
+                        test.assertThrows(() -> writer.addFolder("a"),
+                            new PreConditionFailure("name.endsWith(\"/\") cannot be false."));
+                    }
+                });
+            });
+
+            runner.testGroup("addFile(String,byte[])", () ->
+            {
+                runner.test("with null contents", (Test test) ->
+                {
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(new java.io.ByteArrayOutputStream()))
+                    {
+                        test.assertThrows(() -> writer.addFile("a", null),
+                            new PreConditionFailure("contents cannot be null."));
+                    }
+                });
+
+                runner.test("with folder and files", (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(bytes))
+                    {
+                        writer.addFolder("a/").await();
+                        writer.addFile("a/B.class", "B contents".getBytes(java.nio.charset.StandardCharsets.UTF_8)).await();
+                        writer.addFile("C.txt", new byte[0]).await();
+                    }
+
+                    final ZipArchive archive = ZipArchive.parse(bytes.toByteArray()).await();
+                    test.assertEqual(
+                        Iterable.create("a/", "a/B.class", "C.txt"),
+                        archive.getEntries().map(ZipArchiveEntry::getName));
+
+                    final MutableMap<String,String> contents = ZipArchiveTests.readZipBytes(bytes.toByteArray());
+                    test.assertEqual("", contents.get("a/").await());
+                    test.assertEqual("B contents", contents.get("a/B.class").await());
+                    test.assertEqual("", contents.get("C.txt").await());
+                });
+            });
+
+            runner.testGroup("copyEntry(ZipArchive,ZipArchiveEntry)", () ->
+            {
+                runner.test("with entries from an archive created by ZipOutputStream", (Test test) ->
+                {
+                    final ZipArchive sourceArchive = ZipArchive.parse(ZipArchiveTests.createZipBytes()).await();
+
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(bytes))
+                    {
+                        writer.copyEntry(sourceArchive, sourceArchive.getEntry("a/B.class").await()).await();
+                        writer.addFile("C.txt", "new C contents".getBytes(java.nio.charset.StandardCharsets.UTF_8)).await();
+                    }
+
+                    final ZipArchive archive = ZipArchive.parse(bytes.toByteArray()).await();
+                    final ZipArchiveEntry sourceEntry = sourceArchive.getEntry("a/B.class").await();
+                    final ZipArchiveEntry copiedEntry = archive.getEntry("a/B.class").await();
+                    test.assertEqual(sourceEntry.getCrc(), copiedEntry.getCrc());
+                    test.assertEqual(sourceEntry.getCompressedSize(), copiedEntry.getCompressedSize());
+                    test.assertEqual(sourceEntry.getLastModifiedDosTime(), copiedEntry.getLastModifiedDosTime());
+                    test.assertEqual(sourceEntry.getLastModifiedDosDate(), copiedEntry.getLastModifiedDosDate());
+
+                    final MutableMap<String,String> contents = ZipArchiveTests.readZipBytes(bytes.toByteArray());
+                    test.assertEqual("B contents", contents.get("a/B.class").await());
+                    test.assertEqual("new C contents", contents.get("C.txt").await());
+                });
+            });
+
+            runner.testGroup("dispose()", () ->
+            {
+                runner.test("with no entries", (Test test) ->
+                {
+                    final ZipArchiveWriter writer = ZipArchiveWriter.create(new java.io.ByteArrayOutputStream());
+                    test.assertFalse(writer.isDisposed());
+                    test.assertTrue(writer.dispose().await());
+                    test.assertTrue(writer.isDisposed());
+                    test.assertFalse(writer.dispose().await());
+                });
+
+                runner.test("with 65535 or more entries", (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    try (final ZipArchiveWriter writer = ZipArchiveWriter.create(bytes))
+                    {
+                        for (int i = 0; i < 0x10000; ++i)
+                        {
+                            writer.addFolder("f" + i + "/").await();
+                        }
+                        writer.addFile("A.txt", "A contents".getBytes(java.nio.charset.StandardCharsets.UTF_8)).await();
+                    }
+
+                    // The entry count doesn't fit in the end of central directory record, so it is
+                    // only in the zip64 end of central directory record.
+                    final byte[] archiveBytes = bytes.toByteArray();
+                    final int endOfCentralDirectoryIndex = archiveBytes.length - ZipArchive.endOfCentralDirectorySize;
+                    test.assertEqual(0xFFFF, ZipArchive.readShort(archiveBytes, endOfCentralDirectoryIndex + 10));
+                    test.assertEqual(ZipArchive.zip64EndOfCentralDirectoryLocatorSignature,
+                        ZipArchive.readInt(archiveBytes, endOfCentralDirectoryIndex - ZipArchive.zip64EndOfCentralDirectoryLocatorSize));
+
+                    final ZipArchive archive = ZipArchive.parse(archiveBytes).await();
+                    test.assertEqual(0x10001, archive.getEntries().getCount());
+                    test.assertEqual("A contents", new String(archive.getContents(archive.getEntry("A.txt").await()).await(), java.nio.charset.StandardCharsets.UTF_8));
+
+                    final MutableMap<String,String> contents = ZipArchiveTests.readZipBytes(archiveBytes);
+                    test.assertEqual(0x10001, contents.getCount());
+                    test.assertEqual("A contents", contents.get("A.txt").await());
+                });
+            });
+        });
+    }
+}
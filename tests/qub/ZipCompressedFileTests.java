@@ -0,0 +1,74 @@
+package qub;
+
+public interface ZipCompressedFileTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ZipCompressedFile.class, () ->
+        {
+            runner.testGroup("compress(String,byte[],int)", () ->
+            {
+                runner.test("with null name", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipCompressedFile.compress(null, new byte[0], -1),
+                        new PreConditionFailure("name cannot be null."));
+                });
+
+                runner.test("with folder name", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipCompressedFile.compress("a/", new byte[0], -1),
+                        new PreConditionFailure("name.endsWith(\"/\") cannot be true."));
+                });
+
+                runner.test("with null contents", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipCompressedFile.compress("a", null, -1),
+                        new PreConditionFailure("contents cannot be null."));
+                });
+
+                runner.test("with 10 compressionLevel", (Test test) ->
+                {
+                    test.assertThrows(() -> ZipCompressedFile.compress("a", new byte[0], 10),
+                        new PreConditionFailure("compressionLevel (10) must be between -1 and 9."));
+                });
+
+                final Action1<Integer> compressTest = (Integer compressionLevel) ->
+                {
+                    runner.test("with " + compressionLevel + " compressionLevel", (Test test) ->
+                    {
+                        final byte[] contents = Strings.repeat("hello world ", 100).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                        final ZipCompressedFile compressedFile = ZipCompressedFile.compress("a/B.txt", contents, compressionLevel);
+                        test.assertEqual("a/B.txt", compressedFile.getName());
+                        test.assertEqual((long)contents.length, compressedFile.getUncompressedSize());
+
+                        final java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+                        crc.update(contents);
+                        test.assertEqual(crc.getValue(), compressedFile.getCrc());
+
+                        final java.util.zip.Inflater inflater = new java.util.zip.Inflater(true);
+                        try
+                        {
+                            inflater.setInput(compressedFile.getCompressedContents());
+                            final byte[] inflatedContents = new byte[contents.length];
+                            test.assertEqual(contents.length, inflater.inflate(inflatedContents));
+                            test.assertEqual(contents, inflatedContents);
+                        }
+                        catch (java.util.zip.DataFormatException e)
+                        {
+                            throw new RuntimeException(e);
+                        }
+                        finally
+                        {
+                            inflater.end();
+                        }
+                    });
+                };
+
+                compressTest.run(-1);
+                compressTest.run(0);
+                compressTest.run(1);
+                compressTest.run(9);
+            });
+        });
+    }
+}